@@ -0,0 +1,81 @@
+package com.yggdrasil.labs.common.context;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 请求级 SQL 统计：语句数、SQL 总耗时、查询返回行数。
+ *
+ * <p>由访问日志过滤器在请求开始时绑定到当前线程，由 MyBatis 拦截器在每条语句执行后累加，
+ * 请求结束时输出到访问日志。使用线程绑定的计数器而非 MDC 字符串，累加只是几次原子加法；
+ * 当前线程没有绑定时 {@link #record} 直接返回。</p>
+ *
+ * <p>只统计绑定线程上执行的 SQL；在其他线程上执行的 SQL 需自行 {@link #bind} 同一实例。</p>
+ */
+public final class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private final AtomicLong statements = new AtomicLong();
+
+    private final AtomicLong sqlNanos = new AtomicLong();
+
+    private final AtomicLong rows = new AtomicLong();
+
+    /**
+     * 当前线程绑定的统计，未绑定时为 null。
+     */
+    public static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 绑定到当前线程，传 null 时解除绑定。
+     *
+     * @return 之前绑定的统计，用于恢复
+     */
+    public static RequestSqlStats bind(RequestSqlStats stats) {
+        RequestSqlStats previous = CURRENT.get();
+        if (stats != null) {
+            CURRENT.set(stats);
+        } else {
+            CURRENT.remove();
+        }
+        return previous;
+    }
+
+    /**
+     * 累加一条语句到当前线程绑定的统计，未绑定时忽略。
+     *
+     * @param nanos 执行耗时（纳秒）
+     * @param rows  查询返回行数，非查询语句传 0
+     */
+    public static void record(long nanos, long rows) {
+        RequestSqlStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.add(nanos, rows);
+        }
+    }
+
+    /**
+     * 累加一条语句。
+     */
+    public void add(long nanos, long rows) {
+        statements.incrementAndGet();
+        sqlNanos.addAndGet(nanos);
+        if (rows > 0) {
+            this.rows.addAndGet(rows);
+        }
+    }
+
+    public long getStatementCount() {
+        return statements.get();
+    }
+
+    public long getSqlNanos() {
+        return sqlNanos.get();
+    }
+
+    public long getRows() {
+        return rows.get();
+    }
+}
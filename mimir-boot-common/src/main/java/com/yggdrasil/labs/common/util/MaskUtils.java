@@ -0,0 +1,50 @@
+package com.yggdrasil.labs.common.util;
+
+/**
+ * 敏感数据脱敏工具，提供手机号、身份证号、银行卡号、邮箱等常用脱敏策略。
+ *
+ * <p>供 SQL 参数脱敏（{@code @SensitiveField}）与日志参数脱敏共用，保证同一类数据在各处的脱敏结果一致。</p>
+ */
+public final class MaskUtils {
+
+    /** 默认替换字符 */
+    public static final String DEFAULT_REPLACEMENT = "******";
+
+    private MaskUtils() {
+    }
+
+    /**
+     * 手机号脱敏：保留前 3 位后 4 位。
+     */
+    public static String maskPhone(String phone) {
+        if (phone == null || phone.length() < 7) return DEFAULT_REPLACEMENT;
+        return phone.substring(0, 3) + "****" + phone.substring(phone.length() - 4);
+    }
+
+    /**
+     * 身份证号脱敏：保留前 6 位后 4 位。
+     */
+    public static String maskIdCard(String idCard) {
+        if (idCard == null || idCard.length() < 10) return DEFAULT_REPLACEMENT;
+        int len = idCard.length();
+        return idCard.substring(0, 6) + "********" + idCard.substring(len - 4);
+    }
+
+    /**
+     * 银行卡号脱敏：保留前 4 位后 4 位。
+     */
+    public static String maskBankCard(String card) {
+        if (card == null || card.length() < 8) return DEFAULT_REPLACEMENT;
+        return card.substring(0, 4) + "****" + card.substring(card.length() - 4);
+    }
+
+    /**
+     * 邮箱脱敏：保留首字符与域名。
+     */
+    public static String maskEmail(String email) {
+        if (email == null || !email.contains("@")) return DEFAULT_REPLACEMENT;
+        int atIndex = email.indexOf("@");
+        if (atIndex <= 1) return DEFAULT_REPLACEMENT;
+        return email.charAt(0) + "****" + email.substring(atIndex);
+    }
+}
@@ -0,0 +1,111 @@
+package com.yggdrasil.labs.log.appender;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import com.yggdrasil.labs.log.converter.SensitiveDataConverter;
+import com.yggdrasil.labs.log.mask.MaskedLoggingEvent;
+
+import java.util.Iterator;
+
+/**
+ * 脱敏 appender 装饰器
+ *
+ * <p>功能说明：</p>
+ * <ul>
+ * <li>将日志事件包装为 {@link MaskedLoggingEvent} 后分发给所有下游 appender</li>
+ * <li>每个事件只脱敏一次，下游 encoder 中的 {@code %mask} / {@code %msg} 直接复用脱敏结果</li>
+ * <li>MDC 值与异常消息（含 cause、suppressed）同样脱敏，堆栈帧不参与扫描</li>
+ * <li>脱敏延迟到首个下游 encoder 真正需要消息时执行，被下游全部过滤的事件不产生脱敏开销；
+ * 下游为异步 appender 时，在入队前（调用线程上）完成消息脱敏，避免异步线程读取已变化的参数</li>
+ * </ul>
+ *
+ * <p>配置示例：</p>
+ * <pre>{@code
+ * <appender name="MASK_ALL" class="com.yggdrasil.labs.log.appender.MaskingAppender">
+ *     <appender-ref ref="CONSOLE"/>
+ *     <appender-ref ref="ASYNC_FILE_INFO"/>
+ *     <appender-ref ref="ASYNC_FILE_ERROR"/>
+ * </appender>
+ * }</pre>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public class MaskingAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    private final AppenderAttachableImpl<ILoggingEvent> aai = new AppenderAttachableImpl<>();
+
+    private SensitiveDataConverter converter;
+
+    @Override
+    public void start() {
+        // 复用 %mask 转换器的规则加载逻辑，保证两种方式脱敏结果一致
+        converter = new SensitiveDataConverter();
+        converter.setContext(getContext());
+        converter.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        // 下游 appender 不再直接挂在 logger 上，需要由装饰器负责停止（重复停止是安全的）
+        Iterator<Appender<ILoggingEvent>> it = aai.iteratorForAppenders();
+        while (it.hasNext()) {
+            it.next().stop();
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (event instanceof MaskedLoggingEvent) {
+            aai.appendLoopOnAppenders(event);
+            return;
+        }
+        aai.appendLoopOnAppenders(new MaskedLoggingEvent(event, converter::convert,
+                converter::maskMdc, converter::maskThrowable));
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> newAppender) {
+        addInfo("Attaching appender named [" + newAppender.getName() + "] to MaskingAppender.");
+        aai.addAppender(newAppender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return aai.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return aai.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return aai.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        aai.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return aai.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return aai.detachAppender(name);
+    }
+}
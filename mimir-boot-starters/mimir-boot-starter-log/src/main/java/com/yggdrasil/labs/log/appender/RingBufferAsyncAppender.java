@@ -0,0 +1,378 @@
+package com.yggdrasil.labs.log.appender;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import com.yggdrasil.labs.log.async.OverflowPolicy;
+import com.yggdrasil.labs.log.async.RingBuffer;
+import com.yggdrasil.labs.log.async.WaitStrategy;
+import com.yggdrasil.labs.log.metrics.AsyncAppenderMetrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 基于无锁环形队列的异步 appender
+ *
+ * <p>可直接替换 {@link ch.qos.logback.classic.AsyncAppender}：</p>
+ * <ul>
+ * <li>队列为预分配的多生产者单消费者环形队列（{@link RingBuffer}），入队只有一次 CAS，突发流量下请求线程不会在队列锁上排队</li>
+ * <li>队列已满时按溢出策略处理：{@code block} 等待（默认，不丢日志）、{@code drop_below_warn} 丢弃 WARN 以下、
+ * {@code sample} WARN 以下按比例抽样保留</li>
+ * <li>消费者与等待中的生产者按等待策略自旋 / 让出 / 挂起；消费者挂起时由生产者唤醒</li>
+ * <li>下游文件 appender 关闭 immediateFlush 时（批量写入），按 {@code flushIntervalMillis} 定时刷新，
+ * 处理到 {@code flushLevel}（默认 ERROR）及以上级别的事件后立即刷新</li>
+ * <li>队列深度、生产者等待耗时、丢弃条数见 {@link AsyncAppenderMetrics}</li>
+ * </ul>
+ *
+ * <p>配置示例：</p>
+ * <pre>{@code
+ * <appender name="ASYNC_FILE_INFO" class="com.yggdrasil.labs.log.appender.RingBufferAsyncAppender">
+ *     <queueSize>8192</queueSize>
+ *     <overflowPolicy>block</overflowPolicy>
+ *     <waitStrategy>blocking</waitStrategy>
+ *     <flushIntervalMillis>200</flushIntervalMillis>
+ *     <appender-ref ref="FILE_INFO"/>
+ * </appender>
+ * }</pre>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public class RingBufferAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    /** 默认队列容量 */
+    public static final int DEFAULT_QUEUE_SIZE = 8192;
+
+    /** 默认刷新间隔（毫秒） */
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 200;
+
+    /** 消费者每批最多处理的事件数，批间检查停止信号与刷新 */
+    private static final int DRAIN_BATCH = 256;
+
+    /** 等待中的生产者每次挂起的时长 */
+    private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AppenderAttachableImpl<ILoggingEvent> aai = new AppenderAttachableImpl<>();
+
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    private WaitStrategy waitStrategy = WaitStrategy.BLOCKING;
+
+    private int sampleRate = 10;
+
+    private long flushIntervalMillis = DEFAULT_FLUSH_INTERVAL_MILLIS;
+
+    private Level flushLevel = Level.ERROR;
+
+    private long maxFlushTimeMillis = 1000;
+
+    private boolean includeCallerData = false;
+
+    private RingBuffer<ILoggingEvent> buffer;
+
+    private AsyncAppenderMetrics metrics;
+
+    private final AtomicLong overflowCount = new AtomicLong();
+
+    private volatile boolean running;
+
+    /** 消费者是否已挂起（生产者据此决定是否唤醒） */
+    private volatile boolean workerParked;
+
+    private Thread worker;
+
+    /** 本批处理到了需要立即刷新的事件（只在消费者线程读写） */
+    private boolean urgentFlush;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (!aai.iteratorForAppenders().hasNext()) {
+            addError("No attached appenders found for [" + getName() + "].");
+            return;
+        }
+        if (queueSize < 1) {
+            addError("Invalid queue size [" + queueSize + "]");
+            return;
+        }
+        buffer = new RingBuffer<>(queueSize);
+        metrics = AsyncAppenderMetrics.of(getName() != null ? getName() : "async");
+        RingBuffer<ILoggingEvent> queue = buffer;
+        metrics.bind(queue::size, queue.capacity());
+
+        running = true;
+        worker = new Thread(this::runWorker, "RingBufferAsyncAppender-Worker-" + getName());
+        worker.setDaemon(true);
+        super.start();
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(maxFlushTimeMillis);
+            if (worker.isAlive()) {
+                addWarn("Max queue flush timeout (" + maxFlushTimeMillis + " ms) exceeded. "
+                        + buffer.size() + " queued events were possibly discarded.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            addError("Failed to join worker thread. " + buffer.size() + " queued events may be discarded.", e);
+        }
+        metrics.unbind();
+        // 与 AsyncAppender 一致：下游 appender 由异步 appender 负责停止
+        Iterator<Appender<ILoggingEvent>> it = aai.iteratorForAppenders();
+        while (it.hasNext()) {
+            it.next().stop();
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // 与 AsyncAppender 一致：在调用线程上冻结消息、MDC 与调用者信息
+        event.prepareForDeferredProcessing();
+        if (includeCallerData) {
+            event.getCallerData();
+        }
+
+        if (!buffer.offer(event) && !overflow(event)) {
+            metrics.recordDrop();
+            return;
+        }
+        if (workerParked) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /**
+     * 队列已满时按溢出策略处理
+     *
+     * @return 最终入队返回 true，丢弃返回 false
+     */
+    private boolean overflow(ILoggingEvent event) {
+        boolean belowWarn = !event.getLevel().isGreaterOrEqual(Level.WARN);
+        if (belowWarn && overflowPolicy == OverflowPolicy.DROP_BELOW_WARN) {
+            return false;
+        }
+        if (belowWarn && overflowPolicy == OverflowPolicy.SAMPLE
+                && overflowCount.incrementAndGet() % Math.max(1, sampleRate) != 0) {
+            return false;
+        }
+
+        long start = System.nanoTime();
+        int attempt = 0;
+        try {
+            while (!buffer.offer(event)) {
+                if (!running) {
+                    return false;
+                }
+                if (workerParked) {
+                    LockSupport.unpark(worker);
+                }
+                waitStrategy.await(attempt++, PRODUCER_PARK_NANOS);
+            }
+            return true;
+        } finally {
+            metrics.recordWait(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 消费者循环：批量取出事件分发给下游，空闲时按等待策略等待并刷新下游
+     */
+    private void runWorker() {
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMillis));
+        long lastFlush = System.nanoTime();
+        boolean dirty = false;
+        int idle = 0;
+        while (running || !buffer.isEmpty()) {
+            if (buffer.drain(this::dispatch, DRAIN_BATCH) > 0) {
+                dirty = true;
+                idle = 0;
+                // 持续有日志时队列不会空闲，批间同样检查刷新时机
+                if (urgentFlush || System.nanoTime() - lastFlush >= flushIntervalNanos) {
+                    flush();
+                    lastFlush = System.nanoTime();
+                    dirty = false;
+                    urgentFlush = false;
+                }
+                continue;
+            }
+            if (dirty && System.nanoTime() - lastFlush >= flushIntervalNanos) {
+                flush();
+                lastFlush = System.nanoTime();
+                dirty = false;
+            }
+            if (waitStrategy.parks(idle)) {
+                workerParked = true;
+                // 先发布挂起标记再检查队列，与生产者"先入队再检查标记"配对，不会错过唤醒
+                if (running && buffer.isEmpty()) {
+                    LockSupport.parkNanos(this, flushIntervalNanos);
+                }
+                workerParked = false;
+            } else {
+                waitStrategy.await(idle, flushIntervalNanos);
+            }
+            idle++;
+        }
+        flush();
+    }
+
+    private void dispatch(ILoggingEvent event) {
+        aai.appendLoopOnAppenders(event);
+        if (event.getLevel().isGreaterOrEqual(flushLevel)) {
+            urgentFlush = true;
+        }
+    }
+
+    /**
+     * 刷新关闭了 immediateFlush 的下游 appender（只在消费者线程调用，与写入在同一线程）
+     */
+    private void flush() {
+        Iterator<Appender<ILoggingEvent>> it = aai.iteratorForAppenders();
+        while (it.hasNext()) {
+            if (it.next() instanceof OutputStreamAppender<ILoggingEvent> appender
+                    && !appender.isImmediateFlush() && appender.isStarted()) {
+                OutputStream out = appender.getOutputStream();
+                if (out == null) {
+                    continue;
+                }
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    addWarn("Failed to flush appender [" + appender.getName() + "]", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 当前队列深度
+     */
+    public int getQueueDepth() {
+        return buffer != null ? buffer.size() : 0;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public String getOverflowPolicy() {
+        return overflowPolicy.name();
+    }
+
+    public void setOverflowPolicy(String overflowPolicy) {
+        this.overflowPolicy = OverflowPolicy.fromName(overflowPolicy);
+    }
+
+    public String getWaitStrategy() {
+        return waitStrategy.name();
+    }
+
+    public void setWaitStrategy(String waitStrategy) {
+        this.waitStrategy = WaitStrategy.fromName(waitStrategy);
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public String getFlushLevel() {
+        return flushLevel.levelStr;
+    }
+
+    /**
+     * 处理到该级别及以上的事件后立即刷新下游（默认：ERROR）
+     */
+    public void setFlushLevel(String flushLevel) {
+        this.flushLevel = Level.toLevel(flushLevel, Level.ERROR);
+    }
+
+    public long getMaxFlushTimeMillis() {
+        return maxFlushTimeMillis;
+    }
+
+    public void setMaxFlushTimeMillis(long maxFlushTimeMillis) {
+        this.maxFlushTimeMillis = maxFlushTimeMillis;
+    }
+
+    public boolean isIncludeCallerData() {
+        return includeCallerData;
+    }
+
+    public void setIncludeCallerData(boolean includeCallerData) {
+        this.includeCallerData = includeCallerData;
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> newAppender) {
+        addInfo("Attaching appender named [" + newAppender.getName() + "] to RingBufferAsyncAppender.");
+        aai.addAppender(newAppender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return aai.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return aai.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return aai.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        aai.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return aai.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return aai.detachAppender(name);
+    }
+}
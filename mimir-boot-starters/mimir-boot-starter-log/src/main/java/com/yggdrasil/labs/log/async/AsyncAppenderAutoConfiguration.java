@@ -0,0 +1,43 @@
+package com.yggdrasil.labs.log.async;
+
+import ch.qos.logback.classic.LoggerContext;
+import com.yggdrasil.labs.log.metrics.AsyncAppenderMetricsBinder;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 异步日志自动配置
+ *
+ * <p>功能说明：</p>
+ * <ul>
+ * <li>注册 {@code mimir.boot.log.async.*} 配置属性（由 {@code logback-spring.xml} 读取）</li>
+ * <li>存在 Micrometer 时注册 {@link AsyncAppenderMetricsBinder}，导出队列深度、生产者等待与丢弃指标</li>
+ * </ul>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+@AutoConfiguration
+@ConditionalOnClass(LoggerContext.class)
+@EnableConfigurationProperties(LogAsyncProperties.class)
+public class AsyncAppenderAutoConfiguration {
+
+    /**
+     * Micrometer 支持
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterBinder.class)
+    static class AsyncAppenderMicrometerConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public AsyncAppenderMetricsBinder asyncAppenderMetricsBinder() {
+            return new AsyncAppenderMetricsBinder();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.yggdrasil.labs.log.async;
+
+import com.yggdrasil.labs.log.appender.RingBufferAsyncAppender;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 异步日志配置属性
+ *
+ * <p>由 {@code logback-spring.xml} 通过 {@code <springProperty>} 读取，作用于内置的
+ * {@link RingBufferAsyncAppender}（ASYNC_FILE_INFO、ASYNC_FILE_ERROR、ASYNC_FILE_ACCESS、ASYNC_FILE_SQL）。
+ * 修改后需重新初始化日志系统（重启应用）生效。下游文件的刷新间隔见 {@code mimir.boot.log.file.flush-interval-millis}。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+@ConfigurationProperties(prefix = LogAsyncProperties.PREFIX)
+public class LogAsyncProperties {
+
+    public static final String PREFIX = "mimir.boot.log.async";
+
+    /**
+     * 环形队列容量（默认：8192），向上取整为 2 的幂
+     */
+    private int queueSize = RingBufferAsyncAppender.DEFAULT_QUEUE_SIZE;
+
+    /**
+     * 队列已满时的处理方式（默认：block）
+     * block：等待，不丢日志；drop_below_warn：丢弃 WARN 以下；sample：WARN 以下按 sampleRate 抽样保留
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    /**
+     * sample 策略下每 N 条溢出日志保留 1 条（默认：10）
+     */
+    private int sampleRate = 10;
+
+    /**
+     * 等待策略（默认：blocking）
+     * busy_spin：忙等，延迟最低但独占 CPU；yielding：自旋后让出 CPU；blocking：自旋、让出后挂起
+     */
+    private WaitStrategy waitStrategy = WaitStrategy.BLOCKING;
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+}
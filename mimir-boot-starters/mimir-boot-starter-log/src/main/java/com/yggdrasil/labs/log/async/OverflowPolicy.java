@@ -0,0 +1,34 @@
+package com.yggdrasil.labs.log.async;
+
+/**
+ * 异步队列已满时的处理方式
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public enum OverflowPolicy {
+
+    /** 生产者按等待策略等待，直到队列有空位（默认，不丢日志） */
+    BLOCK,
+
+    /** 丢弃 WARN 以下级别的日志，WARN 及以上等待 */
+    DROP_BELOW_WARN,
+
+    /** WARN 以下级别的日志按 sampleRate 抽样保留（每 N 条等待 1 条，其余丢弃），WARN 及以上等待 */
+    SAMPLE;
+
+    /**
+     * 按名称解析（大小写不敏感，支持 drop-below-warn 写法），无法识别时返回 {@link #BLOCK}
+     */
+    public static OverflowPolicy fromName(String name) {
+        if (name != null) {
+            String normalized = name.trim().replace('-', '_');
+            for (OverflowPolicy policy : values()) {
+                if (policy.name().equalsIgnoreCase(normalized)) {
+                    return policy;
+                }
+            }
+        }
+        return BLOCK;
+    }
+}
@@ -0,0 +1,144 @@
+package com.yggdrasil.labs.log.async;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 预分配的无锁多生产者单消费者环形队列
+ *
+ * <p>容量向上取整为 2 的幂（至少为 2），槽位数组在构造时一次分配。每个槽位带一个序号（Vyukov 有界队列）：</p>
+ * <ul>
+ * <li>生产者通过 CAS 推进写指针抢占槽位，写入元素后发布序号，不加锁、不分配节点对象</li>
+ * <li>消费者只有一个，读指针无需 CAS；取出后把序号推进一圈，释放槽位给下一轮生产者</li>
+ * <li>队列满时 {@link #offer(Object)} 立即返回 false，由调用方决定等待还是丢弃</li>
+ * </ul>
+ *
+ * @param <E> 元素类型
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class RingBuffer<E> {
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final AtomicReferenceArray<E> elements;
+
+    /** 槽位序号：等于写位置时可写，等于写位置 + 1 时可读 */
+    private final AtomicLongArray sequences;
+
+    /** 写指针（多生产者） */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** 读指针（单消费者写入，其他线程只读） */
+    private volatile long head;
+
+    public RingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + requestedCapacity);
+        }
+        // 容量为 1 时"可读"与下一轮"可写"的序号相同，无法区分
+        this.capacity = Math.max(2, ceilingPowerOfTwo(requestedCapacity));
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 入队（可由多个线程并发调用）
+     *
+     * @param element 元素
+     * @return 队列已满时返回 false
+     */
+    public boolean offer(E element) {
+        long position = tail.get();
+        int index;
+        while (true) {
+            index = (int) position & mask;
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                // 槽位仍被上一轮占用：队列已满
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+        elements.lazySet(index, element);
+        // 序号的 volatile 写保证消费者看到元素
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    /**
+     * 出队（只能由消费者线程调用）
+     *
+     * @return 队首元素；队列为空时返回 null
+     */
+    public E poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E element = elements.get(index);
+        elements.lazySet(index, null);
+        sequences.set(index, position + capacity);
+        head = position + 1;
+        return element;
+    }
+
+    /**
+     * 批量出队（只能由消费者线程调用）
+     *
+     * @param consumer 元素处理函数
+     * @param limit    本次最多处理的元素数
+     * @return 实际处理的元素数
+     */
+    public int drain(Consumer<? super E> consumer, int limit) {
+        int count = 0;
+        E element;
+        while (count < limit && (element = poll()) != null) {
+            consumer.accept(element);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 当前元素数（并发下为近似值）
+     */
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(capacity, size));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        int highest = Integer.highestOneBit(value);
+        if (highest == value) {
+            return value;
+        }
+        if (highest >= 1 << 30) {
+            throw new IllegalArgumentException("capacity too large: " + value);
+        }
+        return highest << 1;
+    }
+}
@@ -0,0 +1,72 @@
+package com.yggdrasil.labs.log.async;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 环形队列等待策略
+ *
+ * <p>同时用于消费者（队列为空）和生产者（队列已满且溢出策略要求等待）：</p>
+ * <ul>
+ * <li>{@link #BUSY_SPIN}：持续自旋，延迟最低，但空闲时消费者独占一个 CPU</li>
+ * <li>{@link #YIELDING}：自旋若干次后让出 CPU</li>
+ * <li>{@link #BLOCKING}：自旋、让出后挂起（默认）；消费者挂起时由生产者唤醒，空闲时几乎不占 CPU</li>
+ * </ul>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public enum WaitStrategy {
+
+    /** 忙等 */
+    BUSY_SPIN,
+
+    /** 自旋后让出 CPU */
+    YIELDING,
+
+    /** 自旋、让出后挂起 */
+    BLOCKING;
+
+    /** 自旋次数 */
+    static final int SPIN_TRIES = 100;
+
+    /** 自旋 + 让出次数，之后 {@link #BLOCKING} 开始挂起 */
+    static final int YIELD_TRIES = 200;
+
+    /**
+     * 等待一轮
+     *
+     * @param attempt   连续等待的次数（从 0 开始）
+     * @param parkNanos 需要挂起时的挂起时长
+     */
+    public void await(int attempt, long parkNanos) {
+        if (this == BUSY_SPIN || attempt < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (this == YIELDING || attempt < YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(this, parkNanos);
+        }
+    }
+
+    /**
+     * 本轮等待是否会挂起线程
+     */
+    public boolean parks(int attempt) {
+        return this == BLOCKING && attempt >= YIELD_TRIES;
+    }
+
+    /**
+     * 按名称解析（大小写不敏感，支持 busy-spin 写法），无法识别时返回 {@link #BLOCKING}
+     */
+    public static WaitStrategy fromName(String name) {
+        if (name != null) {
+            String normalized = name.trim().replace('-', '_');
+            for (WaitStrategy strategy : values()) {
+                if (strategy.name().equalsIgnoreCase(normalized)) {
+                    return strategy;
+                }
+            }
+        }
+        return BLOCKING;
+    }
+}
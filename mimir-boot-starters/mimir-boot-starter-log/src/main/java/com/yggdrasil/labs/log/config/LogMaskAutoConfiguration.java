@@ -6,8 +6,14 @@ import com.yggdrasil.labs.log.converter.SensitiveDataConverter;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
 
 /**
  * 日志脱敏自动配置
@@ -17,6 +23,7 @@ import org.springframework.context.event.EventListener;
  * <li>自动注册敏感信息脱敏转换器</li>
  * <li>支持通过配置文件自定义脱敏规则</li>
  * <li>提供日志脱敏的开关控制</li>
+ * <li>存在 Spring Cloud Context 时，配置中心刷新后热更新脱敏规则</li>
  * </ul>
  *
  * @author Yggdrasil Labs
@@ -41,29 +48,115 @@ public class LogMaskAutoConfiguration {
      */
     @EventListener(ContextRefreshedEvent.class)
     public void transferConfig(ContextRefreshedEvent event) {
-        // 将配置传递给 Logback context
+        transfer(properties);
+    }
+
+    /**
+     * 将配置写入 Logback context 并重新编译脱敏规则快照
+     * <p>
+     * 列表为空时写入空字符串，覆盖上一次刷新写入的值
+     */
+    static void transfer(LogMaskProperties properties) {
         LoggerContext loggerContext = (LoggerContext) org.slf4j.LoggerFactory.getILoggerFactory();
 
-        if (properties.getEnabledPatterns() != null && !properties.getEnabledPatterns().isEmpty()) {
+        loggerContext.putProperty(
+                SensitiveDataConverter.MASK_ENABLED_PATTERNS_PROPERTY,
+                join(properties.getEnabledPatterns())
+        );
+
+        loggerContext.putProperty(
+                SensitiveDataConverter.MASK_CUSTOM_PATTERNS_PROPERTY,
+                join(properties.getCustomPatterns())
+        );
+
+        if (properties.getReplacement() != null) {
             loggerContext.putProperty(
-                    SensitiveDataConverter.MASK_ENABLED_PATTERNS_PROPERTY,
-                    String.join(",", properties.getEnabledPatterns())
+                    SensitiveDataConverter.MASK_REPLACEMENT_PROPERTY,
+                    properties.getReplacement()
             );
         }
 
-        if (properties.getCustomPatterns() != null && !properties.getCustomPatterns().isEmpty()) {
+        if (properties.getMode() != null) {
             loggerContext.putProperty(
-                    SensitiveDataConverter.MASK_CUSTOM_PATTERNS_PROPERTY,
-                    String.join(",", properties.getCustomPatterns())
+                    SensitiveDataConverter.MASK_MODE_PROPERTY,
+                    properties.getMode().name()
             );
         }
 
-        if (properties.getReplacement() != null) {
+        loggerContext.putProperty(
+                SensitiveDataConverter.MASK_MAX_SCAN_CHARS_PROPERTY,
+                String.valueOf(properties.getMaxScanChars())
+        );
+        loggerContext.putProperty(
+                SensitiveDataConverter.MASK_MAX_SCAN_NANOS_PROPERTY,
+                String.valueOf(properties.getMaxScanNanos())
+        );
+        if (properties.getOverflowAction() != null) {
             loggerContext.putProperty(
-                    SensitiveDataConverter.MASK_REPLACEMENT_PROPERTY,
-                    properties.getReplacement()
+                    SensitiveDataConverter.MASK_OVERFLOW_ACTION_PROPERTY,
+                    properties.getOverflowAction().name()
             );
         }
+
+        loggerContext.putProperty(
+                SensitiveDataConverter.MASK_DEFAULT_ENABLED_PROPERTY,
+                String.valueOf(properties.isDefaultEnabled())
+        );
+        transferPolicies(loggerContext, properties.getPolicies());
+
+        // 在当前（配置）线程编译新规则并原子替换，日志线程不受影响
+        SensitiveDataConverter.reloadConfig();
     }
-}
 
+    /**
+     * 策略按下标展开为扁平属性，数量单独写入；下标超出数量的旧值不再读取
+     */
+    private static void transferPolicies(LoggerContext loggerContext, List<LogMaskProperties.Policy> policies) {
+        List<LogMaskProperties.Policy> list = policies != null ? policies : List.of();
+        for (int i = 0; i < list.size(); i++) {
+            LogMaskProperties.Policy policy = list.get(i);
+            loggerContext.putProperty(SensitiveDataConverter.policyKey(i, "loggers"), join(policy.getLoggers()));
+            loggerContext.putProperty(SensitiveDataConverter.policyKey(i, "markers"), join(policy.getMarkers()));
+            loggerContext.putProperty(SensitiveDataConverter.policyKey(i, "enabledPatterns"),
+                    join(policy.getEnabledPatterns()));
+            loggerContext.putProperty(SensitiveDataConverter.policyKey(i, "enabled"),
+                    String.valueOf(policy.isEnabled()));
+        }
+        loggerContext.putProperty(SensitiveDataConverter.MASK_POLICY_COUNT_PROPERTY, String.valueOf(list.size()));
+    }
+
+    private static String join(List<String> values) {
+        return values == null ? "" : String.join(",", values);
+    }
+
+    /**
+     * 配置中心刷新支持
+     *
+     * <p>存在 Spring Cloud Context 时，监听 {@link EnvironmentChangeEvent}（如 Nacos 配置变更），
+     * 变更涉及 {@code mimir.boot.log.mask.*} 时从 Environment 重新绑定配置并发布新的规则快照。</p>
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(EnvironmentChangeEvent.class)
+    static class LogMaskRefreshConfiguration {
+
+        private final Environment environment;
+
+        LogMaskRefreshConfiguration(Environment environment) {
+            this.environment = environment;
+        }
+
+        @EventListener(EnvironmentChangeEvent.class)
+        public void onEnvironmentChange(EnvironmentChangeEvent event) {
+            boolean maskChanged = event.getKeys().stream()
+                    .anyMatch(key -> key.startsWith(LogMaskProperties.PREFIX));
+            if (!maskChanged) {
+                return;
+            }
+            // 直接从 Environment 绑定，不依赖 @ConfigurationProperties 重新绑定的先后顺序
+            LogMaskProperties refreshed = Binder.get(environment)
+                    .bind(LogMaskProperties.PREFIX, LogMaskProperties.class)
+                    .orElseGet(LogMaskProperties::new);
+            transfer(refreshed);
+        }
+    }
+}
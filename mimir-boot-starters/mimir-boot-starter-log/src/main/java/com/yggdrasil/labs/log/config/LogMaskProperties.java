@@ -1,5 +1,8 @@
 package com.yggdrasil.labs.log.config;
 
+import com.yggdrasil.labs.log.converter.SensitiveDataConverter;
+import com.yggdrasil.labs.log.mask.MaskMode;
+import com.yggdrasil.labs.log.mask.OverflowAction;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import java.util.ArrayList;
@@ -13,12 +16,15 @@ import java.util.List;
  * @author Yggdrasil Labs
  * @since 1.0.0
  */
-@ConfigurationProperties(prefix = "mimir.boot.log.mask")
+@ConfigurationProperties(prefix = LogMaskProperties.PREFIX)
 public class LogMaskProperties {
 
+    public static final String PREFIX = "mimir.boot.log.mask";
+
     /**
      * 启用的预置脱敏规则（按名称）
-     * 可用值：password, token, secret, api_key, account, id_card, phone, bank_card, email, name, id_card_number, phone_number, bank_card_number, email_address
+     * 可用值：password, token, secret, api_key, account, id_card, phone, bank_card, email, name, id_card_number, phone_number, bank_card_number, email_address,
+     * id_card_checked, bank_card_checked, phone_checked（带校验的号码识别，推荐替代 *_number）
      */
     private List<String> enabledPatterns = new ArrayList<>();
 
@@ -33,6 +39,48 @@ public class LogMaskProperties {
      */
     private String replacement = "******";
 
+    /**
+     * 脱敏模式（默认：message）
+     * message：对格式化后的整条消息脱敏；argument：仅对日志参数脱敏，按占位符前的键名选择脱敏策略
+     */
+    private MaskMode mode = MaskMode.MESSAGE;
+
+    /**
+     * 单条消息最多扫描的字符数（默认：0 不限制）
+     * 超出部分按 overflowAction 处理（截断或整体替换），开启前确认可以接受超大消息被截断
+     */
+    private int maxScanChars = SensitiveDataConverter.DEFAULT_MAX_SCAN_CHARS;
+
+    /**
+     * 单条消息最长扫描耗时（纳秒，默认：0 不限制）
+     * 超时后在当前位置停止扫描，按 overflowAction 处理
+     */
+    private long maxScanNanos = 0;
+
+    /**
+     * 超出扫描预算时的处理方式（默认：truncate）
+     * truncate：保留已脱敏的前缀；redact：整条消息替换为替换字符
+     */
+    private OverflowAction overflowAction = OverflowAction.TRUNCATE;
+
+    /**
+     * 是否注册脱敏指标 JMX MBean（默认：true）
+     * MBean 名称：com.yggdrasil.labs.log:type=MaskMetrics
+     */
+    private boolean jmxEnabled = true;
+
+    /**
+     * 未命中任何策略的 logger 是否脱敏（默认：true）
+     * 设为 false 时只对 policies 中列出的 logger / marker 脱敏
+     */
+    private boolean defaultEnabled = true;
+
+    /**
+     * logger / marker 脱敏策略
+     * logger 按包名前缀匹配，多个策略命中时取最长前缀；marker 策略优先于 logger 策略
+     */
+    private List<Policy> policies = new ArrayList<>();
+
     public List<String> getEnabledPatterns() {
         return enabledPatterns;
     }
@@ -56,5 +104,118 @@ public class LogMaskProperties {
     public void setReplacement(String replacement) {
         this.replacement = replacement;
     }
-}
 
+    public MaskMode getMode() {
+        return mode;
+    }
+
+    public void setMode(MaskMode mode) {
+        this.mode = mode;
+    }
+
+    public int getMaxScanChars() {
+        return maxScanChars;
+    }
+
+    public void setMaxScanChars(int maxScanChars) {
+        this.maxScanChars = maxScanChars;
+    }
+
+    public long getMaxScanNanos() {
+        return maxScanNanos;
+    }
+
+    public void setMaxScanNanos(long maxScanNanos) {
+        this.maxScanNanos = maxScanNanos;
+    }
+
+    public OverflowAction getOverflowAction() {
+        return overflowAction;
+    }
+
+    public void setOverflowAction(OverflowAction overflowAction) {
+        this.overflowAction = overflowAction;
+    }
+
+    public boolean isJmxEnabled() {
+        return jmxEnabled;
+    }
+
+    public void setJmxEnabled(boolean jmxEnabled) {
+        this.jmxEnabled = jmxEnabled;
+    }
+
+    public boolean isDefaultEnabled() {
+        return defaultEnabled;
+    }
+
+    public void setDefaultEnabled(boolean defaultEnabled) {
+        this.defaultEnabled = defaultEnabled;
+    }
+
+    public List<Policy> getPolicies() {
+        return policies;
+    }
+
+    public void setPolicies(List<Policy> policies) {
+        this.policies = policies;
+    }
+
+    /**
+     * logger / marker 脱敏策略
+     */
+    public static class Policy {
+
+        /**
+         * logger 名称前缀（如 access.log、SQL.JSON、org.springframework）
+         */
+        private List<String> loggers = new ArrayList<>();
+
+        /**
+         * marker 名称
+         */
+        private List<String> markers = new ArrayList<>();
+
+        /**
+         * 启用的预置脱敏规则，all 表示全部预置规则；为空时沿用全局 enabledPatterns
+         */
+        private List<String> enabledPatterns = new ArrayList<>();
+
+        /**
+         * 是否脱敏（默认：true），false 时命中的日志跳过脱敏
+         */
+        private boolean enabled = true;
+
+        public List<String> getLoggers() {
+            return loggers;
+        }
+
+        public void setLoggers(List<String> loggers) {
+            this.loggers = loggers;
+        }
+
+        public List<String> getMarkers() {
+            return markers;
+        }
+
+        public void setMarkers(List<String> markers) {
+            this.markers = markers;
+        }
+
+        public List<String> getEnabledPatterns() {
+            return enabledPatterns;
+        }
+
+        public void setEnabledPatterns(List<String> enabledPatterns) {
+            this.enabledPatterns = enabledPatterns;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+}
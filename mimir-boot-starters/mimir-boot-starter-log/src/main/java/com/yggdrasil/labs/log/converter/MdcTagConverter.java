@@ -0,0 +1,75 @@
+package com.yggdrasil.labs.log.converter;
+
+import ch.qos.logback.classic.pattern.ClassicConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.Map;
+
+/**
+ * MDC 标签转换器
+ *
+ * <p>读取一次 MDC 值，存在时输出 {@code [值] }，不存在时输出空串，用于替代
+ * {@code %replace(%X{traceId}){'^(.+)$','[$1] '}}：</p>
+ * <ul>
+ * <li>不经过正则，也不先把 MDC 值渲染成中间字符串</li>
+ * <li>值不存在时返回常量空串，不分配对象</li>
+ * <li>缓存最近一次的值与结果，同一请求内连续的日志直接复用，不重复拼接</li>
+ * </ul>
+ *
+ * <p>MDC 键可通过选项覆盖，如 {@code %traceTag{X-B3-TraceId}}。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public abstract class MdcTagConverter extends ClassicConverter {
+
+    private final String defaultKey;
+
+    private String key;
+
+    /** 最近一次的值与结果（不可变，整体替换） */
+    private volatile Tag last;
+
+    protected MdcTagConverter(String defaultKey) {
+        this.defaultKey = defaultKey;
+        this.key = defaultKey;
+    }
+
+    @Override
+    public void start() {
+        String option = getFirstOption();
+        key = option != null && !option.isBlank() ? option.trim() : defaultKey;
+        super.start();
+    }
+
+    @Override
+    public String convert(ILoggingEvent event) {
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        String value = mdc != null ? mdc.get(key) : null;
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        Tag tag = last;
+        if (tag != null && (tag.value == value || tag.value.equals(value))) {
+            return tag.text;
+        }
+        tag = new Tag(value, "[" + value + "] ");
+        last = tag;
+        return tag.text;
+    }
+
+    /**
+     * MDC 值与对应的输出
+     */
+    private static final class Tag {
+
+        private final String value;
+
+        private final String text;
+
+        private Tag(String value, String text) {
+            this.value = value;
+            this.text = text;
+        }
+    }
+}
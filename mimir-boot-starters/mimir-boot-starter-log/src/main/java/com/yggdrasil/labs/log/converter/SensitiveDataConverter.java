@@ -2,9 +2,31 @@ package com.yggdrasil.labs.log.converter;
 
 import ch.qos.logback.classic.pattern.ClassicConverter;
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.core.Context;
+import com.yggdrasil.labs.log.mask.ArgumentMasker;
+import com.yggdrasil.labs.log.mask.DigitRunDetector;
+import com.yggdrasil.labs.log.mask.MaskBudget;
+import com.yggdrasil.labs.log.mask.MaskEngine;
+import com.yggdrasil.labs.log.mask.MaskMode;
+import com.yggdrasil.labs.log.mask.MaskPipeline;
+import com.yggdrasil.labs.log.mask.MaskPolicy;
+import com.yggdrasil.labs.log.mask.MaskRuleSet;
+import com.yggdrasil.labs.log.mask.MaskedLoggingEvent;
+import com.yggdrasil.labs.log.mask.OverflowAction;
+import com.yggdrasil.labs.log.metrics.MaskMetrics;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 
 /**
@@ -15,6 +37,11 @@ import java.util.regex.Pattern;
  * <li>在日志输出时自动隐藏敏感信息（密码、账号、身份证号等）</li>
  * <li>支持通过配置自定义敏感信息匹配规则</li>
  * <li>可通过开关控制是否启用脱敏功能</li>
+ * <li>所有规则编译为一个 {@link MaskEngine}，单次扫描完成全部脱敏</li>
+ * <li>{@code mode: argument} 时只对日志参数脱敏（见 {@link ArgumentMasker}）</li>
+ * <li>规则编译为不可变快照（{@link MaskRuleSet}），在配置线程编译后原子替换，日志线程不加锁</li>
+ * <li>配合 MaskingAppender 时同时对 MDC 值与异常消息脱敏（不扫描堆栈帧）</li>
+ * <li>可按 logger / marker 配置脱敏策略（{@link MaskPolicy}），每个 logger 只解析一次，不脱敏的 logger 直接输出原始消息</li>
  * </ul>
  *
  * <p>配置方式：</p>
@@ -31,6 +58,16 @@ import java.util.regex.Pattern;
  *           - idcard|idCard|身份证
  *           - phone|mobile|手机号
  *         replacement: "******"           # 替换字符
+ *         mode: message                    # message：整条消息脱敏；argument：参数级脱敏
+ *         maxScanChars: 0                  # 单条消息最多扫描的字符数，0 表示不限制
+ *         maxScanNanos: 0                  # 单条消息最长扫描耗时（纳秒），0 表示不限制
+ *         overflowAction: truncate         # 超出预算：truncate 截断 / redact 整体替换
+ *         defaultEnabled: true             # 未命中任何策略的 logger 是否脱敏
+ *         policies:                        # logger / marker 脱敏策略
+ *           - loggers: [access.log, SQL.JSON]
+ *             enabledPatterns: [all]       # 为空时沿用全局 enabledPatterns
+ *           - loggers: [org.springframework, org.apache]
+ *             enabled: false               # 不脱敏
  * }</pre>
  *
  * @author Yggdrasil Labs
@@ -42,13 +79,28 @@ public class SensitiveDataConverter extends ClassicConverter {
     public static final String MASK_ENABLED_PATTERNS_PROPERTY = "mimir.boot.log.mask.enabledPatterns";
     public static final String MASK_CUSTOM_PATTERNS_PROPERTY = "mimir.boot.log.mask.customPatterns";
     public static final String MASK_REPLACEMENT_PROPERTY = "mimir.boot.log.mask.replacement";
+    public static final String MASK_MODE_PROPERTY = "mimir.boot.log.mask.mode";
+    public static final String MASK_MAX_SCAN_CHARS_PROPERTY = "mimir.boot.log.mask.maxScanChars";
+    public static final String MASK_MAX_SCAN_NANOS_PROPERTY = "mimir.boot.log.mask.maxScanNanos";
+    public static final String MASK_OVERFLOW_ACTION_PROPERTY = "mimir.boot.log.mask.overflowAction";
+    public static final String MASK_DEFAULT_ENABLED_PROPERTY = "mimir.boot.log.mask.defaultEnabled";
+    public static final String MASK_POLICY_COUNT_PROPERTY = "mimir.boot.log.mask.policies.size";
+
+    /** 策略属性名：mimir.boot.log.mask.policies[i].{loggers|markers|enabledPatterns|enabled} */
+    public static final String MASK_POLICY_PREFIX = "mimir.boot.log.mask.policies";
+
+    /** 启用全部预置规则 */
+    public static final String ALL_PRESETS = "all";
+
+    /** 默认不限制单条消息的扫描字符数（超出预算会截断消息，需显式开启） */
+    public static final int DEFAULT_MAX_SCAN_CHARS = 0;
 
     private static final String DEFAULT_REPLACEMENT = "******";
 
-    private static volatile List<Pattern> patterns;
-    private static volatile String replacement;
-    private static final List<String> customPatterns = new ArrayList<>();
-    private static final Object LOCK = new Object();
+    /** 当前生效的规则快照 */
+    private static final AtomicReference<MaskRuleSet> RULES = new AtomicReference<>();
+    private static final AtomicLong VERSION = new AtomicLong();
+    private static final List<String> customPatterns = new CopyOnWriteArrayList<>();
 
     @Override
     public void start() {
@@ -57,110 +109,239 @@ public class SensitiveDataConverter extends ClassicConverter {
 
     @Override
     public String convert(ILoggingEvent event) {
-        String message = event.getFormattedMessage();
-        if (message == null || message.isEmpty()) {
-            return message;
+        // 已由 MaskingAppender 包装的事件直接复用脱敏结果
+        if (event instanceof MaskedLoggingEvent) {
+            return event.getFormattedMessage();
+        }
+
+        // 每条消息只读取一次快照，保证同一条消息使用同一版本的规则
+        MaskRuleSet rules = getRules();
+
+        // 按 logger / marker 策略选择流水线，不脱敏的 logger 不计入耗时指标
+        MaskPipeline pipeline = rules.resolve(event);
+        if (pipeline.isNone()) {
+            return event.getFormattedMessage();
         }
 
-        return maskSensitiveData(message);
+        long start = System.nanoTime();
+        try {
+            return pipeline.mask(event, rules.getMode());
+        } finally {
+            MaskMetrics.get().recordLatency(System.nanoTime() - start);
+        }
     }
 
     /**
-     * 获取脱敏规则
-     * 使用双重检查锁定保证线程安全
+     * 对 MDC 值脱敏（供 {@link MaskedLoggingEvent} 使用）
+     *
+     * @param event 原始日志事件
+     * @return 脱敏后的 MDC；无需脱敏时返回原映射
      */
-    private List<Pattern> getPatterns() {
-        List<Pattern> result = patterns;
-        if (result == null) {
-            synchronized (LOCK) {
-                result = patterns;
-                if (result == null) {
-                    patterns = loadPatterns();
-                    result = patterns;
-                }
-            }
+    public Map<String, String> maskMdc(ILoggingEvent event) {
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc == null || mdc.isEmpty()) {
+            return mdc;
         }
-        return result;
+        return getRules().resolve(event).maskMdc(mdc);
     }
 
     /**
-     * 加载脱敏规则
+     * 对异常链中的消息脱敏，堆栈帧不参与扫描（供 {@link MaskedLoggingEvent} 使用）
+     *
+     * @param event 原始日志事件
+     * @return 脱敏后的异常 proxy；无需脱敏时返回原 proxy
      */
-    private List<Pattern> loadPatterns() {
-        List<Pattern> result = new ArrayList<>();
-
-        // 1. 加载启用的预置规则
-        List<String> enabledNames = getEnabledPatternNames();
-        if (!enabledNames.isEmpty()) {
-            result.addAll(getPresetPatterns(enabledNames));
+    public IThrowableProxy maskThrowable(ILoggingEvent event) {
+        IThrowableProxy proxy = event.getThrowableProxy();
+        if (proxy == null) {
+            return null;
         }
+        return getRules().resolve(event).maskThrowable(proxy);
+    }
 
-        // 2. 加载配置中的自定义规则
-        List<String> customPatternsList = getCustomPatterns();
-        if (customPatternsList != null && !customPatternsList.isEmpty()) {
-            compilePatterns(result, customPatternsList, "Invalid custom mask pattern: ");
+    /**
+     * 获取当前规则快照
+     * <p>
+     * 仅在尚未发布任何快照时（启动阶段首条日志）由当前线程编译，并发编译的结果按版本取较新者，不加锁
+     */
+    private MaskRuleSet getRules() {
+        MaskRuleSet rules = RULES.get();
+        if (rules == null) {
+            rules = publish(compile(getContext()));
         }
+        return rules;
+    }
 
-        // 3. 加载编程式添加的自定义规则（需要同步复制以确保线程安全）
-        List<String> programmaticPatterns;
-        synchronized (LOCK) {
-            programmaticPatterns = new ArrayList<>(customPatterns);
+    /**
+     * 发布规则快照：只有比当前快照更新时才替换
+     *
+     * @return 发布后实际生效的快照
+     */
+    private static MaskRuleSet publish(MaskRuleSet candidate) {
+        return RULES.accumulateAndGet(candidate, (current, next) -> next.isNewerThan(current) ? next : current);
+    }
+
+    /**
+     * 编译规则快照
+     *
+     * @param context Logback context（可为空，此时只读取系统属性）
+     */
+    private static MaskRuleSet compile(Context context) {
+        // 先取版本号：编译期间发生的更新会拿到更大的版本号，不会被本次结果覆盖
+        long version = VERSION.incrementAndGet();
+
+        List<SensitiveDataPattern> presets = getPresets(getConfigAsList(context, MASK_ENABLED_PATTERNS_PROPERTY));
+        List<Pattern> customs = loadCustomPatterns(context);
+        String replacement = getReplacement(context);
+        MaskBudget budget = loadBudget(context);
+
+        // 启用规则相同的策略共享同一条流水线
+        Map<List<SensitiveDataPattern>, MaskPipeline> pipelines = new HashMap<>();
+        MaskPipeline pipeline = compilePipeline(presets, customs, replacement, budget);
+        pipelines.put(presets, pipeline);
+
+        List<MaskPolicy> policies = new ArrayList<>();
+        long count = getConfigAsLong(context, MASK_POLICY_COUNT_PROPERTY, 0);
+        for (int i = 0; i < count; i++) {
+            MaskPipeline policyPipeline = MaskPipeline.NONE;
+            if (getConfigAsBoolean(context, policyKey(i, "enabled"), true)) {
+                List<String> names = getConfigAsList(context, policyKey(i, "enabledPatterns"));
+                policyPipeline = names.isEmpty() ? pipeline : pipelines.computeIfAbsent(getPresets(names),
+                        policyPresets -> compilePipeline(policyPresets, customs, replacement, budget));
+            }
+            policies.add(MaskPolicy.of(getConfigAsList(context, policyKey(i, "loggers")),
+                    getConfigAsList(context, policyKey(i, "markers")), policyPipeline));
         }
-        if (!programmaticPatterns.isEmpty()) {
-            compilePatterns(result, programmaticPatterns, "Invalid programmatic mask pattern: ");
+
+        return MaskRuleSet.of(version, pipeline, getConfigAsBoolean(context, MASK_DEFAULT_ENABLED_PROPERTY, true),
+                policies, MaskMode.fromName(getConfig(context, MASK_MODE_PROPERTY)));
+    }
+
+    /**
+     * 编译一组启用规则的脱敏流水线
+     */
+    private static MaskPipeline compilePipeline(List<SensitiveDataPattern> presets, List<Pattern> customs,
+                                                String replacement, MaskBudget budget) {
+        List<Pattern> patterns = new ArrayList<>();
+        List<DigitRunDetector> detectors = new ArrayList<>();
+        for (SensitiveDataPattern preset : presets) {
+            // 带校验的号码规则走数字串识别器，不再编译正则
+            if (preset.getDetector() != null) {
+                detectors.add(preset.getDetector());
+            } else {
+                patterns.add(Pattern.compile(preset.getPattern()));
+            }
         }
+        patterns.addAll(customs);
 
-        return result;
+        MaskEngine engine = MaskEngine.of(patterns, detectors, replacement, budget);
+        return MaskPipeline.of(engine, ArgumentMasker.of(engine, presets, customs));
     }
 
     /**
-     * 获取启用的预置规则名称
+     * 第 index 个策略的属性名
+     *
+     * @param index 策略下标
+     * @param field 策略字段
+     * @return 属性名
      */
-    private List<String> getEnabledPatternNames() {
-        return getConfigAsList(MASK_ENABLED_PATTERNS_PROPERTY);
+    public static String policyKey(int index, String field) {
+        return MASK_POLICY_PREFIX + "[" + index + "]." + field;
     }
 
     /**
-     * 获取自定义规则列表
+     * 加载脱敏预算
      */
-    private List<String> getCustomPatterns() {
-        return getConfigAsList(MASK_CUSTOM_PATTERNS_PROPERTY);
+    private static MaskBudget loadBudget(Context context) {
+        int maxChars = (int) getConfigAsLong(context, MASK_MAX_SCAN_CHARS_PROPERTY, DEFAULT_MAX_SCAN_CHARS);
+        long maxNanos = getConfigAsLong(context, MASK_MAX_SCAN_NANOS_PROPERTY, 0);
+        return MaskBudget.of(maxChars, maxNanos,
+                OverflowAction.fromName(getConfig(context, MASK_OVERFLOW_ACTION_PROPERTY)));
     }
-    
+
     /**
-     * 通用方法：从配置获取列表值
-     * 
-     * @param key 配置键
-     * @return 配置值列表（逗号分隔）
+     * 加载自定义脱敏规则（预置规则由 {@link #getPresets(List)} 单独加载）
      */
-    private List<String> getConfigAsList(String key) {
-        List<String> result = new ArrayList<>();
+    private static List<Pattern> loadCustomPatterns(Context context) {
+        List<Pattern> result = new ArrayList<>();
+
+        // 1. 加载配置中的自定义规则
+        compilePatterns(result, getConfigAsList(context, MASK_CUSTOM_PATTERNS_PROPERTY),
+                "Invalid custom mask pattern: ");
 
-        // 从 Logback context 读取
-        String value = getContextProperty(key);
+        // 2. 加载编程式添加的自定义规则（CopyOnWriteArrayList 迭代即快照）
+        compilePatterns(result, customPatterns, "Invalid programmatic mask pattern: ");
+
+        return result;
+    }
+
+    /**
+     * 通用方法：从配置获取单个值（Logback context 优先，其次系统属性）
+     */
+    private static String getConfig(Context context, String key) {
+        String value = context != null ? context.getProperty(key) : null;
         if (value == null || value.isEmpty()) {
             value = System.getProperty(key);
         }
+        return value;
+    }
 
+    /**
+     * 通用方法：从配置获取列表值
+     *
+     * @param key 配置键
+     * @return 配置值列表（逗号分隔）
+     */
+    private static List<String> getConfigAsList(Context context, String key) {
+        List<String> result = new ArrayList<>();
+
+        String value = getConfig(context, key);
         if (value != null && !value.isEmpty()) {
             result.addAll(List.of(value.split(",")));
         }
 
         return result;
     }
-    
+
+    /**
+     * 通用方法：从配置获取数值，缺失或格式错误时使用默认值
+     */
+    private static long getConfigAsLong(Context context, String key, long defaultValue) {
+        String value = getConfig(context, key);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid mask config " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 通用方法：从配置获取布尔值，缺失时使用默认值
+     */
+    private static boolean getConfigAsBoolean(Context context, String key, boolean defaultValue) {
+        String value = getConfig(context, key);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value.trim());
+    }
+
     /**
      * 通用方法：编译正则表达式模式
-     * 
+     *
      * @param targetPatterns 目标列表
      * @param patternStrings 正则表达式字符串列表
      * @param errorPrefix 错误信息前缀
      */
-    private void compilePatterns(List<Pattern> targetPatterns, List<String> patternStrings, String errorPrefix) {
+    private static void compilePatterns(List<Pattern> targetPatterns, List<String> patternStrings, String errorPrefix) {
         if (patternStrings == null || patternStrings.isEmpty()) {
             return;
         }
-        
+
         for (String patternStr : patternStrings) {
             try {
                 targetPatterns.add(Pattern.compile(patternStr.trim()));
@@ -171,23 +352,23 @@ public class SensitiveDataConverter extends ClassicConverter {
     }
 
     /**
-     * 获取启用的预置规则
+     * 获取启用的预置规则（{@value #ALL_PRESETS} 表示全部预置规则）
      */
-    private List<Pattern> getPresetPatterns(List<String> enabledNames) {
-        List<Pattern> patterns = new ArrayList<>();
+    private static List<SensitiveDataPattern> getPresets(List<String> enabledNames) {
+        Set<SensitiveDataPattern> presets = new LinkedHashSet<>();
 
         for (String name : enabledNames) {
+            if (ALL_PRESETS.equalsIgnoreCase(name.trim())) {
+                presets.addAll(List.of(SensitiveDataPattern.values()));
+                continue;
+            }
             SensitiveDataPattern patternEnum = SensitiveDataPattern.fromName(name.trim());
             if (patternEnum != null) {
-                try {
-                    patterns.add(Pattern.compile(patternEnum.getPattern()));
-                } catch (Exception e) {
-                    System.err.println("Invalid preset pattern: " + name);
-                }
+                presets.add(patternEnum);
             }
         }
 
-        return patterns;
+        return new ArrayList<>(presets);
     }
 
     /**
@@ -196,44 +377,24 @@ public class SensitiveDataConverter extends ClassicConverter {
      * @param pattern 正则表达式
      */
     public static void addCustomPattern(String pattern) {
-        synchronized (LOCK) {
-            customPatterns.add(pattern);
-            patterns = null; // 清空缓存，重新加载
-        }
+        customPatterns.add(pattern);
+        reloadConfig();
     }
 
     /**
      * 清空自定义规则
      */
     public static void clearCustomPatterns() {
-        synchronized (LOCK) {
-            customPatterns.clear();
-            patterns = null; // 清空缓存，重新加载
-        }
+        customPatterns.clear();
+        reloadConfig();
     }
 
     /**
      * 获取替换字符
      */
-    private String getReplacement() {
-        if (replacement == null) {
-            String value = getContextProperty(MASK_REPLACEMENT_PROPERTY);
-            if (value == null || value.isEmpty()) {
-                value = System.getProperty(MASK_REPLACEMENT_PROPERTY, DEFAULT_REPLACEMENT);
-            }
-            replacement = value;
-        }
-        return replacement;
-    }
-
-    /**
-     * 从 Logback context 获取属性
-     */
-    private String getContextProperty(String key) {
-        if (getContext() != null) {
-            return getContext().getProperty(key);
-        }
-        return null;
+    private static String getReplacement(Context context) {
+        String value = getConfig(context, MASK_REPLACEMENT_PROPERTY);
+        return value == null || value.isEmpty() ? DEFAULT_REPLACEMENT : value;
     }
 
     /**
@@ -249,49 +410,66 @@ public class SensitiveDataConverter extends ClassicConverter {
         if (message.isEmpty()) {
             return message;
         }
-        
-        String result = message;
-
-        for (Pattern pattern : getPatterns()) {
-            result = pattern.matcher(result).replaceAll(match -> {
-                String matched = match.group();
-                return maskValue(matched);
-            });
-        }
 
-        return result;
+        // 单次扫描完成全部规则的脱敏，未命中时返回原字符串
+        return getRules().getEngine().mask(message);
     }
 
     /**
-     * 对匹配到的值进行脱敏处理
+     * 脱敏预算触发次数
+     *
+     * @return 自启动以来因超长或超时被截断/替换的日志条数
      */
-    private String maskValue(String matched) {
-        String replacement = getReplacement();
-
-        // 提取等号/冒号后的值进行替换
-        if (matched.contains("=")) {
-            int index = matched.indexOf("=");
-            String prefix = matched.substring(0, index + 1);  // 包含等号的前缀
-
-            // 保留原始值中的引号格式
-            String suffix = matched.substring(index + 1);
-            boolean hasQuote = suffix.startsWith("\"") || suffix.startsWith("'");
-            String quote = hasQuote ? suffix.substring(0, 1) : "";
-
-            // 返回: 前缀 + 引号(如果有) + 替换字符 + 引号(如果有)
-            return prefix + quote + replacement + quote;
-        } else {
-            // 纯数字或其他格式，直接替换整个匹配项
-            return replacement;
-        }
+    public static long getBudgetTripCount() {
+        return MaskBudget.getTripCount();
     }
 
     /**
      * 重新加载配置（用于配置动态更新）
+     * <p>
+     * 在调用线程上编译新的规则快照并原子替换；日志线程在替换完成前继续使用旧快照，不会被阻塞
      */
     public static void reloadConfig() {
-        patterns = null;
-        replacement = null;
+        ILoggerFactory factory = LoggerFactory.getILoggerFactory();
+        publish(compile(factory instanceof Context context ? context : null));
+    }
+
+    /**
+     * 按 logger 的脱敏策略对任意文本脱敏，供不经过 {@code %mask} 的输出使用（如访问日志中的响应体）
+     *
+     * @param loggerName 输出该文本的 logger 名称，用于匹配脱敏策略
+     * @param text       待脱敏文本
+     * @return 脱敏后的文本；策略不脱敏或无需脱敏时返回原文本
+     */
+    public static String mask(String loggerName, String text) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        MaskRuleSet rules = RULES.get();
+        if (rules == null) {
+            ILoggerFactory factory = LoggerFactory.getILoggerFactory();
+            rules = publish(compile(factory instanceof Context context ? context : null));
+        }
+        MaskPipeline pipeline = rules.resolve(loggerName);
+        if (pipeline.isNone()) {
+            return text;
+        }
+        long start = System.nanoTime();
+        try {
+            return pipeline.getEngine().mask(text);
+        } finally {
+            MaskMetrics.get().recordLatency(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 当前规则快照版本
+     *
+     * @return 版本号；尚未编译时返回 0
+     */
+    public static long getRuleVersion() {
+        MaskRuleSet rules = RULES.get();
+        return rules != null ? rules.getVersion() : 0;
     }
 
     /**
@@ -307,4 +485,3 @@ public class SensitiveDataConverter extends ClassicConverter {
         return names;
     }
 }
-
@@ -1,10 +1,15 @@
 package com.yggdrasil.labs.log.converter;
 
+import com.yggdrasil.labs.log.mask.DigitRunDetector;
+
 /**
  * 预置敏感信息脱敏规则枚举
  * 
  * <p>提供了常见的敏感信息脱敏规则，用户可以选择启用</p>
  *
+ * <p>带 {@link DigitRunDetector} 的规则（{@code *_checked}）在脱敏引擎中由识别器校验后替换，
+ * {@link #getPattern()} 仅描述候选号码的形态。</p>
+ *
  * @author Yggdrasil Labs
  * @since 1.0.0
  */
@@ -50,7 +55,19 @@ public enum SensitiveDataPattern {
     BANK_CARD_NUMBER("bank_card_number", "\\d{16,19}"),
     
     /** 纯邮箱地址 */
-    EMAIL_ADDRESS("email_address", "[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}");
+    EMAIL_ADDRESS("email_address", "[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}"),
+
+    /** 身份证号（18位校验 GB 11643 校验位，15位校验出生日期） */
+    ID_CARD_CHECKED("id_card_checked", "(?<![0-9A-Za-z])(?:\\d{17}[0-9Xx]|\\d{15})(?![0-9A-Za-z])",
+            DigitRunDetector.ID_CARD),
+
+    /** 银行卡号（16-19位，Luhn 校验） */
+    BANK_CARD_CHECKED("bank_card_checked", "(?<![0-9A-Za-z])[3-6]\\d{15,18}(?![0-9A-Za-z])",
+            DigitRunDetector.BANK_CARD),
+
+    /** 手机号（11位，校验运营商号段） */
+    PHONE_CHECKED("phone_checked", "(?<![0-9A-Za-z])1[3-9]\\d{9}(?![0-9A-Za-z])",
+            DigitRunDetector.PHONE);
 
     /** 规则名称 */
     private final String name;
@@ -58,9 +75,17 @@ public enum SensitiveDataPattern {
     /** 正则表达式 */
     private final String pattern;
 
+    /** 数字串识别器（为空表示纯正则规则） */
+    private final DigitRunDetector detector;
+
     SensitiveDataPattern(String name, String pattern) {
+        this(name, pattern, null);
+    }
+
+    SensitiveDataPattern(String name, String pattern, DigitRunDetector detector) {
         this.name = name;
         this.pattern = pattern;
+        this.detector = detector;
     }
 
     public String getName() {
@@ -71,6 +96,10 @@ public enum SensitiveDataPattern {
         return pattern;
     }
 
+    public DigitRunDetector getDetector() {
+        return detector;
+    }
+
     /**
      * 根据名称查找枚举
      */
@@ -0,0 +1,18 @@
+package com.yggdrasil.labs.log.converter;
+
+/**
+ * SpanId 标签转换器（{@code %spanTag}）
+ *
+ * <p>MDC 中存在 {@code spanId} 时输出 {@code [spanId] }，否则不输出。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public class SpanTagConverter extends MdcTagConverter {
+
+    public static final String SPAN_ID_KEY = "spanId";
+
+    public SpanTagConverter() {
+        super(SPAN_ID_KEY);
+    }
+}
@@ -0,0 +1,18 @@
+package com.yggdrasil.labs.log.converter;
+
+/**
+ * TraceId 标签转换器（{@code %traceTag}）
+ *
+ * <p>MDC 中存在 {@code traceId} 时输出 {@code [traceId] }，否则不输出。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public class TraceTagConverter extends MdcTagConverter {
+
+    public static final String TRACE_ID_KEY = "traceId";
+
+    public TraceTagConverter() {
+        super(TRACE_ID_KEY);
+    }
+}
@@ -0,0 +1,210 @@
+package com.yggdrasil.labs.log.debug;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 调试 traceId 登记表
+ *
+ * <p>记录需要临时输出 DEBUG 日志的 traceId 及过期时间，供 {@link TraceDebugTurboFilter} 查询：</p>
+ * <ul>
+ * <li>基于 {@link ConcurrentHashMap}，读写均不加锁</li>
+ * <li>每个 traceId 带 TTL，过期后查询时惰性移除，登记 / 列出时顺带清理</li>
+ * <li>条目数有上限，防止误操作占用内存</li>
+ * <li>{@link #isActive()} 只读两个 volatile 计数，没有登记且没有带调试请求头的请求时，过滤器直接放行</li>
+ * </ul>
+ *
+ * <p>全局共享一个实例（{@link #getInstance()}），Logback 配置中的过滤器与 Spring 中的管理端点使用同一份数据。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class DebugTraceRegistry {
+
+    /** 带调试请求头的请求写入 MDC 的标记键（值为 true） */
+    public static final String DEBUG_MDC_KEY = "debugLog";
+
+    /** 默认 TTL */
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    /** 默认最大 TTL */
+    public static final Duration DEFAULT_MAX_TTL = Duration.ofHours(1);
+
+    /** 默认最大条目数 */
+    public static final int DEFAULT_MAX_ENTRIES = 100;
+
+    private static final DebugTraceRegistry INSTANCE = new DebugTraceRegistry();
+
+    /** traceId -> 过期时间（毫秒时间戳） */
+    private final ConcurrentHashMap<String, Long> traces = new ConcurrentHashMap<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    /** 正在处理的带调试请求头的请求数 */
+    private final AtomicInteger headerRequests = new AtomicInteger();
+
+    private volatile Duration defaultTtl = DEFAULT_TTL;
+
+    private volatile Duration maxTtl = DEFAULT_MAX_TTL;
+
+    private volatile int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    DebugTraceRegistry() {
+    }
+
+    public static DebugTraceRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 是否存在任何调试触发条件（热路径，只读 volatile 计数）
+     */
+    public boolean isActive() {
+        return size.get() > 0 || headerRequests.get() > 0;
+    }
+
+    /**
+     * 登记 traceId
+     *
+     * @param traceId traceId
+     * @param ttl     有效期；为 null 时使用默认 TTL，超过最大 TTL 时截断
+     * @return 过期时间（毫秒时间戳）
+     * @throws IllegalArgumentException traceId 为空
+     * @throws IllegalStateException    已达到最大条目数
+     */
+    public long register(String traceId, Duration ttl) {
+        if (traceId == null || traceId.isBlank()) {
+            throw new IllegalArgumentException("traceId must not be blank");
+        }
+        purgeExpired();
+        Duration effective = ttl == null || ttl.isNegative() || ttl.isZero() ? defaultTtl : ttl;
+        if (effective.compareTo(maxTtl) > 0) {
+            effective = maxTtl;
+        }
+        long expiresAt = System.currentTimeMillis() + effective.toMillis();
+        String key = traceId.trim();
+        if (!traces.containsKey(key) && size.get() >= maxEntries) {
+            throw new IllegalStateException("Too many debug traces registered (max " + maxEntries + ")");
+        }
+        if (traces.put(key, expiresAt) == null) {
+            size.incrementAndGet();
+        }
+        return expiresAt;
+    }
+
+    /**
+     * 移除 traceId
+     *
+     * @return 是否存在
+     */
+    public boolean remove(String traceId) {
+        if (traceId != null && traces.remove(traceId.trim()) != null) {
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * traceId 是否已登记且未过期
+     */
+    public boolean contains(String traceId) {
+        if (traceId == null || size.get() == 0) {
+            return false;
+        }
+        Long expiresAt = traces.get(traceId);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt < System.currentTimeMillis()) {
+            if (traces.remove(traceId, expiresAt)) {
+                size.decrementAndGet();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 日志上下文是否需要输出调试日志
+     *
+     * @param debugFlag MDC 中的 {@link #DEBUG_MDC_KEY}
+     * @param traceId   MDC 中的 traceId
+     */
+    public boolean matches(String debugFlag, String traceId) {
+        return "true".equals(debugFlag) || contains(traceId);
+    }
+
+    /**
+     * 当前登记的 traceId 与过期时间（毫秒时间戳），按过期时间排序
+     */
+    public Map<String, Long> entries() {
+        purgeExpired();
+        Map<String, Long> result = new LinkedHashMap<>();
+        traces.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * 清空登记
+     */
+    public void clear() {
+        traces.keySet().forEach(this::remove);
+    }
+
+    /**
+     * 移除所有过期条目
+     */
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        traces.forEach((traceId, expiresAt) -> {
+            if (expiresAt < now && traces.remove(traceId, expiresAt)) {
+                size.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * 带调试请求头的请求开始
+     */
+    public void enterHeaderRequest() {
+        headerRequests.incrementAndGet();
+    }
+
+    /**
+     * 带调试请求头的请求结束
+     */
+    public void exitHeaderRequest() {
+        headerRequests.decrementAndGet();
+    }
+
+    public Duration getDefaultTtl() {
+        return defaultTtl;
+    }
+
+    public void setDefaultTtl(Duration defaultTtl) {
+        this.defaultTtl = defaultTtl != null ? defaultTtl : DEFAULT_TTL;
+    }
+
+    public Duration getMaxTtl() {
+        return maxTtl;
+    }
+
+    public void setMaxTtl(Duration maxTtl) {
+        this.maxTtl = maxTtl != null ? maxTtl : DEFAULT_MAX_TTL;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+}
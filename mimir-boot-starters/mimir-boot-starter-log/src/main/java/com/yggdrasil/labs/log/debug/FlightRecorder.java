@@ -0,0 +1,272 @@
+package com.yggdrasil.labs.log.debug;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.slf4j.Marker;
+import org.slf4j.helpers.MessageFormatter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按 traceId 保存最近日志的飞行记录器
+ *
+ * <p>每个 traceId 对应一个固定容量的环形缓冲区，槽位在创建时一次分配并循环复用，写满后覆盖最早的记录。
+ * 记录时只保存消息模板、参数的字符串形式和 MDC 快照，不格式化整条消息、不创建日志事件；
+ * 只有在 {@link #drain(String, Marker)} 时才还原为 {@link LoggingEvent}。</p>
+ *
+ * <p>参数在记录时渲染为字符串（字符串、数值等不可变类型原样保存），不持有调用方的参数对象：
+ * 回放内容与记录时刻一致，也不会把请求范围内的对象图保留到 trace 被清理为止。</p>
+ *
+ * <p>内存上限为 {@code maxTraces * capacity} 个槽位：请求结束时由 {@link FlightRecorderFilter} 调用
+ * {@link #discard(String)} 丢弃未出错的 trace；遗漏的 trace（如非 Web 线程）超过 {@code idleTimeoutMillis}
+ * 未写入后被清理。trace 数达到上限且无可清理条目时，新 trace 不再记录；
+ * 清理最多每 {@link #MAX_PURGE_INTERVAL_MILLIS} 毫秒执行一次，上限状态下的日志调用不会每次都遍历全部 trace。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class FlightRecorder {
+
+    private static final String FQCN = FlightRecorder.class.getName();
+
+    /** trace 数达到上限时两次清理的最大间隔 */
+    static final long MAX_PURGE_INTERVAL_MILLIS = 1000;
+
+    private final int capacity;
+
+    private final int maxTraces;
+
+    private final long idleTimeoutMillis;
+
+    /** trace 数达到上限时的清理间隔 */
+    private final long fullPurgeIntervalMillis;
+
+    private final ConcurrentHashMap<String, TraceRing> rings = new ConcurrentHashMap<>();
+
+    /** 因 trace 数达到上限而未记录的事件数 */
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final AtomicLong lastPurge = new AtomicLong(System.currentTimeMillis());
+
+    public FlightRecorder(int capacity, int maxTraces, long idleTimeoutMillis) {
+        if (capacity < 1 || maxTraces < 1) {
+            throw new IllegalArgumentException("capacity and maxTraces must be positive");
+        }
+        this.capacity = capacity;
+        this.maxTraces = maxTraces;
+        this.idleTimeoutMillis = Math.max(1, idleTimeoutMillis);
+        this.fullPurgeIntervalMillis = Math.min(this.idleTimeoutMillis, MAX_PURGE_INTERVAL_MILLIS);
+    }
+
+    /**
+     * 记录一条日志
+     *
+     * @param traceId   traceId
+     * @param logger    原 logger
+     * @param level     级别
+     * @param format    消息模板
+     * @param params    消息参数（记录时渲染为字符串，还原时才格式化）
+     * @param throwable 异常
+     * @param mdc       MDC 快照（不可变）
+     * @return trace 数已达上限而未记录时返回 false
+     */
+    public boolean record(String traceId, Logger logger, Level level, String format, Object[] params,
+                          Throwable throwable, Map<String, String> mdc) {
+        long now = System.currentTimeMillis();
+        TraceRing ring = rings.get(traceId);
+        if (ring == null) {
+            ring = newRing(traceId, now);
+            if (ring == null) {
+                rejected.incrementAndGet();
+                return false;
+            }
+        }
+        ring.add(now, Thread.currentThread().getName(), logger, level, format, render(params), throwable, mdc);
+        return true;
+    }
+
+    /**
+     * 把参数渲染为不可变的字符串，渲染规则与 SLF4J 格式化一致（数组展开、{@code toString()} 异常不外抛）；
+     * 异常参数保留原对象，还原时按 Logback 规则作为事件的异常输出
+     */
+    static Object[] render(Object[] params) {
+        if (params == null || params.length == 0) {
+            return params;
+        }
+        Object[] rendered = null;
+        for (int i = 0; i < params.length; i++) {
+            Object param = params[i];
+            if (isImmutable(param)) {
+                continue;
+            }
+            if (rendered == null) {
+                rendered = params.clone();
+            }
+            rendered[i] = MessageFormatter.basicArrayFormat("{}", new Object[]{param});
+        }
+        return rendered != null ? rendered : params;
+    }
+
+    private static boolean isImmutable(Object param) {
+        return param == null || param instanceof String || param instanceof Integer || param instanceof Long
+                || param instanceof Boolean || param instanceof Character || param instanceof Double
+                || param instanceof Float || param instanceof Short || param instanceof Byte
+                || param instanceof BigDecimal || param instanceof BigInteger || param instanceof Enum<?>
+                || param instanceof Throwable;
+    }
+
+    private TraceRing newRing(String traceId, long now) {
+        long last = lastPurge.get();
+        long interval = rings.size() >= maxTraces ? fullPurgeIntervalMillis : idleTimeoutMillis;
+        // 只有一个线程执行本轮清理，其余线程直接按当前状态判断
+        if (now - last >= interval && lastPurge.compareAndSet(last, now)) {
+            purgeIdle(now);
+        }
+        if (rings.size() >= maxTraces) {
+            return null;
+        }
+        return rings.computeIfAbsent(traceId, key -> new TraceRing(capacity));
+    }
+
+    /**
+     * 取出并移除 traceId 的全部记录（按时间先后）
+     *
+     * @param traceId traceId
+     * @param marker  附加到还原事件上的标记，可为 null
+     * @return 还原的日志事件；没有记录时返回空列表
+     */
+    public List<LoggingEvent> drain(String traceId, Marker marker) {
+        TraceRing ring = rings.remove(traceId);
+        if (ring == null) {
+            return Collections.emptyList();
+        }
+        return ring.drain(marker);
+    }
+
+    /**
+     * 丢弃 traceId 的全部记录
+     */
+    public void discard(String traceId) {
+        rings.remove(traceId);
+    }
+
+    /**
+     * 清理超过空闲时间未写入的 trace
+     */
+    public void purgeIdle(long now) {
+        rings.values().removeIf(ring -> now - ring.lastAccess > idleTimeoutMillis);
+    }
+
+    /**
+     * 当前记录中的 trace 数
+     */
+    public int traceCount() {
+        return rings.size();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getMaxTraces() {
+        return maxTraces;
+    }
+
+    /**
+     * 单个 trace 的环形缓冲区（同一 trace 通常只有一个线程写入，锁基本无竞争）
+     */
+    private static final class TraceRing {
+
+        private final Slot[] slots;
+
+        /** 下一个写入位置 */
+        private int next;
+
+        private int count;
+
+        private volatile long lastAccess;
+
+        private TraceRing(int capacity) {
+            this.slots = new Slot[capacity];
+            for (int i = 0; i < capacity; i++) {
+                slots[i] = new Slot();
+            }
+        }
+
+        private synchronized void add(long timestamp, String threadName, Logger logger, Level level,
+                                      String format, Object[] params, Throwable throwable, Map<String, String> mdc) {
+            Slot slot = slots[next];
+            slot.timestamp = timestamp;
+            slot.threadName = threadName;
+            slot.logger = logger;
+            slot.level = level;
+            slot.format = format;
+            slot.params = params;
+            slot.throwable = throwable;
+            slot.mdc = mdc;
+            next = next + 1 == slots.length ? 0 : next + 1;
+            if (count < slots.length) {
+                count++;
+            }
+            lastAccess = timestamp;
+        }
+
+        private synchronized List<LoggingEvent> drain(Marker marker) {
+            List<LoggingEvent> events = new ArrayList<>(count);
+            int start = count < slots.length ? 0 : next;
+            for (int i = 0; i < count; i++) {
+                Slot slot = slots[(start + i) % slots.length];
+                LoggingEvent event = new LoggingEvent(FQCN, slot.logger, slot.level, slot.format,
+                        slot.throwable, slot.params);
+                event.setTimeStamp(slot.timestamp);
+                event.setThreadName(slot.threadName);
+                event.setMDCPropertyMap(slot.mdc != null ? slot.mdc : Collections.emptyMap());
+                if (marker != null) {
+                    event.addMarker(marker);
+                }
+                events.add(event);
+                slot.clear();
+            }
+            count = 0;
+            next = 0;
+            return events;
+        }
+    }
+
+    /**
+     * 预分配的记录槽位
+     */
+    private static final class Slot {
+
+        private long timestamp;
+        private String threadName;
+        private Logger logger;
+        private Level level;
+        private String format;
+        private Object[] params;
+        private Throwable throwable;
+        private Map<String, String> mdc;
+
+        private void clear() {
+            threadName = null;
+            logger = null;
+            level = null;
+            format = null;
+            params = null;
+            throwable = null;
+            mdc = null;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.yggdrasil.labs.log.debug;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+import java.io.IOException;
+
+/**
+ * 飞行记录器请求结束过滤器
+ *
+ * <p>请求处理结束时丢弃本线程记录的 trace（{@link FlightRecorderTurboFilter#takeThreadTrace()}）：
+ * 没有出错的请求不必等到空闲超时才释放记录，trace 数不会在高 QPS 下持续占满上限。
+ * 异步请求在 {@code AsyncContext} 完成（或超时、出错）时丢弃。</p>
+ *
+ * <p>traceId 通常在更内层的拦截器中写入并在请求结束前清除，因此这里不读取 MDC，
+ * 而是由 TurboFilter 记住当前线程最近记录的 traceId。每次请求从 {@link LoggerContext} 查找 TurboFilter，
+ * Logback 重新加载配置后依然有效。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public class FlightRecorderFilter implements Filter {
+
+    private final LoggerContext context;
+
+    public FlightRecorderFilter(LoggerContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            endRequest(request);
+        }
+    }
+
+    private void endRequest(ServletRequest request) {
+        for (TurboFilter filter : context.getTurboFilterList()) {
+            if (!(filter instanceof FlightRecorderTurboFilter recorder) || !recorder.isStarted()) {
+                continue;
+            }
+            String traceId = recorder.takeThreadTrace();
+            if (traceId == null) {
+                continue;
+            }
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new DiscardListener(recorder, traceId));
+            } else {
+                recorder.discard(traceId);
+            }
+        }
+    }
+
+    /**
+     * 异步请求结束时丢弃记录
+     */
+    private static final class DiscardListener implements AsyncListener {
+
+        private final FlightRecorderTurboFilter recorder;
+
+        private final String traceId;
+
+        private DiscardListener(FlightRecorderTurboFilter recorder, String traceId) {
+            this.recorder = recorder;
+            this.traceId = traceId;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            recorder.discard(traceId);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            recorder.discard(traceId);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            recorder.discard(traceId);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // 再次开始异步时监听器需重新注册
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
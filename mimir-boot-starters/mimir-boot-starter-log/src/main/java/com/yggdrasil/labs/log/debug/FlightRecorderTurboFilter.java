@@ -0,0 +1,231 @@
+package com.yggdrasil.labs.log.debug;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.spi.FilterReply;
+import com.yggdrasil.labs.log.converter.TraceTagConverter;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+import org.slf4j.spi.MDCAdapter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按 trace 记录调试日志、出错时回放的飞行记录器
+ *
+ * <p>生产环境只输出 WARN / INFO 时，出错请求之前的 DEBUG 上下文全部丢失；全量输出 DEBUG 又有大量磁盘 IO。
+ * 本过滤器在日志级别判断之前把带 traceId 的 DEBUG / INFO / WARN 调用记入内存（{@link FlightRecorder}，
+ * 每个 trace 保留最近 {@code capacity} 条），同一 trace 出现 ERROR 时，先把记录回放到
+ * {@code dumpLogger}（默认写入 error.log），再照常输出 ERROR 本身。没有出错的 trace 不产生任何磁盘 IO，
+ * 其记录在请求结束时由 {@link FlightRecorderFilter} 丢弃。</p>
+ *
+ * <ul>
+ * <li>始终返回 NEUTRAL，不改变任何日志的输出与否，可与 {@link TraceDebugTurboFilter} 同时使用（需配置在其之前）</li>
+ * <li>记录时不格式化整条消息、不创建日志事件，只在回放时还原；参数在记录时渲染为字符串，回放内容以记录时刻为准</li>
+ * <li>{@code isDebugEnabled()} 等级别判断调用不会被记录</li>
+ * <li>回放的事件带有 {@link #MARKER_NAME} 标记，error.log 的级别过滤据此放行</li>
+ * </ul>
+ *
+ * <p>配置示例：</p>
+ * <pre>{@code
+ * <turboFilter class="com.yggdrasil.labs.log.debug.FlightRecorderTurboFilter">
+ *     <enabled>true</enabled>
+ *     <capacity>64</capacity>
+ * </turboFilter>
+ * <logger name="flight.recorder" additivity="false">
+ *     <appender-ref ref="MASK_FLIGHT_RECORDER"/>
+ * </logger>
+ * }</pre>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public class FlightRecorderTurboFilter extends TurboFilter {
+
+    /**
+     * 回放事件的标记名称
+     */
+    public static final String MARKER_NAME = "FLIGHT_RECORDER";
+
+    /**
+     * 默认回放 logger
+     */
+    public static final String DEFAULT_DUMP_LOGGER = "flight.recorder";
+
+    private static final Marker MARKER = MarkerFactory.getMarker(MARKER_NAME);
+
+    private static final String FQCN = FlightRecorderTurboFilter.class.getName();
+
+    private boolean enabled;
+
+    private Level level = Level.DEBUG;
+
+    private int capacity = 64;
+
+    private int maxTraces = 1000;
+
+    private long idleTimeoutMillis = 30_000;
+
+    private String dumpLogger = DEFAULT_DUMP_LOGGER;
+
+    private FlightRecorder recorder;
+
+    private Logger dumpTarget;
+
+    /** 当前线程最近记录的 traceId，请求结束时取出并丢弃其记录 */
+    private final ThreadLocal<String> threadTrace = new ThreadLocal<>();
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            addInfo("Flight recorder is disabled");
+            return;
+        }
+        recorder = new FlightRecorder(capacity, maxTraces, idleTimeoutMillis);
+        dumpTarget = ((LoggerContext) getContext()).getLogger(dumpLogger);
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || format == null || level.levelInt < this.level.levelInt) {
+            return FilterReply.NEUTRAL;
+        }
+        String traceId = MDC.get(TraceTagConverter.TRACE_ID_KEY);
+        if (traceId == null || traceId.isEmpty()) {
+            return FilterReply.NEUTRAL;
+        }
+        if (level.levelInt >= Level.ERROR_INT) {
+            dump(traceId);
+        } else if (recorder.record(traceId, logger, level, format, params, t, mdcSnapshot())
+                && !traceId.equals(threadTrace.get())) {
+            threadTrace.set(traceId);
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    /**
+     * 取出并清除当前线程最近记录的 traceId
+     *
+     * @return traceId；当前线程未记录过时返回 null
+     */
+    public String takeThreadTrace() {
+        String traceId = threadTrace.get();
+        if (traceId != null) {
+            threadTrace.remove();
+        }
+        return traceId;
+    }
+
+    /**
+     * 丢弃 traceId 的记录（请求正常结束）
+     */
+    public void discard(String traceId) {
+        FlightRecorder current = recorder;
+        if (current != null) {
+            current.discard(traceId);
+        }
+    }
+
+    private void dump(String traceId) {
+        List<LoggingEvent> events = recorder.drain(traceId, MARKER);
+        if (events.isEmpty()) {
+            return;
+        }
+        LoggingEvent header = new LoggingEvent(FQCN, dumpTarget, Level.INFO,
+                "Flight recorder: replaying {} events logged before ERROR", null, new Object[]{events.size()});
+        header.addMarker(MARKER);
+        dumpTarget.callAppenders(header);
+        for (LoggingEvent event : events) {
+            dumpTarget.callAppenders(event);
+        }
+    }
+
+    private static Map<String, String> mdcSnapshot() {
+        MDCAdapter adapter = MDC.getMDCAdapter();
+        if (adapter instanceof LogbackMDCAdapter logbackAdapter) {
+            // 只读视图，MDC 后续修改时会被替换而不是原地修改，可直接持有
+            return logbackAdapter.getPropertyMap();
+        }
+        return MDC.getCopyOfContextMap();
+    }
+
+    /**
+     * 记录器（未启用时为 null）
+     */
+    public FlightRecorder getRecorder() {
+        return recorder;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 是否启用（默认：false）
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getLevel() {
+        return level.levelStr;
+    }
+
+    /**
+     * 最低记录级别（默认：DEBUG，可设为 TRACE / INFO）
+     */
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.DEBUG);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 每个 trace 保留的最近日志条数（默认：64）
+     */
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getMaxTraces() {
+        return maxTraces;
+    }
+
+    /**
+     * 同时记录的 trace 数上限（默认：1000）
+     */
+    public void setMaxTraces(int maxTraces) {
+        this.maxTraces = maxTraces;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    /**
+     * trace 超过该时间未写入即清理（毫秒，默认：30000）
+     */
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public String getDumpLogger() {
+        return dumpLogger;
+    }
+
+    /**
+     * 回放使用的 logger（默认：flight.recorder）
+     */
+    public void setDumpLogger(String dumpLogger) {
+        this.dumpLogger = dumpLogger;
+    }
+}
@@ -0,0 +1,112 @@
+package com.yggdrasil.labs.log.debug;
+
+import ch.qos.logback.classic.LoggerContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
+
+/**
+ * 按 trace 调试日志自动配置
+ *
+ * <p>功能说明：</p>
+ * <ul>
+ * <li>将 TTL 与条目上限应用到全局 {@link DebugTraceRegistry}</li>
+ * <li>Servlet 应用注册 {@link TraceDebugFilter}（调试请求头），未配置请求头令牌时不启用</li>
+ * <li>启用飞行记录器时注册 {@link FlightRecorderFilter}，请求结束时丢弃未出错的 trace 记录</li>
+ * <li>存在 Actuator 时注册 {@link LogDebugEndpoint}（登记 / 移除 traceId）</li>
+ * </ul>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+@AutoConfiguration
+@ConditionalOnClass(LoggerContext.class)
+@ConditionalOnProperty(prefix = LogDebugProperties.PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(LogDebugProperties.class)
+public class LogDebugAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DebugTraceRegistry debugTraceRegistry(LogDebugProperties properties) {
+        DebugTraceRegistry registry = DebugTraceRegistry.getInstance();
+        registry.setDefaultTtl(properties.getDefaultTtl());
+        registry.setMaxTtl(properties.getMaxTtl());
+        registry.setMaxEntries(properties.getMaxEntries());
+        return registry;
+    }
+
+    /**
+     * 调试请求头支持
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class TraceDebugFilterConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(name = "traceDebugFilter")
+        public FilterRegistrationBean<Filter> traceDebugFilter(LogDebugProperties properties,
+                                                               DebugTraceRegistry registry) {
+            FilterRegistrationBean<Filter> registrationBean = new FilterRegistrationBean<>(
+                    new TraceDebugFilter(properties.getHeaderName(), properties.getHeaderToken(), registry)
+            );
+            registrationBean.setName("traceDebugFilter");
+            registrationBean.addUrlPatterns("/*");
+            // 先于其他过滤器执行，整个请求（含访问日志）都能输出调试日志
+            registrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            // 未配置令牌时不启用，否则任意调用方都能为自己的请求打开调试日志
+            registrationBean.setEnabled(StringUtils.hasText(properties.getHeaderName())
+                    && StringUtils.hasText(properties.getHeaderToken()));
+            return registrationBean;
+        }
+    }
+
+    /**
+     * 飞行记录器请求结束清理
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnProperty(prefix = LogDebugProperties.PREFIX + ".recorder", name = "enabled", havingValue = "true")
+    static class FlightRecorderFilterConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(name = "flightRecorderFilter")
+        public FilterRegistrationBean<Filter> flightRecorderFilter() {
+            LoggerContext loggerContext = (LoggerContext) org.slf4j.LoggerFactory.getILoggerFactory();
+            FilterRegistrationBean<Filter> registrationBean = new FilterRegistrationBean<>(
+                    new FlightRecorderFilter(loggerContext)
+            );
+            registrationBean.setName("flightRecorderFilter");
+            registrationBean.addUrlPatterns("/*");
+            // 最外层执行，请求内所有日志（含访问日志）记录完毕后再丢弃
+            registrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            // 异步请求的再次分派结束时同样需要取出本线程记录的 trace
+            registrationBean.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+            return registrationBean;
+        }
+    }
+
+    /**
+     * Actuator 端点
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    static class LogDebugEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public LogDebugEndpoint logDebugEndpoint(DebugTraceRegistry registry) {
+            return new LogDebugEndpoint(registry);
+        }
+    }
+}
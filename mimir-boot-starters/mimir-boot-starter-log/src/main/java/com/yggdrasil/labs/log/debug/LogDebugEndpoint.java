@@ -0,0 +1,66 @@
+package com.yggdrasil.labs.log.debug;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按 trace 调试日志管理端点（{@code /actuator/logdebug}）
+ *
+ * <ul>
+ * <li>{@code GET /actuator/logdebug}：列出已登记的 traceId 及过期时间</li>
+ * <li>{@code POST /actuator/logdebug/{traceId}}（可选请求体 {@code {"ttlSeconds": 600}}）：登记 traceId</li>
+ * <li>{@code DELETE /actuator/logdebug/{traceId}}：移除 traceId</li>
+ * </ul>
+ *
+ * <p>需在 {@code management.endpoints.web.exposure.include} 中加入 {@code logdebug}。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+@Endpoint(id = "logdebug")
+public class LogDebugEndpoint {
+
+    private final DebugTraceRegistry registry;
+
+    public LogDebugEndpoint(DebugTraceRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> traces() {
+        Map<String, Object> traces = new LinkedHashMap<>();
+        registry.entries().forEach((traceId, expiresAt) -> traces.put(traceId, Instant.ofEpochMilli(expiresAt).toString()));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("traces", traces);
+        result.put("defaultTtlSeconds", registry.getDefaultTtl().toSeconds());
+        result.put("maxTtlSeconds", registry.getMaxTtl().toSeconds());
+        result.put("maxEntries", registry.getMaxEntries());
+        return result;
+    }
+
+    @WriteOperation
+    public Map<String, Object> register(@Selector String traceId, @Nullable Long ttlSeconds) {
+        long expiresAt = registry.register(traceId, ttlSeconds != null ? Duration.ofSeconds(ttlSeconds) : null);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("traceId", traceId);
+        result.put("expiresAt", Instant.ofEpochMilli(expiresAt).toString());
+        return result;
+    }
+
+    @DeleteOperation
+    public Map<String, Object> remove(@Selector String traceId) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("traceId", traceId);
+        result.put("removed", registry.remove(traceId));
+        return result;
+    }
+}
@@ -0,0 +1,212 @@
+package com.yggdrasil.labs.log.debug;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按 trace 调试日志配置属性
+ *
+ * <p>{@code level}、{@code loggers} 与 {@code recorder.*} 由 {@code logback-spring.xml} 通过 {@code <springProperty>} 读取，
+ * 作用于 {@link TraceDebugTurboFilter} 与 {@link FlightRecorderTurboFilter}；其余配置由 {@link LogDebugAutoConfiguration} 应用。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+@ConfigurationProperties(prefix = LogDebugProperties.PREFIX)
+public class LogDebugProperties {
+
+    public static final String PREFIX = "mimir.boot.log.debug";
+
+    /**
+     * 是否启用按 trace 调试日志（默认：true）
+     * 关闭后不注册请求头过滤器和管理端点，TurboFilter 始终直接放行；
+     * 请求头方式还需配置 headerToken，未配置时只能通过端点登记 traceId
+     */
+    private boolean enabled = true;
+
+    /**
+     * 调试请求头名称（默认：X-Debug-Log），为空时不通过请求头开启
+     */
+    private String headerName = "X-Debug-Log";
+
+    /**
+     * 调试请求头的值须与该令牌一致（必填）；为空时不注册请求头过滤器，避免任意调用方打开调试日志
+     */
+    private String headerToken;
+
+    /**
+     * 调试请求最低输出的级别（默认：DEBUG，可设为 TRACE）
+     */
+    private String level = "DEBUG";
+
+    /**
+     * 只对这些 logger（前缀）开启调试日志（默认：全部）
+     */
+    private List<String> loggers = new ArrayList<>();
+
+    /**
+     * 通过端点登记 traceId 时的默认有效期（默认：10 分钟）
+     */
+    private Duration defaultTtl = DebugTraceRegistry.DEFAULT_TTL;
+
+    /**
+     * 登记 traceId 的最长有效期（默认：1 小时）
+     */
+    private Duration maxTtl = DebugTraceRegistry.DEFAULT_MAX_TTL;
+
+    /**
+     * 同时登记的 traceId 上限（默认：100）
+     */
+    private int maxEntries = DebugTraceRegistry.DEFAULT_MAX_ENTRIES;
+
+    /**
+     * 飞行记录器：按 trace 在内存中保留最近的调试日志，出错时写入 error.log
+     */
+    private Recorder recorder = new Recorder();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getHeaderName() {
+        return headerName;
+    }
+
+    public void setHeaderName(String headerName) {
+        this.headerName = headerName;
+    }
+
+    public String getHeaderToken() {
+        return headerToken;
+    }
+
+    public void setHeaderToken(String headerToken) {
+        this.headerToken = headerToken;
+    }
+
+    public String getLevel() {
+        return level;
+    }
+
+    public void setLevel(String level) {
+        this.level = level;
+    }
+
+    public List<String> getLoggers() {
+        return loggers;
+    }
+
+    public void setLoggers(List<String> loggers) {
+        this.loggers = loggers;
+    }
+
+    public Duration getDefaultTtl() {
+        return defaultTtl;
+    }
+
+    public void setDefaultTtl(Duration defaultTtl) {
+        this.defaultTtl = defaultTtl;
+    }
+
+    public Duration getMaxTtl() {
+        return maxTtl;
+    }
+
+    public void setMaxTtl(Duration maxTtl) {
+        this.maxTtl = maxTtl;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Recorder getRecorder() {
+        return recorder;
+    }
+
+    public void setRecorder(Recorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * 飞行记录器配置（见 {@link FlightRecorderTurboFilter}）
+     */
+    public static class Recorder {
+
+        /**
+         * 是否启用（默认：false）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 最低记录级别（默认：DEBUG）
+         */
+        private String level = "DEBUG";
+
+        /**
+         * 每个 trace 保留的最近日志条数（默认：64）
+         */
+        private int capacity = 64;
+
+        /**
+         * 同时记录的 trace 数上限（默认：1000）
+         */
+        private int maxTraces = 1000;
+
+        /**
+         * trace 超过该时间未写入即清理（毫秒，默认：30000）
+         */
+        private long idleTimeoutMillis = 30_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getLevel() {
+            return level;
+        }
+
+        public void setLevel(String level) {
+            this.level = level;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getMaxTraces() {
+            return maxTraces;
+        }
+
+        public void setMaxTraces(int maxTraces) {
+            this.maxTraces = maxTraces;
+        }
+
+        public long getIdleTimeoutMillis() {
+            return idleTimeoutMillis;
+        }
+
+        public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+            this.idleTimeoutMillis = idleTimeoutMillis;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.yggdrasil.labs.log.debug;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * 调试请求头过滤器
+ *
+ * <p>请求携带调试请求头（默认 {@code X-Debug-Log}）时，在请求处理期间向 MDC 写入
+ * {@link DebugTraceRegistry#DEBUG_MDC_KEY}{@code =true}，由 {@link TraceDebugTurboFilter} 为该请求输出调试日志。</p>
+ *
+ * <p>请求头的值必须与 {@code token} 一致（常量时间比较），避免任意调用方在生产环境打开调试日志；
+ * 未配置 {@code token} 时请求头不生效。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public class TraceDebugFilter implements Filter {
+
+    private final String headerName;
+
+    private final byte[] token;
+
+    private final DebugTraceRegistry registry;
+
+    public TraceDebugFilter(String headerName, String token, DebugTraceRegistry registry) {
+        this.headerName = headerName;
+        this.token = token != null && !token.isEmpty() ? token.getBytes(StandardCharsets.UTF_8) : null;
+        this.registry = registry;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (!isDebugRequest((HttpServletRequest) request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String previous = MDC.get(DebugTraceRegistry.DEBUG_MDC_KEY);
+        MDC.put(DebugTraceRegistry.DEBUG_MDC_KEY, "true");
+        registry.enterHeaderRequest();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            registry.exitHeaderRequest();
+            if (previous != null) {
+                MDC.put(DebugTraceRegistry.DEBUG_MDC_KEY, previous);
+            } else {
+                MDC.remove(DebugTraceRegistry.DEBUG_MDC_KEY);
+            }
+        }
+    }
+
+    private boolean isDebugRequest(HttpServletRequest request) {
+        String value = request.getHeader(headerName);
+        if (token == null || value == null || value.isEmpty()) {
+            return false;
+        }
+        return MessageDigest.isEqual(token, value.trim().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,56 @@
+package com.yggdrasil.labs.log.debug;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+import com.yggdrasil.labs.log.converter.TraceTagConverter;
+
+import java.util.Map;
+
+/**
+ * 支持按 trace 调试的级别过滤器
+ *
+ * <p>与 {@link ch.qos.logback.classic.filter.ThresholdFilter} 相同，低于 {@code level} 的事件被拒绝；
+ * 但事件 MDC 表明其属于调试请求（见 {@link TraceDebugTurboFilter}）时放行。
+ * 判断基于事件自身的 MDC，异步 appender 的消费者线程上同样有效。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public class TraceDebugThresholdFilter extends Filter<ILoggingEvent> {
+
+    private DebugTraceRegistry registry = DebugTraceRegistry.getInstance();
+
+    private Level level = Level.INFO;
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (!isStarted() || event.getLevel().isGreaterOrEqual(level)) {
+            return FilterReply.NEUTRAL;
+        }
+        // 不检查 isActive：异步消费时请求可能已结束，以事件 MDC 中的标记为准
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc != null && registry.matches(mdc.get(DebugTraceRegistry.DEBUG_MDC_KEY),
+                mdc.get(TraceTagConverter.TRACE_ID_KEY))) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.DENY;
+    }
+
+    public DebugTraceRegistry getRegistry() {
+        return registry;
+    }
+
+    public void setRegistry(DebugTraceRegistry registry) {
+        this.registry = registry;
+    }
+
+    public String getLevel() {
+        return level.levelStr;
+    }
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.INFO);
+    }
+}
@@ -0,0 +1,116 @@
+package com.yggdrasil.labs.log.debug;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import com.yggdrasil.labs.log.converter.TraceTagConverter;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按 trace 开启调试日志的 TurboFilter
+ *
+ * <p>生产环境日志级别为 INFO / WARN 时，只为以下请求临时输出 DEBUG（或 TRACE）日志，无需全局调整级别：</p>
+ * <ul>
+ * <li>携带调试请求头的请求（由 {@link TraceDebugFilter} 在 MDC 中写入 {@link DebugTraceRegistry#DEBUG_MDC_KEY}）</li>
+ * <li>traceId 已通过管理端点登记（{@link DebugTraceRegistry}，带 TTL）的请求</li>
+ * </ul>
+ *
+ * <p>对其他日志调用的开销只有一次级别比较和一次 volatile 读：</p>
+ * <ol>
+ * <li>INFO 及以上、低于 {@code level}、或 logger 本身已开启该级别时直接返回 NEUTRAL</li>
+ * <li>没有任何登记且没有带请求头的请求时直接返回 NEUTRAL</li>
+ * <li>否则读取 MDC，命中时返回 ACCEPT（绕过 logger 级别）</li>
+ * </ol>
+ *
+ * <p>文件 appender 的级别过滤需改用 {@link TraceDebugThresholdFilter}，否则调试日志会在 appender 处被丢弃。</p>
+ *
+ * <p>配置示例：</p>
+ * <pre>{@code
+ * <turboFilter class="com.yggdrasil.labs.log.debug.TraceDebugTurboFilter">
+ *     <level>DEBUG</level>
+ *     <loggers>com.example,com.yggdrasil.labs</loggers>
+ * </turboFilter>
+ * }</pre>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public class TraceDebugTurboFilter extends TurboFilter {
+
+    private DebugTraceRegistry registry = DebugTraceRegistry.getInstance();
+
+    private Level level = Level.DEBUG;
+
+    private List<String> loggers = List.of();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        int levelInt = level.levelInt;
+        if (levelInt >= Level.INFO_INT || levelInt < this.level.levelInt || !registry.isActive()) {
+            return FilterReply.NEUTRAL;
+        }
+        if (levelInt >= logger.getEffectiveLevel().levelInt || !matchesLogger(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        if (registry.matches(MDC.get(DebugTraceRegistry.DEBUG_MDC_KEY), MDC.get(TraceTagConverter.TRACE_ID_KEY))) {
+            return FilterReply.ACCEPT;
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    private boolean matchesLogger(String name) {
+        if (loggers.isEmpty()) {
+            return true;
+        }
+        for (String prefix : loggers) {
+            if (name.startsWith(prefix)
+                    && (name.length() == prefix.length() || name.charAt(prefix.length()) == '.')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public DebugTraceRegistry getRegistry() {
+        return registry;
+    }
+
+    public void setRegistry(DebugTraceRegistry registry) {
+        this.registry = registry;
+    }
+
+    public String getLevel() {
+        return level.levelStr;
+    }
+
+    /**
+     * 调试请求最低输出的级别（默认：DEBUG，可设为 TRACE）
+     */
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.DEBUG);
+    }
+
+    public String getLoggers() {
+        return String.join(",", loggers);
+    }
+
+    /**
+     * 只对这些 logger（前缀，逗号分隔）开启调试日志（默认：全部）
+     */
+    public void setLoggers(String loggers) {
+        List<String> prefixes = new ArrayList<>();
+        if (loggers != null) {
+            for (String prefix : loggers.split(",")) {
+                if (!prefix.isBlank()) {
+                    prefixes.add(prefix.trim());
+                }
+            }
+        }
+        this.loggers = List.copyOf(prefixes);
+    }
+}
@@ -0,0 +1,178 @@
+package com.yggdrasil.labs.log.encoder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * 单线程复用的 JSON 行缓冲区
+ *
+ * <p>字段直接编码为 UTF-8 字节写入可增长的字节数组，不经过 {@code String} 拼接或通用 JSON 库：</p>
+ * <ul>
+ * <li>字符串按 JSON 规范转义（引号、反斜杠、控制字符），代理对编码为 4 字节 UTF-8，孤立代理写为 {@code ?}</li>
+ * <li>时间戳按秒缓存 {@code yyyy-MM-ddTHH:mm:ss.} 前缀与时区偏移，同一秒内只写毫秒</li>
+ * <li>单条日志超大导致扩容后，{@link #reset()} 时收缩回初始容量，避免长期占用内存</li>
+ * </ul>
+ *
+ * <p>非线程安全，由 {@link JsonLinesEncoder} 按线程持有。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+final class JsonLineBuffer {
+
+    static final int INITIAL_CAPACITY = 1024;
+
+    /** 超过该容量的缓冲区在 reset 时收缩 */
+    static final int RETAIN_CAPACITY = 64 * 1024;
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+
+    private int size;
+
+    private long cachedSecond = Long.MIN_VALUE;
+
+    private ZoneId cachedZone;
+
+    private byte[] cachedSecondPrefix;
+
+    private byte[] cachedOffset;
+
+    void reset() {
+        if (bytes.length > RETAIN_CAPACITY) {
+            bytes = new byte[INITIAL_CAPACITY];
+        }
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 回退到之前的位置（丢弃其后写入的内容）
+     */
+    void truncate(int mark) {
+        size = mark;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    JsonLineBuffer raw(char c) {
+        ensure(1);
+        bytes[size++] = (byte) c;
+        return this;
+    }
+
+    JsonLineBuffer raw(byte[] value) {
+        ensure(value.length);
+        System.arraycopy(value, 0, bytes, size, value.length);
+        size += value.length;
+        return this;
+    }
+
+    /**
+     * 写入带引号并转义的 JSON 字符串，null 写为 {@code null}
+     */
+    JsonLineBuffer string(CharSequence value) {
+        if (value == null) {
+            return raw(NULL);
+        }
+        raw('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                ascii(c);
+            } else if (c < 0x800) {
+                ensure(2);
+                bytes[size++] = (byte) (0xC0 | (c >> 6));
+                bytes[size++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                ensure(4);
+                bytes[size++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[size++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                raw('?');
+            } else {
+                ensure(3);
+                bytes[size++] = (byte) (0xE0 | (c >> 12));
+                bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[size++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return raw('"');
+    }
+
+    /**
+     * 写入 ISO-8601 时间戳字符串，如 {@code "2026-01-01T08:00:00.123+08:00"}
+     */
+    JsonLineBuffer timestamp(long epochMillis, ZoneId zone) {
+        long second = Math.floorDiv(epochMillis, 1000);
+        if (second != cachedSecond || !zone.equals(cachedZone)) {
+            Instant instant = Instant.ofEpochSecond(second);
+            ZoneOffset offset = zone.getRules().getOffset(instant);
+            LocalDateTime time = LocalDateTime.ofEpochSecond(second, 0, offset);
+            cachedSecondPrefix = String.format("\"%04d-%02d-%02dT%02d:%02d:%02d.",
+                    time.getYear(), time.getMonthValue(), time.getDayOfMonth(),
+                    time.getHour(), time.getMinute(), time.getSecond()).getBytes(StandardCharsets.US_ASCII);
+            String offsetId = offset.getTotalSeconds() == 0 ? "+00:00" : offset.getId();
+            cachedOffset = (offsetId + "\"").getBytes(StandardCharsets.US_ASCII);
+            cachedSecond = second;
+            cachedZone = zone;
+        }
+        raw(cachedSecondPrefix);
+        int millis = (int) Math.floorMod(epochMillis, 1000);
+        ensure(3);
+        bytes[size++] = (byte) ('0' + millis / 100);
+        bytes[size++] = (byte) ('0' + millis / 10 % 10);
+        bytes[size++] = (byte) ('0' + millis % 10);
+        return raw(cachedOffset);
+    }
+
+    private void ascii(char c) {
+        if (c >= 0x20 && c != '"' && c != '\\') {
+            ensure(1);
+            bytes[size++] = (byte) c;
+            return;
+        }
+        ensure(6);
+        bytes[size++] = '\\';
+        switch (c) {
+            case '"' -> bytes[size++] = '"';
+            case '\\' -> bytes[size++] = '\\';
+            case '\n' -> bytes[size++] = 'n';
+            case '\r' -> bytes[size++] = 'r';
+            case '\t' -> bytes[size++] = 't';
+            case '\b' -> bytes[size++] = 'b';
+            case '\f' -> bytes[size++] = 'f';
+            default -> {
+                bytes[size++] = 'u';
+                bytes[size++] = '0';
+                bytes[size++] = '0';
+                bytes[size++] = HEX[c >> 4];
+                bytes[size++] = HEX[c & 0xF];
+            }
+        }
+    }
+
+    private void ensure(int additional) {
+        int required = size + additional;
+        if (required > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length << 1));
+        }
+    }
+}
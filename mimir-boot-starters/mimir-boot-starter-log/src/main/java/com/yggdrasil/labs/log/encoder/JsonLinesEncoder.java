@@ -0,0 +1,197 @@
+package com.yggdrasil.labs.log.encoder;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+import com.yggdrasil.labs.log.converter.SensitiveDataConverter;
+import com.yggdrasil.labs.log.converter.SpanTagConverter;
+import com.yggdrasil.labs.log.converter.TraceTagConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.Map;
+
+/**
+ * JSON 行编码器
+ *
+ * <p>每条日志输出一行 JSON，供日志采集直接解析，无需再用 grok 解析文本格式：</p>
+ * <pre>{@code
+ * {"timestamp":"2026-01-01T08:00:00.123+08:00","level":"INFO","thread":"main","logger":"com.example.Demo",
+ *  "traceId":"abc","spanId":"def","message":"...","mdc":{"userId":"1"},"exception":"..."}
+ * }</pre>
+ *
+ * <ul>
+ * <li>字段直接写入按线程复用的字节缓冲区（{@link JsonLineBuffer}），不经过字符串拼接或通用 JSON 库</li>
+ * <li>{@code message} 与 {@code %mask} 一致：已由 MaskingAppender 脱敏的事件直接复用结果，否则按当前规则脱敏；
+ * {@code maskMessage=false} 时与 {@code %msg} 一致</li>
+ * <li>{@code traceId} / {@code spanId} 不存在时省略；{@code mdc} 不重复输出这两个键</li>
+ * <li>{@code exception} 仅在有异常时输出（完整堆栈）</li>
+ * </ul>
+ *
+ * <p>通常通过 {@link LogFormatEncoder} 按 appender 开启，也可直接配置：</p>
+ * <pre>{@code
+ * <encoder class="com.yggdrasil.labs.log.encoder.JsonLinesEncoder"/>
+ * }</pre>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public class JsonLinesEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final byte[] TIMESTAMP = field("{\"timestamp\":");
+
+    private static final byte[] LEVEL = field(",\"level\":");
+
+    private static final byte[] THREAD = field(",\"thread\":");
+
+    private static final byte[] LOGGER = field(",\"logger\":");
+
+    private static final byte[] TRACE_ID = field(",\"traceId\":");
+
+    private static final byte[] SPAN_ID = field(",\"spanId\":");
+
+    private static final byte[] MESSAGE = field(",\"message\":");
+
+    private static final byte[] MDC = field(",\"mdc\":{");
+
+    private static final byte[] EXCEPTION = field(",\"exception\":");
+
+    private static final byte[] LINE_END = field("}\n");
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private static final ThreadLocal<JsonLineBuffer> BUFFERS = ThreadLocal.withInitial(JsonLineBuffer::new);
+
+    private final SensitiveDataConverter messageConverter = new SensitiveDataConverter();
+
+    private boolean maskMessage = true;
+
+    private boolean includeMdc = true;
+
+    private boolean includeException = true;
+
+    private ZoneId zone = ZoneId.systemDefault();
+
+    @Override
+    public void start() {
+        messageConverter.setContext(getContext());
+        messageConverter.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        messageConverter.stop();
+        super.stop();
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return EMPTY;
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return EMPTY;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        JsonLineBuffer buffer = BUFFERS.get();
+        buffer.reset();
+
+        buffer.raw(TIMESTAMP).timestamp(event.getTimeStamp(), zone);
+        buffer.raw(LEVEL).string(event.getLevel().levelStr);
+        buffer.raw(THREAD).string(event.getThreadName());
+        buffer.raw(LOGGER).string(event.getLoggerName());
+
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc != null && !mdc.isEmpty()) {
+            writeId(buffer, TRACE_ID, mdc.get(TraceTagConverter.TRACE_ID_KEY));
+            writeId(buffer, SPAN_ID, mdc.get(SpanTagConverter.SPAN_ID_KEY));
+        }
+
+        buffer.raw(MESSAGE).string(maskMessage ? messageConverter.convert(event) : event.getFormattedMessage());
+
+        if (includeMdc && mdc != null && !mdc.isEmpty()) {
+            writeMdc(buffer, mdc);
+        }
+
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (includeException && throwable != null) {
+            buffer.raw(EXCEPTION).string(ThrowableProxyUtil.asString(throwable));
+        }
+
+        buffer.raw(LINE_END);
+        return buffer.toByteArray();
+    }
+
+    private static void writeId(JsonLineBuffer buffer, byte[] name, String id) {
+        if (id != null && !id.isEmpty()) {
+            buffer.raw(name).string(id);
+        }
+    }
+
+    private static void writeMdc(JsonLineBuffer buffer, Map<String, String> mdc) {
+        int mark = buffer.size();
+        buffer.raw(MDC);
+        boolean first = true;
+        for (Map.Entry<String, String> entry : mdc.entrySet()) {
+            String key = entry.getKey();
+            if (TraceTagConverter.TRACE_ID_KEY.equals(key) || SpanTagConverter.SPAN_ID_KEY.equals(key)) {
+                continue;
+            }
+            if (!first) {
+                buffer.raw(',');
+            }
+            buffer.string(key).raw(':').string(entry.getValue());
+            first = false;
+        }
+        if (first) {
+            // 只有 traceId / spanId：不输出空的 mdc 对象
+            buffer.truncate(mark);
+        } else {
+            buffer.raw('}');
+        }
+    }
+
+    private static byte[] field(String json) {
+        return json.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public boolean isMaskMessage() {
+        return maskMessage;
+    }
+
+    public void setMaskMessage(boolean maskMessage) {
+        this.maskMessage = maskMessage;
+    }
+
+    public boolean isIncludeMdc() {
+        return includeMdc;
+    }
+
+    public void setIncludeMdc(boolean includeMdc) {
+        this.includeMdc = includeMdc;
+    }
+
+    public boolean isIncludeException() {
+        return includeException;
+    }
+
+    public void setIncludeException(boolean includeException) {
+        this.includeException = includeException;
+    }
+
+    public String getTimeZone() {
+        return zone.getId();
+    }
+
+    /**
+     * 时间戳时区（默认：系统时区）
+     */
+    public void setTimeZone(String timeZone) {
+        this.zone = ZoneId.of(timeZone);
+    }
+}
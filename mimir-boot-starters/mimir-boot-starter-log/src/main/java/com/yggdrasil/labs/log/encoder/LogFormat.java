@@ -0,0 +1,31 @@
+package com.yggdrasil.labs.log.encoder;
+
+/**
+ * 日志文件格式
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public enum LogFormat {
+
+    /** 按 pattern 输出文本（默认） */
+    TEXT,
+
+    /** 每条日志一行 JSON（{@link JsonLinesEncoder}） */
+    JSON;
+
+    /**
+     * 按名称解析（大小写不敏感），无法识别时返回 {@link #TEXT}
+     */
+    public static LogFormat fromName(String name) {
+        if (name != null) {
+            String normalized = name.trim();
+            for (LogFormat format : values()) {
+                if (format.name().equalsIgnoreCase(normalized)) {
+                    return format;
+                }
+            }
+        }
+        return TEXT;
+    }
+}
@@ -0,0 +1,126 @@
+package com.yggdrasil.labs.log.encoder;
+
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.encoder.EncoderBase;
+
+import java.nio.charset.Charset;
+
+/**
+ * 可按配置切换格式的编码器
+ *
+ * <p>{@code format} 为 {@code text}（默认）时等同于 {@link PatternLayoutEncoder}，为 {@code json} 时使用
+ * {@link JsonLinesEncoder}。用于在 {@code logback-spring.xml} 中按 appender 通过属性切换格式：</p>
+ * <pre>{@code
+ * <encoder class="com.yggdrasil.labs.log.encoder.LogFormatEncoder">
+ *     <format>${FILE_INFO_FORMAT}</format>
+ *     <pattern>${LOG_PATTERN_FILE}</pattern>
+ *     <charset>UTF-8</charset>
+ * </encoder>
+ * }</pre>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public class LogFormatEncoder extends EncoderBase<ILoggingEvent> {
+
+    private LogFormat format = LogFormat.TEXT;
+
+    private String pattern;
+
+    private Charset charset;
+
+    private boolean maskMessage = true;
+
+    private Encoder<ILoggingEvent> delegate;
+
+    @Override
+    public void start() {
+        if (format == LogFormat.JSON) {
+            JsonLinesEncoder json = new JsonLinesEncoder();
+            json.setMaskMessage(maskMessage);
+            delegate = json;
+        } else {
+            if (pattern == null || pattern.isEmpty()) {
+                addError("No pattern set for text format encoder");
+                return;
+            }
+            PatternLayoutEncoder text = new PatternLayoutEncoder();
+            text.setPattern(pattern);
+            text.setCharset(charset);
+            delegate = text;
+        }
+        delegate.setContext(getContext());
+        delegate.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (delegate != null) {
+            delegate.stop();
+        }
+        super.stop();
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return delegate.headerBytes();
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        return delegate.encode(event);
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return delegate.footerBytes();
+    }
+
+    /**
+     * 实际使用的编码器（启动后可用）
+     */
+    public Encoder<ILoggingEvent> getDelegate() {
+        return delegate;
+    }
+
+    public String getFormat() {
+        return format.name();
+    }
+
+    public void setFormat(String format) {
+        this.format = LogFormat.fromName(format);
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public void setPattern(String pattern) {
+        this.pattern = pattern;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * 文本格式的字符集（JSON 格式固定为 UTF-8）
+     */
+    public void setCharset(Charset charset) {
+        this.charset = charset;
+    }
+
+    public boolean isMaskMessage() {
+        return maskMessage;
+    }
+
+    /**
+     * JSON 格式下是否对消息脱敏（默认：true），对应文本 pattern 中的 {@code %mask} / {@code %msg}
+     */
+    public void setMaskMessage(boolean maskMessage) {
+        this.maskMessage = maskMessage;
+    }
+}
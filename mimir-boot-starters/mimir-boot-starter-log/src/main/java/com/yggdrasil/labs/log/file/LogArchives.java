@@ -0,0 +1,182 @@
+package com.yggdrasil.labs.log.file;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import com.github.luben.zstd.util.Native;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 日志归档读写工具
+ *
+ * <p>按文件头识别格式，与文件后缀无关：</p>
+ * <ul>
+ * <li>Zstandard（{@code .zst}，需引入 {@code com.github.luben:zstd-jni}）</li>
+ * <li>gzip（{@code .gz}，Logback 默认归档格式）</li>
+ * <li>未压缩（尚未完成压缩的归档或活动日志文件）</li>
+ * </ul>
+ *
+ * <p>使用示例：</p>
+ * <pre>{@code
+ * try (BufferedReader reader = LogArchives.newReader(Path.of("logs/app/info-2026-01-01-0.log.zst"))) {
+ *     reader.lines().filter(line -> line.contains("ERROR")).forEach(System.out::println);
+ * }
+ * }</pre>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class LogArchives {
+
+    /** Zstandard 帧头（小端 0xFD2FB528） */
+    private static final byte[] ZSTD_MAGIC = {(byte) 0x28, (byte) 0xB5, (byte) 0x2F, (byte) 0xFD};
+
+    /** gzip 文件头 */
+    private static final byte[] GZIP_MAGIC = {(byte) 0x1F, (byte) 0x8B};
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static volatile Boolean zstdAvailable;
+
+    private LogArchives() {
+    }
+
+    /**
+     * 打开日志归档，按文件头自动解压
+     *
+     * @param file 归档文件
+     * @return 解压后的输入流
+     * @throws IOException 读取失败，或为 zstd 格式但未引入 zstd-jni
+     */
+    public static InputStream open(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE);
+        try {
+            in.mark(ZSTD_MAGIC.length);
+            byte[] header = in.readNBytes(ZSTD_MAGIC.length);
+            in.reset();
+            if (startsWith(header, ZSTD_MAGIC)) {
+                if (!isZstdAvailable()) {
+                    throw new IOException("zstd-jni is required to read " + file);
+                }
+                return ZstdCodec.decompress(in);
+            }
+            if (startsWith(header, GZIP_MAGIC)) {
+                return new GZIPInputStream(in, BUFFER_SIZE);
+            }
+            return in;
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 以 UTF-8 按行读取日志归档
+     */
+    public static BufferedReader newReader(Path file) throws IOException {
+        return newReader(file, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 按行读取日志归档
+     */
+    public static BufferedReader newReader(Path file, Charset charset) throws IOException {
+        return new BufferedReader(new InputStreamReader(open(file), charset));
+    }
+
+    /**
+     * 是否为 Zstandard 压缩文件
+     */
+    public static boolean isZstd(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return startsWith(in.readNBytes(ZSTD_MAGIC.length), ZSTD_MAGIC);
+        }
+    }
+
+    /**
+     * 将文件原地压缩为 Zstandard 格式：先写临时文件，完成后替换原文件；已是 zstd 格式时跳过
+     *
+     * @param file  待压缩文件
+     * @param level 压缩级别（1-19，越低越快）
+     * @return 是否执行了压缩
+     * @throws IOException 读写失败
+     */
+    public static boolean compressZstdInPlace(Path file, int level) throws IOException {
+        if (!isZstdAvailable()) {
+            throw new IOException("zstd-jni is required to compress " + file);
+        }
+        if (isZstd(file)) {
+            return false;
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (InputStream in = Files.newInputStream(file);
+                 OutputStream out = ZstdCodec.compress(Files.newOutputStream(tmp), level)) {
+                in.transferTo(out);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * zstd-jni 是否可用（类存在且本地库可加载）
+     */
+    public static boolean isZstdAvailable() {
+        Boolean available = zstdAvailable;
+        if (available == null) {
+            try {
+                Class.forName("com.github.luben.zstd.util.Native", false, LogArchives.class.getClassLoader());
+                available = ZstdCodec.loadNative();
+            } catch (ClassNotFoundException | LinkageError e) {
+                available = false;
+            }
+            zstdAvailable = available;
+        }
+        return available;
+    }
+
+    private static boolean startsWith(byte[] header, byte[] magic) {
+        if (header.length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (header[i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * zstd-jni 调用隔离在独立的类中，未引入依赖时不会被加载
+     */
+    private static final class ZstdCodec {
+
+        private static boolean loadNative() {
+            Native.load();
+            return Native.isLoaded();
+        }
+
+        private static InputStream decompress(InputStream in) throws IOException {
+            return new ZstdInputStream(in);
+        }
+
+        private static OutputStream compress(OutputStream out, int level) throws IOException {
+            return new ZstdOutputStream(out, level);
+        }
+    }
+}
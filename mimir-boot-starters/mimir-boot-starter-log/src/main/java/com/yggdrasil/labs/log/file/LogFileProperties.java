@@ -0,0 +1,161 @@
+package com.yggdrasil.labs.log.file;
+
+import com.yggdrasil.labs.log.appender.RingBufferAsyncAppender;
+import com.yggdrasil.labs.log.encoder.LogFormat;
+import com.yggdrasil.labs.log.encoder.LogFormatEncoder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * 日志文件配置属性
+ *
+ * <p>由 {@code logback-spring.xml} 通过 {@code <springProperty>} 读取，作用于内置的文件 appender
+ * （FILE_INFO、FILE_ERROR、FILE_ACCESS、FILE_SQL）。修改后需重新初始化日志系统（重启应用）生效。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+@ConfigurationProperties(prefix = LogFileProperties.PREFIX)
+public class LogFileProperties {
+
+    public static final String PREFIX = "mimir.boot.log.file";
+
+    /**
+     * 是否每条日志写入后立即刷新到文件（默认：true）
+     * false 为批量写入：日志先写入 bufferSize 大小的缓冲区，缓冲区写满、到达 flushIntervalMillis
+     * 或写入 ERROR 日志时才刷新，大幅减少 write 系统调用
+     */
+    private boolean immediateFlush = true;
+
+    /**
+     * 批量写入时每个文件的缓冲区大小（默认：256KB，支持 KB / MB 单位）
+     */
+    private DataSize bufferSize = DataSize.ofKilobytes(256);
+
+    /**
+     * 批量写入时的定时刷新间隔（毫秒，默认：200），同时也是异步队列消费者空闲挂起的最长时间
+     */
+    private long flushIntervalMillis = RingBufferAsyncAppender.DEFAULT_FLUSH_INTERVAL_MILLIS;
+
+    /**
+     * 滚动归档的压缩格式（默认：gz）
+     * gz：Logback 内置 gzip 压缩；zst：Zstandard 压缩（需引入 com.github.luben:zstd-jni），CPU 开销明显低于 gzip
+     */
+    private String compression = "gz";
+
+    /**
+     * zst 压缩级别（1-19，默认：3），越低越快
+     */
+    private int compressionLevel = ZstdSizeAndTimeBasedRollingPolicy.DEFAULT_COMPRESSION_LEVEL;
+
+    /**
+     * 各文件的输出格式（通过 {@link LogFormatEncoder} 切换）
+     */
+    private Format format = new Format();
+
+    public boolean isImmediateFlush() {
+        return immediateFlush;
+    }
+
+    public void setImmediateFlush(boolean immediateFlush) {
+        this.immediateFlush = immediateFlush;
+    }
+
+    public DataSize getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(DataSize bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public String getCompression() {
+        return compression;
+    }
+
+    public void setCompression(String compression) {
+        this.compression = compression;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public void setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public void setFormat(Format format) {
+        this.format = format;
+    }
+
+    /**
+     * 各文件的输出格式：text（默认，按 pattern 输出）或 json（每条日志一行 JSON）
+     */
+    public static class Format {
+
+        /**
+         * info.log 格式
+         */
+        private LogFormat info = LogFormat.TEXT;
+
+        /**
+         * error.log 格式
+         */
+        private LogFormat error = LogFormat.TEXT;
+
+        /**
+         * access.log 格式
+         */
+        private LogFormat access = LogFormat.TEXT;
+
+        /**
+         * sql.log 格式
+         */
+        private LogFormat sql = LogFormat.TEXT;
+
+        public LogFormat getInfo() {
+            return info;
+        }
+
+        public void setInfo(LogFormat info) {
+            this.info = info;
+        }
+
+        public LogFormat getError() {
+            return error;
+        }
+
+        public void setError(LogFormat error) {
+            this.error = error;
+        }
+
+        public LogFormat getAccess() {
+            return access;
+        }
+
+        public void setAccess(LogFormat access) {
+            this.access = access;
+        }
+
+        public LogFormat getSql() {
+            return sql;
+        }
+
+        public void setSql(LogFormat sql) {
+            this.sql = sql;
+        }
+    }
+}
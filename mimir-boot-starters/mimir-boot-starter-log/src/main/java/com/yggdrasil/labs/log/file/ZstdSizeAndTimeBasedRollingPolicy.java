@@ -0,0 +1,174 @@
+package com.yggdrasil.labs.log.file;
+
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.rolling.RolloverFailure;
+import ch.qos.logback.core.rolling.SizeAndTimeBasedRollingPolicy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * 支持 Zstandard 归档压缩的按大小和时间滚动策略
+ *
+ * <p>{@code fileNamePattern} 以 {@code .zst} 结尾时：</p>
+ * <ul>
+ * <li>滚动时 Logback 直接把活动文件重命名为最终的 {@code .zst} 文件名（不压缩），序号计算与过期清理照常按该文件名进行</li>
+ * <li>随后由低优先级的后台线程将其原地压缩为 zstd 格式（先写临时文件再替换），所有文件共用一个线程，
+ * 多个日志同时滚动时依次压缩，不会同时占满多个 CPU</li>
+ * <li>zstd 压缩速度远高于 gzip，压缩率相当，滚动时的 CPU 尖峰明显降低</li>
+ * </ul>
+ *
+ * <p>其他后缀（{@code .gz}、{@code .zip} 或不压缩）与 {@link SizeAndTimeBasedRollingPolicy} 完全一致。
+ * 压缩完成前或进程在压缩中被终止时，{@code .zst} 文件内容为未压缩文本，{@link LogArchives} 可同时读取两种情况；
+ * 启动时会把归档目录中同一前缀、仍未压缩的 {@code .zst} 文件重新加入压缩队列
+ * （归档目录本身含日期等变量时不做补偿）。</p>
+ *
+ * <p>需引入 {@code com.github.luben:zstd-jni}，未引入时改用 {@code .gz} 后缀按 gzip 压缩并输出警告，
+ * 避免未压缩文本使用 {@code .zst} 文件名。</p>
+ *
+ * @param <E> 事件类型
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public class ZstdSizeAndTimeBasedRollingPolicy<E> extends SizeAndTimeBasedRollingPolicy<E> {
+
+    /** Zstandard 归档后缀 */
+    public static final String ZSTD_SUFFIX = ".zst";
+
+    /** 默认压缩级别（zstd 默认值，兼顾速度与压缩率） */
+    public static final int DEFAULT_COMPRESSION_LEVEL = 3;
+
+    /** 所有滚动策略共用的低优先级压缩线程 */
+    private static final ExecutorService COMPRESSOR = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "mimir-log-archive-compressor");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+
+    static {
+        ((ThreadPoolExecutor) COMPRESSOR).allowCoreThreadTimeOut(true);
+    }
+
+    private int compressionLevel = DEFAULT_COMPRESSION_LEVEL;
+
+    private boolean zstd;
+
+    private volatile Future<?> zstdFuture;
+
+    @Override
+    public void start() {
+        zstd = fileNamePatternStr != null && fileNamePatternStr.endsWith(ZSTD_SUFFIX);
+        if (zstd && !isZstdAvailable()) {
+            String gzPattern = fileNamePatternStr.substring(0, fileNamePatternStr.length() - ZSTD_SUFFIX.length())
+                    + ".gz";
+            addWarn("zstd-jni not found on the classpath, archives matching [" + fileNamePatternStr
+                    + "] will be compressed with gzip as [" + gzPattern + "].");
+            setFileNamePattern(gzPattern);
+            zstd = false;
+        }
+        super.start();
+        if (zstd) {
+            recoverPendingArchives();
+        }
+    }
+
+    boolean isZstdAvailable() {
+        return LogArchives.isZstdAvailable();
+    }
+
+    /**
+     * 重新压缩上次运行未完成压缩（进程被终止或压缩失败）的 {@code .zst} 归档
+     */
+    private void recoverPendingArchives() {
+        Path pattern = Paths.get(fileNamePatternStr);
+        Path dir = pattern.getParent() != null ? pattern.getParent() : Paths.get(".");
+        if (dir.toString().indexOf('%') >= 0 || !Files.isDirectory(dir)) {
+            return;
+        }
+        String name = pattern.getFileName().toString();
+        int variable = name.indexOf('%');
+        String prefix = variable >= 0 ? name.substring(0, variable) : name;
+        zstdFuture = COMPRESSOR.submit(() -> {
+            try (Stream<Path> files = Files.list(dir)) {
+                files.filter(file -> {
+                    String fileName = file.getFileName().toString();
+                    return fileName.startsWith(prefix) && fileName.endsWith(ZSTD_SUFFIX);
+                }).forEach(this::compress);
+            } catch (IOException e) {
+                addWarn("Failed to scan [" + dir + "] for uncompressed zstd archives", e);
+            }
+        });
+    }
+
+    @Override
+    public void rollover() throws RolloverFailure {
+        if (!zstd) {
+            super.rollover();
+            return;
+        }
+        // 后缀不是 .gz / .zip 时 Logback 不压缩，直接重命名为该文件名
+        String archive = getTimeBasedFileNamingAndTriggeringPolicy().getElapsedPeriodsFileName();
+        super.rollover();
+        zstdFuture = COMPRESSOR.submit(() -> compress(Paths.get(archive)));
+    }
+
+    private void compress(Path archive) {
+        if (!Files.exists(archive)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            long rawSize = Files.size(archive);
+            if (LogArchives.compressZstdInPlace(archive, compressionLevel)) {
+                addInfo("Compressed [" + archive + "] " + rawSize + " -> " + Files.size(archive) + " bytes in "
+                        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+            }
+        } catch (IOException e) {
+            addError("Failed to compress [" + archive + "] with zstd", e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        // 与 Logback 的 gz 压缩一致：停止时等待未完成的压缩
+        Future<?> future = zstdFuture;
+        if (future != null) {
+            try {
+                future.get(CoreConstants.SECONDS_TO_WAIT_FOR_COMPRESSION_JOBS, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                addError("Timeout while waiting for zstd compression job to finish", e);
+            } catch (ExecutionException e) {
+                addError("Unexpected exception while waiting for zstd compression job to finish", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        super.stop();
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * zstd 压缩级别（1-19，默认：3），越低越快
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+}
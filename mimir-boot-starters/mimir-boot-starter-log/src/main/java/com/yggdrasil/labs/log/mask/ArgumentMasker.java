@@ -0,0 +1,305 @@
+package com.yggdrasil.labs.log.mask;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import com.yggdrasil.labs.log.converter.SensitiveDataPattern;
+import com.yggdrasil.labs.log.metrics.MaskMetrics;
+import org.slf4j.helpers.MessageFormatter;
+
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 参数级脱敏
+ *
+ * <p>只对 {@link ILoggingEvent#getArgumentArray()} 中的参数值脱敏，消息模板中的常量文本不再逐条扫描：</p>
+ * <ul>
+ * <li>每个消息模板解析一次并缓存：各占位符前的键名（如 {@code phone={}}、{@code 手机：{}}）决定该参数的脱敏策略</li>
+ * <li>键名命中关键字规则的参数，按 {@link ValueMasker} 策略脱敏（手机号保留前3后4等）</li>
+ * <li>其余参数按类型处理：布尔、枚举、时间、UUID 等直接跳过；数字和字符串先整值匹配纯号码类规则，
+ * 未命中时再交给脱敏引擎扫描参数自身的文本</li>
+ * <li>模板常量文本本身含敏感信息时（如 {@code "token=abc {}"}），该模板退回整条消息扫描</li>
+ * </ul>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class ArgumentMasker {
+
+    /** 模板缓存上限，防止动态拼接的模板撑爆缓存 */
+    private static final int MAX_CACHED_TEMPLATES = 4096;
+
+    /** 占位符前的键名：键名 + 分隔符（含中文冒号）+ 可选引号 */
+    private static final Pattern KEY_BEFORE_PLACEHOLDER =
+            Pattern.compile("([\\p{L}\\p{N}_]+)\\s*[=:：]\\s*['\"]?$");
+
+    private final MaskEngine engine;
+
+    /** 关键字（小写）与对应策略、命中计数器，按规则顺序 */
+    private final List<String> keywords;
+    private final List<ValueMasker> keywordMaskers;
+    private final List<LongAdder> keywordHits;
+
+    /** 纯号码类规则（整值匹配）与对应策略、命中计数器 */
+    private final List<Predicate<String>> valuePatterns;
+    private final List<ValueMasker> valueMaskers;
+    private final List<LongAdder> valueHits;
+
+    private final Map<String, TemplatePlan> plans = new ConcurrentHashMap<>();
+
+    private ArgumentMasker(MaskEngine engine, List<String> keywords, List<ValueMasker> keywordMaskers,
+                           List<LongAdder> keywordHits, List<Predicate<String>> valuePatterns,
+                           List<ValueMasker> valueMaskers, List<LongAdder> valueHits) {
+        this.engine = engine;
+        this.keywords = keywords;
+        this.keywordMaskers = keywordMaskers;
+        this.keywordHits = keywordHits;
+        this.valuePatterns = valuePatterns;
+        this.valueMaskers = valueMaskers;
+        this.valueHits = valueHits;
+    }
+
+    /**
+     * 构建参数级脱敏器
+     *
+     * @param engine  整条消息脱敏引擎（用于扫描参数文本与兜底）
+     * @param presets 启用的预置规则
+     * @param customs 自定义规则
+     * @return 参数级脱敏器
+     */
+    public static ArgumentMasker of(MaskEngine engine, List<SensitiveDataPattern> presets, List<Pattern> customs) {
+        List<String> keywords = new ArrayList<>();
+        List<ValueMasker> keywordMaskers = new ArrayList<>();
+        List<LongAdder> keywordHits = new ArrayList<>();
+        List<Predicate<String>> valuePatterns = new ArrayList<>();
+        List<ValueMasker> valueMaskers = new ArrayList<>();
+        List<LongAdder> valueHits = new ArrayList<>();
+        MaskMetrics metrics = MaskMetrics.get();
+
+        for (SensitiveDataPattern preset : presets) {
+            List<String> presetKeywords = MaskEngine.keywordsOf(preset.getPattern());
+            LongAdder hits = metrics.ruleCounter(preset.getName());
+            if (preset.getDetector() != null) {
+                valuePatterns.add(preset.getDetector()::matches);
+                valueMaskers.add(ValueMasker.of(preset));
+                valueHits.add(hits);
+            } else if (presetKeywords.isEmpty()) {
+                Pattern pattern = Pattern.compile(preset.getPattern());
+                valuePatterns.add(value -> pattern.matcher(value).matches());
+                valueMaskers.add(ValueMasker.of(preset));
+                valueHits.add(hits);
+            }
+            for (String keyword : presetKeywords) {
+                keywords.add(keyword.toLowerCase());
+                keywordMaskers.add(ValueMasker.of(preset));
+                keywordHits.add(hits);
+            }
+        }
+        for (Pattern custom : customs) {
+            LongAdder hits = metrics.ruleCounter(MaskEngine.ruleName(custom));
+            for (String keyword : MaskEngine.keywordsOf(custom.pattern())) {
+                keywords.add(keyword.toLowerCase());
+                keywordMaskers.add(ValueMasker.ALL);
+                keywordHits.add(hits);
+            }
+        }
+
+        return new ArgumentMasker(engine, keywords, keywordMaskers, keywordHits,
+                valuePatterns, valueMaskers, valueHits);
+    }
+
+    /**
+     * 对日志事件做参数级脱敏
+     *
+     * @param event 日志事件
+     * @return 脱敏后的格式化消息；无需脱敏时返回 {@link ILoggingEvent#getFormattedMessage()} 本身
+     */
+    public String mask(ILoggingEvent event) {
+        String template = event.getMessage();
+        if (template == null) {
+            return engine.mask(event.getFormattedMessage());
+        }
+
+        TemplatePlan plan = plan(template);
+        if (plan.constantHit) {
+            return engine.mask(event.getFormattedMessage());
+        }
+
+        Object[] args = event.getArgumentArray();
+        if (args == null || args.length == 0 || plan.placeholders == 0) {
+            return event.getFormattedMessage();
+        }
+
+        Object[] masked = null;
+        int count = Math.min(args.length, plan.placeholders);
+        for (int i = 0; i < count; i++) {
+            Object arg = args[i];
+            Object result = maskArgument(arg, plan.keywordIndex[i]);
+            if (result != arg) {
+                if (masked == null) {
+                    masked = args.clone();
+                }
+                masked[i] = result;
+            }
+        }
+
+        if (masked == null) {
+            return event.getFormattedMessage();
+        }
+        return MessageFormatter.basicArrayFormat(template, masked);
+    }
+
+    /**
+     * 对带键名的值脱敏（如 MDC 条目），规则与参数级脱敏一致：键名命中关键字时按对应策略脱敏，否则按值匹配
+     *
+     * @param key   键名
+     * @param value 值
+     * @return 脱敏后的值；无需脱敏时返回原值
+     */
+    public String maskKeyed(String key, String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        return (String) maskArgument(value, key != null ? keywordIndexOf(key.toLowerCase()) : -1);
+    }
+
+    /**
+     * 单个参数脱敏，未改变时返回原对象
+     */
+    private Object maskArgument(Object arg, int keyword) {
+        if (arg == null) {
+            return null;
+        }
+        if (keyword >= 0) {
+            keywordHits.get(keyword).increment();
+            return keywordMaskers.get(keyword).mask(render(arg), engine.getReplacement());
+        }
+        if (arg instanceof Boolean || arg instanceof Character || arg instanceof Enum<?>
+                || arg instanceof TemporalAccessor || arg instanceof Date || arg instanceof UUID
+                || arg instanceof Class<?>) {
+            return arg;
+        }
+
+        String text = render(arg);
+        if (arg instanceof Number || arg instanceof CharSequence) {
+            for (int i = 0; i < valuePatterns.size(); i++) {
+                if (valuePatterns.get(i).test(text)) {
+                    valueHits.get(i).increment();
+                    return valueMaskers.get(i).mask(text, engine.getReplacement());
+                }
+            }
+        }
+        String result = engine.mask(text);
+        return result == text ? arg : result;
+    }
+
+    /**
+     * 与 SLF4J 一致的参数渲染（数组展开、toString 异常保护）
+     */
+    private static String render(Object arg) {
+        if (arg instanceof String s) {
+            return s;
+        }
+        return MessageFormatter.basicArrayFormat("{}", new Object[]{arg});
+    }
+
+    /**
+     * 获取模板解析结果（带缓存）
+     */
+    private TemplatePlan plan(String template) {
+        TemplatePlan plan = plans.get(template);
+        if (plan == null) {
+            plan = parse(template);
+            if (plans.size() < MAX_CACHED_TEMPLATES) {
+                plans.put(template, plan);
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * 解析模板：定位占位符（遵循 SLF4J 的转义规则），确定各占位符的脱敏策略，并检查常量文本
+     */
+    private TemplatePlan parse(String template) {
+        List<Integer> keywordIndex = new ArrayList<>();
+        boolean constantHit = false;
+        int segmentStart = 0;
+        int from = 0;
+        while (true) {
+            int index = template.indexOf("{}", from);
+            if (index < 0) {
+                break;
+            }
+            boolean escaped = index >= 1 && template.charAt(index - 1) == '\\';
+            boolean doubleEscaped = escaped && index >= 2 && template.charAt(index - 2) == '\\';
+            if (escaped && !doubleEscaped) {
+                // "\{}" 是字面量，不消耗参数
+                from = index + 2;
+                continue;
+            }
+            String segment = template.substring(segmentStart, doubleEscaped ? index - 1 : index);
+            constantHit |= engine.mask(segment) != segment;
+            keywordIndex.add(keywordOf(segment));
+            segmentStart = index + 2;
+            from = index + 2;
+        }
+        String tail = template.substring(segmentStart);
+        constantHit |= engine.mask(tail) != tail;
+        return new TemplatePlan(keywordIndex.stream().mapToInt(Integer::intValue).toArray(), constantHit);
+    }
+
+    /**
+     * 占位符前的键名命中关键字时，返回关键字下标，否则返回 -1
+     */
+    private int keywordOf(String segment) {
+        if (keywords.isEmpty()) {
+            return -1;
+        }
+        Matcher m = KEY_BEFORE_PLACEHOLDER.matcher(segment);
+        if (!m.find()) {
+            return -1;
+        }
+        return keywordIndexOf(m.group(1).toLowerCase());
+    }
+
+    /**
+     * 键名（小写）命中的关键字下标，未命中返回 -1
+     */
+    private int keywordIndexOf(String key) {
+        // 与正则规则语义一致：关键字紧贴分隔符即可（如 userPassword= 命中 password）
+        for (int i = 0; i < keywords.size(); i++) {
+            if (key.endsWith(keywords.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 模板解析结果
+     */
+    private static final class TemplatePlan {
+
+        /** 每个占位符前键名命中的关键字下标，-1 表示按参数类型处理 */
+        private final int[] keywordIndex;
+
+        private final int placeholders;
+
+        /** 常量文本本身命中脱敏规则 */
+        private final boolean constantHit;
+
+        private TemplatePlan(int[] keywordIndex, boolean constantHit) {
+            this.keywordIndex = keywordIndex;
+            this.placeholders = keywordIndex.length;
+            this.constantHit = constantHit;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.yggdrasil.labs.log.mask;
+
+/**
+ * 带校验的数字串识别器
+ *
+ * <p>纯号码类正则（{@code \d{15}|\d{18}}、{@code \d{16,19}}）没有边界和校验，订单号、雪花 ID、时间戳都会被误伤。
+ * 识别器只接收完整的数字串（前后不能紧贴字母或数字），并在替换前做校验：</p>
+ * <ul>
+ * <li>{@link #ID_CARD}：18 位按 GB 11643 校验位校验，15 位校验出生日期</li>
+ * <li>{@link #BANK_CARD}：16-19 位，Luhn 校验，首位为 3-6（排除以 1 开头的雪花 ID）</li>
+ * <li>{@link #PHONE}：11 位，号段属于已分配的运营商号段</li>
+ * </ul>
+ *
+ * <p>由 {@link MaskEngine} 在主扫描中调用：只在数字串起点处判断一次，整体为线性扫描，无正则回溯。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public enum DigitRunDetector {
+
+    /** 身份证号 */
+    ID_CARD {
+        @Override
+        boolean accepts(CharSequence text, int start, int end) {
+            int length = end - start;
+            if (length == 18) {
+                return isIdCard18(text, start);
+            }
+            return length == 15 && isIdCard15(text, start);
+        }
+    },
+
+    /** 银行卡号 */
+    BANK_CARD {
+        @Override
+        boolean accepts(CharSequence text, int start, int end) {
+            int length = end - start;
+            if (length < 16 || length > 19 || !isDigits(text, start, end)) {
+                return false;
+            }
+            char first = text.charAt(start);
+            return first >= '3' && first <= '6' && luhn(text, start, end);
+        }
+    },
+
+    /** 手机号 */
+    PHONE {
+        @Override
+        boolean accepts(CharSequence text, int start, int end) {
+            if (end - start != 11 || !isDigits(text, start, end) || text.charAt(start) != '1') {
+                return false;
+            }
+            return MOBILE_PREFIXES[(text.charAt(start + 1) - '0') * 10 + (text.charAt(start + 2) - '0')];
+        }
+    };
+
+    /** GB 11643 前 17 位加权因子 */
+    private static final int[] ID_CARD_WEIGHTS = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+
+    /** GB 11643 校验码（按加权和对 11 取余索引） */
+    private static final char[] ID_CARD_CHECK_CODES = {'1', '0', 'X', '9', '8', '7', '6', '5', '4', '3', '2'};
+
+    /** 已分配的手机号段（1 之后的两位：30-39、45-49、50-53、55-59、62、65-67、70-78、80-89、90-93、95-99） */
+    private static final boolean[] MOBILE_PREFIXES = new boolean[100];
+
+    static {
+        for (String range : new String[]{"30-39", "45-49", "50-53", "55-59", "62-62", "65-67",
+                "70-78", "80-89", "90-93", "95-99"}) {
+            int from = Integer.parseInt(range.substring(0, 2));
+            int to = Integer.parseInt(range.substring(3));
+            for (int prefix = from; prefix <= to; prefix++) {
+                MOBILE_PREFIXES[prefix] = true;
+            }
+        }
+    }
+
+    /**
+     * 校验完整数字串 {@code text[start, end)}
+     *
+     * <p>调用方保证区间前后不是字母或数字；身份证末位的 X 包含在区间内。</p>
+     */
+    abstract boolean accepts(CharSequence text, int start, int end);
+
+    /**
+     * 整个值是否为合法号码（参数级脱敏使用）
+     *
+     * @param value 参数值
+     * @return 是否命中
+     */
+    public boolean matches(CharSequence value) {
+        return value != null && accepts(value, 0, value.length());
+    }
+
+    /**
+     * 数字串的结束位置（不含），18 位身份证允许末位为 X
+     *
+     * @param text  文本
+     * @param start 数字串起点
+     * @return 结束位置；数字串后紧贴字母或数字时返回 -1
+     */
+    static int runEnd(CharSequence text, int start) {
+        int length = text.length();
+        int end = start;
+        while (end < length && isDigit(text.charAt(end))) {
+            end++;
+        }
+        if (end - start == 17 && end < length && (text.charAt(end) == 'X' || text.charAt(end) == 'x')) {
+            end++;
+        }
+        return end < length && isWordChar(text.charAt(end)) ? -1 : end;
+    }
+
+    /**
+     * 是否为数字串起点：当前为数字，且前一个字符不是字母或数字
+     */
+    static boolean isRunStart(CharSequence text, int index) {
+        return isDigit(text.charAt(index)) && (index == 0 || !isWordChar(text.charAt(index - 1)));
+    }
+
+    private static boolean isIdCard18(CharSequence text, int start) {
+        if (!isDigits(text, start, start + 17) || !isRegion(text.charAt(start))) {
+            return false;
+        }
+        int year = number(text, start + 6, 4);
+        if (year < 1900 || year > 2099 || !isDate(year, number(text, start + 10, 2), number(text, start + 12, 2))) {
+            return false;
+        }
+        int sum = 0;
+        for (int i = 0; i < 17; i++) {
+            sum += (text.charAt(start + i) - '0') * ID_CARD_WEIGHTS[i];
+        }
+        char check = Character.toUpperCase(text.charAt(start + 17));
+        return check == ID_CARD_CHECK_CODES[sum % 11];
+    }
+
+    private static boolean isIdCard15(CharSequence text, int start) {
+        return isDigits(text, start, start + 15) && isRegion(text.charAt(start))
+                && isDate(1900 + number(text, start + 6, 2), number(text, start + 8, 2), number(text, start + 10, 2));
+    }
+
+    private static boolean luhn(CharSequence text, int start, int end) {
+        int sum = 0;
+        boolean doubled = false;
+        for (int i = end - 1; i >= start; i--) {
+            int digit = text.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return sum % 10 == 0;
+    }
+
+    /**
+     * 行政区划代码首位不为 0
+     */
+    private static boolean isRegion(char first) {
+        return first >= '1' && first <= '9';
+    }
+
+    private static boolean isDate(int year, int month, int day) {
+        if (month < 1 || month > 12 || day < 1) {
+            return false;
+        }
+        int maxDay = switch (month) {
+            case 2 -> (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+        return day <= maxDay;
+    }
+
+    private static int number(CharSequence text, int start, int length) {
+        int value = 0;
+        for (int i = start; i < start + length; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigits(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWordChar(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
@@ -0,0 +1,209 @@
+package com.yggdrasil.labs.log.mask;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * 关键字 Aho-Corasick 自动机
+ *
+ * <p>用于脱敏引擎的字面量预过滤：一次线性扫描即可找出所有关键字（如 password、token、手机）的出现位置。</p>
+ * <ul>
+ * <li>ASCII 字符大小写不敏感（与正则 {@code (?i)} 的默认语义一致）</li>
+ * <li>ASCII 字符使用预计算的稠密跳转表，非 ASCII 字符（中文关键字）沿失败链查找</li>
+ * <li>构建完成后只读，可被多个线程共享</li>
+ * </ul>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+final class KeywordAutomaton {
+
+    private static final int ASCII = 128;
+
+    /** ASCII 跳转表：asciiNext[state * 128 + c] */
+    private final int[] asciiNext;
+
+    /** 非 ASCII 字符的 trie 边 */
+    private final Map<Character, Integer>[] wideEdges;
+
+    /** 失败指针 */
+    private final int[] fail;
+
+    /** 每个状态命中的关键字长度（按长度降序），无命中为 null */
+    private final int[][] hitLengths;
+
+    /** 与 hitLengths 一一对应的规则下标 */
+    private final int[][] hitRules;
+
+    /** 是否存在非 ASCII 关键字 */
+    private final boolean hasWide;
+
+    private KeywordAutomaton(int[] asciiNext, Map<Character, Integer>[] wideEdges, int[] fail,
+                             int[][] hitLengths, int[][] hitRules, boolean hasWide) {
+        this.asciiNext = asciiNext;
+        this.wideEdges = wideEdges;
+        this.fail = fail;
+        this.hitLengths = hitLengths;
+        this.hitRules = hitRules;
+        this.hasWide = hasWide;
+    }
+
+    /**
+     * 构建自动机
+     *
+     * @param keywords 关键字列表
+     * @param rules    每个关键字所属的规则下标（与 keywords 一一对应）
+     * @return 自动机
+     */
+    @SuppressWarnings("unchecked")
+    static KeywordAutomaton build(List<String> keywords, List<Integer> rules) {
+        List<Map<Character, Integer>> edges = new ArrayList<>();
+        List<List<int[]>> outputs = new ArrayList<>();
+        edges.add(new HashMap<>());
+        outputs.add(new ArrayList<>());
+        boolean hasWide = false;
+
+        // 1. 构建 trie
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k);
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = fold(keyword.charAt(i));
+                hasWide |= c >= ASCII;
+                Integer next = edges.get(state).get(c);
+                if (next == null) {
+                    next = edges.size();
+                    edges.get(state).put(c, next);
+                    edges.add(new HashMap<>());
+                    outputs.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            outputs.get(state).add(new int[]{keyword.length(), rules.get(k)});
+        }
+
+        // 2. BFS 计算失败指针，并合并失败链上的输出
+        int size = edges.size();
+        int[] fail = new int[size];
+        int[] asciiNext = new int[size * ASCII];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (Map.Entry<Character, Integer> e : edges.get(0).entrySet()) {
+            queue.add(e.getValue());
+        }
+        List<Integer> order = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            order.add(state);
+            for (Map.Entry<Character, Integer> e : edges.get(state).entrySet()) {
+                char c = e.getKey();
+                int child = e.getValue();
+                int f = fail[state];
+                while (f != 0 && !edges.get(f).containsKey(c)) {
+                    f = fail[f];
+                }
+                Integer target = edges.get(f).get(c);
+                fail[child] = target != null && target != child ? target : 0;
+                outputs.get(child).addAll(outputs.get(fail[child]));
+                queue.add(child);
+            }
+        }
+
+        // 3. 预计算 ASCII 跳转表（BFS 顺序保证失败状态先于当前状态完成）
+        for (int c = 0; c < ASCII; c++) {
+            Integer next = edges.get(0).get((char) c);
+            asciiNext[c] = next != null ? next : 0;
+        }
+        for (int state : order) {
+            for (int c = 0; c < ASCII; c++) {
+                Integer next = edges.get(state).get((char) c);
+                asciiNext[state * ASCII + c] = next != null ? next : asciiNext[fail[state] * ASCII + c];
+            }
+        }
+
+        // 4. 整理输出与非 ASCII 边
+        int[][] hitLengths = new int[size][];
+        int[][] hitRules = new int[size][];
+        Map<Character, Integer>[] wideEdges = new Map[size];
+        for (int state = 0; state < size; state++) {
+            List<int[]> out = outputs.get(state);
+            if (!out.isEmpty()) {
+                int[][] sorted = out.toArray(new int[0][]);
+                // 长度降序（起点最靠左的优先），同长度按规则顺序
+                Arrays.sort(sorted, (a, b) -> a[0] != b[0] ? b[0] - a[0] : a[1] - b[1]);
+                hitLengths[state] = new int[sorted.length];
+                hitRules[state] = new int[sorted.length];
+                for (int i = 0; i < sorted.length; i++) {
+                    hitLengths[state][i] = sorted[i][0];
+                    hitRules[state][i] = sorted[i][1];
+                }
+            }
+            Map<Character, Integer> wide = null;
+            for (Map.Entry<Character, Integer> e : edges.get(state).entrySet()) {
+                if (e.getKey() >= ASCII) {
+                    if (wide == null) {
+                        wide = new HashMap<>();
+                    }
+                    wide.put(e.getKey(), e.getValue());
+                }
+            }
+            wideEdges[state] = wide;
+        }
+
+        return new KeywordAutomaton(asciiNext, wideEdges, fail, hitLengths, hitRules, hasWide);
+    }
+
+    /**
+     * 状态迁移
+     *
+     * @param state 当前状态
+     * @param ch    输入字符
+     * @return 下一个状态
+     */
+    int next(int state, char ch) {
+        char c = fold(ch);
+        if (c < ASCII) {
+            return asciiNext[state * ASCII + c];
+        }
+        if (!hasWide) {
+            return 0;
+        }
+        int s = state;
+        while (true) {
+            Map<Character, Integer> wide = wideEdges[s];
+            Integer next = wide != null ? wide.get(c) : null;
+            if (next != null) {
+                return next;
+            }
+            if (s == 0) {
+                return 0;
+            }
+            s = fail[s];
+        }
+    }
+
+    /**
+     * 当前状态命中的关键字长度（降序），未命中返回 null
+     */
+    int[] hitLengths(int state) {
+        return hitLengths[state];
+    }
+
+    /**
+     * 当前状态命中的规则下标，与 {@link #hitLengths(int)} 一一对应
+     */
+    int[] hitRules(int state) {
+        return hitRules[state];
+    }
+
+    /**
+     * ASCII 大小写折叠
+     */
+    private static char fold(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
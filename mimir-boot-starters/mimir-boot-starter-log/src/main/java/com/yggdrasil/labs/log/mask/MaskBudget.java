@@ -0,0 +1,105 @@
+package com.yggdrasil.labs.log.mask;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单条日志的脱敏预算
+ *
+ * <p>限制每条消息最多扫描的字符数和耗时，避免误打的超大日志（如整段 JSON 报文）长时间占用日志线程：</p>
+ * <ul>
+ * <li>消息长度超过 {@code maxChars}：只扫描前 {@code maxChars} 个字符</li>
+ * <li>扫描耗时超过 {@code maxNanos}：在当前位置停止扫描</li>
+ * <li>超出预算后按 {@link OverflowAction} 截断或整体替换，并在末尾标注原始长度；预算触发次数全局累计</li>
+ * </ul>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class MaskBudget {
+
+    /** 不限制 */
+    public static final MaskBudget UNLIMITED = new MaskBudget(0, 0, OverflowAction.TRUNCATE);
+
+    /** 预算触发次数（跨引擎重建累计） */
+    private static final LongAdder TRIPS = new LongAdder();
+
+    private final int maxChars;
+
+    private final long maxNanos;
+
+    private final OverflowAction action;
+
+    private MaskBudget(int maxChars, long maxNanos, OverflowAction action) {
+        this.maxChars = maxChars;
+        this.maxNanos = maxNanos;
+        this.action = action;
+    }
+
+    /**
+     * 创建脱敏预算
+     *
+     * @param maxChars 最多扫描的字符数，小于等于 0 表示不限制
+     * @param maxNanos 最长扫描耗时（纳秒），小于等于 0 表示不限制
+     * @param action   超出预算时的处理方式
+     * @return 脱敏预算
+     */
+    public static MaskBudget of(int maxChars, long maxNanos, OverflowAction action) {
+        if (maxChars <= 0 && maxNanos <= 0) {
+            return UNLIMITED;
+        }
+        return new MaskBudget(Math.max(maxChars, 0), Math.max(maxNanos, 0),
+                action != null ? action : OverflowAction.TRUNCATE);
+    }
+
+    public int getMaxChars() {
+        return maxChars;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public OverflowAction getAction() {
+        return action;
+    }
+
+    /**
+     * 消息长度是否超出预算
+     */
+    boolean exceedsChars(int length) {
+        return maxChars > 0 && length > maxChars;
+    }
+
+    /**
+     * 扫描截止时间（{@link System#nanoTime()}），不限时返回 0
+     */
+    long deadline() {
+        return maxNanos > 0 ? System.nanoTime() + maxNanos : 0;
+    }
+
+    /**
+     * 记录一次预算触发，并生成输出
+     *
+     * @param maskedPrefix 已脱敏的前缀
+     * @param length       原始消息长度
+     * @param replacement  替换字符
+     * @return 截断或整体替换后的消息
+     */
+    String overflow(String maskedPrefix, int length, String replacement) {
+        TRIPS.increment();
+        String marker = "...[mask budget exceeded, length=" + length + "]";
+        if (action == OverflowAction.REDACT || maskedPrefix == null) {
+            return replacement + marker;
+        }
+        return maskedPrefix + marker;
+    }
+
+    /**
+     * 预算触发次数
+     *
+     * @return 自启动以来超出预算的日志条数
+     */
+    public static long getTripCount() {
+        return TRIPS.sum();
+    }
+}
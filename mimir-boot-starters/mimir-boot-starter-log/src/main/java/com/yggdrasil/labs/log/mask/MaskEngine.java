@@ -0,0 +1,619 @@
+package com.yggdrasil.labs.log.mask;
+
+import com.yggdrasil.labs.log.converter.SensitiveDataPattern;
+import com.yggdrasil.labs.log.metrics.MaskMetrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 编译后的脱敏引擎
+ *
+ * <p>将所有启用的脱敏规则合并为一次扫描，替代逐条规则 {@code replaceAll} 的做法：</p>
+ * <ul>
+ * <li>关键字规则（形如 {@code (?i)(password|pwd)\s*[=:]...}）：关键字进入 Aho-Corasick 自动机做字面量预过滤，
+ * 只在命中关键字的位置上执行值正则</li>
+ * <li>其余正则规则（纯手机号、邮箱、自定义规则等）：合并为一个多分支正则，与关键字扫描交错推进</li>
+ * <li>数字串识别器（{@link DigitRunDetector}）：在数字串起点处校验整串，命中后整体替换</li>
+ * <li>未命中任何规则时直接返回原字符串，不产生任何分配</li>
+ * <li>超长或扫描超时的消息按 {@link MaskBudget} 截断或整体替换</li>
+ * </ul>
+ *
+ * <p>引擎构建完成后只读，可被多个日志线程共享；正则 {@link Matcher} 按线程复用。
+ * 每次脱敏向 {@link MaskMetrics} 记录扫描/替换字符数与各规则命中次数。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class MaskEngine {
+
+    /**
+     * 关键字规则的形态：{@code (?i)(kw1|kw2|...)<值正则>}
+     */
+    private static final Pattern KEYWORD_RULE =
+            Pattern.compile("^\\(\\?i\\)\\(([\\p{L}\\p{N}_]+(?:\\|[\\p{L}\\p{N}_]+)*)\\)(.+)$", Pattern.DOTALL);
+
+    /** 反向引用（无法安全地合并到多分支正则中） */
+    private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\[1-9]|\\\\k<");
+
+    /** 向后查找（值正则在关键字之后单独锚定执行，无法看到关键字之前的内容） */
+    private static final Pattern LOOK_BEHIND = Pattern.compile("\\(\\?<[=!]");
+
+    private static final String DEFAULT_REPLACEMENT = "******";
+
+    /** 扫描超时检查间隔（步数） */
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    /** 空引擎：不包含任何规则 */
+    private static final MaskEngine EMPTY =
+            new MaskEngine(null, new int[0], new Pattern[0], 0, new DigitRunDetector[0],
+                    DEFAULT_REPLACEMENT, MaskBudget.UNLIMITED, RuleHits.NONE);
+
+    private final KeywordAutomaton automaton;
+
+    /** 关键字规则下标 -> 值正则下标 */
+    private final int[] valuePatternOf;
+
+    /** 值正则与扫描正则（扫描正则位于末尾） */
+    private final Pattern[] patterns;
+
+    private final int valuePatternCount;
+
+    /** 数字串识别器（按优先级排列） */
+    private final DigitRunDetector[] detectors;
+
+    private final String replacement;
+
+    private final MaskBudget budget;
+
+    private final RuleHits hits;
+
+    private final ThreadLocal<Scratch> scratch;
+
+    private MaskEngine(KeywordAutomaton automaton, int[] valuePatternOf, Pattern[] patterns,
+                       int valuePatternCount, DigitRunDetector[] detectors, String replacement, MaskBudget budget,
+                       RuleHits hits) {
+        this.automaton = automaton;
+        this.valuePatternOf = valuePatternOf;
+        this.patterns = patterns;
+        this.valuePatternCount = valuePatternCount;
+        this.detectors = detectors;
+        this.replacement = replacement;
+        this.budget = budget;
+        this.hits = hits;
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(patterns.length, patterns.length - valuePatternCount));
+    }
+
+    /**
+     * 空引擎
+     *
+     * @return 不做任何脱敏的引擎
+     */
+    public static MaskEngine empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 编译脱敏引擎
+     *
+     * @param rules       已编译的脱敏正则（按优先级排列）
+     * @param replacement 替换字符
+     * @return 脱敏引擎
+     */
+    public static MaskEngine of(List<Pattern> rules, String replacement) {
+        return of(rules, List.of(), replacement);
+    }
+
+    /**
+     * 编译脱敏引擎
+     *
+     * @param rules       已编译的脱敏正则（按优先级排列）
+     * @param detectors   数字串识别器（按优先级排列）
+     * @param replacement 替换字符
+     * @return 脱敏引擎
+     */
+    public static MaskEngine of(List<Pattern> rules, List<DigitRunDetector> detectors, String replacement) {
+        return of(rules, detectors, replacement, MaskBudget.UNLIMITED);
+    }
+
+    /**
+     * 编译脱敏引擎
+     *
+     * @param rules       已编译的脱敏正则（按优先级排列）
+     * @param detectors   数字串识别器（按优先级排列）
+     * @param replacement 替换字符
+     * @param budget      单条消息的脱敏预算
+     * @return 脱敏引擎
+     */
+    public static MaskEngine of(List<Pattern> rules, List<DigitRunDetector> detectors, String replacement,
+                                MaskBudget budget) {
+        MaskBudget effectiveBudget = budget != null ? budget : MaskBudget.UNLIMITED;
+        DigitRunDetector[] detectorArray = detectors == null
+                ? new DigitRunDetector[0] : detectors.toArray(new DigitRunDetector[0]);
+        if (rules == null || rules.isEmpty()) {
+            return detectorArray.length == 0 && (replacement == null || DEFAULT_REPLACEMENT.equals(replacement))
+                    ? EMPTY : new MaskEngine(null, new int[0], new Pattern[0], 0, detectorArray,
+                    replacement != null ? replacement : DEFAULT_REPLACEMENT, effectiveBudget,
+                    new RuleHits(new LongAdder[0], new LongAdder[0], new int[0], new LongAdder[0],
+                            detectorCounters(detectorArray)));
+        }
+
+        List<String> keywords = new ArrayList<>();
+        List<Integer> keywordRules = new ArrayList<>();
+        Map<String, Integer> valuePatternIndex = new LinkedHashMap<>();
+        List<Integer> valuePatternOf = new ArrayList<>();
+        List<String> scanAlternatives = new ArrayList<>();
+        List<Pattern> standaloneScans = new ArrayList<>();
+        List<LongAdder> keywordHits = new ArrayList<>();
+        List<LongAdder> alternativeHits = new ArrayList<>();
+        List<Integer> alternativeGroups = new ArrayList<>();
+        List<LongAdder> standaloneHits = new ArrayList<>();
+        int group = 1;
+
+        for (Pattern rule : rules) {
+            Matcher shape = KEYWORD_RULE.matcher(rule.pattern());
+            if (shape.matches() && rule.flags() == 0 && isAnchorable(shape.group(2))) {
+                int ruleIndex = valuePatternOf.size();
+                String value = shape.group(2);
+                Integer index = valuePatternIndex.get(value);
+                if (index == null) {
+                    index = valuePatternIndex.size();
+                    valuePatternIndex.put(value, index);
+                }
+                valuePatternOf.add(index);
+                keywordHits.add(MaskMetrics.get().ruleCounter(ruleName(rule)));
+                for (String keyword : shape.group(1).split("\\|")) {
+                    keywords.add(keyword);
+                    keywordRules.add(ruleIndex);
+                }
+            } else if (rule.flags() == 0 && !BACK_REFERENCE.matcher(rule.pattern()).find()) {
+                // 每个分支包一层捕获组，命中后按组号定位是哪条规则
+                scanAlternatives.add("(" + rule.pattern() + ")");
+                alternativeGroups.add(group);
+                alternativeHits.add(MaskMetrics.get().ruleCounter(ruleName(rule)));
+                group += rule.matcher("").groupCount() + 1;
+            } else {
+                standaloneScans.add(rule);
+                standaloneHits.add(MaskMetrics.get().ruleCounter(ruleName(rule)));
+            }
+        }
+
+        List<Pattern> compiled = new ArrayList<>();
+        for (String value : valuePatternIndex.keySet()) {
+            compiled.add(Pattern.compile(value, Pattern.CASE_INSENSITIVE));
+        }
+        int valueCount = compiled.size();
+        if (!scanAlternatives.isEmpty()) {
+            compiled.add(Pattern.compile(String.join("|", scanAlternatives)));
+        }
+        compiled.addAll(standaloneScans);
+
+        KeywordAutomaton automaton = keywords.isEmpty() ? null : KeywordAutomaton.build(keywords, keywordRules);
+        int[] valueOf = valuePatternOf.stream().mapToInt(Integer::intValue).toArray();
+        RuleHits hits = new RuleHits(keywordHits.toArray(new LongAdder[0]), alternativeHits.toArray(new LongAdder[0]),
+                alternativeGroups.stream().mapToInt(Integer::intValue).toArray(),
+                standaloneHits.toArray(new LongAdder[0]), detectorCounters(detectorArray));
+        return new MaskEngine(automaton, valueOf, compiled.toArray(new Pattern[0]), valueCount, detectorArray,
+                replacement != null ? replacement : DEFAULT_REPLACEMENT, effectiveBudget, hits);
+    }
+
+    /**
+     * 规则在指标中的名称：预置规则使用预置名称，其余为 {@code custom:<正则>}
+     *
+     * @param rule 脱敏正则
+     * @return 规则名
+     */
+    public static String ruleName(Pattern rule) {
+        for (SensitiveDataPattern preset : SensitiveDataPattern.values()) {
+            if (preset.getDetector() == null && preset.getPattern().equals(rule.pattern())) {
+                return preset.getName();
+            }
+        }
+        return "custom:" + rule.pattern();
+    }
+
+    /**
+     * 数字串识别器在指标中的名称
+     *
+     * @param detector 识别器
+     * @return 规则名
+     */
+    public static String ruleName(DigitRunDetector detector) {
+        for (SensitiveDataPattern preset : SensitiveDataPattern.values()) {
+            if (preset.getDetector() == detector) {
+                return preset.getName();
+            }
+        }
+        return detector.name().toLowerCase();
+    }
+
+    private static LongAdder[] detectorCounters(DigitRunDetector[] detectors) {
+        LongAdder[] counters = new LongAdder[detectors.length];
+        for (int i = 0; i < detectors.length; i++) {
+            counters[i] = MaskMetrics.get().ruleCounter(ruleName(detectors[i]));
+        }
+        return counters;
+    }
+
+    /**
+     * 解析关键字规则中的关键字
+     *
+     * @param regex 脱敏正则
+     * @return 关键字列表；不是关键字规则时返回空列表
+     */
+    public static List<String> keywordsOf(String regex) {
+        Matcher shape = KEYWORD_RULE.matcher(regex);
+        if (!shape.matches() || !isAnchorable(shape.group(2))) {
+            return List.of();
+        }
+        return List.of(shape.group(1).split("\\|"));
+    }
+
+    /**
+     * 值正则能否脱离关键字单独锚定执行：不能含顶层分支，也不能含向后查找
+     */
+    private static boolean isAnchorable(String value) {
+        if (LOOK_BEHIND.matcher(value).find()) {
+            return false;
+        }
+        int depth = 0;
+        boolean inClass = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (inClass) {
+                inClass = c != ']';
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 替换字符
+     */
+    public String getReplacement() {
+        return replacement;
+    }
+
+    /**
+     * 是否不包含任何规则
+     */
+    public boolean isEmpty() {
+        return automaton == null && patterns.length == 0 && detectors.length == 0;
+    }
+
+    /**
+     * 对消息进行脱敏
+     *
+     * @param message 原始消息
+     * @return 脱敏后的消息；未命中任何规则时返回原字符串本身；超出预算时返回截断或整体替换的结果
+     */
+    public String mask(String message) {
+        if (message == null || message.isEmpty() || isEmpty()) {
+            return message;
+        }
+
+        int length = message.length();
+        boolean tooLong = budget.exceedsChars(length);
+        if (tooLong && budget.getAction() == OverflowAction.REDACT) {
+            MaskMetrics.get().recordScan(0, length);
+            return budget.overflow(null, length, replacement);
+        }
+        String text = tooLong ? message.substring(0, budget.getMaxChars()) : message;
+
+        Scratch local = scratch.get();
+        try {
+            String masked = doMask(text, local, budget.deadline());
+            MaskMetrics.get().recordScan(local.scanned, local.replaced);
+            if (!tooLong && local.scanned == length) {
+                return masked;
+            }
+            return budget.overflow(masked, length, replacement);
+        } finally {
+            local.release();
+        }
+    }
+
+    /**
+     * 单次扫描脱敏；超过截止时间时在当前位置停止，返回已扫描部分的结果（扫描长度记录在 {@link Scratch#scanned}）
+     */
+    private String doMask(String message, Scratch local, long deadline) {
+        int length = message.length();
+        int scanCount = local.scanStarts.length;
+        int[] scanStarts = local.scanStarts;
+        int[] scanEnds = local.scanEnds;
+        for (int s = 0; s < scanCount; s++) {
+            findScan(message, local, s, 0, scanStarts, scanEnds);
+        }
+
+        StringBuilder out = null;
+        int last = 0;
+        int state = 0;
+        int steps = 0;
+        local.scanned = length;
+        local.replaced = 0;
+
+        for (int i = 0; i < length; i++) {
+            // 0. 扫描预算：每 1024 步检查一次耗时，超时则丢弃 i 之后的内容
+            if (deadline != 0 && ++steps >= DEADLINE_CHECK_INTERVAL) {
+                steps = 0;
+                if (System.nanoTime() - deadline > 0) {
+                    local.scanned = i;
+                    return out == null ? message.substring(0, i) : out.append(message, last, i).toString();
+                }
+            }
+
+            // 1. 扫描类规则：在匹配起点处输出
+            int scan = earliestScanAt(scanStarts, i);
+            if (scan >= 0) {
+                int end = scanEnds[scan];
+                countScanHit(local, scan);
+                out = append(out, message, last, i, end);
+                local.replaced += end - i;
+                last = end;
+                state = 0;
+                i = end - 1;
+                rescan(message, local, end);
+                continue;
+            }
+
+            // 2. 数字串识别器：在数字串起点处校验整串
+            if (detectors.length > 0 && DigitRunDetector.isRunStart(message, i)) {
+                int end = detectRun(message, i);
+                if (end > 0) {
+                    out = append(out, message, last, i, end);
+                    local.replaced += end - i;
+                    last = end;
+                    state = 0;
+                    i = end - 1;
+                    rescan(message, local, end);
+                    continue;
+                }
+            }
+
+            // 3. 关键字规则：关键字结束处校验值正则
+            if (automaton == null) {
+                continue;
+            }
+            state = automaton.next(state, message.charAt(i));
+            int[] lengths = automaton.hitLengths(state);
+            if (lengths == null) {
+                continue;
+            }
+            int[] rules = automaton.hitRules(state);
+            for (int h = 0; h < lengths.length; h++) {
+                int start = i - lengths[h] + 1;
+                if (start < last) {
+                    continue;
+                }
+                int end = matchValue(message, local, valuePatternOf[rules[h]], i + 1);
+                if (end < 0) {
+                    continue;
+                }
+                hits.keyword[rules[h]].increment();
+                out = append(out, message, last, start, end);
+                local.replaced += end - start;
+                last = end;
+                state = 0;
+                i = end - 1;
+                rescan(message, local, end);
+                break;
+            }
+        }
+
+        if (out == null) {
+            return message;
+        }
+        return out.append(message, last, length).toString();
+    }
+
+    /**
+     * 校验从 start 开始的数字串，返回命中时的结束位置，未命中返回 -1
+     */
+    private int detectRun(String message, int start) {
+        int end = DigitRunDetector.runEnd(message, start);
+        if (end < 0) {
+            return -1;
+        }
+        for (int d = 0; d < detectors.length; d++) {
+            if (detectors[d].accepts(message, start, end)) {
+                hits.detector[d].increment();
+                return end;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 记录扫描类规则命中：合并正则按捕获组定位具体分支（此时匹配器仍停留在本次命中上）
+     */
+    private void countScanHit(Scratch local, int scan) {
+        int alternatives = hits.alternative.length;
+        if (alternatives == 0) {
+            hits.standalone[scan].increment();
+            return;
+        }
+        if (scan > 0) {
+            hits.standalone[scan - 1].increment();
+            return;
+        }
+        Matcher m = local.matchers[valuePatternCount];
+        for (int k = 0; k < alternatives; k++) {
+            if (m.start(hits.alternativeGroup[k]) >= 0) {
+                hits.alternative[k].increment();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 替换区间之后，重新定位起点落在区间内的扫描类规则
+     */
+    private void rescan(String message, Scratch local, int end) {
+        int[] scanStarts = local.scanStarts;
+        for (int s = 0; s < scanStarts.length; s++) {
+            if (scanStarts[s] >= 0 && scanStarts[s] < end) {
+                findScan(message, local, s, end, scanStarts, local.scanEnds);
+            }
+        }
+    }
+
+    /**
+     * 在 from 位置锚定匹配值正则，返回匹配结束位置，失败返回 -1
+     */
+    private int matchValue(String message, Scratch local, int patternIndex, int from) {
+        if (from >= message.length()) {
+            return -1;
+        }
+        Matcher m = matcher(message, local, patternIndex);
+        m.region(from, message.length());
+        return m.lookingAt() ? m.end() : -1;
+    }
+
+    /**
+     * 查找扫描类规则从 from 开始的下一个非空匹配
+     */
+    private void findScan(String message, Scratch local, int scan, int from, int[] starts, int[] ends) {
+        Matcher m = matcher(message, local, valuePatternCount + scan);
+        int position = from;
+        while (position <= message.length() && m.find(position)) {
+            if (m.end() > m.start()) {
+                starts[scan] = m.start();
+                ends[scan] = m.end();
+                return;
+            }
+            position = m.start() + 1;
+        }
+        starts[scan] = -1;
+    }
+
+    private static int earliestScanAt(int[] scanStarts, int index) {
+        for (int s = 0; s < scanStarts.length; s++) {
+            if (scanStarts[s] == index) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    private Matcher matcher(String message, Scratch local, int index) {
+        Matcher m = local.matchers[index];
+        if (m == null) {
+            m = patterns[index].matcher(message);
+            local.matchers[index] = m;
+        } else {
+            m.reset(message);
+        }
+        return m;
+    }
+
+    /**
+     * 追加 [last, start) 的原文以及 [start, end) 的脱敏结果
+     */
+    private StringBuilder append(StringBuilder out, String message, int last, int start, int end) {
+        if (out == null) {
+            out = new StringBuilder(message.length() + replacement.length());
+        }
+        out.append(message, last, start);
+        appendMasked(out, message, start, end);
+        return out;
+    }
+
+    /**
+     * 对匹配到的值进行脱敏处理
+     * <p>
+     * 含等号时保留等号前缀与引号格式（如 {@code password="******"}），否则整体替换
+     */
+    private void appendMasked(StringBuilder out, String message, int start, int end) {
+        int eq = message.indexOf('=', start);
+        if (eq < 0 || eq >= end) {
+            out.append(replacement);
+            return;
+        }
+        out.append(message, start, eq + 1);
+        char next = eq + 1 < end ? message.charAt(eq + 1) : 0;
+        if (next == '"' || next == '\'') {
+            out.append(next).append(replacement).append(next);
+        } else {
+            out.append(replacement);
+        }
+    }
+
+    /**
+     * 各规则命中计数器（编译时从 {@link MaskMetrics} 解析，跨规则重载累计）
+     */
+    private static final class RuleHits {
+
+        private static final RuleHits NONE =
+                new RuleHits(new LongAdder[0], new LongAdder[0], new int[0], new LongAdder[0], new LongAdder[0]);
+
+        /** 按关键字规则下标 */
+        private final LongAdder[] keyword;
+
+        /** 按合并正则的分支下标，及分支对应的捕获组号 */
+        private final LongAdder[] alternative;
+        private final int[] alternativeGroup;
+
+        /** 按单独扫描的正则下标 */
+        private final LongAdder[] standalone;
+
+        /** 按数字串识别器下标 */
+        private final LongAdder[] detector;
+
+        private RuleHits(LongAdder[] keyword, LongAdder[] alternative, int[] alternativeGroup,
+                         LongAdder[] standalone, LongAdder[] detector) {
+            this.keyword = keyword;
+            this.alternative = alternative;
+            this.alternativeGroup = alternativeGroup;
+            this.standalone = standalone;
+            this.detector = detector;
+        }
+    }
+
+    /**
+     * 线程私有的扫描状态，避免每条消息分配 Matcher 与数组
+     */
+    private static final class Scratch {
+
+        private final Matcher[] matchers;
+        private final int[] scanStarts;
+        private final int[] scanEnds;
+
+        /** 最近一次扫描实际处理的长度 */
+        private int scanned;
+
+        /** 最近一次扫描被替换的字符数 */
+        private int replaced;
+
+        private Scratch(int patternCount, int scanCount) {
+            this.matchers = new Matcher[patternCount];
+            this.scanStarts = new int[scanCount];
+            this.scanEnds = new int[scanCount];
+        }
+
+        /**
+         * 释放对消息的引用，避免大消息被线程长期持有
+         */
+        private void release() {
+            for (Matcher m : matchers) {
+                if (m != null) {
+                    m.reset("");
+                }
+            }
+        }
+    }
+}
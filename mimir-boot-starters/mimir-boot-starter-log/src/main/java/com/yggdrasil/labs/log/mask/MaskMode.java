@@ -0,0 +1,30 @@
+package com.yggdrasil.labs.log.mask;
+
+/**
+ * 脱敏模式
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public enum MaskMode {
+
+    /** 对格式化后的整条消息做正则扫描（默认） */
+    MESSAGE,
+
+    /** 仅对日志参数（{@code {}} 占位符对应的值）做脱敏，消息模板中的常量文本不重复扫描 */
+    ARGUMENT;
+
+    /**
+     * 按名称解析（大小写不敏感），无法识别时返回 {@link #MESSAGE}
+     */
+    public static MaskMode fromName(String name) {
+        if (name != null) {
+            for (MaskMode mode : values()) {
+                if (mode.name().equalsIgnoreCase(name.trim())) {
+                    return mode;
+                }
+            }
+        }
+        return MESSAGE;
+    }
+}
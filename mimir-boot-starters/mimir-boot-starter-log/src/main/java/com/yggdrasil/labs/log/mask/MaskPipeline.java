@@ -0,0 +1,199 @@
+package com.yggdrasil.labs.log.mask;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxy;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 脱敏流水线
+ *
+ * <p>一组启用规则编译出的脱敏引擎与参数级脱敏器。不同 logger 策略启用的规则不同时各自持有一条流水线，
+ * 规则相同的策略共享同一条；{@link #NONE} 表示不脱敏，命中它的日志直接输出原始消息。</p>
+ *
+ * <p>除消息外还负责 MDC 值与异常消息的脱敏，两者都带缓存，缓存随规则快照一起替换：</p>
+ * <ul>
+ * <li>MDC：Logback 的 MDC 映射在修改前保持同一实例，按实例缓存最近一次结果，同一请求内的日志不重复扫描</li>
+ * <li>异常：只扫描异常链各节点的消息，不渲染、不扫描堆栈帧；结果按异常对象（弱引用）缓存在定长槽位中，
+ * 同一异常被逐层记录或批量报错时只扫描一次。缓存按对象标识哈希直接映射、读写均无锁，
+ * 报错突增时各日志线程不会在缓存上互相阻塞；槽位冲突只会覆盖旧结果，导致重新扫描</li>
+ * </ul>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class MaskPipeline {
+
+    /** 不脱敏 */
+    public static final MaskPipeline NONE = new MaskPipeline(null, null);
+
+    private final MaskEngine engine;
+
+    private final ArgumentMasker argumentMasker;
+
+    /** 异常消息缓存槽位数（2 的幂） */
+    private static final int THROWABLE_CACHE_SIZE = 64;
+
+    /** 异常对象 -> 脱敏后的消息（未命中时为原消息），按标识哈希直接映射 */
+    private final AtomicReferenceArray<ThrowableMessage> throwableMessages =
+            new AtomicReferenceArray<>(THROWABLE_CACHE_SIZE);
+
+    /** 最近一次脱敏的 MDC 映射 */
+    private volatile MdcResult lastMdc;
+
+    private MaskPipeline(MaskEngine engine, ArgumentMasker argumentMasker) {
+        this.engine = engine;
+        this.argumentMasker = argumentMasker;
+    }
+
+    /**
+     * 创建脱敏流水线
+     *
+     * @param engine         脱敏引擎
+     * @param argumentMasker 参数级脱敏器
+     * @return 脱敏流水线
+     */
+    public static MaskPipeline of(MaskEngine engine, ArgumentMasker argumentMasker) {
+        return new MaskPipeline(engine, argumentMasker);
+    }
+
+    /**
+     * 对日志事件脱敏
+     *
+     * @param event 日志事件
+     * @param mode  脱敏模式
+     * @return 脱敏后的格式化消息
+     */
+    public String mask(ILoggingEvent event, MaskMode mode) {
+        if (isNone()) {
+            return event.getFormattedMessage();
+        }
+
+        // 参数级脱敏：只处理参数值，模板常量文本按模板缓存判定
+        if (mode == MaskMode.ARGUMENT && event.getMessage() != null) {
+            return argumentMasker.mask(event);
+        }
+
+        String message = event.getFormattedMessage();
+        if (message == null || message.isEmpty()) {
+            return message;
+        }
+        return engine.mask(message);
+    }
+
+    /**
+     * 对 MDC 值脱敏，键名命中关键字时按对应策略脱敏（与参数级脱敏一致）
+     *
+     * @param mdc MDC 映射
+     * @return 脱敏后的只读映射；无需脱敏时返回原映射
+     */
+    public Map<String, String> maskMdc(Map<String, String> mdc) {
+        if (isNone() || mdc == null || mdc.isEmpty()) {
+            return mdc;
+        }
+        MdcResult cached = lastMdc;
+        if (cached != null && cached.source == mdc) {
+            return cached.masked;
+        }
+
+        Map<String, String> masked = null;
+        for (Map.Entry<String, String> entry : mdc.entrySet()) {
+            String value = entry.getValue();
+            String result = argumentMasker.maskKeyed(entry.getKey(), value);
+            if (result != value) {
+                if (masked == null) {
+                    masked = new HashMap<>(mdc);
+                }
+                masked.put(entry.getKey(), result);
+            }
+        }
+
+        Map<String, String> result = masked != null ? Collections.unmodifiableMap(masked) : mdc;
+        lastMdc = new MdcResult(mdc, result);
+        return result;
+    }
+
+    /**
+     * 对异常链中的消息脱敏，堆栈帧保持不变
+     *
+     * @param proxy 异常 proxy
+     * @return 脱敏后的 proxy；无需脱敏时返回原 proxy
+     */
+    public IThrowableProxy maskThrowable(IThrowableProxy proxy) {
+        if (isNone() || proxy == null) {
+            return proxy;
+        }
+        return MaskedThrowableProxy.of(proxy, this::maskThrowableMessage);
+    }
+
+    private String maskThrowableMessage(IThrowableProxy proxy) {
+        String message = proxy.getMessage();
+        if (message == null || message.isEmpty()) {
+            return message;
+        }
+        if (!(proxy instanceof ThrowableProxy throwableProxy)) {
+            return engine.mask(message);
+        }
+
+        Throwable throwable = throwableProxy.getThrowable();
+        int slot = System.identityHashCode(throwable) & (THROWABLE_CACHE_SIZE - 1);
+        ThrowableMessage cached = throwableMessages.get(slot);
+        String masked;
+        if (cached != null && cached.get() == throwable) {
+            masked = cached.masked;
+        } else {
+            masked = engine.mask(message);
+            throwableMessages.set(slot, new ThrowableMessage(throwable, masked));
+        }
+        // 未命中时缓存的是原消息，返回当前 proxy 的消息对象以便调用方按引用判断是否改变
+        return masked.equals(message) ? message : masked;
+    }
+
+    /**
+     * 是否为不脱敏的流水线
+     */
+    public boolean isNone() {
+        return this == NONE;
+    }
+
+    public MaskEngine getEngine() {
+        return engine;
+    }
+
+    public ArgumentMasker getArgumentMasker() {
+        return argumentMasker;
+    }
+
+    /**
+     * 异常消息缓存条目，弱引用异常对象，不延长其生命周期
+     */
+    private static final class ThrowableMessage extends WeakReference<Throwable> {
+
+        private final String masked;
+
+        private ThrowableMessage(Throwable throwable, String masked) {
+            super(throwable);
+            this.masked = masked;
+        }
+    }
+
+    /**
+     * MDC 脱敏结果
+     */
+    private static final class MdcResult {
+
+        private final Map<String, String> source;
+
+        private final Map<String, String> masked;
+
+        private MdcResult(Map<String, String> source, Map<String, String> masked) {
+            this.source = source;
+            this.masked = masked;
+        }
+    }
+}
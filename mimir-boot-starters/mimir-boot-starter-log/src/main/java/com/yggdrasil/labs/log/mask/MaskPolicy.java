@@ -0,0 +1,104 @@
+package com.yggdrasil.labs.log.mask;
+
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * logger / marker 脱敏策略
+ *
+ * <p>把一组 logger 前缀和 marker 名称绑定到一条 {@link MaskPipeline}：</p>
+ * <ul>
+ * <li>logger 按包名前缀匹配（{@code com.foo} 匹配 {@code com.foo} 与 {@code com.foo.Bar}），多个策略命中时取最长前缀</li>
+ * <li>marker 按名称匹配（含引用的子 marker），优先于 logger 匹配</li>
+ * </ul>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class MaskPolicy {
+
+    private final List<String> loggers;
+
+    private final List<String> markers;
+
+    private final MaskPipeline pipeline;
+
+    private MaskPolicy(List<String> loggers, List<String> markers, MaskPipeline pipeline) {
+        this.loggers = loggers;
+        this.markers = markers;
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * 创建脱敏策略
+     *
+     * @param loggers  logger 名称前缀
+     * @param markers  marker 名称
+     * @param pipeline 命中时使用的脱敏流水线
+     * @return 脱敏策略
+     */
+    public static MaskPolicy of(List<String> loggers, List<String> markers, MaskPipeline pipeline) {
+        return new MaskPolicy(trim(loggers), trim(markers), pipeline);
+    }
+
+    private static List<String> trim(List<String> values) {
+        List<String> result = new ArrayList<>();
+        if (values != null) {
+            for (String value : values) {
+                if (value != null && !value.isBlank()) {
+                    result.add(value.trim());
+                }
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    /**
+     * logger 命中的最长前缀长度
+     *
+     * @param loggerName logger 名称
+     * @return 前缀长度；未命中时返回 -1
+     */
+    int loggerMatchLength(String loggerName) {
+        int best = -1;
+        for (String prefix : loggers) {
+            if (prefix.length() > best && loggerName.startsWith(prefix)
+                    && (loggerName.length() == prefix.length() || loggerName.charAt(prefix.length()) == '.')) {
+                best = prefix.length();
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 事件携带的 marker 是否命中
+     */
+    boolean matchesMarker(List<Marker> eventMarkers) {
+        for (Marker marker : eventMarkers) {
+            for (String name : markers) {
+                if (marker.contains(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    boolean hasMarkers() {
+        return !markers.isEmpty();
+    }
+
+    public List<String> getLoggers() {
+        return loggers;
+    }
+
+    public List<String> getMarkers() {
+        return markers;
+    }
+
+    public MaskPipeline getPipeline() {
+        return pipeline;
+    }
+}
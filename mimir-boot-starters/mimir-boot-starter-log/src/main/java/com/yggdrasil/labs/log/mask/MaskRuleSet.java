@@ -0,0 +1,172 @@
+package com.yggdrasil.labs.log.mask;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import org.slf4j.Marker;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 不可变的脱敏规则快照
+ *
+ * <p>一次编译产出的引擎、参数级脱敏器与脱敏模式打包为一个快照，通过一次原子替换整体发布；
+ * 日志线程每条消息只读取一次快照引用，不会看到新旧规则混用的中间状态。</p>
+ *
+ * <p>配置了 {@link MaskPolicy} 时，每个 logger 第一次输出日志时解析一次所属策略并缓存其流水线，
+ * 之后同一 logger 只做一次缓存查找；解析为 {@link MaskPipeline#NONE} 的 logger 完全跳过脱敏。
+ * 缓存随快照一起替换，配置刷新后按新策略重新解析。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class MaskRuleSet {
+
+    /** logger 解析缓存上限，防止动态生成的 logger 名称撑爆缓存 */
+    private static final int MAX_CACHED_LOGGERS = 4096;
+
+    /** 快照版本，单调递增，较旧的编译结果不会覆盖较新的快照 */
+    private final long version;
+
+    /** 全局启用规则编译的流水线 */
+    private final MaskPipeline pipeline;
+
+    /** 未命中任何策略的 logger 使用的流水线 */
+    private final MaskPipeline defaultPipeline;
+
+    private final List<MaskPolicy> policies;
+
+    private final boolean hasMarkerPolicies;
+
+    private final MaskMode mode;
+
+    private final Map<String, MaskPipeline> loggerPipelines = new ConcurrentHashMap<>();
+
+    private MaskRuleSet(long version, MaskPipeline pipeline, MaskPipeline defaultPipeline,
+                        List<MaskPolicy> policies, MaskMode mode) {
+        this.version = version;
+        this.pipeline = pipeline;
+        this.defaultPipeline = defaultPipeline;
+        this.policies = policies;
+        this.hasMarkerPolicies = policies.stream().anyMatch(MaskPolicy::hasMarkers);
+        this.mode = mode;
+    }
+
+    /**
+     * 创建规则快照（所有 logger 使用同一组规则）
+     *
+     * @param version        快照版本
+     * @param engine         脱敏引擎
+     * @param argumentMasker 参数级脱敏器
+     * @param mode           脱敏模式
+     * @return 规则快照
+     */
+    public static MaskRuleSet of(long version, MaskEngine engine, ArgumentMasker argumentMasker, MaskMode mode) {
+        return of(version, MaskPipeline.of(engine, argumentMasker), true, List.of(), mode);
+    }
+
+    /**
+     * 创建规则快照
+     *
+     * @param version        快照版本
+     * @param pipeline       全局启用规则编译的流水线
+     * @param defaultEnabled 未命中任何策略的 logger 是否脱敏
+     * @param policies       logger / marker 脱敏策略
+     * @param mode           脱敏模式
+     * @return 规则快照
+     */
+    public static MaskRuleSet of(long version, MaskPipeline pipeline, boolean defaultEnabled,
+                                 List<MaskPolicy> policies, MaskMode mode) {
+        return new MaskRuleSet(version, pipeline, defaultEnabled ? pipeline : MaskPipeline.NONE,
+                List.copyOf(policies), mode != null ? mode : MaskMode.MESSAGE);
+    }
+
+    /**
+     * 解析日志事件使用的流水线：marker 策略优先，其次按 logger 名称
+     *
+     * @param event 日志事件
+     * @return 脱敏流水线；不脱敏时返回 {@link MaskPipeline#NONE}
+     */
+    public MaskPipeline resolve(ILoggingEvent event) {
+        if (policies.isEmpty()) {
+            return defaultPipeline;
+        }
+        if (hasMarkerPolicies) {
+            List<Marker> markers = event.getMarkerList();
+            if (markers != null && !markers.isEmpty()) {
+                for (MaskPolicy policy : policies) {
+                    if (policy.hasMarkers() && policy.matchesMarker(markers)) {
+                        return policy.getPipeline();
+                    }
+                }
+            }
+        }
+        return resolve(event.getLoggerName());
+    }
+
+    /**
+     * 解析 logger 使用的流水线（带缓存）
+     *
+     * @param loggerName logger 名称
+     * @return 脱敏流水线；不脱敏时返回 {@link MaskPipeline#NONE}
+     */
+    public MaskPipeline resolve(String loggerName) {
+        if (policies.isEmpty() || loggerName == null) {
+            return defaultPipeline;
+        }
+        MaskPipeline resolved = loggerPipelines.get(loggerName);
+        if (resolved == null) {
+            resolved = match(loggerName);
+            if (loggerPipelines.size() < MAX_CACHED_LOGGERS) {
+                loggerPipelines.put(loggerName, resolved);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * 最长前缀匹配，长度相同时取先声明的策略
+     */
+    private MaskPipeline match(String loggerName) {
+        MaskPipeline matched = defaultPipeline;
+        int best = -1;
+        for (MaskPolicy policy : policies) {
+            int length = policy.loggerMatchLength(loggerName);
+            if (length > best) {
+                best = length;
+                matched = policy.getPipeline();
+            }
+        }
+        return matched;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 全局启用规则编译的脱敏引擎
+     */
+    public MaskEngine getEngine() {
+        return pipeline.getEngine();
+    }
+
+    public ArgumentMasker getArgumentMasker() {
+        return pipeline.getArgumentMasker();
+    }
+
+    public List<MaskPolicy> getPolicies() {
+        return policies;
+    }
+
+    public MaskMode getMode() {
+        return mode;
+    }
+
+    /**
+     * 是否比另一个快照更新
+     */
+    public boolean isNewerThan(MaskRuleSet other) {
+        return other == null || version > other.version;
+    }
+}
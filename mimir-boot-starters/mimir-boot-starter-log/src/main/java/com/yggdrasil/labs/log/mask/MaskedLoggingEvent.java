@@ -0,0 +1,199 @@
+package com.yggdrasil.labs.log.mask;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.LoggerContextVO;
+import org.slf4j.Marker;
+import org.slf4j.event.KeyValuePair;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 脱敏结果记忆化的日志事件包装
+ *
+ * <p>同一个日志事件通常会被分发到多个 appender（CONSOLE、FILE_INFO、FILE_ERROR），
+ * 每个 appender 的 {@code %mask} 都会重新脱敏一次。包装后 {@link #getFormattedMessage()}
+ * 只在首次调用时执行脱敏，之后所有下游 encoder 复用同一结果。</p>
+ *
+ * <p>脱敏函数接收原始事件，可按整条消息或按参数脱敏。MDC 与异常同样在首次访问时脱敏一次
+ * （{@code %X}、{@code %ex} 等下游转换器读到的都是脱敏结果），其余方法全部委托给原始事件。</p>
+ *
+ * <p>异步 appender 在调用线程上调用 {@link #prepareForDeferredProcessing()} 时立即脱敏消息：
+ * 参数级脱敏需要调用参数的 {@code toString()}，延迟到异步线程执行会读到参数之后的状态，并与业务线程并发访问参数对象。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class MaskedLoggingEvent implements ILoggingEvent {
+
+    private final ILoggingEvent delegate;
+
+    private final Function<ILoggingEvent, String> masker;
+
+    /** 脱敏结果；并发首次访问时最多重复计算一次，结果一致 */
+    private volatile String maskedMessage;
+
+    private volatile boolean masked;
+
+    private final Function<ILoggingEvent, Map<String, String>> mdcMasker;
+
+    private volatile Map<String, String> maskedMdc;
+
+    private final Function<ILoggingEvent, IThrowableProxy> throwableMasker;
+
+    private volatile IThrowableProxy maskedThrowable;
+
+    private volatile boolean throwableMasked;
+
+    public MaskedLoggingEvent(ILoggingEvent delegate, Function<ILoggingEvent, String> masker) {
+        this(delegate, masker, ILoggingEvent::getMDCPropertyMap, ILoggingEvent::getThrowableProxy);
+    }
+
+    public MaskedLoggingEvent(ILoggingEvent delegate, Function<ILoggingEvent, String> masker,
+                              Function<ILoggingEvent, Map<String, String>> mdcMasker,
+                              Function<ILoggingEvent, IThrowableProxy> throwableMasker) {
+        this.delegate = delegate;
+        this.masker = masker;
+        this.mdcMasker = mdcMasker;
+        this.throwableMasker = throwableMasker;
+    }
+
+    /**
+     * 原始事件
+     */
+    public ILoggingEvent getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 脱敏后的格式化消息（只计算一次）
+     */
+    @Override
+    public String getFormattedMessage() {
+        if (!masked) {
+            // 传入原始事件，参数级脱敏需要读取消息模板和参数
+            maskedMessage = masker.apply(delegate);
+            masked = true;
+        }
+        return maskedMessage;
+    }
+
+    @Override
+    public String getThreadName() {
+        return delegate.getThreadName();
+    }
+
+    @Override
+    public Level getLevel() {
+        return delegate.getLevel();
+    }
+
+    @Override
+    public String getMessage() {
+        return delegate.getMessage();
+    }
+
+    @Override
+    public Object[] getArgumentArray() {
+        return delegate.getArgumentArray();
+    }
+
+    @Override
+    public String getLoggerName() {
+        return delegate.getLoggerName();
+    }
+
+    @Override
+    public LoggerContextVO getLoggerContextVO() {
+        return delegate.getLoggerContextVO();
+    }
+
+    /**
+     * 异常消息脱敏后的 proxy（只计算一次，堆栈帧不变）
+     */
+    @Override
+    public IThrowableProxy getThrowableProxy() {
+        if (!throwableMasked) {
+            maskedThrowable = delegate.getThrowableProxy() != null ? throwableMasker.apply(delegate) : null;
+            throwableMasked = true;
+        }
+        return maskedThrowable;
+    }
+
+    @Override
+    public StackTraceElement[] getCallerData() {
+        return delegate.getCallerData();
+    }
+
+    @Override
+    public boolean hasCallerData() {
+        return delegate.hasCallerData();
+    }
+
+    @Override
+    public List<Marker> getMarkerList() {
+        return delegate.getMarkerList();
+    }
+
+    /**
+     * 值脱敏后的 MDC（只计算一次）
+     */
+    @Override
+    public Map<String, String> getMDCPropertyMap() {
+        Map<String, String> mdc = maskedMdc;
+        if (mdc == null) {
+            mdc = mdcMasker.apply(delegate);
+            maskedMdc = mdc;
+        }
+        return mdc;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public Map<String, String> getMdc() {
+        return getMDCPropertyMap();
+    }
+
+    @Override
+    public long getTimeStamp() {
+        return delegate.getTimeStamp();
+    }
+
+    @Override
+    public int getNanoseconds() {
+        return delegate.getNanoseconds();
+    }
+
+    @Override
+    public Instant getInstant() {
+        return delegate.getInstant();
+    }
+
+    @Override
+    public long getSequenceNumber() {
+        return delegate.getSequenceNumber();
+    }
+
+    @Override
+    public List<KeyValuePair> getKeyValuePairs() {
+        return delegate.getKeyValuePairs();
+    }
+
+    /**
+     * 冻结原始事件，并在调用线程上完成消息脱敏
+     */
+    @Override
+    public void prepareForDeferredProcessing() {
+        delegate.prepareForDeferredProcessing();
+        getFormattedMessage();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
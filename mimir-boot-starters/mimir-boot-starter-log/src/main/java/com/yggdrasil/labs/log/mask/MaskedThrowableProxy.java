@@ -0,0 +1,111 @@
+package com.yggdrasil.labs.log.mask;
+
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.StackTraceElementProxy;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * 异常消息脱敏后的 {@link IThrowableProxy} 包装
+ *
+ * <p>只替换异常链（cause、suppressed）中各节点的消息，堆栈帧直接委托给原始 proxy，不复制也不扫描。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class MaskedThrowableProxy implements IThrowableProxy {
+
+    private final IThrowableProxy delegate;
+
+    private final String message;
+
+    private final IThrowableProxy cause;
+
+    private final IThrowableProxy[] suppressed;
+
+    private MaskedThrowableProxy(IThrowableProxy delegate, String message, IThrowableProxy cause,
+                                 IThrowableProxy[] suppressed) {
+        this.delegate = delegate;
+        this.message = message;
+        this.cause = cause;
+        this.suppressed = suppressed;
+    }
+
+    /**
+     * 对异常链中的消息脱敏
+     *
+     * @param proxy  原始 proxy
+     * @param masker 单个节点的消息脱敏函数，未改变时须返回原消息对象
+     * @return 脱敏后的 proxy；整条异常链都无需脱敏时返回原 proxy
+     */
+    public static IThrowableProxy of(IThrowableProxy proxy, Function<IThrowableProxy, String> masker) {
+        if (proxy == null) {
+            return null;
+        }
+        String message = masker.apply(proxy);
+        IThrowableProxy cause = of(proxy.getCause(), masker);
+
+        IThrowableProxy[] suppressed = proxy.getSuppressed();
+        IThrowableProxy[] maskedSuppressed = suppressed;
+        if (suppressed != null) {
+            for (int i = 0; i < suppressed.length; i++) {
+                IThrowableProxy masked = of(suppressed[i], masker);
+                if (masked != suppressed[i]) {
+                    if (maskedSuppressed == suppressed) {
+                        // ThrowableProxy 返回的是 ThrowableProxy[]，clone 会保留该运行时类型，需要按接口类型复制
+                        maskedSuppressed = Arrays.copyOf(suppressed, suppressed.length, IThrowableProxy[].class);
+                    }
+                    maskedSuppressed[i] = masked;
+                }
+            }
+        }
+
+        if (message == proxy.getMessage() && cause == proxy.getCause() && maskedSuppressed == suppressed) {
+            return proxy;
+        }
+        return new MaskedThrowableProxy(proxy, message, cause, maskedSuppressed);
+    }
+
+    /**
+     * 原始 proxy
+     */
+    public IThrowableProxy getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String getClassName() {
+        return delegate.getClassName();
+    }
+
+    @Override
+    public StackTraceElementProxy[] getStackTraceElementProxyArray() {
+        return delegate.getStackTraceElementProxyArray();
+    }
+
+    @Override
+    public int getCommonFrames() {
+        return delegate.getCommonFrames();
+    }
+
+    @Override
+    public IThrowableProxy getCause() {
+        return cause;
+    }
+
+    @Override
+    public IThrowableProxy[] getSuppressed() {
+        return suppressed;
+    }
+
+    @Override
+    public boolean isCyclic() {
+        return delegate.isCyclic();
+    }
+}
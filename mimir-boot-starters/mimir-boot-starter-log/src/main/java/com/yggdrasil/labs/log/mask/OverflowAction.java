@@ -0,0 +1,30 @@
+package com.yggdrasil.labs.log.mask;
+
+/**
+ * 超出脱敏预算时的处理方式
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public enum OverflowAction {
+
+    /** 保留预算内已脱敏的前缀，丢弃其余内容（默认） */
+    TRUNCATE,
+
+    /** 整条消息替换为替换字符 */
+    REDACT;
+
+    /**
+     * 按名称解析（大小写不敏感），无法识别时返回 {@link #TRUNCATE}
+     */
+    public static OverflowAction fromName(String name) {
+        if (name != null) {
+            for (OverflowAction action : values()) {
+                if (action.name().equalsIgnoreCase(name.trim())) {
+                    return action;
+                }
+            }
+        }
+        return TRUNCATE;
+    }
+}
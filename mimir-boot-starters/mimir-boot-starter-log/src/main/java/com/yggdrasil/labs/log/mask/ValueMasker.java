@@ -0,0 +1,61 @@
+package com.yggdrasil.labs.log.mask;
+
+import com.yggdrasil.labs.common.util.MaskUtils;
+import com.yggdrasil.labs.log.converter.SensitiveDataPattern;
+
+/**
+ * 参数值脱敏策略
+ *
+ * <p>与 {@code @SensitiveField} 的脱敏策略保持一致（实现统一委托给 {@link MaskUtils}），
+ * 同一个手机号在 SQL 日志与业务日志中的脱敏结果相同。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public enum ValueMasker {
+
+    /** 全部替换 */
+    ALL,
+
+    /** 保留前3位后4位 */
+    PHONE,
+
+    /** 保留前6位后4位 */
+    ID_CARD,
+
+    /** 保留前4位后4位 */
+    BANK_CARD,
+
+    /** 邮箱脱敏 */
+    EMAIL;
+
+    /**
+     * 对参数值脱敏
+     *
+     * @param value       参数值
+     * @param replacement 全部替换时使用的替换字符
+     * @return 脱敏后的值
+     */
+    public String mask(String value, String replacement) {
+        return switch (this) {
+            case ALL -> replacement;
+            case PHONE -> MaskUtils.maskPhone(value);
+            case ID_CARD -> MaskUtils.maskIdCard(value);
+            case BANK_CARD -> MaskUtils.maskBankCard(value);
+            case EMAIL -> MaskUtils.maskEmail(value);
+        };
+    }
+
+    /**
+     * 预置规则对应的参数脱敏策略
+     */
+    public static ValueMasker of(SensitiveDataPattern pattern) {
+        return switch (pattern) {
+            case PHONE, PHONE_NUMBER, PHONE_CHECKED -> PHONE;
+            case ID_CARD, ID_CARD_NUMBER, ID_CARD_CHECKED -> ID_CARD;
+            case BANK_CARD, BANK_CARD_NUMBER, BANK_CARD_CHECKED -> BANK_CARD;
+            case EMAIL, EMAIL_ADDRESS -> EMAIL;
+            default -> ALL;
+        };
+    }
+}
@@ -0,0 +1,114 @@
+package com.yggdrasil.labs.log.metrics;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 按路由聚合的访问耗时
+ *
+ * <p>以 HTTP 方法 + 路由模板 + 状态码类别为维度，每个维度一个 {@link LogLinearHistogram}，
+ * 由 {@code AccessLogFilter} 在记录访问日志时写入，通过 Actuator 端点与 {@link AccessRouteMetricsBinder}（Micrometer）对外暴露。</p>
+ *
+ * <p>维度数量受 {@code maxRoutes} 限制，超出后新路由统一计入 {@code OTHER}，避免异常请求导致指标基数膨胀。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class AccessRouteMetrics {
+
+    /** 超出路由上限后新路由使用的路由模板 / HTTP 方法 */
+    public static final String OTHER = "OTHER";
+
+    private static final Set<String> KNOWN_METHODS = Set.of(
+            "GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "TRACE");
+
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final int maxRoutes;
+
+    private final Map<String, AccessRouteStats> routes = new ConcurrentHashMap<>();
+
+    /** 新路由出现时的回调（Micrometer 按路由注册指标） */
+    private final List<Consumer<AccessRouteStats>> listeners = new CopyOnWriteArrayList<>();
+
+    private AccessRouteMetrics(int maxRoutes) {
+        this.maxRoutes = maxRoutes;
+    }
+
+    /**
+     * @param maxRoutes 路由维度上限（不含 {@code OTHER}）
+     */
+    public static AccessRouteMetrics of(int maxRoutes) {
+        return new AccessRouteMetrics(Math.max(0, maxRoutes));
+    }
+
+    /**
+     * 记录一次请求
+     *
+     * @param method     HTTP 方法，非标准方法计入 {@code OTHER}
+     * @param uri        路由模板
+     * @param statusCode HTTP 状态码
+     * @param nanos      耗时（纳秒）
+     * @return 路由的统计实例，用于继续记录 CPU 时间、SQL 等
+     */
+    public AccessRouteStats record(String method, String uri, int statusCode, long nanos) {
+        AccessRouteStats stats = stats(method, uri, statusCode);
+        stats.record(nanos);
+        return stats;
+    }
+
+    /**
+     * 获取路由的统计实例，不存在时创建（超出上限时返回 {@code OTHER}）
+     */
+    AccessRouteStats stats(String method, String uri, int statusCode) {
+        String normalizedMethod = method != null && KNOWN_METHODS.contains(method) ? method : OTHER;
+        String status = statusCode >= 100 && statusCode < 600 ? STATUS_CLASSES[statusCode / 100 - 1] : "UNKNOWN";
+        String key = normalizedMethod + ' ' + uri + ' ' + status;
+        AccessRouteStats stats = routes.get(key);
+        if (stats != null) {
+            return stats;
+        }
+        if (routes.size() >= maxRoutes) {
+            normalizedMethod = OTHER;
+            uri = OTHER;
+            key = OTHER + ' ' + OTHER + ' ' + status;
+            stats = routes.get(key);
+            if (stats != null) {
+                return stats;
+            }
+        }
+        AccessRouteStats created = new AccessRouteStats(normalizedMethod, uri, status);
+        stats = routes.putIfAbsent(key, created);
+        if (stats != null) {
+            return stats;
+        }
+        listeners.forEach(listener -> listener.accept(created));
+        return created;
+    }
+
+    /**
+     * 监听路由：立即回调已有路由，之后每出现一个新路由回调一次
+     *
+     * @param listener 回调
+     */
+    public void onRoute(Consumer<AccessRouteStats> listener) {
+        listeners.add(listener);
+        routes.values().forEach(listener);
+    }
+
+    /**
+     * 所有路由的统计
+     */
+    public Collection<AccessRouteStats> all() {
+        return routes.values();
+    }
+
+    public int getMaxRoutes() {
+        return maxRoutes;
+    }
+}
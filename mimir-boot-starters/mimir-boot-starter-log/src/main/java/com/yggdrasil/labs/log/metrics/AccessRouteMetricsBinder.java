@@ -0,0 +1,88 @@
+package com.yggdrasil.labs.log.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 路由访问耗时 Micrometer 绑定
+ *
+ * <p>导出的指标（均带 tag {@code method}、{@code uri}、{@code status}）：</p>
+ * <ul>
+ * <li>{@code mimir.log.access.latency}：请求次数与总耗时（FunctionTimer）</li>
+ * <li>{@code mimir.log.access.latency.percentile}：p50 / p90 / p99 耗时（tag {@code phi}）</li>
+ * <li>{@code mimir.log.access.latency.max}：最大耗时</li>
+ * <li>{@code mimir.log.access.cpu}：请求在容器线程上消耗的 CPU 时间（FunctionTimer，开启资源计量时有值）</li>
+ * <li>{@code mimir.log.access.allocated}：请求在容器线程上分配的堆内存字节数（开启资源计量时有值）</li>
+ * <li>{@code mimir.log.access.sql}：请求执行的 SQL 语句数与 SQL 总耗时（FunctionTimer，开启 SQL 统计时有值）</li>
+ * <li>{@code mimir.log.access.sql.rows}：SQL 查询返回的行数（开启 SQL 统计时有值）</li>
+ * </ul>
+ *
+ * <p>分位数为应用启动以来的累计值。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public class AccessRouteMetricsBinder implements MeterBinder {
+
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    private final AccessRouteMetrics metrics;
+
+    public AccessRouteMetricsBinder(AccessRouteMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        metrics.onRoute(stats -> bind(registry, stats));
+    }
+
+    private static void bind(MeterRegistry registry, AccessRouteStats stats) {
+        Tags tags = Tags.of("method", stats.getMethod(), "uri", stats.getUri(), "status", stats.getStatus());
+        LogLinearHistogram latency = stats.getLatency();
+        FunctionTimer.builder("mimir.log.access.latency", latency,
+                        LogLinearHistogram::getCount, LogLinearHistogram::getTotalNanos, TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .description("Requests recorded by the access log filter, by route template")
+                .register(registry);
+        for (double percentile : PERCENTILES) {
+            TimeGauge.builder("mimir.log.access.latency.percentile", latency, TimeUnit.NANOSECONDS,
+                            histogram -> histogram.valueAtPercentile(percentile))
+                    .tags(tags)
+                    .tag("phi", String.valueOf(percentile / 100))
+                    .description("Request latency percentile since startup, by route template")
+                    .register(registry);
+        }
+        TimeGauge.builder("mimir.log.access.latency.max", latency, TimeUnit.NANOSECONDS,
+                        LogLinearHistogram::getMaxNanos)
+                .tags(tags)
+                .description("Maximum request latency since startup, by route template")
+                .register(registry);
+        FunctionTimer.builder("mimir.log.access.cpu", stats,
+                        AccessRouteStats::getMeasuredCount, AccessRouteStats::getCpuNanos, TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .description("CPU time spent by requests on container threads, by route template")
+                .register(registry);
+        FunctionCounter.builder("mimir.log.access.allocated", stats, AccessRouteStats::getAllocatedBytes)
+                .tags(tags)
+                .baseUnit("bytes")
+                .description("Heap bytes allocated by requests on container threads, by route template")
+                .register(registry);
+        FunctionTimer.builder("mimir.log.access.sql", stats,
+                        AccessRouteStats::getSqlStatements, AccessRouteStats::getSqlNanos, TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .description("SQL statements executed by requests, by route template")
+                .register(registry);
+        FunctionCounter.builder("mimir.log.access.sql.rows", stats, AccessRouteStats::getSqlRows)
+                .tags(tags)
+                .baseUnit("rows")
+                .description("Rows returned by SQL queries executed by requests, by route template")
+                .register(registry);
+    }
+}
@@ -0,0 +1,130 @@
+package com.yggdrasil.labs.log.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个路由（HTTP 方法 + 路由模板 + 状态码类别）的访问统计
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class AccessRouteStats {
+
+    private final String method;
+
+    private final String uri;
+
+    private final String status;
+
+    private final LogLinearHistogram latency = LogLinearHistogram.of();
+
+    /** 计量了 CPU 时间与分配字节数的请求数 */
+    private final LongAdder measured = new LongAdder();
+
+    private final LongAdder cpuNanos = new LongAdder();
+
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    /** 统计了 SQL 的请求数 */
+    private final LongAdder sqlMeasured = new LongAdder();
+
+    private final LongAdder sqlStatements = new LongAdder();
+
+    private final LongAdder sqlNanos = new LongAdder();
+
+    private final LongAdder sqlRows = new LongAdder();
+
+    AccessRouteStats(String method, String uri, String status) {
+        this.method = method;
+        this.uri = uri;
+        this.status = status;
+    }
+
+    /**
+     * 记录一次请求
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    void record(long nanos) {
+        latency.record(nanos);
+    }
+
+    /**
+     * 记录一次请求的 CPU 时间与分配字节数
+     */
+    public void recordResourceUsage(long cpuNanos, long allocatedBytes) {
+        measured.increment();
+        this.cpuNanos.add(cpuNanos);
+        this.allocatedBytes.add(allocatedBytes);
+    }
+
+    /**
+     * 记录一次请求执行的 SQL
+     *
+     * @param statements 语句数
+     * @param nanos      SQL 总耗时（纳秒）
+     * @param rows       查询返回行数
+     */
+    public void recordSql(long statements, long nanos, long rows) {
+        sqlMeasured.increment();
+        sqlStatements.add(statements);
+        sqlNanos.add(nanos);
+        sqlRows.add(rows);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * 路由模板（如 {@code /users/{id}}），未匹配到路由时为 {@code NOT_FOUND} / {@code REDIRECTION} / {@code UNKNOWN}
+     */
+    public String getUri() {
+        return uri;
+    }
+
+    /**
+     * 状态码类别（{@code 2xx}、{@code 4xx} 等）
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    public LogLinearHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * 计量了 CPU 时间与分配字节数的请求数（未开启计量时为 0）
+     */
+    public long getMeasuredCount() {
+        return measured.sum();
+    }
+
+    public long getCpuNanos() {
+        return cpuNanos.sum();
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes.sum();
+    }
+
+    /**
+     * 统计了 SQL 的请求数（未开启 SQL 统计时为 0）
+     */
+    public long getSqlMeasuredCount() {
+        return sqlMeasured.sum();
+    }
+
+    public long getSqlStatements() {
+        return sqlStatements.sum();
+    }
+
+    public long getSqlNanos() {
+        return sqlNanos.sum();
+    }
+
+    public long getSqlRows() {
+        return sqlRows.sum();
+    }
+}
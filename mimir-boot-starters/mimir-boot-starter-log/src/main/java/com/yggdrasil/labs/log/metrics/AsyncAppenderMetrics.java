@@ -0,0 +1,147 @@
+package com.yggdrasil.labs.log.metrics;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * 异步 appender 指标
+ *
+ * <p>按 appender 名称各一个实例，跨 Logback 重新配置累计（appender 重建后继续使用同名实例）：</p>
+ * <ul>
+ * <li>队列深度与容量（由当前运行的 appender 提供）</li>
+ * <li>生产者因队列已满而等待的次数与总耗时</li>
+ * <li>因溢出策略被丢弃的日志条数</li>
+ * </ul>
+ *
+ * <p>热路径只做 {@link LongAdder} 累加，通过 {@link AsyncAppenderMetricsBinder}（Micrometer）对外暴露。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class AsyncAppenderMetrics {
+
+    private static final IntSupplier EMPTY = () -> 0;
+
+    private static final Map<String, AsyncAppenderMetrics> APPENDERS = new ConcurrentHashMap<>();
+
+    /** 新 appender 出现时的回调（Micrometer 按 appender 注册指标） */
+    private static final List<Consumer<AsyncAppenderMetrics>> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private final String appender;
+
+    private final LongAdder waits = new LongAdder();
+
+    private final LongAdder waitNanos = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile IntSupplier depth = EMPTY;
+
+    private volatile int capacity;
+
+    private AsyncAppenderMetrics(String appender) {
+        this.appender = appender;
+    }
+
+    /**
+     * 获取 appender 的指标实例（appender 启动时调用，热路径直接持有返回值）
+     *
+     * @param appender appender 名称
+     * @return 指标实例
+     */
+    public static AsyncAppenderMetrics of(String appender) {
+        AsyncAppenderMetrics metrics = APPENDERS.get(appender);
+        if (metrics != null) {
+            return metrics;
+        }
+        AsyncAppenderMetrics created = new AsyncAppenderMetrics(appender);
+        metrics = APPENDERS.putIfAbsent(appender, created);
+        if (metrics != null) {
+            return metrics;
+        }
+        LISTENERS.forEach(listener -> listener.accept(created));
+        return created;
+    }
+
+    /**
+     * 监听 appender：立即回调已有实例，之后每出现一个新 appender 回调一次
+     *
+     * @param listener 回调
+     */
+    public static void onAppender(Consumer<AsyncAppenderMetrics> listener) {
+        LISTENERS.add(listener);
+        APPENDERS.values().forEach(listener);
+    }
+
+    /**
+     * 所有 appender 的指标实例
+     */
+    public static Collection<AsyncAppenderMetrics> all() {
+        return APPENDERS.values();
+    }
+
+    /**
+     * 绑定运行中的队列
+     *
+     * @param depth    队列深度
+     * @param capacity 队列容量
+     */
+    public void bind(IntSupplier depth, int capacity) {
+        this.depth = depth;
+        this.capacity = capacity;
+    }
+
+    /**
+     * appender 停止后解除绑定，深度归零
+     */
+    public void unbind() {
+        this.depth = EMPTY;
+    }
+
+    /**
+     * 记录一次生产者等待
+     *
+     * @param nanos 等待耗时（纳秒）
+     */
+    public void recordWait(long nanos) {
+        waits.increment();
+        waitNanos.add(nanos);
+    }
+
+    /**
+     * 记录一条被丢弃的日志
+     */
+    public void recordDrop() {
+        dropped.increment();
+    }
+
+    public String getAppender() {
+        return appender;
+    }
+
+    public int getQueueDepth() {
+        return depth.getAsInt();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getWaitCount() {
+        return waits.sum();
+    }
+
+    public long getWaitNanos() {
+        return waitNanos.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+}
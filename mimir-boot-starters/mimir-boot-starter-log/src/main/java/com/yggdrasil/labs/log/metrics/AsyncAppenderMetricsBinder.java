@@ -0,0 +1,54 @@
+package com.yggdrasil.labs.log.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步 appender 指标 Micrometer 绑定
+ *
+ * <p>导出的指标（均带 tag {@code appender}）：</p>
+ * <ul>
+ * <li>{@code mimir.log.async.queue.depth} / {@code mimir.log.async.queue.capacity}：队列深度与容量</li>
+ * <li>{@code mimir.log.async.producer.wait}：生产者因队列已满的等待（FunctionTimer）</li>
+ * <li>{@code mimir.log.async.dropped}：因溢出策略被丢弃的日志条数</li>
+ * </ul>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public class AsyncAppenderMetricsBinder implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        AsyncAppenderMetrics.onAppender(metrics -> bind(registry, metrics));
+    }
+
+    private static void bind(MeterRegistry registry, AsyncAppenderMetrics metrics) {
+        String appender = metrics.getAppender();
+        Gauge.builder("mimir.log.async.queue.depth", metrics, AsyncAppenderMetrics::getQueueDepth)
+                .tag("appender", appender)
+                .baseUnit("events")
+                .description("Log events waiting in the async appender ring buffer")
+                .register(registry);
+        Gauge.builder("mimir.log.async.queue.capacity", metrics, AsyncAppenderMetrics::getCapacity)
+                .tag("appender", appender)
+                .baseUnit("events")
+                .description("Capacity of the async appender ring buffer")
+                .register(registry);
+        FunctionTimer.builder("mimir.log.async.producer.wait", metrics,
+                        AsyncAppenderMetrics::getWaitCount, AsyncAppenderMetrics::getWaitNanos, TimeUnit.NANOSECONDS)
+                .tag("appender", appender)
+                .description("Time logging threads waited for space in a full async appender ring buffer")
+                .register(registry);
+        FunctionCounter.builder("mimir.log.async.dropped", metrics, AsyncAppenderMetrics::getDroppedCount)
+                .tag("appender", appender)
+                .baseUnit("events")
+                .description("Log events dropped by the async appender overflow policy")
+                .register(registry);
+    }
+}
@@ -0,0 +1,101 @@
+package com.yggdrasil.labs.log.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 固定桶的耗时直方图
+ *
+ * <p>每个桶一个 {@link LongAdder}，多线程记录时只做条带化累加，不加锁、不分配对象。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class LatencyHistogram {
+
+    /** 桶上界（纳秒，含），最后一个桶为 +Inf */
+    private static final long[] DEFAULT_BOUNDS = {
+            1_000L, 2_000L, 5_000L, 10_000L, 20_000L, 50_000L, 100_000L, 200_000L, 500_000L,
+            1_000_000L, 2_000_000L, 5_000_000L, 10_000_000L, 50_000_000L, 100_000_000L
+    };
+
+    private final long[] bounds;
+
+    private final LongAdder[] buckets;
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private LatencyHistogram(long[] bounds) {
+        this.bounds = bounds;
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 使用默认桶（1μs ~ 100ms）创建直方图
+     */
+    public static LatencyHistogram of() {
+        return new LatencyHistogram(DEFAULT_BOUNDS);
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public void record(long nanos) {
+        int index = 0;
+        while (index < bounds.length && nanos > bounds[index]) {
+            index++;
+        }
+        buckets[index].increment();
+        count.increment();
+        totalNanos.add(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * 桶上界（纳秒），不含 +Inf 桶
+     */
+    public long[] getBounds() {
+        return bounds.clone();
+    }
+
+    /**
+     * 小于等于指定桶上界的累计次数
+     *
+     * @param index 桶下标，等于 {@code getBounds().length} 时为 +Inf 桶（即总次数）
+     */
+    public long cumulativeCount(int index) {
+        long sum = 0;
+        for (int i = 0; i <= index && i < buckets.length; i++) {
+            sum += buckets[i].sum();
+        }
+        return sum;
+    }
+
+    /**
+     * 各桶累计次数快照，key 为桶上界（如 {@code le_1000ns}、{@code le_inf}）
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        long sum = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            sum += buckets[i].sum();
+            result.put(i < bounds.length ? "le_" + bounds[i] + "ns" : "le_inf", sum);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,194 @@
+package com.yggdrasil.labs.log.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对数线性耗时直方图（HDR 风格）
+ *
+ * <p>以微秒为最小精度，每个 2 的幂区间再等分为 16 个子桶，任意耗时的相对误差不超过 1/16（约 6%）；
+ * 可区分的最大耗时约 71 分钟，更大的值计入最后一个桶，最大值仍精确记录。</p>
+ *
+ * <p>桶计数是一个 {@link AtomicLongArray}，记录时只做一次下标计算和原子自增，不加锁、不分配对象；
+ * 分位数在读取时遍历桶计算，与记录并发时结果为近似值。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class LogLinearHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** 可区分的最大耗时（微秒） */
+    private static final long MAX_TRACKABLE_MICROS = (1L << 32) - 1;
+
+    private static final int BUCKET_COUNT = indexOf(MAX_TRACKABLE_MICROS) + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    private LogLinearHistogram() {
+    }
+
+    public static LogLinearHistogram of() {
+        return new LogLinearHistogram();
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时（纳秒），负数按 0 处理
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(indexOf(Math.min(nanos / 1000, MAX_TRACKABLE_MICROS)));
+        totalNanos.add(nanos);
+        long current;
+        while (nanos > (current = maxNanos.get())) {
+            if (maxNanos.compareAndSet(current, nanos)) {
+                break;
+            }
+        }
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * 指定分位的耗时（纳秒）
+     *
+     * <p>返回分位所在桶的上界，不超过已记录的最大值；没有记录时返回 0。</p>
+     *
+     * @param percentile 分位（0 ~ 100，如 99 表示 p99）
+     */
+    public long valueAtPercentile(double percentile) {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        return valueAtPercentile(counts, count, maxNanos.get(), percentile);
+    }
+
+    /**
+     * 取出自上次取出以来的记录并清零（按区间汇总时使用）
+     *
+     * <p>每个桶、总耗时与最大值都以原子的"读取并扣减"方式取出，与记录并发时不会丢失，
+     * 并发写入的记录计入本次或下一次。</p>
+     */
+    public Snapshot drain() {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (buckets.get(i) != 0) {
+                counts[i] = buckets.getAndSet(i, 0);
+                count += counts[i];
+            }
+        }
+        long total = totalNanos.sum();
+        totalNanos.add(-total);
+        return new Snapshot(counts, count, total, maxNanos.getAndSet(0));
+    }
+
+    private static long valueAtPercentile(long[] counts, long count, long max, double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        double ratio = Math.min(Math.max(percentile, 0), 100) / 100;
+        long target = Math.max(1, (long) Math.ceil(ratio * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                // 最后一个桶收纳超出范围的值，上界没有意义，直接取最大值
+                return i == BUCKET_COUNT - 1 ? max : Math.min(highestMicrosOf(i) * 1000 + 999, max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * 耗时（微秒）所在桶下标：小于 16 的值各占一个桶，之后每个 2 的幂区间 16 个桶
+     */
+    static int indexOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((micros >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * 桶内的最大耗时（微秒）
+     */
+    static long highestMicrosOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = (index & (SUB_BUCKETS - 1)) + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * 取出的区间记录
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+
+        private final long count;
+
+        private final long totalNanos;
+
+        private final long maxNanos;
+
+        private Snapshot(long[] counts, long count, long totalNanos, long maxNanos) {
+            this.counts = counts;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * 指定分位的耗时（纳秒），规则同 {@link LogLinearHistogram#valueAtPercentile(double)}
+         */
+        public long valueAtPercentile(double percentile) {
+            return LogLinearHistogram.valueAtPercentile(counts, count, maxNanos, percentile);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.yggdrasil.labs.log.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 脱敏性能指标
+ *
+ * <p>全局唯一实例，跨规则重载累计：</p>
+ * <ul>
+ * <li>各规则命中次数（规则名为预置规则名称，自定义规则为 {@code custom:<正则>}）</li>
+ * <li>每条日志的脱敏耗时直方图</li>
+ * <li>扫描字符数与被替换字符数</li>
+ * </ul>
+ *
+ * <p>热路径只做 {@link LongAdder} 累加；规则计数器在规则编译时解析好引用，记录命中时不查表。
+ * 通过 {@link MaskMetricsBinder}（Micrometer）与 {@link MaskMetricsMXBean}（JMX）对外暴露。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class MaskMetrics {
+
+    private static final MaskMetrics INSTANCE = new MaskMetrics();
+
+    private final Map<String, LongAdder> ruleHits = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram latency = LatencyHistogram.of();
+
+    private final LongAdder scannedChars = new LongAdder();
+
+    private final LongAdder replacedChars = new LongAdder();
+
+    /** 新规则出现时的回调（Micrometer 按规则注册计数器） */
+    private final List<Consumer<String>> ruleListeners = new CopyOnWriteArrayList<>();
+
+    private MaskMetrics() {
+    }
+
+    /**
+     * 全局指标实例
+     */
+    public static MaskMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * 获取规则命中计数器（规则编译时调用，热路径直接持有返回值）
+     *
+     * @param rule 规则名
+     * @return 命中计数器
+     */
+    public LongAdder ruleCounter(String rule) {
+        LongAdder counter = ruleHits.get(rule);
+        if (counter != null) {
+            return counter;
+        }
+        LongAdder created = new LongAdder();
+        counter = ruleHits.putIfAbsent(rule, created);
+        if (counter != null) {
+            return counter;
+        }
+        ruleListeners.forEach(listener -> listener.accept(rule));
+        return created;
+    }
+
+    /**
+     * 监听规则：立即回调已有规则，之后每出现一条新规则回调一次
+     *
+     * @param listener 回调，参数为规则名
+     */
+    public void onRule(Consumer<String> listener) {
+        ruleListeners.add(listener);
+        ruleHits.keySet().forEach(listener);
+    }
+
+    /**
+     * 规则命中次数
+     *
+     * @param rule 规则名
+     * @return 命中次数，未知规则返回 0
+     */
+    public long getRuleHits(String rule) {
+        LongAdder counter = ruleHits.get(rule);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * 记录一次扫描
+     *
+     * @param scanned  扫描的字符数
+     * @param replaced 被替换的字符数
+     */
+    public void recordScan(int scanned, int replaced) {
+        scannedChars.add(scanned);
+        if (replaced > 0) {
+            replacedChars.add(replaced);
+        }
+    }
+
+    /**
+     * 记录一条日志的脱敏耗时
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public void recordLatency(long nanos) {
+        latency.record(nanos);
+    }
+
+    public long getScannedChars() {
+        return scannedChars.sum();
+    }
+
+    public long getReplacedChars() {
+        return replacedChars.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * 各规则命中次数快照（按规则名排序）
+     */
+    public Map<String, Long> getRuleHits() {
+        Map<String, Long> result = new TreeMap<>();
+        ruleHits.forEach((rule, hits) -> result.put(rule, hits.sum()));
+        return result;
+    }
+}
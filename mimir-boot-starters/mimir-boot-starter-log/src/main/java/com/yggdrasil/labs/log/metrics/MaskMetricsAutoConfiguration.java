@@ -0,0 +1,48 @@
+package com.yggdrasil.labs.log.metrics;
+
+import ch.qos.logback.classic.LoggerContext;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 脱敏指标自动配置
+ *
+ * <p>功能说明：</p>
+ * <ul>
+ * <li>注册 JMX MBean {@code com.yggdrasil.labs.log:type=MaskMetrics}（可通过 {@code mimir.boot.log.mask.jmx-enabled=false} 关闭）</li>
+ * <li>存在 Micrometer 时注册 {@link MaskMetricsBinder}，由 Spring Boot Actuator 绑定到 MeterRegistry</li>
+ * </ul>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+@AutoConfiguration
+@ConditionalOnClass(LoggerContext.class)
+public class MaskMetricsAutoConfiguration {
+
+    @Bean(initMethod = "register", destroyMethod = "unregister")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "mimir.boot.log.mask", name = "jmx-enabled", havingValue = "true", matchIfMissing = true)
+    public MaskMetricsJmx maskMetricsJmx() {
+        return new MaskMetricsJmx(MaskMetrics.get());
+    }
+
+    /**
+     * Micrometer 支持
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterBinder.class)
+    static class MaskMetricsMicrometerConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public MaskMetricsBinder maskMetricsBinder() {
+            return new MaskMetricsBinder(MaskMetrics.get());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.yggdrasil.labs.log.metrics;
+
+import com.yggdrasil.labs.log.mask.MaskBudget;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 脱敏指标 Micrometer 绑定
+ *
+ * <p>导出的指标：</p>
+ * <ul>
+ * <li>{@code mimir.log.mask.latency}：脱敏耗时（FunctionTimer）</li>
+ * <li>{@code mimir.log.mask.latency.bucket}：耗时直方图各桶累计次数（tag {@code le}，单位纳秒）</li>
+ * <li>{@code mimir.log.mask.rule.hits}：各规则命中次数（tag {@code rule}），规则重载后新出现的规则自动注册</li>
+ * <li>{@code mimir.log.mask.scanned} / {@code mimir.log.mask.replaced}：扫描与替换的字符数</li>
+ * <li>{@code mimir.log.mask.budget.trips}：超出脱敏预算的日志条数</li>
+ * </ul>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public class MaskMetricsBinder implements MeterBinder {
+
+    private final MaskMetrics metrics;
+
+    public MaskMetricsBinder(MaskMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        LatencyHistogram latency = metrics.getLatency();
+        FunctionTimer.builder("mimir.log.mask.latency", latency,
+                        LatencyHistogram::getCount, LatencyHistogram::getTotalNanos, TimeUnit.NANOSECONDS)
+                .description("Time spent masking sensitive data per log event")
+                .register(registry);
+
+        long[] bounds = latency.getBounds();
+        for (int i = 0; i <= bounds.length; i++) {
+            int index = i;
+            FunctionCounter.builder("mimir.log.mask.latency.bucket", latency, h -> h.cumulativeCount(index))
+                    .tag("le", i < bounds.length ? String.valueOf(bounds[i]) : "+Inf")
+                    .baseUnit("events")
+                    .description("Cumulative count of log events masked within the bucket bound (nanoseconds)")
+                    .register(registry);
+        }
+
+        FunctionCounter.builder("mimir.log.mask.scanned", metrics, MaskMetrics::getScannedChars)
+                .baseUnit("chars")
+                .description("Characters scanned by the masking engine")
+                .register(registry);
+        FunctionCounter.builder("mimir.log.mask.replaced", metrics, MaskMetrics::getReplacedChars)
+                .baseUnit("chars")
+                .description("Characters replaced by the masking engine")
+                .register(registry);
+        FunctionCounter.builder("mimir.log.mask.budget.trips", metrics, m -> MaskBudget.getTripCount())
+                .description("Log events truncated or redacted because the masking budget was exceeded")
+                .register(registry);
+
+        metrics.onRule(rule -> FunctionCounter.builder("mimir.log.mask.rule.hits", metrics, m -> m.getRuleHits(rule))
+                .tag("rule", rule)
+                .description("Matches replaced per masking rule")
+                .register(registry));
+    }
+}
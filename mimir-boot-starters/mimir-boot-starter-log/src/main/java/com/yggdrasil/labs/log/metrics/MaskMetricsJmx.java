@@ -0,0 +1,90 @@
+package com.yggdrasil.labs.log.metrics;
+
+import com.yggdrasil.labs.log.mask.MaskBudget;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+/**
+ * 脱敏指标 JMX 导出
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public class MaskMetricsJmx implements MaskMetricsMXBean {
+
+    public static final String OBJECT_NAME = "com.yggdrasil.labs.log:type=MaskMetrics";
+
+    private final MaskMetrics metrics;
+
+    public MaskMetricsJmx(MaskMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * 注册到平台 MBeanServer（已存在同名 MBean 时替换）
+     */
+    public void register() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+        server.registerMBean(this, name);
+    }
+
+    /**
+     * 从平台 MBeanServer 注销
+     */
+    public void unregister() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @Override
+    public long getMaskedEvents() {
+        return metrics.getLatency().getCount();
+    }
+
+    @Override
+    public long getTotalLatencyNanos() {
+        return metrics.getLatency().getTotalNanos();
+    }
+
+    @Override
+    public double getMeanLatencyNanos() {
+        long count = getMaskedEvents();
+        return count == 0 ? 0 : (double) getTotalLatencyNanos() / count;
+    }
+
+    @Override
+    public long getScannedChars() {
+        return metrics.getScannedChars();
+    }
+
+    @Override
+    public long getReplacedChars() {
+        return metrics.getReplacedChars();
+    }
+
+    @Override
+    public long getBudgetTrips() {
+        return MaskBudget.getTripCount();
+    }
+
+    @Override
+    public Map<String, Long> getRuleHits() {
+        return metrics.getRuleHits();
+    }
+
+    @Override
+    public Map<String, Long> getLatencyHistogram() {
+        return metrics.getLatency().snapshot();
+    }
+}
@@ -0,0 +1,38 @@
+package com.yggdrasil.labs.log.metrics;
+
+import java.util.Map;
+
+/**
+ * 脱敏指标 JMX 接口
+ *
+ * <p>注册名：{@code com.yggdrasil.labs.log:type=MaskMetrics}</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public interface MaskMetricsMXBean {
+
+    /** 脱敏的日志条数 */
+    long getMaskedEvents();
+
+    /** 累计脱敏耗时（纳秒） */
+    long getTotalLatencyNanos();
+
+    /** 平均脱敏耗时（纳秒） */
+    double getMeanLatencyNanos();
+
+    /** 扫描的字符数 */
+    long getScannedChars();
+
+    /** 被替换的字符数 */
+    long getReplacedChars();
+
+    /** 超出脱敏预算的日志条数 */
+    long getBudgetTrips();
+
+    /** 各规则命中次数 */
+    Map<String, Long> getRuleHits();
+
+    /** 耗时直方图（各桶累计次数） */
+    Map<String, Long> getLatencyHistogram();
+}
@@ -0,0 +1,20 @@
+package com.yggdrasil.labs.log.ratelimit;
+
+import ch.qos.logback.classic.LoggerContext;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+
+/**
+ * 日志限流自动配置
+ *
+ * <p>注册 {@code mimir.boot.log.ratelimit.*} 配置属性（由 {@code logback-spring.xml} 读取）。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+@AutoConfiguration
+@ConditionalOnClass(LoggerContext.class)
+@EnableConfigurationProperties(LogRateLimitProperties.class)
+public class LogRateLimitAutoConfiguration {
+}
@@ -0,0 +1,112 @@
+package com.yggdrasil.labs.log.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 日志限流配置属性
+ *
+ * <p>由 {@code logback-spring.xml} 通过 {@code <springProperty>} 读取，作用于 {@link RateLimitTurboFilter}。
+ * 修改后需重新初始化日志系统（重启应用）生效。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+@ConfigurationProperties(prefix = LogRateLimitProperties.PREFIX)
+public class LogRateLimitProperties {
+
+    public static final String PREFIX = "mimir.boot.log.ratelimit";
+
+    /**
+     * 是否启用日志限流（默认：false）
+     */
+    private boolean enabled = false;
+
+    /**
+     * 参与限流的最低级别（默认：WARN）
+     */
+    private String level = "WARN";
+
+    /**
+     * 每个指纹（logger + 消息模板 + 异常类型）每秒允许的日志条数（默认：10）
+     */
+    private double ratePerSecond = 10;
+
+    /**
+     * 每个指纹允许的突发条数（默认：100）
+     */
+    private int burst = 100;
+
+    /**
+     * 同时跟踪的指纹数上限（默认：10000），超出后新指纹不限流
+     */
+    private int maxKeys = 10_000;
+
+    /**
+     * 输出 "Suppressed N similar log events" 汇总的间隔（毫秒，默认：10000）
+     */
+    private long summaryIntervalMillis = 10_000;
+
+    /**
+     * 不限流的 logger（前缀，默认：access.log、SQL.JSON）
+     */
+    private List<String> excludeLoggers = new ArrayList<>(List.of("access.log", "SQL.JSON"));
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getLevel() {
+        return level;
+    }
+
+    public void setLevel(String level) {
+        this.level = level;
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public void setRatePerSecond(double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    public void setMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public long getSummaryIntervalMillis() {
+        return summaryIntervalMillis;
+    }
+
+    public void setSummaryIntervalMillis(long summaryIntervalMillis) {
+        this.summaryIntervalMillis = summaryIntervalMillis;
+    }
+
+    public List<String> getExcludeLoggers() {
+        return excludeLoggers;
+    }
+
+    public void setExcludeLoggers(List<String> excludeLoggers) {
+        this.excludeLoggers = excludeLoggers;
+    }
+}
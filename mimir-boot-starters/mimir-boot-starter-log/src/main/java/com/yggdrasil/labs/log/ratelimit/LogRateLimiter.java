@@ -0,0 +1,235 @@
+package com.yggdrasil.labs.log.ratelimit;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 按日志指纹限流的令牌桶
+ *
+ * <p>指纹由 logger 名称、消息模板和异常类型组成，同一位置反复输出的同类日志共享一个令牌桶。
+ * 令牌桶以 GCRA（理论到达时间）实现：每个桶只有一个 {@link AtomicLong}，放行时 CAS 推进，
+ * 拒绝时只读不写，高并发风暴下也没有锁竞争。</p>
+ *
+ * <ul>
+ * <li>每个指纹每秒补充 {@code ratePerSecond} 个令牌，最多累积 {@code burst} 个</li>
+ * <li>桶数达到 {@code maxKeys} 时新指纹不限流（宁可多输出，也不误丢日志），由 {@link #sweep()} 清理空闲桶</li>
+ * <li>被拒绝的次数按桶累计，{@link #sweep()} 取出后清零，用于输出汇总</li>
+ * </ul>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class LogRateLimiter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /** 相邻两个令牌的间隔 */
+    private final long emissionIntervalNanos;
+
+    /** 允许的最大提前量（burst 个令牌） */
+    private final long burstNanos;
+
+    private final int maxKeys;
+
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<Fingerprint, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final LongAdder suppressedTotal = new LongAdder();
+
+    public LogRateLimiter(double ratePerSecond, int burst, int maxKeys) {
+        this(ratePerSecond, burst, maxKeys, System::nanoTime);
+    }
+
+    LogRateLimiter(double ratePerSecond, int burst, int maxKeys, LongSupplier clock) {
+        if (ratePerSecond <= 0 || burst < 1 || maxKeys < 1) {
+            throw new IllegalArgumentException("ratePerSecond, burst and maxKeys must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (NANOS_PER_SECOND / ratePerSecond));
+        this.burstNanos = emissionIntervalNanos * burst;
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+    }
+
+    /**
+     * 尝试为一条日志获取令牌
+     *
+     * @param logger    logger
+     * @param level     级别
+     * @param format    消息模板
+     * @param throwable 异常，可为 null
+     * @return 放行返回 true，被限流返回 false
+     */
+    public boolean tryAcquire(Logger logger, Level level, String format, Throwable throwable) {
+        Fingerprint fingerprint = new Fingerprint(logger.getName(), format,
+                throwable != null ? throwable.getClass().getName() : null);
+        long now = clock.getAsLong();
+        Bucket bucket = buckets.get(fingerprint);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                return true;
+            }
+            bucket = buckets.computeIfAbsent(fingerprint, key -> new Bucket(key, logger, level, now));
+        }
+        if (bucket.tryAcquire(now, emissionIntervalNanos, burstNanos)) {
+            return true;
+        }
+        bucket.suppressed.increment();
+        suppressedTotal.increment();
+        return false;
+    }
+
+    /**
+     * 取出各指纹自上次调用以来被限流的次数，并清理已空闲的桶
+     *
+     * @return 有限流记录的指纹
+     */
+    public List<Suppressed> sweep() {
+        long now = clock.getAsLong();
+        List<Suppressed> result = new ArrayList<>();
+        buckets.values().removeIf(bucket -> {
+            long count = bucket.suppressed.sumThenReset();
+            if (count > 0) {
+                result.add(new Suppressed(bucket, count));
+                return false;
+            }
+            // 令牌已补满且期间没有被限流：移除，下次出现时重新创建
+            return bucket.tat.get() <= now;
+        });
+        return result;
+    }
+
+    /**
+     * 当前跟踪的指纹数
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * 累计被限流的日志数
+     */
+    public long getSuppressedTotal() {
+        return suppressedTotal.sum();
+    }
+
+    /**
+     * 日志指纹
+     */
+    private static final class Fingerprint {
+
+        private final String loggerName;
+        private final String format;
+        private final String throwableClass;
+        private final int hash;
+
+        private Fingerprint(String loggerName, String format, String throwableClass) {
+            this.loggerName = loggerName;
+            this.format = format;
+            this.throwableClass = throwableClass;
+            int h = loggerName.hashCode();
+            h = 31 * h + format.hashCode();
+            h = 31 * h + (throwableClass != null ? throwableClass.hashCode() : 0);
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Fingerprint other)) {
+                return false;
+            }
+            return hash == other.hash
+                    && loggerName.equals(other.loggerName)
+                    && format.equals(other.format)
+                    && (throwableClass == null ? other.throwableClass == null : throwableClass.equals(other.throwableClass));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * 单个指纹的令牌桶
+     */
+    private static final class Bucket {
+
+        private final Fingerprint fingerprint;
+        private final Logger logger;
+        private final Level level;
+
+        /** 理论到达时间：领先当前时间越多，剩余令牌越少 */
+        private final AtomicLong tat;
+
+        private final LongAdder suppressed = new LongAdder();
+
+        private Bucket(Fingerprint fingerprint, Logger logger, Level level, long now) {
+            this.fingerprint = fingerprint;
+            this.logger = logger;
+            this.level = level;
+            this.tat = new AtomicLong(now);
+        }
+
+        private boolean tryAcquire(long now, long emissionIntervalNanos, long burstNanos) {
+            long current = tat.get();
+            while (true) {
+                long next = Math.max(current, now) + emissionIntervalNanos;
+                if (next - now > burstNanos) {
+                    return false;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return true;
+                }
+                current = tat.get();
+            }
+        }
+    }
+
+    /**
+     * 某个指纹被限流的汇总
+     */
+    public static final class Suppressed {
+
+        private final Bucket bucket;
+        private final long count;
+
+        private Suppressed(Bucket bucket, long count) {
+            this.bucket = bucket;
+            this.count = count;
+        }
+
+        public Logger getLogger() {
+            return bucket.logger;
+        }
+
+        public Level getLevel() {
+            return bucket.level;
+        }
+
+        public String getFormat() {
+            return bucket.fingerprint.format;
+        }
+
+        /**
+         * 异常类型，没有异常时为 null
+         */
+        public String getThrowableClass() {
+            return bucket.fingerprint.throwableClass;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.yggdrasil.labs.log.ratelimit;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 日志风暴抑制 TurboFilter
+ *
+ * <p>故障期间同一位置可能每秒输出上千条相同的异常堆栈，占满异步队列和磁盘。本过滤器按
+ * logger + 消息模板 + 异常类型计算指纹，每个指纹用令牌桶限流（{@link LogRateLimiter}），超出部分直接 DENY，
+ * 不创建日志事件、不进入 appender。</p>
+ *
+ * <ul>
+ * <li>只作用于不低于 {@code level}（默认 WARN）且 logger 已开启的日志，其余调用直接返回 NEUTRAL</li>
+ * <li>每隔 {@code summaryIntervalMillis}，由后台守护线程输出汇总：
+ * "Suppressed N similar log events in the last M ms ..."（M 为距上次汇总的实际间隔），以原 logger 和原级别输出，
+ * 写入同一个日志文件；风暴结束后的最后一条汇总同样按时输出，不必等待下一次日志调用</li>
+ * <li>汇总日志带 {@link #SUMMARY_MARKER_NAME} 标记，不参与限流；在后台线程输出，不带任何请求的 MDC</li>
+ * <li>{@code excludeLoggers} 中的 logger（默认访问日志、SQL 日志）不限流</li>
+ * </ul>
+ *
+ * <p>需配置在其他 TurboFilter 之前，被抑制的 ERROR 不再触发飞行记录器回放。</p>
+ *
+ * <p>配置示例：</p>
+ * <pre>{@code
+ * <turboFilter class="com.yggdrasil.labs.log.ratelimit.RateLimitTurboFilter">
+ *     <enabled>true</enabled>
+ *     <ratePerSecond>10</ratePerSecond>
+ *     <burst>100</burst>
+ * </turboFilter>
+ * }</pre>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public class RateLimitTurboFilter extends TurboFilter {
+
+    /**
+     * 汇总日志的标记名称
+     */
+    public static final String SUMMARY_MARKER_NAME = "LOG_RATE_LIMIT";
+
+    private static final Marker SUMMARY_MARKER = MarkerFactory.getMarker(SUMMARY_MARKER_NAME);
+
+    private static final String FQCN = RateLimitTurboFilter.class.getName();
+
+    private static final String SUMMARY_FORMAT = "Suppressed {} similar log events in the last {} ms: [{}] {}";
+
+    private boolean enabled;
+
+    private Level level = Level.WARN;
+
+    private double ratePerSecond = 10;
+
+    private int burst = 100;
+
+    private int maxKeys = 10_000;
+
+    private long summaryIntervalMillis = 10_000;
+
+    private List<String> excludeLoggers = List.of("access.log", "SQL.JSON");
+
+    private LogRateLimiter limiter;
+
+    private ScheduledExecutorService scheduler;
+
+    /** 上次汇总的时间（{@link System#nanoTime()}） */
+    private volatile long lastSummaryNanos;
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            addInfo("Log rate limiting is disabled");
+            return;
+        }
+        limiter = new LogRateLimiter(ratePerSecond, burst, maxKeys);
+        lastSummaryNanos = System.nanoTime();
+        long interval = Math.max(1, summaryIntervalMillis);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-rate-limit-summary");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::summarize, interval, interval, TimeUnit.MILLISECONDS);
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        super.stop();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || format == null || level.levelInt < this.level.levelInt) {
+            return FilterReply.NEUTRAL;
+        }
+        if (level.levelInt < logger.getEffectiveLevel().levelInt || SUMMARY_MARKER.equals(marker)
+                || isExcluded(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        Throwable throwable = t != null ? t : extractThrowable(params);
+        return limiter.tryAcquire(logger, level, format, throwable) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    /**
+     * 输出上次汇总以来被抑制的日志数（由汇总线程按间隔调用）
+     */
+    void summarize() {
+        try {
+            long now = System.nanoTime();
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(now - lastSummaryNanos);
+            lastSummaryNanos = now;
+            for (LogRateLimiter.Suppressed summary : limiter.sweep()) {
+                String what = summary.getThrowableClass() != null
+                        ? summary.getFormat() + " (" + summary.getThrowableClass() + ")"
+                        : summary.getFormat();
+                summary.getLogger().log(SUMMARY_MARKER, FQCN, Level.toLocationAwareLoggerInteger(summary.getLevel()),
+                        SUMMARY_FORMAT, new Object[]{summary.getCount(), elapsedMillis, summary.getLevel(), what},
+                        null);
+            }
+        } catch (RuntimeException e) {
+            addError("Failed to emit log rate limit summary", e);
+        }
+    }
+
+    private static Throwable extractThrowable(Object[] params) {
+        if (params == null || params.length == 0) {
+            return null;
+        }
+        return params[params.length - 1] instanceof Throwable throwable ? throwable : null;
+    }
+
+    private boolean isExcluded(String name) {
+        for (String prefix : excludeLoggers) {
+            if (name.startsWith(prefix)
+                    && (name.length() == prefix.length() || name.charAt(prefix.length()) == '.')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 限流器（未启用时为 null）
+     */
+    public LogRateLimiter getLimiter() {
+        return limiter;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 是否启用（默认：false）
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getLevel() {
+        return level.levelStr;
+    }
+
+    /**
+     * 参与限流的最低级别（默认：WARN）
+     */
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.WARN);
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    /**
+     * 每个指纹每秒允许的日志条数（默认：10）
+     */
+    public void setRatePerSecond(double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * 每个指纹允许的突发条数（默认：100）
+     */
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    /**
+     * 同时跟踪的指纹数上限（默认：10000）
+     */
+    public void setMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public long getSummaryIntervalMillis() {
+        return summaryIntervalMillis;
+    }
+
+    /**
+     * 输出汇总的间隔（毫秒，默认：10000）
+     */
+    public void setSummaryIntervalMillis(long summaryIntervalMillis) {
+        this.summaryIntervalMillis = summaryIntervalMillis;
+    }
+
+    public String getExcludeLoggers() {
+        return String.join(",", excludeLoggers);
+    }
+
+    /**
+     * 不限流的 logger（前缀，逗号分隔，默认：access.log,SQL.JSON）
+     */
+    public void setExcludeLoggers(String excludeLoggers) {
+        List<String> prefixes = new ArrayList<>();
+        if (excludeLoggers != null) {
+            for (String prefix : excludeLoggers.split(",")) {
+                if (!prefix.isBlank()) {
+                    prefixes.add(prefix.trim());
+                }
+            }
+        }
+        this.excludeLoggers = List.copyOf(prefixes);
+    }
+}
@@ -0,0 +1,74 @@
+package com.yggdrasil.labs.log.web;
+
+import com.yggdrasil.labs.log.metrics.AccessRouteMetrics;
+import com.yggdrasil.labs.log.metrics.AccessRouteStats;
+import com.yggdrasil.labs.log.metrics.LogLinearHistogram;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 路由访问耗时端点（{@code /actuator/accesslatency}）
+ *
+ * <p>按路由模板 + 状态码类别列出请求次数、平均耗时与 p50 / p90 / p99 / 最大耗时（毫秒，启动以来累计），按请求次数降序；
+ * 开启资源计量时另有平均 CPU 时间与平均分配字节数，开启 SQL 统计时另有平均 SQL 语句数、SQL 耗时与返回行数。</p>
+ *
+ * <p>需在 {@code management.endpoints.web.exposure.include} 中加入 {@code accesslatency}。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+@Endpoint(id = "accesslatency")
+public class AccessLatencyEndpoint {
+
+    private final AccessRouteMetrics metrics;
+
+    public AccessLatencyEndpoint(AccessRouteMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @ReadOperation
+    public Map<String, Object> routes() {
+        List<Map<String, Object>> routes = new ArrayList<>();
+        for (AccessRouteStats stats : metrics.all()) {
+            LogLinearHistogram latency = stats.getLatency();
+            long count = latency.getCount();
+            Map<String, Object> route = new LinkedHashMap<>();
+            route.put("method", stats.getMethod());
+            route.put("uri", stats.getUri());
+            route.put("status", stats.getStatus());
+            route.put("count", count);
+            route.put("meanMs", count > 0 ? toMillis(latency.getTotalNanos() / count) : 0.0);
+            route.put("p50Ms", toMillis(latency.valueAtPercentile(50)));
+            route.put("p90Ms", toMillis(latency.valueAtPercentile(90)));
+            route.put("p99Ms", toMillis(latency.valueAtPercentile(99)));
+            route.put("maxMs", toMillis(latency.getMaxNanos()));
+            long measured = stats.getMeasuredCount();
+            if (measured > 0) {
+                route.put("meanCpuMs", toMillis(stats.getCpuNanos() / measured));
+                route.put("meanAllocatedBytes", stats.getAllocatedBytes() / measured);
+            }
+            long sqlMeasured = stats.getSqlMeasuredCount();
+            if (sqlMeasured > 0) {
+                route.put("meanSqlCount", Math.round(stats.getSqlStatements() * 100.0 / sqlMeasured) / 100.0);
+                route.put("meanSqlMs", toMillis(stats.getSqlNanos() / sqlMeasured));
+                route.put("meanSqlRows", Math.round(stats.getSqlRows() * 100.0 / sqlMeasured) / 100.0);
+            }
+            routes.add(route);
+        }
+        routes.sort(Comparator.comparingLong((Map<String, Object> route) -> (Long) route.get("count")).reversed());
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("routes", routes);
+        result.put("maxRoutes", metrics.getMaxRoutes());
+        return result;
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
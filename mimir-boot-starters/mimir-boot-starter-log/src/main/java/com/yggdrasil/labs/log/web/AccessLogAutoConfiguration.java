@@ -1,14 +1,23 @@
 package com.yggdrasil.labs.log.web;
 
+import com.yggdrasil.labs.log.metrics.AccessRouteMetrics;
+import com.yggdrasil.labs.log.metrics.AccessRouteMetricsBinder;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.Filter;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.web.servlet.ConditionalOnMissingFilterBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.lang.Nullable;
 
 /**
  * 访问日志自动配置
@@ -17,7 +26,9 @@ import org.springframework.core.annotation.Order;
  * <ul>
  * <li>自动注册访问日志过滤器</li>
  * <li>支持通过配置文件自定义慢接口阈值</li>
+ * <li>可开启快速成功请求采样、按路由汇总、在途慢请求线程栈采样</li>
  * <li>可控制是否启用访问日志功能</li>
+ * <li>按路由聚合耗时直方图，存在 Actuator 时注册 {@link AccessLatencyEndpoint}，存在 Micrometer 时注册 {@link AccessRouteMetricsBinder}</li>
  * </ul>
  *
  * @author Yggdrasil Labs
@@ -40,21 +51,98 @@ public class AccessLogAutoConfiguration {
         this.properties = properties;
     }
 
+    /**
+     * 按路由聚合耗时
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "mimir.boot.log.access.route-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public AccessRouteMetrics accessRouteMetrics() {
+        return AccessRouteMetrics.of(properties.getRouteMetrics().getMaxRoutes());
+    }
+
+    /**
+     * 按路由汇总
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "mimir.boot.log.access.rollup", name = "enabled", havingValue = "true")
+    public AccessLogRollup accessLogRollup() {
+        AccessLogProperties.Rollup rollup = properties.getRollup();
+        return new AccessLogRollup(rollup.getIntervalMillis(), rollup.getRoutes(), rollup.isLogSlowAndFailed(),
+                properties.getRouteMetrics().getMaxRoutes());
+    }
+
+    /**
+     * 在途慢请求线程栈采样
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "mimir.boot.log.access.stack-sampling", name = "enabled", havingValue = "true")
+    public SlowRequestStackSampler slowRequestStackSampler() {
+        AccessLogProperties.StackSampling stackSampling = properties.getStackSampling();
+        return new SlowRequestStackSampler(stackSampling.getStartFraction(), stackSampling.getIntervalMillis(),
+                stackSampling.getMaxConcurrent(), stackSampling.getMaxDepth(), stackSampling.getMaxStacks());
+    }
+
     /**
      * 注册访问日志过滤器
      */
     @Bean
     @ConditionalOnMissingFilterBean
     @Order(Integer.MIN_VALUE + 1) // 在 Spring Security 之后执行
-    public FilterRegistrationBean<Filter> accessLogFilter() {
-        FilterRegistrationBean<Filter> registrationBean = new FilterRegistrationBean<>(
-                new AccessLogFilter(properties.getSlowThresholdMs())
-        );
+    public FilterRegistrationBean<Filter> accessLogFilter(@Nullable AccessRouteMetrics routeMetrics,
+                                                          @Nullable AccessLogRollup rollup,
+                                                          @Nullable SlowRequestStackSampler stackSampler) {
+        AccessLogFilter filter = new AccessLogFilter(properties.getSlowThresholdMs(),
+                (int) Math.min(Integer.MAX_VALUE, properties.getBodyCaptureLimit().toBytes()));
+        filter.setRouteMetrics(routeMetrics);
+        filter.setRouteSlowThresholds(properties.getRouteSlowThresholdMs());
+        filter.setRollup(rollup);
+        filter.setStackSampler(stackSampler);
+        filter.setResourceUsageEnabled(properties.isResourceUsageEnabled());
+        filter.setSqlStatsEnabled(properties.isSqlStatsEnabled());
+        if (properties.getSampling().isEnabled()) {
+            filter.setSampler(new AccessLogSampler(properties.getSampling().getRatePerSecond(),
+                    properties.getRouteMetrics().getMaxRoutes()));
+        }
+        FilterRegistrationBean<Filter> registrationBean = new FilterRegistrationBean<>(filter);
 
         registrationBean.setName("accessLogFilter");
         registrationBean.addUrlPatterns("/*");
+        // 异步请求的 ASYNC 分派也经过过滤器，以累加分派线程上的资源消耗（日志仍在异步完成时记录一次）
+        registrationBean.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
 
         return registrationBean;
     }
-}
 
+    /**
+     * Actuator 端点
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    @ConditionalOnProperty(prefix = "mimir.boot.log.access.route-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class AccessLatencyEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public AccessLatencyEndpoint accessLatencyEndpoint(AccessRouteMetrics routeMetrics) {
+            return new AccessLatencyEndpoint(routeMetrics);
+        }
+    }
+
+    /**
+     * Micrometer 支持
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterBinder.class)
+    @ConditionalOnProperty(prefix = "mimir.boot.log.access.route-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class AccessRouteMetricsMicrometerConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public AccessRouteMetricsBinder accessRouteMetricsBinder(AccessRouteMetrics routeMetrics) {
+            return new AccessRouteMetricsBinder(routeMetrics);
+        }
+    }
+}
@@ -1,25 +1,50 @@
 package com.yggdrasil.labs.log.web;
 
+import com.yggdrasil.labs.common.context.RequestSqlStats;
 import com.yggdrasil.labs.common.util.LogSanitizer;
+import com.yggdrasil.labs.log.converter.SensitiveDataConverter;
+import com.yggdrasil.labs.log.converter.TraceTagConverter;
+import com.yggdrasil.labs.log.debug.DebugTraceRegistry;
+import com.yggdrasil.labs.log.metrics.AccessRouteMetrics;
+import com.yggdrasil.labs.log.metrics.AccessRouteStats;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.util.StringUtils;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 访问日志过滤器
  *
  * <p>功能说明：</p>
  * <ul>
- * <li>记录每个请求的详细信息：IP、URI、耗时、状态码</li>
+ * <li>记录每个请求的详细信息：IP、URI、耗时、状态码、响应字节数</li>
  * <li>根据耗时判断是否为慢接口，慢接口输出 WARN 级别日志</li>
  * <li>慢接口阈值可配置</li>
  * <li>支持自动获取真实 IP（支持反向代理场景）</li>
+ * <li>响应体直接写出，不在内存中缓冲；可选保留响应体前若干字节，仅慢请求和失败请求（4xx / 5xx）输出，
+ * 输出前按 access.log 的脱敏策略脱敏（access.log 的 encoder 本身不脱敏消息）。
+ * 是否保留在首次写出响应体时决定：此时状态码已是 4xx / 5xx 或耗时已超过慢接口阈值才保留，
+ * 其余响应不复制响应体（写出期间才变慢的流式响应不输出响应体）</li>
+ * <li>异步请求（DeferredResult、Callable、StreamingResponseBody 等）在响应真正完成时记录，耗时为端到端耗时，
+ * 超时、异常的请求带 {@code [异步超时]} / {@code [异步异常]} 标记</li>
+ * <li>按路由模板（而非原始 URI）+ 状态码类别聚合耗时直方图，并支持按路由单独设置慢接口阈值</li>
+ * <li>高 QPS 下可对快速成功请求按路由自适应采样，日志中记录采样率 {@code SampleRate=[1/N]}</li>
+ * <li>可按路由汇总：每个区间每个路由输出一行汇总（见 {@link AccessLogRollup}），可选仍逐条输出慢请求和失败请求</li>
+ * <li>可记录每个请求在容器线程上消耗的 CPU 时间与堆分配字节数（{@code CPU=[..ms], Alloc=[..]}），异步请求按线程分段累加</li>
+ * <li>可记录每个请求执行的 SQL 语句数、SQL 总耗时与查询返回行数（{@code SQL=[..], SqlTime=[..ms], Rows=[..]}），
+ * 计数器绑定在请求线程上（{@link RequestSqlStats}），由 MyBatis 拦截器累加</li>
+ * <li>可对在途请求采样线程栈（见 {@link SlowRequestStackSampler}），慢接口日志之后附折叠栈（火焰图格式）</li>
  * </ul>
  *
  * @author Yggdrasil Labs
@@ -29,10 +54,107 @@ public class AccessLogFilter implements Filter {
 
     private static final Logger ACCESS_LOG = LoggerFactory.getLogger("access.log");
 
+    /**
+     * Spring MVC 匹配到的路由模板（{@code HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE}），
+     * 按名称读取以免依赖 spring-webmvc
+     */
+    static final String BEST_MATCHING_PATTERN_ATTRIBUTE =
+            "org.springframework.web.servlet.HandlerMapping.bestMatchingPattern";
+
+    /**
+     * 异步请求的 SQL 统计，ASYNC 分派时重新绑定到分派线程
+     */
+    static final String SQL_STATS_ATTRIBUTE = AccessLogFilter.class.getName() + ".SQL_STATS";
+
     private final long slowThresholdMs;
 
+    private final int bodyCaptureLimit;
+
+    private AccessRouteMetrics routeMetrics;
+
+    private Map<String, Long> routeSlowThresholds = Collections.emptyMap();
+
+    /** 全局与按路由慢接口阈值中的最小值，首次写出响应体时据此判断是否保留响应体 */
+    private long minSlowThresholdMs;
+
+    private AccessLogSampler sampler;
+
+    private AccessLogRollup rollup;
+
+    private boolean resourceUsageEnabled;
+
+    private boolean sqlStatsEnabled;
+
+    private SlowRequestStackSampler stackSampler;
+
     public AccessLogFilter(long slowThresholdMs) {
+        this(slowThresholdMs, 0);
+    }
+
+    /**
+     * @param slowThresholdMs  慢接口阈值（毫秒）
+     * @param bodyCaptureLimit 慢请求、失败请求输出的响应体最大字节数，0 表示不输出
+     */
+    public AccessLogFilter(long slowThresholdMs, int bodyCaptureLimit) {
         this.slowThresholdMs = slowThresholdMs;
+        this.bodyCaptureLimit = bodyCaptureLimit;
+        this.minSlowThresholdMs = slowThresholdMs;
+    }
+
+    /**
+     * 按路由聚合耗时，为 null 时不聚合
+     */
+    public void setRouteMetrics(AccessRouteMetrics routeMetrics) {
+        this.routeMetrics = routeMetrics;
+    }
+
+    /**
+     * 快速成功请求的采样器，为 null 时全量记录
+     */
+    public void setSampler(AccessLogSampler sampler) {
+        this.sampler = sampler;
+    }
+
+    /**
+     * 按路由汇总，为 null 时逐条记录
+     */
+    public void setRollup(AccessLogRollup rollup) {
+        this.rollup = rollup;
+    }
+
+    /**
+     * 是否记录每个请求的 CPU 时间与堆分配字节数（JVM 不支持时忽略）
+     */
+    public void setResourceUsageEnabled(boolean resourceUsageEnabled) {
+        this.resourceUsageEnabled = resourceUsageEnabled && RequestResourceUsage.isSupported();
+    }
+
+    /**
+     * 是否记录每个请求执行的 SQL 语句数、耗时与返回行数
+     */
+    public void setSqlStatsEnabled(boolean sqlStatsEnabled) {
+        this.sqlStatsEnabled = sqlStatsEnabled;
+    }
+
+    /**
+     * 在途请求线程栈采样，为 null 时不采样
+     */
+    public void setStackSampler(SlowRequestStackSampler stackSampler) {
+        this.stackSampler = stackSampler;
+    }
+
+    /**
+     * 按路由设置的慢接口阈值（毫秒）
+     *
+     * @param routeSlowThresholds key 为路由模板（如 {@code /export/**}）或 {@code 方法 路由模板}（如 {@code POST /export/**}）
+     */
+    public void setRouteSlowThresholds(Map<String, Long> routeSlowThresholds) {
+        this.routeSlowThresholds = routeSlowThresholds != null ? Map.copyOf(routeSlowThresholds) : Collections.emptyMap();
+        long min = slowThresholdMs;
+        for (Long threshold : this.routeSlowThresholds.values()) {
+            min = Math.min(min, threshold);
+        }
+        this.minSlowThresholdMs = min;
     }
 
     @Override
@@ -41,25 +163,97 @@ public class AccessLogFilter implements Filter {
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         HttpServletResponse httpResponse = (HttpServletResponse) response;
 
-        // 记录开始时间
-        long startTime = System.currentTimeMillis();
+        // 异步分派由首次请求注册的 AsyncListener 负责记录，这里只累加本次分派的资源消耗与 SQL
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            doFilterAsyncDispatch(request, response, chain);
+            return;
+        }
+
+        // 记录开始时间（单调时钟，不受系统时间调整影响）
+        long startNanos = System.nanoTime();
 
-        // 包装响应以便获取状态码
-        ContentCachingResponseWrapper wrappedResponse = new ContentCachingResponseWrapper(httpResponse);
+        // 当前线程的 CPU 时间与分配字节数起点
+        RequestResourceUsage usage = null;
+        long cpuStart = 0;
+        long allocStart = 0;
+        if (resourceUsageEnabled) {
+            usage = new RequestResourceUsage();
+            cpuStart = RequestResourceUsage.currentThreadCpuNanos();
+            allocStart = RequestResourceUsage.currentThreadAllocatedBytes();
+        }
+
+        // 当前线程的 SQL 计数器，由 MyBatis 拦截器累加
+        RequestSqlStats sqlStats = null;
+        RequestSqlStats previousSqlStats = null;
+        if (sqlStatsEnabled) {
+            sqlStats = new RequestSqlStats();
+            previousSqlStats = RequestSqlStats.bind(sqlStats);
+        }
+
+        // 登记在途请求，耗时接近慢接口阈值后由后台线程采样线程栈
+        SlowRequestStackSampler.InFlight inFlight = stackSampler != null
+                ? stackSampler.watch(Thread.currentThread(), startNanos, slowThresholdMs) : null;
+
+        // 包装响应以便统计字节数（响应体直接写出，不缓冲）
+        AccessLogResponseWrapper wrappedResponse = new AccessLogResponseWrapper(httpResponse, bodyCaptureLimit,
+                startNanos, TimeUnit.MILLISECONDS.toNanos(minSlowThresholdMs));
 
         try {
             // 继续过滤器链
             chain.doFilter(request, wrappedResponse);
         } finally {
-            // 计算耗时
-            long duration = System.currentTimeMillis() - startTime;
-
-            // 记录访问日志
-            logAccess(httpRequest, wrappedResponse, duration);
+            if (inFlight != null) {
+                inFlight.detach();
+            }
+            if (usage != null) {
+                usage.addSegment(cpuStart, allocStart);
+            }
+            if (sqlStats != null) {
+                RequestSqlStats.bind(previousSqlStats);
+            }
+            if (request.isAsyncStarted()) {
+                // 容器线程已释放但响应尚未完成，等异步完成时再记录
+                if (usage != null) {
+                    request.setAttribute(RequestResourceUsage.ATTRIBUTE, usage);
+                }
+                if (sqlStats != null) {
+                    request.setAttribute(SQL_STATS_ATTRIBUTE, sqlStats);
+                }
+                request.getAsyncContext().addListener(new AccessLogAsyncListener(
+                        httpRequest, wrappedResponse, startNanos, usage, sqlStats, inFlight,
+                        MDC.getCopyOfContextMap()));
+            } else {
+                // 记录访问日志
+                logAccess(httpRequest, wrappedResponse, System.nanoTime() - startNanos, usage, sqlStats, inFlight,
+                        null);
+            }
+        }
+    }
 
-            // 提交响应（如果还没提交）
-            if (!wrappedResponse.isCommitted()) {
-                wrappedResponse.flushBuffer();
+    /**
+     * 异步分派：累加本次分派线程上的 CPU 时间与分配字节数，并将 SQL 计数器重新绑定到分派线程
+     */
+    private void doFilterAsyncDispatch(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        RequestResourceUsage usage = request.getAttribute(RequestResourceUsage.ATTRIBUTE)
+                instanceof RequestResourceUsage attribute ? attribute : null;
+        RequestSqlStats sqlStats = request.getAttribute(SQL_STATS_ATTRIBUTE)
+                instanceof RequestSqlStats attribute ? attribute : null;
+        if (usage == null && sqlStats == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long cpuStart = usage != null ? RequestResourceUsage.currentThreadCpuNanos() : 0;
+        long allocStart = usage != null ? RequestResourceUsage.currentThreadAllocatedBytes() : 0;
+        RequestSqlStats previousSqlStats = sqlStats != null ? RequestSqlStats.bind(sqlStats) : null;
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (usage != null) {
+                usage.addSegment(cpuStart, allocStart);
+            }
+            if (sqlStats != null) {
+                RequestSqlStats.bind(previousSqlStats);
             }
         }
     }
@@ -67,20 +261,67 @@ public class AccessLogFilter implements Filter {
     /**
      * 记录访问日志
      */
-    private void logAccess(HttpServletRequest request, HttpServletResponse response, long durationMs) {
+    private void logAccess(HttpServletRequest request, AccessLogResponseWrapper response, long durationNanos,
+                           RequestResourceUsage usage, RequestSqlStats sqlStats,
+                           SlowRequestStackSampler.InFlight inFlight, String asyncTag) {
         try {
+            int statusCode = response.getStatus();
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+
+            // 路由模板：聚合维度与按路由阈值均使用模板，避免路径参数导致基数膨胀
+            String route = resolveRoute(request, statusCode);
+            if (routeMetrics != null) {
+                AccessRouteStats stats = routeMetrics.record(request.getMethod(), route, statusCode, durationNanos);
+                if (usage != null) {
+                    stats.recordResourceUsage(usage.getCpuNanos(), usage.getAllocatedBytes());
+                }
+                if (sqlStats != null) {
+                    stats.recordSql(sqlStats.getStatementCount(), sqlStats.getSqlNanos(), sqlStats.getRows());
+                }
+            }
+            boolean isSlow = durationMs > slowThresholdFor(request.getMethod(), route);
+
+            // 汇总模式：计入路由汇总，按配置只逐条输出慢请求和失败请求
+            if (rollup != null && rollup.accepts(route)) {
+                rollup.record(sanitize(request.getMethod()), route, statusCode, durationNanos,
+                        response.getBytesWritten());
+                if (!rollup.isLogSlowAndFailed() || !(isSlow || statusCode >= 400)) {
+                    return;
+                }
+            }
+
+            // 采样：只对快速成功请求采样，慢请求、失败请求和调试请求始终记录（耗时已计入路由统计）
+            int sampleInterval = 0;
+            if (sampler != null) {
+                sampleInterval = isSlow || statusCode < 200 || statusCode >= 300 || isDebugRequest()
+                        ? 1 : sampler.sample(request.getMethod(), route);
+                if (sampleInterval == 0) {
+                    return;
+                }
+            }
+
             String ip = sanitize(getClientIp(request));
             String method = sanitize(request.getMethod());
             String uri = sanitize(request.getRequestURI());
             String queryString = sanitize(request.getQueryString());
-            int statusCode = response.getStatus();
             String userAgent = sanitize(request.getHeader("User-Agent"));
 
             // 构建完整的 URI（包含查询参数）
             String fullUri = queryString != null ? uri + "?" + queryString : uri;
 
+            // 仅慢请求和失败请求输出响应体；access.log 的 encoder 不脱敏，这里先按其策略脱敏
+            String body = null;
+            if (bodyCaptureLimit > 0 && (isSlow || statusCode >= 400)) {
+                body = sanitize(SensitiveDataConverter.mask(ACCESS_LOG.getName(), response.getCapturedBody()));
+            }
+
+            // 仅慢请求附线程栈采样
+            String stacks = isSlow && inFlight != null ? inFlight.collapsedStacks() : null;
+
             // 根据状态码和耗时判断日志级别（最佳实践）
-            logAccessByStatus(ip, method, fullUri, statusCode, durationMs, userAgent != null ? userAgent : "Unknown");
+            logAccessByStatus(ip, method, fullUri, statusCode, durationMs, isSlow, response.getBytesWritten(),
+                    userAgent != null ? userAgent : "Unknown", sampleInterval, usage, sqlStats, body, asyncTag,
+                    stacks);
         } catch (Exception e) {
             ACCESS_LOG.error("Failed to log access", e);
         }
@@ -100,14 +341,58 @@ public class AccessLogFilter implements Filter {
      * @param fullUri   完整的 URI
      * @param statusCode HTTP 状态码
      * @param durationMs 耗时（毫秒）
+     * @param isSlow     是否超过慢接口阈值
+     * @param bytes      响应体字节数
      * @param userAgent  User-Agent
+     * @param sampleInterval 采样间隔 N（本条日志代表 N 个请求），0 表示未开启采样、不输出
+     * @param usage      CPU 时间与分配字节数，为 null 时不输出
+     * @param sqlStats   SQL 语句数、耗时与返回行数，为 null 时不输出
+     * @param body       响应体前缀，为 null 时不输出
+     * @param asyncTag   异步请求的异常结束标记（超时 / 异常），为 null 时不输出
+     * @param stacks     慢请求的折叠栈（每行一个栈），为 null 时不输出
      */
-    private void logAccessByStatus(String ip, String method, String fullUri, int statusCode, long durationMs, String userAgent) {
-        boolean isSlow = durationMs > slowThresholdMs;
-        
+    private void logAccessByStatus(String ip, String method, String fullUri, int statusCode, long durationMs,
+                                   boolean isSlow, long bytes, String userAgent, int sampleInterval,
+                                   RequestResourceUsage usage, RequestSqlStats sqlStats, String body,
+                                   String asyncTag, String stacks) {
         // 使用参数化日志，防止日志注入攻击
-        String message = "IP=[{}], Method=[{}], URI=[{}], Status=[{}], Duration=[{}ms], UserAgent=[{}]";
-        Object[] args = new Object[]{ip, method, fullUri, statusCode, durationMs, userAgent};
+        StringBuilder format = new StringBuilder(
+                "IP=[{}], Method=[{}], URI=[{}], Status=[{}], Duration=[{}ms], Bytes=[{}], UserAgent=[{}]");
+        List<Object> params = new ArrayList<>(14);
+        Collections.addAll(params, ip, method, fullUri, statusCode, durationMs, bytes, userAgent);
+        if (sampleInterval > 0) {
+            format.append(", SampleRate=[1/{}]");
+            params.add(sampleInterval);
+        }
+        if (usage != null) {
+            format.append(", CPU=[{}ms], Alloc=[{}]");
+            params.add(Math.round(usage.getCpuNanos() / 1_000.0) / 1_000.0);
+            params.add(usage.getAllocatedBytes());
+        }
+        if (sqlStats != null) {
+            format.append(", SQL=[{}], SqlTime=[{}ms], Rows=[{}]");
+            params.add(sqlStats.getStatementCount());
+            params.add(Math.round(sqlStats.getSqlNanos() / 1_000.0) / 1_000.0);
+            params.add(sqlStats.getRows());
+        }
+        if (body != null) {
+            format.append(", Body=[{}]");
+            params.add(body);
+        }
+        if (asyncTag != null) {
+            format.append(" [").append(asyncTag).append(']');
+        }
+        // 5xx 已记录为 ERROR，不再标记慢接口
+        if (isSlow && statusCode < 500) {
+            format.append(" [慢接口]");
+        }
+        if (stacks != null) {
+            // 折叠栈每行一个，便于直接生成火焰图
+            format.append("\n{}");
+            params.add(stacks);
+        }
+        String message = format.toString();
+        Object[] args = params.toArray();
         
         // 判断状态码范围
         if (statusCode >= 500) {
@@ -117,30 +402,72 @@ public class AccessLogFilter implements Filter {
         } else if (statusCode >= 400) {
             // 4xx: 客户端错误，记录为 WARN
             // 示例：400 Bad Request, 401 Unauthorized, 403 Forbidden, 404 Not Found, 429 Too Many Requests
-            if (isSlow) {
-                ACCESS_LOG.warn(message + " [慢接口]", args);
-            } else {
-                ACCESS_LOG.warn(message, args);
-            }
+            ACCESS_LOG.warn(message, args);
         } else if (statusCode >= 300) {
-            // 3xx: 重定向，记录为 INFO
+            // 3xx: 重定向，记录为 INFO，慢则 WARN
             // 示例：301 Moved Permanently, 302 Found, 304 Not Modified
             if (isSlow) {
-                ACCESS_LOG.warn(message + " [慢接口]", args);
+                ACCESS_LOG.warn(message, args);
             } else {
                 ACCESS_LOG.info(message, args);
             }
         } else {
-            // 2xx: 成功，记录为 INFO
+            // 2xx: 成功，记录为 INFO，慢则 WARN
             // 示例：200 OK, 201 Created, 204 No Content
             if (isSlow) {
-                ACCESS_LOG.warn(message + " [慢接口]", args);
+                ACCESS_LOG.warn(message, args);
             } else {
                 ACCESS_LOG.info(message, args);
             }
         }
     }
 
+    /**
+     * 当前请求是否开启了调试日志（调试请求头或已登记的 traceId）
+     */
+    private boolean isDebugRequest() {
+        return DebugTraceRegistry.getInstance().matches(
+                MDC.get(DebugTraceRegistry.DEBUG_MDC_KEY), MDC.get(TraceTagConverter.TRACE_ID_KEY));
+    }
+
+    /**
+     * 解析路由模板
+     * <p>
+     * 优先使用 Spring MVC 匹配到的路由模板；未匹配到路由时按状态码归为 NOT_FOUND / REDIRECTION / UNKNOWN，
+     * 不使用原始 URI
+     *
+     * @param request    HTTP 请求
+     * @param statusCode HTTP 状态码
+     * @return 路由模板
+     */
+    private String resolveRoute(HttpServletRequest request, int statusCode) {
+        Object pattern = request.getAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern instanceof String route && !route.isEmpty()) {
+            return sanitize(route);
+        }
+        if (statusCode == 404) {
+            return "NOT_FOUND";
+        }
+        if (statusCode >= 300 && statusCode < 400) {
+            return "REDIRECTION";
+        }
+        return "UNKNOWN";
+    }
+
+    /**
+     * 路由的慢接口阈值：先按 {@code 方法 路由模板}，再按路由模板，最后使用全局阈值
+     */
+    private long slowThresholdFor(String method, String route) {
+        if (routeSlowThresholds.isEmpty()) {
+            return slowThresholdMs;
+        }
+        Long threshold = routeSlowThresholds.get(method + " " + route);
+        if (threshold == null) {
+            threshold = routeSlowThresholds.get(route);
+        }
+        return threshold != null ? threshold : slowThresholdMs;
+    }
+
     /**
      * 获取客户端真实 IP
      * 支持反向代理场景，按优先级检查以下请求头：
@@ -191,5 +518,77 @@ public class AccessLogFilter implements Filter {
     private String sanitize(String input) {
         return LogSanitizer.escapeControls(input);
     }
-}
 
+    /**
+     * 异步请求完成时记录访问日志
+     *
+     * <p>超时、异常之后容器仍会回调 {@code onComplete}，此时状态码已是最终值，因此统一在完成时记录一次。
+     * 回调线程上没有原请求的 MDC，记录前恢复过滤器执行时的 MDC（traceId 等）。</p>
+     */
+    private final class AccessLogAsyncListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final AccessLogResponseWrapper response;
+        private final long startNanos;
+        private final RequestResourceUsage usage;
+        private final RequestSqlStats sqlStats;
+        private final SlowRequestStackSampler.InFlight inFlight;
+        private final Map<String, String> mdc;
+        private final AtomicBoolean logged = new AtomicBoolean();
+        private volatile String tag;
+
+        private AccessLogAsyncListener(HttpServletRequest request, AccessLogResponseWrapper response,
+                                       long startNanos, RequestResourceUsage usage, RequestSqlStats sqlStats,
+                                       SlowRequestStackSampler.InFlight inFlight, Map<String, String> mdc) {
+            this.request = request;
+            this.response = response;
+            this.startNanos = startNanos;
+            this.usage = usage;
+            this.sqlStats = sqlStats;
+            this.inFlight = inFlight;
+            this.mdc = mdc;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            if (!logged.compareAndSet(false, true)) {
+                return;
+            }
+            long durationNanos = System.nanoTime() - startNanos;
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            try {
+                logAccess(request, response, durationNanos, usage, sqlStats, inFlight, tag);
+            } finally {
+                if (previous != null) {
+                    MDC.setContextMap(previous);
+                } else {
+                    MDC.clear();
+                }
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            tag = "异步超时";
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            if (tag == null) {
+                tag = "异步异常";
+            }
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // 再次 startAsync 时已注册的监听器会被移除，需要重新注册
+            AsyncContext asyncContext = event.getAsyncContext();
+            if (asyncContext != null) {
+                asyncContext.addListener(this);
+            }
+        }
+    }
+}
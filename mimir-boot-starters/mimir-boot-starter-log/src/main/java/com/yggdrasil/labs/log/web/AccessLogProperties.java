@@ -1,6 +1,12 @@
 package com.yggdrasil.labs.log.web;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 访问日志配置属性
@@ -26,6 +32,54 @@ public class AccessLogProperties {
      */
     private long slowThresholdMs = 1000;
 
+    /**
+     * 慢请求、失败请求（4xx / 5xx）输出的响应体最大长度
+     * 响应体始终直接写出，仅保留前 N 个字节用于日志，输出前按 access.log 的脱敏策略脱敏
+     * 默认：0（不输出响应体）
+     */
+    private DataSize bodyCaptureLimit = DataSize.ofBytes(0);
+
+    /**
+     * 按路由设置的慢接口阈值（毫秒），未配置的路由使用 slowThresholdMs
+     * key 为路由模板或 "方法 路由模板"，含 / 的 key 需用方括号，如：
+     * mimir.boot.log.access.route-slow-threshold-ms.[/export/**]=10000
+     */
+    private Map<String, Long> routeSlowThresholdMs = new LinkedHashMap<>();
+
+    /**
+     * 按路由聚合耗时配置
+     */
+    private RouteMetrics routeMetrics = new RouteMetrics();
+
+    /**
+     * 快速成功请求采样配置
+     */
+    private Sampling sampling = new Sampling();
+
+    /**
+     * 按路由汇总配置
+     */
+    private Rollup rollup = new Rollup();
+
+    /**
+     * 是否记录每个请求在容器线程上消耗的 CPU 时间与堆分配字节数
+     * 依赖 com.sun.management.ThreadMXBean，JVM 不支持时忽略
+     * 默认：false
+     */
+    private boolean resourceUsageEnabled = false;
+
+    /**
+     * 是否记录每个请求执行的 SQL 语句数、SQL 总耗时与查询返回行数
+     * 由 mimir-boot-starter-mybatis 的拦截器累加，未引入时各项为 0
+     * 默认：false
+     */
+    private boolean sqlStatsEnabled = false;
+
+    /**
+     * 在途慢请求线程栈采样配置
+     */
+    private StackSampling stackSampling = new StackSampling();
+
     public boolean isEnabled() {
         return enabled;
     }
@@ -41,5 +95,288 @@ public class AccessLogProperties {
     public void setSlowThresholdMs(long slowThresholdMs) {
         this.slowThresholdMs = slowThresholdMs;
     }
-}
 
+    public DataSize getBodyCaptureLimit() {
+        return bodyCaptureLimit;
+    }
+
+    public void setBodyCaptureLimit(DataSize bodyCaptureLimit) {
+        this.bodyCaptureLimit = bodyCaptureLimit;
+    }
+
+    public Map<String, Long> getRouteSlowThresholdMs() {
+        return routeSlowThresholdMs;
+    }
+
+    public void setRouteSlowThresholdMs(Map<String, Long> routeSlowThresholdMs) {
+        this.routeSlowThresholdMs = routeSlowThresholdMs;
+    }
+
+    public RouteMetrics getRouteMetrics() {
+        return routeMetrics;
+    }
+
+    public void setRouteMetrics(RouteMetrics routeMetrics) {
+        this.routeMetrics = routeMetrics;
+    }
+
+    public Sampling getSampling() {
+        return sampling;
+    }
+
+    public void setSampling(Sampling sampling) {
+        this.sampling = sampling;
+    }
+
+    public boolean isResourceUsageEnabled() {
+        return resourceUsageEnabled;
+    }
+
+    public void setResourceUsageEnabled(boolean resourceUsageEnabled) {
+        this.resourceUsageEnabled = resourceUsageEnabled;
+    }
+
+    public boolean isSqlStatsEnabled() {
+        return sqlStatsEnabled;
+    }
+
+    public void setSqlStatsEnabled(boolean sqlStatsEnabled) {
+        this.sqlStatsEnabled = sqlStatsEnabled;
+    }
+
+    public StackSampling getStackSampling() {
+        return stackSampling;
+    }
+
+    public void setStackSampling(StackSampling stackSampling) {
+        this.stackSampling = stackSampling;
+    }
+
+    public Rollup getRollup() {
+        return rollup;
+    }
+
+    public void setRollup(Rollup rollup) {
+        this.rollup = rollup;
+    }
+
+    /**
+     * 按路由聚合耗时配置
+     */
+    public static class RouteMetrics {
+
+        /**
+         * 是否按路由模板 + 状态码类别聚合耗时直方图
+         * 默认：true
+         */
+        private boolean enabled = true;
+
+        /**
+         * 路由维度上限，超出后新路由计入 OTHER
+         * 默认：500
+         */
+        private int maxRoutes = 500;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxRoutes() {
+            return maxRoutes;
+        }
+
+        public void setMaxRoutes(int maxRoutes) {
+            this.maxRoutes = maxRoutes;
+        }
+    }
+
+    /**
+     * 快速成功请求采样配置（见 {@link AccessLogSampler}）
+     * 慢请求、4xx / 5xx 请求和调试请求始终记录
+     */
+    public static class Sampling {
+
+        /**
+         * 是否对快速成功（2xx）请求采样
+         * 默认：false（全量记录）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 每个路由每秒记录的快速成功请求数，超出后按 1/N 概率采样
+         * 默认：100
+         */
+        private long ratePerSecond = 100;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getRatePerSecond() {
+            return ratePerSecond;
+        }
+
+        public void setRatePerSecond(long ratePerSecond) {
+            this.ratePerSecond = ratePerSecond;
+        }
+    }
+
+    /**
+     * 按路由汇总配置（见 {@link AccessLogRollup}）
+     */
+    public static class Rollup {
+
+        /**
+         * 是否启用汇总模式
+         * 默认：false（逐条记录）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 汇总区间（毫秒）
+         * 默认：1000
+         */
+        private long intervalMillis = 1000;
+
+        /**
+         * 使用汇总模式的路由模板，为空时所有路由都汇总
+         */
+        private List<String> routes = new ArrayList<>();
+
+        /**
+         * 汇总的路由中，慢请求和失败请求（4xx / 5xx）是否仍逐条输出
+         * 默认：true
+         */
+        private boolean logSlowAndFailed = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getIntervalMillis() {
+            return intervalMillis;
+        }
+
+        public void setIntervalMillis(long intervalMillis) {
+            this.intervalMillis = intervalMillis;
+        }
+
+        public List<String> getRoutes() {
+            return routes;
+        }
+
+        public void setRoutes(List<String> routes) {
+            this.routes = routes;
+        }
+
+        public boolean isLogSlowAndFailed() {
+            return logSlowAndFailed;
+        }
+
+        public void setLogSlowAndFailed(boolean logSlowAndFailed) {
+            this.logSlowAndFailed = logSlowAndFailed;
+        }
+    }
+
+    /**
+     * 在途慢请求线程栈采样配置
+     */
+    public static class StackSampling {
+
+        /**
+         * 是否对在途请求采样线程栈，慢接口日志之后附折叠栈
+         * 默认：false
+         */
+        private boolean enabled = false;
+
+        /**
+         * 请求耗时达到慢接口阈值的该比例后开始采样
+         * 默认：0.5
+         */
+        private double startFraction = 0.5;
+
+        /**
+         * 采样间隔（毫秒）
+         * 默认：20
+         */
+        private long intervalMillis = 20;
+
+        /**
+         * 全局同时采样的请求数上限
+         * 默认：4
+         */
+        private int maxConcurrent = 4;
+
+        /**
+         * 每个栈保留的最大栈帧数（靠近栈顶的部分）
+         * 默认：64
+         */
+        private int maxDepth = 64;
+
+        /**
+         * 每个请求保留的不同栈数上限，超出的样本计入 [other]
+         * 默认：32
+         */
+        private int maxStacks = 32;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getStartFraction() {
+            return startFraction;
+        }
+
+        public void setStartFraction(double startFraction) {
+            this.startFraction = startFraction;
+        }
+
+        public long getIntervalMillis() {
+            return intervalMillis;
+        }
+
+        public void setIntervalMillis(long intervalMillis) {
+            this.intervalMillis = intervalMillis;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+
+        public void setMaxDepth(int maxDepth) {
+            this.maxDepth = maxDepth;
+        }
+
+        public int getMaxStacks() {
+            return maxStacks;
+        }
+
+        public void setMaxStacks(int maxStacks) {
+            this.maxStacks = maxStacks;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.yggdrasil.labs.log.web;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 访问日志响应包装器
+ *
+ * <p>响应体直接写入原响应（不缓冲、不复制），只统计写出的字节数；状态码直接读取原响应。
+ * {@code captureLimit > 0} 时同时保留响应体的前 {@code captureLimit} 个字节（首次写入时才分配），
+ * 供慢请求或失败请求输出。是否保留在首次写入时决定一次：状态码已是 4xx / 5xx，或距请求开始已超过
+ * {@code captureAfterNanos} 时保留，否则整个响应都不复制。</p>
+ *
+ * <p>通过 {@link #getWriter()} 写出的字符按 UTF-8 编码长度计数。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+final class AccessLogResponseWrapper extends HttpServletResponseWrapper {
+
+    private final int captureLimit;
+
+    private final long startNanos;
+
+    private final long captureAfterNanos;
+
+    /** 是否已决定保留响应体；未决定时为 null */
+    private Boolean capturing;
+
+    private long bytesWritten;
+
+    private byte[] capturedBytes;
+
+    private int capturedLength;
+
+    private StringBuilder capturedChars;
+
+    private ServletOutputStream outputStream;
+
+    private PrintWriter writer;
+
+    /**
+     * @param captureLimit      保留的响应体最大字节数，0 表示不保留
+     * @param startNanos        请求开始时间（{@link System#nanoTime()}）
+     * @param captureAfterNanos 成功响应在请求开始后经过该时间才保留响应体（可能成为慢请求）
+     */
+    AccessLogResponseWrapper(HttpServletResponse response, int captureLimit, long startNanos,
+                             long captureAfterNanos) {
+        super(response);
+        this.captureLimit = Math.max(0, captureLimit);
+        this.startNanos = startNanos;
+        this.captureAfterNanos = captureAfterNanos;
+    }
+
+    /**
+     * 首次写入时决定是否保留响应体：失败响应或已接近慢请求的响应才需要输出
+     */
+    private boolean shouldCapture() {
+        Boolean decided = capturing;
+        if (decided == null) {
+            decided = getStatus() >= 400 || System.nanoTime() - startNanos >= captureAfterNanos;
+            capturing = decided;
+        }
+        return decided;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new CountingOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new CountingWriter(super.getWriter()));
+        }
+        return writer;
+    }
+
+    /**
+     * 已写出的响应体字节数
+     */
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * 捕获的响应体前缀；未开启捕获或没有响应体时返回 null
+     */
+    String getCapturedBody() {
+        if (capturedChars != null && !capturedChars.isEmpty()) {
+            return capturedChars.toString();
+        }
+        if (capturedLength == 0) {
+            return null;
+        }
+        return new String(capturedBytes, 0, capturedLength, responseCharset());
+    }
+
+    private Charset responseCharset() {
+        String encoding = getCharacterEncoding();
+        try {
+            return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        } catch (IllegalArgumentException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    private void captureBytes(byte[] b, int off, int len) {
+        if (capturedLength >= captureLimit) {
+            return;
+        }
+        if (capturedBytes == null) {
+            capturedBytes = new byte[Math.min(captureLimit, Math.max(len, 256))];
+        }
+        int n = Math.min(len, captureLimit - capturedLength);
+        if (capturedLength + n > capturedBytes.length) {
+            capturedBytes = Arrays.copyOf(capturedBytes, Math.min(captureLimit, Math.max(capturedLength + n, capturedBytes.length * 2)));
+        }
+        System.arraycopy(b, off, capturedBytes, capturedLength, n);
+        capturedLength += n;
+    }
+
+    private void captureByte(byte b) {
+        if (capturedBytes == null) {
+            capturedBytes = new byte[Math.min(captureLimit, 256)];
+        } else if (capturedLength == capturedBytes.length) {
+            capturedBytes = Arrays.copyOf(capturedBytes, Math.min(captureLimit, capturedBytes.length * 2));
+        }
+        capturedBytes[capturedLength++] = b;
+    }
+
+    private void captureChars(char[] cbuf, int off, int len) {
+        if (capturedChars == null) {
+            capturedChars = new StringBuilder(Math.min(captureLimit, Math.max(len, 256)));
+        }
+        int n = Math.min(len, captureLimit - capturedChars.length());
+        if (n > 0) {
+            capturedChars.append(cbuf, off, n);
+        }
+    }
+
+    private void captureChars(CharSequence s, int off, int len) {
+        if (capturedChars == null) {
+            capturedChars = new StringBuilder(Math.min(captureLimit, Math.max(len, 256)));
+        }
+        int n = Math.min(len, captureLimit - capturedChars.length());
+        if (n > 0) {
+            capturedChars.append(s, off, off + n);
+        }
+    }
+
+    private void captureChar(char c) {
+        if (capturedChars == null) {
+            capturedChars = new StringBuilder(Math.min(captureLimit, 256));
+        }
+        if (capturedChars.length() < captureLimit) {
+            capturedChars.append(c);
+        }
+    }
+
+    private static int utf8Length(char[] cbuf, int off, int len) {
+        int bytes = 0;
+        for (int i = off; i < off + len; i++) {
+            bytes += utf8Length(cbuf[i]);
+        }
+        return bytes;
+    }
+
+    private static int utf8Length(CharSequence s, int off, int len) {
+        int bytes = 0;
+        for (int i = off; i < off + len; i++) {
+            bytes += utf8Length(s.charAt(i));
+        }
+        return bytes;
+    }
+
+    private static int utf8Length(char c) {
+        if (c < 0x80) {
+            return 1;
+        }
+        if (c < 0x800) {
+            return 2;
+        }
+        // 代理对共 4 字节，高低代理各计 2
+        return Character.isSurrogate(c) ? 2 : 3;
+    }
+
+    /**
+     * 计数并直接写入原响应的输出流
+     */
+    private final class CountingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+
+        private CountingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            bytesWritten++;
+            if (capturedLength < captureLimit && shouldCapture()) {
+                captureByte((byte) b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            bytesWritten += len;
+            if (captureLimit > 0 && shouldCapture()) {
+                captureBytes(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+
+    /**
+     * 计数并直接写入原响应的 Writer
+     */
+    private final class CountingWriter extends Writer {
+
+        private final Writer delegate;
+
+        private CountingWriter(Writer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            delegate.write(c);
+            bytesWritten += utf8Length((char) c);
+            if (captureLimit > 0 && shouldCapture()) {
+                captureChar((char) c);
+            }
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            delegate.write(cbuf, off, len);
+            bytesWritten += utf8Length(cbuf, off, len);
+            if (captureLimit > 0 && shouldCapture()) {
+                captureChars(cbuf, off, len);
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            delegate.write(str, off, len);
+            bytesWritten += utf8Length(str, off, len);
+            if (captureLimit > 0 && shouldCapture()) {
+                captureChars(str, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
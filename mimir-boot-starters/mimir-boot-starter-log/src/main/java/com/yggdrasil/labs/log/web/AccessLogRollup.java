@@ -0,0 +1,202 @@
+package com.yggdrasil.labs.log.web;
+
+import com.yggdrasil.labs.log.metrics.AccessRouteMetrics;
+import com.yggdrasil.labs.log.metrics.LogLinearHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 访问日志按路由汇总
+ *
+ * <p>汇总模式下的路由不逐条输出访问日志，而是累加到按路由（HTTP 方法 + 路由模板）的累加器中，
+ * 每个区间为每个有请求的路由输出一行汇总：</p>
+ * <pre>
+ * Rollup Method=[GET], Route=[/api/user/{id}], Interval=[1000ms], Count=[8523], 2xx=[8519], 4xx=[4], 5xx=[0],
+ * P50=[1.984ms], P99=[12.287ms], Max=[35.112ms], Bytes=[13057236]
+ * </pre>
+ *
+ * <p>计数与字节数使用 {@link LongAdder} 分段累加，耗时使用 {@link LogLinearHistogram}，记录路径无锁；
+ * 区间结束时以"读取并扣减"的方式取出，与记录并发时不丢数据。汇总由后台守护线程按区间输出。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class AccessLogRollup {
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("access.log");
+
+    private static final String ROLLUP_FORMAT = "Rollup Method=[{}], Route=[{}], Interval=[{}ms], Count=[{}], "
+            + "2xx=[{}], 4xx=[{}], 5xx=[{}], P50=[{}ms], P99=[{}ms], Max=[{}ms], Bytes=[{}]";
+
+    private final long intervalMillis;
+
+    private final Set<String> routes;
+
+    private final boolean logSlowAndFailed;
+
+    private final int maxRoutes;
+
+    private final Map<String, Accumulator> accumulators = new ConcurrentHashMap<>();
+
+    private volatile ScheduledExecutorService scheduler;
+
+    /**
+     * @param intervalMillis   汇总区间（毫秒）
+     * @param routes           参与汇总的路由模板，为空时所有路由都汇总
+     * @param logSlowAndFailed 汇总的路由中，慢请求和失败请求（4xx / 5xx）是否仍逐条输出
+     * @param maxRoutes        路由上限，超出后新路由计入 {@code OTHER}
+     */
+    public AccessLogRollup(long intervalMillis, Collection<String> routes, boolean logSlowAndFailed, int maxRoutes) {
+        this.intervalMillis = Math.max(1, intervalMillis);
+        this.routes = routes != null ? Set.copyOf(routes) : Set.of();
+        this.logSlowAndFailed = logSlowAndFailed;
+        this.maxRoutes = Math.max(0, maxRoutes);
+    }
+
+    /**
+     * 路由是否使用汇总模式
+     *
+     * @param route 路由模板
+     */
+    public boolean accepts(String route) {
+        return routes.isEmpty() || routes.contains(route);
+    }
+
+    /**
+     * 汇总的路由中，慢请求和失败请求是否仍逐条输出
+     */
+    public boolean isLogSlowAndFailed() {
+        return logSlowAndFailed;
+    }
+
+    /**
+     * 记录一次请求
+     *
+     * @param method     HTTP 方法
+     * @param route      路由模板
+     * @param statusCode HTTP 状态码
+     * @param nanos      耗时（纳秒）
+     * @param bytes      响应体字节数
+     */
+    public void record(String method, String route, int statusCode, long nanos, long bytes) {
+        Accumulator accumulator = accumulator(method, route);
+        accumulator.latency.record(nanos);
+        accumulator.bytes.add(bytes);
+        if (statusCode >= 500) {
+            accumulator.serverErrors.increment();
+        } else if (statusCode >= 400) {
+            accumulator.clientErrors.increment();
+        } else if (statusCode >= 200 && statusCode < 300) {
+            accumulator.successes.increment();
+        }
+    }
+
+    private Accumulator accumulator(String method, String route) {
+        String key = method + ' ' + route;
+        Accumulator accumulator = accumulators.get(key);
+        if (accumulator != null) {
+            return accumulator;
+        }
+        if (accumulators.size() >= maxRoutes) {
+            method = AccessRouteMetrics.OTHER;
+            route = AccessRouteMetrics.OTHER;
+            key = method + ' ' + route;
+        }
+        String finalMethod = method;
+        String finalRoute = route;
+        return accumulators.computeIfAbsent(key, k -> new Accumulator(finalMethod, finalRoute));
+    }
+
+    /**
+     * 启动后台汇总线程
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "access-log-rollup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 停止后台汇总线程并输出最后一个区间
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        flush();
+    }
+
+    /**
+     * 输出各路由本区间的汇总，没有请求的路由不输出
+     */
+    void flush() {
+        try {
+            for (Accumulator accumulator : accumulators.values()) {
+                LogLinearHistogram.Snapshot latency = accumulator.latency.drain();
+                long successes = drain(accumulator.successes);
+                long clientErrors = drain(accumulator.clientErrors);
+                long serverErrors = drain(accumulator.serverErrors);
+                long bytes = drain(accumulator.bytes);
+                if (latency.getCount() == 0) {
+                    continue;
+                }
+                ACCESS_LOG.info(ROLLUP_FORMAT, accumulator.method, accumulator.route, intervalMillis,
+                        latency.getCount(), successes, clientErrors, serverErrors,
+                        toMillis(latency.valueAtPercentile(50)), toMillis(latency.valueAtPercentile(99)),
+                        toMillis(latency.getMaxNanos()), bytes);
+            }
+        } catch (Exception e) {
+            ACCESS_LOG.error("Failed to log access rollup", e);
+        }
+    }
+
+    private static long drain(LongAdder adder) {
+        long sum = adder.sum();
+        adder.add(-sum);
+        return sum;
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    /**
+     * 单个路由的区间累加器
+     */
+    private static final class Accumulator {
+
+        private final String method;
+        private final String route;
+        private final LogLinearHistogram latency = LogLinearHistogram.of();
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        private Accumulator(String method, String route) {
+            this.method = method;
+            this.route = route;
+        }
+    }
+}
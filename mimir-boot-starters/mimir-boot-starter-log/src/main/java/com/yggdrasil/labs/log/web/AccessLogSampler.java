@@ -0,0 +1,115 @@
+package com.yggdrasil.labs.log.web;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 访问日志自适应采样
+ *
+ * <p>按 HTTP 方法 + 路由模板统计每秒请求数，下一秒按 {@code 1/N} 的概率记录，
+ * N 取 {@code ceil(上一秒请求数 / ratePerSecond)}，使每个路由每秒输出的日志约为 {@code ratePerSecond} 条。
+ * 每条被记录的日志代表 N 个请求，按 N 放大即可还原请求数。</p>
+ *
+ * <p>只对快速成功请求采样，由 {@link AccessLogFilter} 判断；记录路径只有一次 {@link LongAdder} 累加和一次随机数，
+ * 窗口切换由抢到 CAS 的线程完成。路由数超过上限后共用同一个窗口。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class AccessLogSampler {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long ratePerSecond;
+
+    private final int maxRoutes;
+
+    private final LongSupplier nanoClock;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    private final Window overflow;
+
+    public AccessLogSampler(long ratePerSecond, int maxRoutes) {
+        this(ratePerSecond, maxRoutes, System::nanoTime);
+    }
+
+    AccessLogSampler(long ratePerSecond, int maxRoutes, LongSupplier nanoClock) {
+        if (ratePerSecond < 1) {
+            throw new IllegalArgumentException("ratePerSecond must be positive");
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.maxRoutes = Math.max(0, maxRoutes);
+        this.nanoClock = nanoClock;
+        this.overflow = new Window(nanoClock.getAsLong());
+    }
+
+    /**
+     * 对一次快速成功请求采样
+     *
+     * @param method HTTP 方法
+     * @param route  路由模板
+     * @return 采样间隔 N（本条日志代表 N 个请求），0 表示不记录
+     */
+    public int sample(String method, String route) {
+        long now = nanoClock.getAsLong();
+        Window window = window(method + ' ' + route, now);
+        window.roll(now, ratePerSecond);
+        window.seen.increment();
+        int interval = window.interval;
+        if (interval <= 1) {
+            return 1;
+        }
+        return ThreadLocalRandom.current().nextInt(interval) == 0 ? interval : 0;
+    }
+
+    private Window window(String key, long now) {
+        Window window = windows.get(key);
+        if (window != null) {
+            return window;
+        }
+        if (windows.size() >= maxRoutes) {
+            return overflow;
+        }
+        return windows.computeIfAbsent(key, k -> new Window(now));
+    }
+
+    public long getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    /**
+     * 单个路由的采样窗口
+     */
+    private static final class Window {
+
+        private final AtomicLong windowStart;
+
+        private final LongAdder seen = new LongAdder();
+
+        private volatile int interval = 1;
+
+        private Window(long now) {
+            this.windowStart = new AtomicLong(now);
+        }
+
+        /**
+         * 窗口到期时按上一窗口的请求速率重新计算采样间隔
+         */
+        private void roll(long now, long ratePerSecond) {
+            long start = windowStart.get();
+            long elapsed = now - start;
+            if (elapsed < WINDOW_NANOS || !windowStart.compareAndSet(start, now)) {
+                return;
+            }
+            // 空闲多个窗口后 elapsed 变大，速率随之降低，流量恢复时从全量记录开始
+            double perSecond = seen.sumThenReset() * (double) WINDOW_NANOS / elapsed;
+            interval = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (long) Math.ceil(perSecond / ratePerSecond)));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.yggdrasil.labs.log.web;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * 单个请求的 CPU 时间与堆分配字节数
+ *
+ * <p>线程 CPU 时间与分配字节数只能按线程读取，因此按"段"计量：请求在某个容器线程上开始执行时读取起点，
+ * 该线程离开过滤器时把差值累加到本对象。异步请求的初始分派与之后的每次 ASYNC 分派各是一段，
+ * 分别在各自线程上计量后相加，不会用 A 线程的终点减 B 线程的起点。
+ * 在业务自有线程（如 {@code DeferredResult} 的生产线程）上执行的部分不计入。</p>
+ *
+ * <p>同一请求的各段由容器串行执行（ASYNC 分派在上一次分派返回容器之后才开始），累加无需同步。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+final class RequestResourceUsage {
+
+    /** 异步请求保存在请求属性中，供 ASYNC 分派继续累加 */
+    static final String ATTRIBUTE = RequestResourceUsage.class.getName();
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = threadMXBean();
+
+    private volatile long cpuNanos;
+
+    private volatile long allocatedBytes;
+
+    /**
+     * 当前 JVM 是否支持并已开启线程 CPU 时间与分配字节数计量
+     */
+    static boolean isSupported() {
+        return THREAD_MX_BEAN != null;
+    }
+
+    /**
+     * 当前线程已消耗的 CPU 时间（纳秒）
+     */
+    static long currentThreadCpuNanos() {
+        return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+    }
+
+    /**
+     * 当前线程已分配的堆内存（字节）
+     */
+    static long currentThreadAllocatedBytes() {
+        return THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * 累加一段在同一线程上计量的差值
+     *
+     * @param cpuStart   段开始时的 {@link #currentThreadCpuNanos()}
+     * @param allocStart 段开始时的 {@link #currentThreadAllocatedBytes()}
+     */
+    void addSegment(long cpuStart, long allocStart) {
+        cpuNanos += Math.max(0, currentThreadCpuNanos() - cpuStart);
+        allocatedBytes += Math.max(0, currentThreadAllocatedBytes() - allocStart);
+    }
+
+    long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean sunBean
+                    && sunBean.isCurrentThreadCpuTimeSupported() && sunBean.isThreadCpuTimeEnabled()
+                    && sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean;
+            }
+        } catch (LinkageError | RuntimeException e) {
+            // 非 HotSpot / 受限环境，不计量
+        }
+        return null;
+    }
+}
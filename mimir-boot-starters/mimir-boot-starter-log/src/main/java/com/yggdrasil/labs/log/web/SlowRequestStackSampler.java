@@ -0,0 +1,251 @@
+package com.yggdrasil.labs.log.web;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * 慢请求线程栈采样
+ *
+ * <p>{@code AccessLogFilter} 在请求开始时登记请求线程，后台守护线程按固定间隔巡检：请求耗时超过慢接口阈值的
+ * {@code startFraction} 后，开始对该请求线程采样线程栈，按折叠栈（collapsed stack，火焰图格式）计数。
+ * 请求最终判定为慢请求时，折叠栈附在慢接口日志之后，每行一个栈：</p>
+ * <pre>
+ * org.apache.catalina.core.ApplicationFilterChain.doFilter;...;com.example.ReportService.export;java.net.SocketInputStream.read 12
+ * </pre>
+ * <p>可直接交给 {@code flamegraph.pl} 等工具生成火焰图。</p>
+ *
+ * <p>开销控制：</p>
+ * <ul>
+ * <li>未到采样时间的请求只做一次登记和移除，巡检线程不访问其线程栈</li>
+ * <li>全局同时采样的请求数不超过 {@code maxConcurrent}，超出的请求不采样，即每次巡检最多抓取 {@code maxConcurrent} 个线程栈</li>
+ * <li>每个栈最多保留 {@code maxDepth} 个栈帧（靠近栈顶的部分），每个请求最多保留 {@code maxStacks} 种不同的栈，
+ * 超出的样本计入 {@code [other]}</li>
+ * </ul>
+ *
+ * <p>只采样容器线程：异步请求释放容器线程后不再采样，业务自有线程上的耗时不在栈中。
+ * 采样开始时间按全局慢接口阈值计算（开始时还不知道路由模板）。</p>
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+public final class SlowRequestStackSampler {
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("access.log");
+
+    /** 超出每个请求的栈种类上限后，样本计入的伪栈帧 */
+    static final String OTHER_STACK = "[other]";
+
+    private final double startFraction;
+
+    private final long intervalMillis;
+
+    private final int maxConcurrent;
+
+    private final int maxDepth;
+
+    private final int maxStacks;
+
+    private final LongSupplier nanoClock;
+
+    private final Set<InFlight> inFlight = ConcurrentHashMap.newKeySet();
+
+    /** 正在采样的请求数 */
+    private final AtomicInteger sampledRequests = new AtomicInteger();
+
+    private volatile ScheduledExecutorService scheduler;
+
+    /**
+     * @param startFraction  耗时达到慢接口阈值的该比例后开始采样（0 ~ 1）
+     * @param intervalMillis 采样间隔（毫秒）
+     * @param maxConcurrent  全局同时采样的请求数上限
+     * @param maxDepth       每个栈保留的最大栈帧数
+     * @param maxStacks      每个请求保留的不同栈数上限
+     */
+    public SlowRequestStackSampler(double startFraction, long intervalMillis, int maxConcurrent, int maxDepth,
+                                   int maxStacks) {
+        this(startFraction, intervalMillis, maxConcurrent, maxDepth, maxStacks, System::nanoTime);
+    }
+
+    SlowRequestStackSampler(double startFraction, long intervalMillis, int maxConcurrent, int maxDepth,
+                            int maxStacks, LongSupplier nanoClock) {
+        this.startFraction = Math.min(1.0, Math.max(0.0, startFraction));
+        this.intervalMillis = Math.max(1, intervalMillis);
+        this.maxConcurrent = Math.max(0, maxConcurrent);
+        this.maxDepth = Math.max(1, maxDepth);
+        this.maxStacks = Math.max(1, maxStacks);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * 登记在途请求
+     *
+     * @param thread          请求线程
+     * @param startNanos      请求开始时间（{@link System#nanoTime()}）
+     * @param slowThresholdMs 慢接口阈值（毫秒）
+     * @return 在途请求，请求线程处理结束时需调用 {@link InFlight#detach()}
+     */
+    public InFlight watch(Thread thread, long startNanos, long slowThresholdMs) {
+        long delayNanos = (long) (TimeUnit.MILLISECONDS.toNanos(slowThresholdMs) * startFraction);
+        InFlight request = new InFlight(thread, startNanos + delayNanos);
+        inFlight.add(request);
+        return request;
+    }
+
+    /**
+     * 启动后台采样线程
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "access-log-stack-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::sample, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 停止后台采样线程
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    /**
+     * 巡检一次：对已到采样时间的在途请求各采样一次
+     */
+    void sample() {
+        try {
+            long now = nanoClock.getAsLong();
+            for (InFlight request : inFlight) {
+                if (now - request.sampleFromNanos >= 0) {
+                    request.sample();
+                }
+            }
+        } catch (Exception e) {
+            ACCESS_LOG.error("Failed to sample request stacks", e);
+        }
+    }
+
+    /**
+     * 在途请求数（未调用 {@link InFlight#detach()} 的请求）
+     */
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    /**
+     * 折叠栈：栈底在前、栈顶在后，以 {@code ;} 分隔，只保留靠近栈顶的 {@code maxDepth} 个栈帧
+     */
+    private String collapse(StackTraceElement[] frames) {
+        int depth = Math.min(frames.length, maxDepth);
+        StringBuilder stack = new StringBuilder(depth * 48);
+        for (int i = depth - 1; i >= 0; i--) {
+            if (stack.length() > 0) {
+                stack.append(';');
+            }
+            stack.append(frames[i].getClassName()).append('.').append(frames[i].getMethodName());
+        }
+        return stack.toString();
+    }
+
+    /**
+     * 在途请求
+     *
+     * <p>采样与 {@link #detach()} 互斥，保证请求线程处理结束后不会再抓取该线程（此时它可能已在处理其他请求）。</p>
+     */
+    public final class InFlight {
+
+        private final long sampleFromNanos;
+
+        private Thread thread;
+
+        private boolean sampling;
+
+        private final Map<String, Integer> stacks = new LinkedHashMap<>();
+
+        private InFlight(Thread thread, long sampleFromNanos) {
+            this.thread = thread;
+            this.sampleFromNanos = sampleFromNanos;
+        }
+
+        private synchronized void sample() {
+            if (thread == null) {
+                return;
+            }
+            if (!sampling) {
+                // 全局上限：超出的请求本次不采样，下次巡检时再尝试
+                int current;
+                do {
+                    current = sampledRequests.get();
+                    if (current >= maxConcurrent) {
+                        return;
+                    }
+                } while (!sampledRequests.compareAndSet(current, current + 1));
+                sampling = true;
+            }
+            StackTraceElement[] frames = thread.getStackTrace();
+            if (frames.length == 0) {
+                return;
+            }
+            String stack = collapse(frames);
+            if (!stacks.containsKey(stack) && stacks.size() >= maxStacks) {
+                stack = OTHER_STACK;
+            }
+            stacks.merge(stack, 1, Integer::sum);
+        }
+
+        /**
+         * 请求线程处理结束（同步请求完成，或异步请求释放容器线程），不再采样
+         */
+        public synchronized void detach() {
+            if (thread == null) {
+                return;
+            }
+            thread = null;
+            inFlight.remove(this);
+            if (sampling) {
+                sampledRequests.decrementAndGet();
+            }
+        }
+
+        /**
+         * 采样到的折叠栈，每行 {@code 栈 样本数}，按样本数降序；没有样本时为 null
+         */
+        public synchronized String collapsedStacks() {
+            if (stacks.isEmpty()) {
+                return null;
+            }
+            StringBuilder result = new StringBuilder();
+            stacks.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .forEach(entry -> {
+                        if (result.length() > 0) {
+                            result.append('\n');
+                        }
+                        result.append(entry.getKey()).append(' ').append(entry.getValue());
+                    });
+            return result.toString();
+        }
+    }
+}
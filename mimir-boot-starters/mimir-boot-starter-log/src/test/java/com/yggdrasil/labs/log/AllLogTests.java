@@ -22,9 +22,28 @@ import org.junit.platform.suite.api.SuiteDisplayName;
  * <li>MdcUtilTest - MDC 工具类测试</li>
  * <li>SensitiveDataPatternTest - 敏感数据模式测试</li>
  * <li>SensitiveDataConverterTest - 敏感数据转换器测试</li>
+ * <li>MdcTagConverterTest - TraceId / SpanId 标签转换器测试</li>
+ * <li>JsonLinesEncoderTest - JSON 行编码器测试</li>
+ * <li>MaskEngineTest - 脱敏引擎测试</li>
+ * <li>ArgumentMaskerTest - 参数级脱敏测试</li>
+ * <li>DigitRunDetectorTest - 数字串识别器测试</li>
+ * <li>MaskPolicyTest - logger / marker 脱敏策略测试</li>
+ * <li>MaskingAppenderTest - 脱敏 appender 装饰器测试</li>
+ * <li>RingBufferTest - 无锁环形队列测试</li>
+ * <li>RingBufferAsyncAppenderTest - 无锁环形队列异步 appender 测试</li>
+ * <li>ZstdSizeAndTimeBasedRollingPolicyTest - Zstandard 归档滚动策略测试</li>
+ * <li>TraceDebugTurboFilterTest - 按 trace 调试日志测试</li>
+ * <li>FlightRecorderTurboFilterTest - 飞行记录器测试</li>
+ * <li>RateLimitTurboFilterTest - 日志风暴抑制测试</li>
+ * <li>LogMaskAutoConfigurationTest - 日志脱敏自动配置测试</li>
+ * <li>MaskMetricsTest - 脱敏指标测试</li>
+ * <li>AccessRouteMetricsTest - 路由访问耗时测试</li>
  * <li>AccessLogPropertiesTest - 访问日志配置测试</li>
  * <li>AccessLogAutoConfigurationTest - 访问日志自动配置测试</li>
  * <li>AccessLogFilterTest - 访问日志过滤器测试</li>
+ * <li>AccessLogSamplerTest - 访问日志采样测试</li>
+ * <li>AccessLogRollupTest - 访问日志按路由汇总测试</li>
+ * <li>SlowRequestStackSamplerTest - 慢请求线程栈采样测试</li>
  * </ul>
  * 
  * @author Yggdrasil Labs
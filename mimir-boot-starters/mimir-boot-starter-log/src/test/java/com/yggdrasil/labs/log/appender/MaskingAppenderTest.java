@@ -0,0 +1,263 @@
+package com.yggdrasil.labs.log.appender;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxy;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import com.yggdrasil.labs.log.converter.SensitiveDataConverter;
+import com.yggdrasil.labs.log.mask.ArgumentMasker;
+import com.yggdrasil.labs.log.mask.MaskEngine;
+import com.yggdrasil.labs.log.mask.MaskPipeline;
+import com.yggdrasil.labs.log.mask.MaskedLoggingEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 脱敏 appender 装饰器测试
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+class MaskingAppenderTest {
+
+    private Logger logger;
+    private MaskingAppender maskingAppender;
+    private ListAppender<ILoggingEvent> first;
+    private ListAppender<ILoggingEvent> second;
+
+    @BeforeEach
+    void setUp() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        SensitiveDataConverter.clearCustomPatterns();
+        SensitiveDataConverter.addCustomPattern("secret\\d+");
+
+        first = new ListAppender<>();
+        first.setContext(context);
+        first.start();
+        second = new ListAppender<>();
+        second.setContext(context);
+        second.start();
+
+        maskingAppender = new MaskingAppender();
+        maskingAppender.setContext(context);
+        maskingAppender.addAppender(first);
+        maskingAppender.addAppender(second);
+        maskingAppender.start();
+
+        logger = context.getLogger("MASKING_APPENDER_TEST");
+        logger.addAppender(maskingAppender);
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(maskingAppender);
+        maskingAppender.stop();
+        SensitiveDataConverter.clearCustomPatterns();
+        System.clearProperty(SensitiveDataConverter.MASK_MODE_PROPERTY);
+        System.clearProperty(SensitiveDataConverter.MASK_ENABLED_PATTERNS_PROPERTY);
+        SensitiveDataConverter.reloadConfig();
+        MDC.clear();
+    }
+
+    @Test
+    void testDownstreamAppendersShareMaskedEvent() {
+        logger.info("key={}", "secret123");
+
+        assertEquals(1, first.list.size());
+        assertEquals(1, second.list.size());
+        ILoggingEvent event = first.list.get(0);
+        assertSame(event, second.list.get(0));
+        assertInstanceOf(MaskedLoggingEvent.class, event);
+        assertEquals("key=******", event.getFormattedMessage());
+    }
+
+    @Test
+    void testConverterReusesMaskedResult() {
+        logger.info("key={}", "secret456");
+
+        SensitiveDataConverter converter = new SensitiveDataConverter();
+        converter.setContext(maskingAppender.getContext());
+        converter.start();
+        ILoggingEvent event = first.list.get(0);
+
+        assertSame(event.getFormattedMessage(), converter.convert(event));
+    }
+
+    @Test
+    void testArgumentMaskedOnCallerThreadBeforeAsyncHandoff() throws Exception {
+        System.setProperty(SensitiveDataConverter.MASK_MODE_PROPERTY, "argument");
+        System.setProperty(SensitiveDataConverter.MASK_ENABLED_PATTERNS_PROPERTY, "phone");
+        SensitiveDataConverter.reloadConfig();
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+        // 下游在放行前阻塞，保证异步线程读取消息时参数已被业务线程修改
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> messages = new CopyOnWriteArrayList<>();
+        AppenderBase<ILoggingEvent> slow = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                messages.add(event.getFormattedMessage());
+            }
+        };
+        slow.setContext(context);
+        slow.start();
+        RingBufferAsyncAppender async = new RingBufferAsyncAppender();
+        async.setContext(context);
+        async.setName("MASK_ASYNC_TEST");
+        async.addAppender(slow);
+        async.start();
+        MaskingAppender masking = new MaskingAppender();
+        masking.setContext(context);
+        masking.addAppender(async);
+        masking.start();
+        Logger asyncLogger = context.getLogger("MASKING_APPENDER_ASYNC_TEST");
+        asyncLogger.addAppender(masking);
+        asyncLogger.setAdditive(false);
+
+        try {
+            StringBuilder mobile = new StringBuilder("13900000000");
+            asyncLogger.info("mobile={}", mobile);
+            mobile.replace(0, mobile.length(), "13911112222");
+            release.countDown();
+        } finally {
+            asyncLogger.detachAppender(masking);
+            masking.stop();
+        }
+
+        assertEquals(List.of("mobile=139****0000"), messages);
+    }
+
+    @Test
+    void testStopStopsDownstreamAppenders() {
+        maskingAppender.stop();
+
+        assertFalse(first.isStarted());
+        assertFalse(second.isStarted());
+    }
+
+    @Test
+    void testMaskedEventMasksOnlyOnce() {
+        ILoggingEvent raw = mock(ILoggingEvent.class);
+        when(raw.getFormattedMessage()).thenReturn("password=1");
+        when(raw.getLevel()).thenReturn(Level.WARN);
+        AtomicInteger calls = new AtomicInteger();
+
+        MaskedLoggingEvent event = new MaskedLoggingEvent(raw, e -> {
+            calls.incrementAndGet();
+            assertSame(raw, e);
+            return "masked";
+        });
+
+        assertEquals("masked", event.getFormattedMessage());
+        assertEquals("masked", event.getFormattedMessage());
+        assertEquals(1, calls.get());
+        assertEquals(Level.WARN, event.getLevel());
+        assertSame(raw, event.getDelegate());
+    }
+
+    @Test
+    void testMdcValuesMasked() {
+        MDC.put("ticket", "secret123");
+        MDC.put("traceId", "abc");
+        logger.info("hello");
+
+        ILoggingEvent event = first.list.get(0);
+        assertEquals("******", event.getMDCPropertyMap().get("ticket"));
+        assertEquals("abc", event.getMDCPropertyMap().get("traceId"));
+        assertSame(event.getMDCPropertyMap(), second.list.get(0).getMDCPropertyMap());
+    }
+
+    @Test
+    void testThrowableMessagesMaskedWithoutTouchingFrames() {
+        Exception cause = new RuntimeException("cause secret1");
+        Exception error = new IllegalStateException("bad secret789", cause);
+        error.addSuppressed(new IllegalArgumentException("suppressed secret2"));
+        logger.error("failed", error);
+
+        ILoggingEvent event = first.list.get(0);
+        IThrowableProxy proxy = event.getThrowableProxy();
+        IThrowableProxy raw = ((MaskedLoggingEvent) event).getDelegate().getThrowableProxy();
+        assertEquals("bad ******", proxy.getMessage());
+        assertEquals("cause ******", proxy.getCause().getMessage());
+        assertEquals("suppressed ******", proxy.getSuppressed()[0].getMessage());
+        assertEquals(IllegalStateException.class.getName(), proxy.getClassName());
+        assertSame(raw.getStackTraceElementProxyArray(), proxy.getStackTraceElementProxyArray());
+        assertSame(proxy, event.getThrowableProxy());
+    }
+
+    @Test
+    void testUnmaskedThrowableKeepsOriginalProxy() {
+        logger.error("failed", new IllegalStateException("plain"));
+
+        ILoggingEvent event = first.list.get(0);
+        assertSame(((MaskedLoggingEvent) event).getDelegate().getThrowableProxy(), event.getThrowableProxy());
+    }
+
+    @Test
+    void testThrowableMessageCachedPerThrowable() {
+        MaskEngine engine = MaskEngine.of(List.of(Pattern.compile("secret\\d+")), "******");
+        MaskPipeline pipeline = MaskPipeline.of(engine, ArgumentMasker.of(engine, List.of(), List.of()));
+        Exception error = new IllegalStateException("bad secret789");
+
+        String firstMessage = pipeline.maskThrowable(new ThrowableProxy(error)).getMessage();
+        String secondMessage = pipeline.maskThrowable(new ThrowableProxy(error)).getMessage();
+
+        assertEquals("bad ******", firstMessage);
+        assertSame(firstMessage, secondMessage);
+    }
+
+    @Test
+    void testThrowableMessageCacheConcurrent() throws Exception {
+        MaskEngine engine = MaskEngine.of(List.of(Pattern.compile("secret\\d+")), "******");
+        MaskPipeline pipeline = MaskPipeline.of(engine, ArgumentMasker.of(engine, List.of(), List.of()));
+        int threads = 8;
+        CountDownLatch done = new CountDownLatch(threads);
+        List<String> failures = new CopyOnWriteArrayList<>();
+
+        // 槽位冲突与并发覆盖都不能返回其他异常的结果
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            new Thread(() -> {
+                try {
+                    for (int i = 0; i < 2000; i++) {
+                        Exception error = new IllegalStateException("bad secret" + id + " #" + i);
+                        String message = pipeline.maskThrowable(new ThrowableProxy(error)).getMessage();
+                        if (!message.equals("bad ****** #" + i)) {
+                            failures.add(message);
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertEquals(List.of(), failures);
+    }
+}
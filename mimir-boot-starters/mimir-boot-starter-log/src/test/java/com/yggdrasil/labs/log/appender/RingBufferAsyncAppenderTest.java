@@ -0,0 +1,232 @@
+package com.yggdrasil.labs.log.appender;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.read.ListAppender;
+import com.yggdrasil.labs.log.metrics.AsyncAppenderMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 无锁环形队列异步 appender 测试
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+class RingBufferAsyncAppenderTest {
+
+    private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+    private Logger logger;
+    private RingBufferAsyncAppender asyncAppender;
+
+    @BeforeEach
+    void setUp() {
+        logger = context.getLogger("RING_BUFFER_ASYNC_TEST");
+        logger.setLevel(Level.DEBUG);
+        logger.setAdditive(false);
+        asyncAppender = new RingBufferAsyncAppender();
+        asyncAppender.setContext(context);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(asyncAppender);
+        asyncAppender.stop();
+    }
+
+    private void start(String name, ch.qos.logback.core.Appender<ILoggingEvent> downstream) {
+        downstream.setContext(context);
+        downstream.start();
+        asyncAppender.setName(name);
+        asyncAppender.addAppender(downstream);
+        asyncAppender.start();
+        logger.addAppender(asyncAppender);
+    }
+
+    @Test
+    void testEventsDeliveredInOrder() {
+        ListAppender<ILoggingEvent> list = new ListAppender<>();
+        start("RING_DELIVER", list);
+
+        for (int i = 0; i < 100; i++) {
+            logger.info("event {}", i);
+        }
+        asyncAppender.stop();
+
+        assertEquals(100, list.list.size());
+        assertEquals("event 0", list.list.get(0).getFormattedMessage());
+        assertEquals("event 99", list.list.get(99).getFormattedMessage());
+        assertFalse(list.isStarted());
+    }
+
+    @Test
+    void testDropBelowWarnWhenFull() throws Exception {
+        BlockingAppender blocking = new BlockingAppender();
+        asyncAppender.setQueueSize(2);
+        asyncAppender.setOverflowPolicy("drop-below-warn");
+        start("RING_DROP", blocking);
+        AsyncAppenderMetrics metrics = AsyncAppenderMetrics.of("RING_DROP");
+        long droppedBefore = metrics.getDroppedCount();
+
+        // 第一条被消费者取出后阻塞在下游，随后两条填满队列
+        logger.info("first");
+        assertTrue(blocking.entered.await(5, TimeUnit.SECONDS));
+        logger.info("second");
+        logger.info("third");
+        assertEquals(2, metrics.getQueueDepth());
+
+        logger.info("dropped");
+        logger.debug("dropped too");
+        assertEquals(droppedBefore + 2, metrics.getDroppedCount());
+
+        blocking.release.countDown();
+        asyncAppender.stop();
+        assertEquals(List.of("first", "second", "third"), blocking.messages);
+        assertEquals(0, metrics.getQueueDepth());
+    }
+
+    @Test
+    void testBlockPolicyWaitsForSpace() throws Exception {
+        BlockingAppender blocking = new BlockingAppender();
+        asyncAppender.setQueueSize(2);
+        asyncAppender.setWaitStrategy("yielding");
+        start("RING_BLOCK", blocking);
+        AsyncAppenderMetrics metrics = AsyncAppenderMetrics.of("RING_BLOCK");
+        long waitsBefore = metrics.getWaitCount();
+
+        logger.info("first");
+        assertTrue(blocking.entered.await(5, TimeUnit.SECONDS));
+        logger.info("second");
+        logger.info("third");
+        Thread producer = new Thread(() -> logger.warn("fourth"));
+        producer.start();
+        producer.join(200);
+        assertTrue(producer.isAlive());
+
+        blocking.release.countDown();
+        producer.join(5000);
+        assertFalse(producer.isAlive());
+        asyncAppender.stop();
+
+        assertEquals(List.of("first", "second", "third", "fourth"), blocking.messages);
+        assertEquals(waitsBefore + 1, metrics.getWaitCount());
+    }
+
+    @Test
+    void testBatchedDownstreamFlushedOnErrorOnly() throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+        asyncAppender.setFlushIntervalMillis(60_000);
+        start("RING_BATCH_ERROR", batchedAppender(out));
+
+        for (int i = 0; i < 1000; i++) {
+            logger.info("event {}", i);
+        }
+        Thread.sleep(200);
+        assertEquals(0, out.flushes.get());
+
+        // ERROR 立即刷新，不等待定时器
+        logger.error("failure");
+        assertTrue(out.awaitFlush(1, 5000));
+        assertTrue(out.toString().endsWith("failure\n"));
+    }
+
+    @Test
+    void testBatchedDownstreamFlushedOnTimer() throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+        asyncAppender.setFlushIntervalMillis(20);
+        start("RING_BATCH_TIMER", batchedAppender(out));
+
+        logger.info("pending");
+
+        assertTrue(out.awaitFlush(1, 5000));
+        assertEquals("pending\n", out.toString());
+    }
+
+    @Test
+    void testStartWithoutAppendersFails() {
+        asyncAppender.setName("RING_EMPTY");
+        asyncAppender.start();
+
+        assertFalse(asyncAppender.isStarted());
+    }
+
+    private OutputStreamAppender<ILoggingEvent> batchedAppender(ByteArrayOutputStream out) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%msg%n");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setEncoder(encoder);
+        appender.setImmediateFlush(false);
+        appender.setOutputStream(out);
+        return appender;
+    }
+
+    /**
+     * 记录刷新次数的输出流
+     */
+    private static final class CountingOutputStream extends ByteArrayOutputStream {
+
+        private final AtomicInteger flushes = new AtomicInteger();
+
+        @Override
+        public void flush() {
+            flushes.incrementAndGet();
+        }
+
+        private boolean awaitFlush(int expected, long timeoutMillis) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            while (flushes.get() < expected) {
+                if (System.currentTimeMillis() > deadline) {
+                    return false;
+                }
+                Thread.sleep(5);
+            }
+            return true;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 第一条事件阻塞直到放行的下游 appender
+     */
+    private static final class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            messages.add(event.getFormattedMessage());
+            entered.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
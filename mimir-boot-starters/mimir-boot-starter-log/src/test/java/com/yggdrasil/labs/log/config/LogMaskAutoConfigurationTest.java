@@ -0,0 +1,98 @@
+package com.yggdrasil.labs.log.config;
+
+import ch.qos.logback.classic.LoggerContext;
+import com.yggdrasil.labs.log.converter.SensitiveDataConverter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 日志脱敏自动配置测试
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+class LogMaskAutoConfigurationTest {
+
+    @AfterEach
+    void tearDown() {
+        // 清空写入 Logback context 的配置（空值回退到系统属性），避免影响其他测试
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        for (String key : List.of(SensitiveDataConverter.MASK_ENABLED_PATTERNS_PROPERTY,
+                SensitiveDataConverter.MASK_CUSTOM_PATTERNS_PROPERTY,
+                SensitiveDataConverter.MASK_REPLACEMENT_PROPERTY,
+                SensitiveDataConverter.MASK_MODE_PROPERTY,
+                SensitiveDataConverter.MASK_MAX_SCAN_CHARS_PROPERTY,
+                SensitiveDataConverter.MASK_MAX_SCAN_NANOS_PROPERTY,
+                SensitiveDataConverter.MASK_OVERFLOW_ACTION_PROPERTY,
+                SensitiveDataConverter.MASK_DEFAULT_ENABLED_PROPERTY,
+                SensitiveDataConverter.MASK_POLICY_COUNT_PROPERTY)) {
+            context.putProperty(key, "");
+        }
+        for (String field : List.of("loggers", "markers", "enabledPatterns", "enabled")) {
+            context.putProperty(SensitiveDataConverter.policyKey(0, field), "");
+        }
+        SensitiveDataConverter.reloadConfig();
+    }
+
+    @Test
+    void testTransferPublishesNewRuleVersion() {
+        LogMaskProperties properties = new LogMaskProperties();
+        properties.setEnabledPatterns(List.of("password"));
+        long before = SensitiveDataConverter.getRuleVersion();
+
+        LogMaskAutoConfiguration.transfer(properties);
+
+        assertTrue(SensitiveDataConverter.getRuleVersion() > before);
+        assertEquals("password=******", new SensitiveDataConverter().maskSensitiveData("password=123"));
+    }
+
+    @Test
+    void testTransferPolicies() {
+        LogMaskProperties.Policy skip = new LogMaskProperties.Policy();
+        skip.setLoggers(List.of("org.springframework"));
+        skip.setEnabled(false);
+        LogMaskProperties properties = new LogMaskProperties();
+        properties.setEnabledPatterns(List.of("password"));
+        properties.setPolicies(List.of(skip));
+
+        LogMaskAutoConfiguration.transfer(properties);
+
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        assertEquals("1", context.getProperty(SensitiveDataConverter.MASK_POLICY_COUNT_PROPERTY));
+        assertEquals("org.springframework", context.getProperty(SensitiveDataConverter.policyKey(0, "loggers")));
+        assertEquals("false", context.getProperty(SensitiveDataConverter.policyKey(0, "enabled")));
+    }
+
+    @Test
+    void testEnvironmentChangeReloadsRules() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("mimir.boot.log.mask.enabled-patterns[0]", "token")
+                .withProperty("mimir.boot.log.mask.replacement", "###");
+        LogMaskAutoConfiguration.LogMaskRefreshConfiguration refresh =
+                new LogMaskAutoConfiguration.LogMaskRefreshConfiguration(environment);
+
+        refresh.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("mimir.boot.log.mask.enabled-patterns[0]")));
+
+        SensitiveDataConverter converter = new SensitiveDataConverter();
+        assertEquals("token=### password=1", converter.maskSensitiveData("token=abc password=1"));
+    }
+
+    @Test
+    void testUnrelatedEnvironmentChangeIsIgnored() {
+        LogMaskAutoConfiguration.LogMaskRefreshConfiguration refresh =
+                new LogMaskAutoConfiguration.LogMaskRefreshConfiguration(new MockEnvironment());
+        long before = SensitiveDataConverter.getRuleVersion();
+
+        refresh.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("spring.application.name")));
+
+        assertEquals(before, SensitiveDataConverter.getRuleVersion());
+    }
+}
@@ -0,0 +1,94 @@
+package com.yggdrasil.labs.log.converter;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.CoreConstants;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * TraceId / SpanId 标签转换器测试
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+class MdcTagConverterTest {
+
+    @Test
+    void testTagPresent() {
+        TraceTagConverter converter = start(new TraceTagConverter(), null);
+
+        assertEquals("[abc123] ", converter.convert(event(Map.of("traceId", "abc123"))));
+    }
+
+    @Test
+    void testTagAbsentReturnsEmpty() {
+        TraceTagConverter converter = start(new TraceTagConverter(), null);
+
+        assertSame("", converter.convert(event(Map.of())));
+        assertSame("", converter.convert(event(Map.of("traceId", ""))));
+        assertSame("", converter.convert(event(null)));
+    }
+
+    @Test
+    void testSameIdReusesResult() {
+        SpanTagConverter converter = start(new SpanTagConverter(), null);
+
+        String first = converter.convert(event(Map.of("spanId", "s1")));
+        String second = converter.convert(event(Map.of("spanId", new String("s1"))));
+        String other = converter.convert(event(Map.of("spanId", "s2")));
+
+        assertSame(first, second);
+        assertEquals("[s2] ", other);
+    }
+
+    @Test
+    void testCustomKeyOption() {
+        TraceTagConverter converter = start(new TraceTagConverter(), "X-B3-TraceId");
+
+        assertEquals("[b3] ", converter.convert(event(Map.of("X-B3-TraceId", "b3", "traceId", "t"))));
+    }
+
+    @Test
+    void testPatternLayout() {
+        LoggerContext context = new LoggerContext();
+        context.putObject(CoreConstants.PATTERN_RULE_REGISTRY,
+                new HashMap<>(Map.of(
+                        "traceTag", TraceTagConverter.class.getName(),
+                        "spanTag", SpanTagConverter.class.getName())));
+        PatternLayout layout = new PatternLayout();
+        layout.setContext(context);
+        layout.setPattern("%traceTag%spanTag- %msg");
+        layout.start();
+
+        ILoggingEvent withIds = event(Map.of("traceId", "t1", "spanId", "s1"));
+        when(withIds.getFormattedMessage()).thenReturn("hello");
+        ILoggingEvent withoutIds = event(Map.of());
+        when(withoutIds.getFormattedMessage()).thenReturn("hello");
+
+        assertEquals("[t1] [s1] - hello", layout.doLayout(withIds));
+        assertEquals("- hello", layout.doLayout(withoutIds));
+    }
+
+    private static <T extends MdcTagConverter> T start(T converter, String option) {
+        if (option != null) {
+            converter.setOptionList(List.of(option));
+        }
+        converter.start();
+        return converter;
+    }
+
+    private static ILoggingEvent event(Map<String, String> mdc) {
+        ILoggingEvent event = mock(ILoggingEvent.class);
+        when(event.getMDCPropertyMap()).thenReturn(mdc);
+        return event;
+    }
+}
@@ -36,10 +36,35 @@ class SensitiveDataConverterTest {
 
     @AfterEach
     void tearDown() {
+        System.clearProperty(SensitiveDataConverter.MASK_ENABLED_PATTERNS_PROPERTY);
+        System.clearProperty(SensitiveDataConverter.MASK_MAX_SCAN_CHARS_PROPERTY);
+        System.clearProperty(SensitiveDataConverter.MASK_OVERFLOW_ACTION_PROPERTY);
         SensitiveDataConverter.clearCustomPatterns();
         SensitiveDataConverter.reloadConfig();
     }
 
+    @Test
+    void testLargeMessageNotTruncatedByDefault() {
+        System.setProperty(SensitiveDataConverter.MASK_ENABLED_PATTERNS_PROPERTY, "password");
+        SensitiveDataConverter.reloadConfig();
+        String tail = "x".repeat(200_000);
+
+        String masked = converter.maskSensitiveData("password=123456 " + tail);
+
+        assertEquals("password=****** " + tail, masked);
+    }
+
+    @Test
+    void testScanBudgetOptIn() {
+        System.setProperty(SensitiveDataConverter.MASK_ENABLED_PATTERNS_PROPERTY, "password");
+        System.setProperty(SensitiveDataConverter.MASK_MAX_SCAN_CHARS_PROPERTY, "32");
+        SensitiveDataConverter.reloadConfig();
+
+        String masked = converter.maskSensitiveData("password=123456 " + "x".repeat(100));
+
+        assertEquals("password=****** xxxxxxxxxxxxxxxx...[mask budget exceeded, length=116]", masked);
+    }
+
     @Test
     void testConvertWithNullMessage() {
         ILoggingEvent event = mock(ILoggingEvent.class);
@@ -0,0 +1,223 @@
+package com.yggdrasil.labs.log.debug;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 飞行记录器测试
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+class FlightRecorderTurboFilterTest {
+
+    private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+    private FlightRecorderTurboFilter turboFilter;
+    private Logger logger;
+    private Logger dumpLogger;
+    private ListAppender<ILoggingEvent> appender;
+    private ListAppender<ILoggingEvent> dumped;
+
+    @BeforeEach
+    void setUp() {
+        turboFilter = new FlightRecorderTurboFilter();
+        turboFilter.setContext(context);
+        turboFilter.setEnabled(true);
+        turboFilter.setCapacity(3);
+        turboFilter.setDumpLogger("FLIGHT_RECORDER_TEST");
+        turboFilter.start();
+        context.addTurboFilter(turboFilter);
+
+        logger = context.getLogger("com.yggdrasil.labs.recordertest.Service");
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        appender = attach(logger);
+        dumpLogger = context.getLogger("FLIGHT_RECORDER_TEST");
+        dumpLogger.setAdditive(false);
+        dumped = attach(dumpLogger);
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.getTurboFilterList().remove(turboFilter);
+        logger.detachAppender(appender);
+        logger.setLevel(null);
+        dumpLogger.detachAppender(dumped);
+        MDC.clear();
+    }
+
+    private ListAppender<ILoggingEvent> attach(Logger target) {
+        ListAppender<ILoggingEvent> list = new ListAppender<>();
+        list.setContext(context);
+        list.start();
+        target.addAppender(list);
+        return list;
+    }
+
+    @Test
+    void testDebugReplayedBeforeError() {
+        MDC.put("traceId", "t-1");
+        logger.debug("loading order {}", 42);
+        logger.info("calling inventory");
+        assertEquals(List.of("calling inventory"), messages(appender));
+        assertTrue(dumped.list.isEmpty());
+
+        logger.error("inventory failed");
+
+        assertEquals(List.of("Flight recorder: replaying 2 events logged before ERROR",
+                "loading order 42", "calling inventory"), messages(dumped));
+        ILoggingEvent replayed = dumped.list.get(1);
+        assertEquals(Level.DEBUG, replayed.getLevel());
+        assertEquals(logger.getName(), replayed.getLoggerName());
+        assertEquals(Thread.currentThread().getName(), replayed.getThreadName());
+        assertEquals("t-1", replayed.getMDCPropertyMap().get("traceId"));
+        assertTrue(replayed.getMarkerList().stream()
+                .anyMatch(marker -> FlightRecorderTurboFilter.MARKER_NAME.equals(marker.getName())));
+        assertEquals(List.of("calling inventory", "inventory failed"), messages(appender));
+
+        // 已回放的记录不会重复输出
+        logger.error("again");
+        assertEquals(3, dumped.list.size());
+    }
+
+    @Test
+    void testArgumentsRenderedAtRecordTime() {
+        MDC.put("traceId", "t-1");
+        StringBuilder state = new StringBuilder("pending");
+        logger.debug("order {} items {}", state, new int[]{1, 2});
+        state.replace(0, state.length(), "paid");
+        logger.error("failed");
+
+        assertEquals("order pending items [1, 2]", messages(dumped).get(1));
+    }
+
+    @Test
+    void testTrailingThrowableKept() {
+        MDC.put("traceId", "t-1");
+        IllegalStateException error = new IllegalStateException("retry");
+        logger.warn("attempt {} failed", 1, error);
+        logger.error("failed");
+
+        ILoggingEvent replayed = dumped.list.get(1);
+        assertEquals("attempt 1 failed", replayed.getFormattedMessage());
+        assertEquals("retry", replayed.getThrowableProxy().getMessage());
+    }
+
+    @Test
+    void testKeepsLatestEventsPerTrace() {
+        MDC.put("traceId", "t-1");
+        for (int i = 0; i < 5; i++) {
+            logger.debug("step {}", i);
+        }
+        MDC.put("traceId", "t-2");
+        logger.debug("other trace");
+        MDC.put("traceId", "t-1");
+        logger.error("failed");
+
+        assertEquals(List.of("step 2", "step 3", "step 4"), messages(dumped).subList(1, 4));
+        assertEquals(1, turboFilter.getRecorder().traceCount());
+    }
+
+    @Test
+    void testIgnoresEventsWithoutTraceAndLevelChecks() {
+        logger.debug("no trace");
+        MDC.put("traceId", "t-1");
+        logger.isDebugEnabled();
+        logger.trace("below recorder level");
+        logger.error("failed");
+
+        assertTrue(dumped.list.isEmpty());
+    }
+
+    @Test
+    void testRecorderBoundsTraces() throws Exception {
+        FlightRecorder recorder = new FlightRecorder(2, 1, 500);
+        assertTrue(recorder.record("t-1", logger, Level.DEBUG, "one", null, null, null));
+        assertFalse(recorder.record("t-2", logger, Level.DEBUG, "two", null, null, null));
+        assertEquals(1, recorder.getRejectedCount());
+
+        // 空闲超时的 trace 被清理，腾出空间
+        Thread.sleep(600);
+        assertTrue(recorder.record("t-2", logger, Level.DEBUG, "two", null, null, null));
+        assertTrue(recorder.drain("t-1", null).isEmpty());
+        List<LoggingEvent> events = recorder.drain("t-2", null);
+        assertEquals(1, events.size());
+        assertEquals("two", events.get(0).getFormattedMessage());
+    }
+
+    @Test
+    void testTraceDiscardedWhenRequestEnds() throws Exception {
+        // traceId 由内层拦截器写入并在返回前清除
+        FilterChain chain = (req, res) -> {
+            MDC.put("traceId", "t-1");
+            logger.debug("loading order {}", 42);
+            MDC.remove("traceId");
+        };
+
+        new FlightRecorderFilter(context).doFilter(mock(HttpServletRequest.class), mock(HttpServletResponse.class),
+                chain);
+
+        assertEquals(0, turboFilter.getRecorder().traceCount());
+        assertNull(turboFilter.takeThreadTrace());
+    }
+
+    @Test
+    void testAsyncTraceDiscardedOnCompletion() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        AsyncContext asyncContext = mock(AsyncContext.class);
+        when(request.isAsyncStarted()).thenReturn(true);
+        when(request.getAsyncContext()).thenReturn(asyncContext);
+        FilterChain chain = (req, res) -> {
+            MDC.put("traceId", "t-1");
+            logger.debug("started async");
+            MDC.remove("traceId");
+        };
+
+        new FlightRecorderFilter(context).doFilter(request, mock(HttpServletResponse.class), chain);
+
+        // 异步处理仍可能出错，完成前保留记录
+        assertEquals(1, turboFilter.getRecorder().traceCount());
+        ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+        verify(asyncContext).addListener(listener.capture());
+        listener.getValue().onComplete(new AsyncEvent(asyncContext));
+        assertEquals(0, turboFilter.getRecorder().traceCount());
+    }
+
+    @Test
+    void testDisabledByDefault() {
+        FlightRecorderTurboFilter disabled = new FlightRecorderTurboFilter();
+        disabled.setContext(context);
+        disabled.start();
+
+        assertFalse(disabled.isStarted());
+        assertNull(disabled.getRecorder());
+    }
+
+    private static List<String> messages(ListAppender<ILoggingEvent> list) {
+        return list.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+    }
+}
@@ -0,0 +1,203 @@
+package com.yggdrasil.labs.log.debug;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import ch.qos.logback.core.spi.FilterReply;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 按 trace 调试日志测试
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+class TraceDebugTurboFilterTest {
+
+    private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+    private final DebugTraceRegistry registry = new DebugTraceRegistry();
+
+    private TraceDebugTurboFilter turboFilter;
+    private Logger logger;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        turboFilter = new TraceDebugTurboFilter();
+        turboFilter.setRegistry(registry);
+        turboFilter.setContext(context);
+        turboFilter.start();
+        context.addTurboFilter(turboFilter);
+
+        logger = context.getLogger("com.yggdrasil.labs.debugtest.Service");
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        appender = new ListAppender<>();
+        appender.setContext(context);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.getTurboFilterList().remove(turboFilter);
+        logger.detachAppender(appender);
+        logger.setLevel(null);
+        MDC.clear();
+    }
+
+    @Test
+    void testDebugSuppressedWithoutTrigger() {
+        MDC.put("traceId", "t-1");
+        logger.debug("hidden");
+
+        assertTrue(appender.list.isEmpty());
+        assertFalse(registry.isActive());
+    }
+
+    @Test
+    void testRegisteredTraceEnablesDebug() {
+        registry.register("t-1", null);
+
+        MDC.put("traceId", "t-2");
+        logger.debug("other trace");
+        MDC.put("traceId", "t-1");
+        logger.debug("debug {}", 1);
+        logger.trace("trace below configured level");
+
+        assertEquals(List.of("debug 1"), messages());
+    }
+
+    @Test
+    void testHeaderFilterEnablesDebugForRequest() throws Exception {
+        TraceDebugFilter filter = new TraceDebugFilter("X-Debug-Log", "s3cret", registry);
+        FilterChain chain = (request, response) -> logger.debug("in request");
+
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        HttpServletRequest wrongToken = mock(HttpServletRequest.class);
+        when(wrongToken.getHeader("X-Debug-Log")).thenReturn("true");
+        filter.doFilter(wrongToken, response, chain);
+        assertTrue(appender.list.isEmpty());
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeader("X-Debug-Log")).thenReturn("s3cret");
+        filter.doFilter(request, response, chain);
+
+        assertEquals(List.of("in request"), messages());
+        assertNull(MDC.get(DebugTraceRegistry.DEBUG_MDC_KEY));
+        assertFalse(registry.isActive());
+    }
+
+    @Test
+    void testHeaderIgnoredWithoutToken() throws Exception {
+        TraceDebugFilter filter = new TraceDebugFilter("X-Debug-Log", null, registry);
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeader("X-Debug-Log")).thenReturn("true");
+
+        filter.doFilter(request, mock(HttpServletResponse.class), (req, res) -> logger.debug("in request"));
+
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void testHeaderFilterRegisteredOnlyWithToken() {
+        LogDebugProperties properties = new LogDebugProperties();
+        LogDebugAutoConfiguration.TraceDebugFilterConfiguration configuration =
+                new LogDebugAutoConfiguration.TraceDebugFilterConfiguration();
+
+        assertFalse(configuration.traceDebugFilter(properties, registry).isEnabled());
+
+        properties.setHeaderToken("s3cret");
+        assertTrue(configuration.traceDebugFilter(properties, registry).isEnabled());
+    }
+
+    @Test
+    void testLoggerPrefixRestriction() {
+        turboFilter.setLoggers("com.yggdrasil.labs.other, com.yggdrasil.labs.debug");
+        registry.register("t-1", null);
+        MDC.put("traceId", "t-1");
+        logger.debug("prefix must end at package boundary");
+        assertTrue(appender.list.isEmpty());
+
+        turboFilter.setLoggers("com.yggdrasil.labs.debugtest");
+        logger.debug("matched");
+        assertEquals(List.of("matched"), messages());
+    }
+
+    @Test
+    void testExpiryAndLimits() throws Exception {
+        // TTL 留出余量，慢机器上登记 t-3 之前 t-1 不能已经过期
+        registry.setMaxTtl(Duration.ofMillis(500));
+        registry.setMaxEntries(2);
+
+        long expiresAt = registry.register("t-1", Duration.ofHours(1));
+        assertTrue(expiresAt <= System.currentTimeMillis() + 500);
+        registry.register("t-2", null);
+        assertThrows(IllegalStateException.class, () -> registry.register("t-3", null));
+        assertThrows(IllegalArgumentException.class, () -> registry.register(" ", null));
+
+        Thread.sleep(600);
+        assertFalse(registry.contains("t-1"));
+        // 过期条目在登记时清理，腾出空间
+        registry.register("t-3", null);
+        assertEquals(1, registry.entries().size());
+        assertTrue(registry.remove("t-3"));
+        assertFalse(registry.isActive());
+    }
+
+    @Test
+    void testThresholdFilterPassesDebugOnlyForDebugTraces() {
+        TraceDebugThresholdFilter filter = new TraceDebugThresholdFilter();
+        filter.setRegistry(registry);
+        filter.start();
+        registry.register("t-1", null);
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event(Level.INFO, Map.of())));
+        assertEquals(FilterReply.DENY, filter.decide(event(Level.DEBUG, Map.of("traceId", "t-2"))));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event(Level.DEBUG, Map.of("traceId", "t-1"))));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event(Level.DEBUG, Map.of(DebugTraceRegistry.DEBUG_MDC_KEY, "true"))));
+    }
+
+    @Test
+    void testEndpointOperations() {
+        LogDebugEndpoint endpoint = new LogDebugEndpoint(registry);
+
+        Map<String, Object> registered = endpoint.register("t-1", 60L);
+        assertEquals("t-1", registered.get("traceId"));
+        assertEquals(Map.of("t-1", registered.get("expiresAt")), endpoint.traces().get("traces"));
+
+        assertEquals(true, endpoint.remove("t-1").get("removed"));
+        assertEquals(false, endpoint.remove("t-1").get("removed"));
+    }
+
+    private ILoggingEvent event(Level level, Map<String, String> mdc) {
+        ch.qos.logback.classic.spi.LoggingEvent event = new ch.qos.logback.classic.spi.LoggingEvent();
+        event.setLevel(level);
+        event.setMessage("msg");
+        event.setMDCPropertyMap(mdc);
+        return event;
+    }
+
+    private List<String> messages() {
+        return appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+    }
+}
@@ -0,0 +1,193 @@
+package com.yggdrasil.labs.log.encoder;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yggdrasil.labs.log.converter.SensitiveDataConverter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JSON 行编码器测试
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+class JsonLinesEncoderTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private LoggerContext context;
+
+    private Logger logger;
+
+    private JsonLinesEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        logger = context.getLogger("com.example.Demo");
+        encoder = new JsonLinesEncoder();
+        encoder.setContext(context);
+        encoder.setTimeZone("+08:00");
+        encoder.start();
+    }
+
+    @Test
+    void testFields() throws Exception {
+        LoggingEvent event = event(Level.INFO, "hello {}", "world");
+        event.setMDCPropertyMap(mdc("traceId", "t1", "spanId", "s1", "userId", "42"));
+
+        String line = encode(event);
+        JsonNode json = MAPPER.readTree(line);
+
+        assertTrue(line.endsWith("}\n"));
+        assertEquals(1, line.split("\n").length);
+        assertEquals("2026-01-01T08:00:00.123+08:00", json.get("timestamp").asText());
+        assertEquals("INFO", json.get("level").asText());
+        assertEquals("main", json.get("thread").asText());
+        assertEquals("com.example.Demo", json.get("logger").asText());
+        assertEquals("t1", json.get("traceId").asText());
+        assertEquals("s1", json.get("spanId").asText());
+        assertEquals("hello world", json.get("message").asText());
+        assertEquals("42", json.get("mdc").get("userId").asText());
+        assertFalse(json.get("mdc").has("traceId"));
+        assertFalse(json.has("exception"));
+    }
+
+    @Test
+    void testOmitsAbsentIdsAndEmptyMdc() throws Exception {
+        LoggingEvent event = event(Level.WARN, "no ids");
+        JsonNode json = MAPPER.readTree(encode(event));
+        assertFalse(json.has("traceId"));
+        assertFalse(json.has("spanId"));
+        assertFalse(json.has("mdc"));
+
+        LoggingEvent onlyIds = event(Level.WARN, "ids only");
+        onlyIds.setMDCPropertyMap(mdc("traceId", "t1"));
+        JsonNode idsJson = MAPPER.readTree(encode(onlyIds));
+        assertEquals("t1", idsJson.get("traceId").asText());
+        assertFalse(idsJson.has("mdc"));
+    }
+
+    @Test
+    void testEscapingAndUnicode() throws Exception {
+        String message = "quote\" back\\ tab\t nl\n ctl\u0001 中文 emoji 😀";
+        LoggingEvent event = event(Level.INFO, message);
+        event.setMDCPropertyMap(mdc("k\"ey", "v\nal"));
+
+        String line = encode(event);
+        JsonNode json = MAPPER.readTree(line);
+
+        assertEquals(message, json.get("message").asText());
+        assertEquals("v\nal", json.get("mdc").get("k\"ey").asText());
+        assertTrue(line.contains("\\u0001"));
+    }
+
+    @Test
+    void testLoneSurrogateReplaced() throws Exception {
+        JsonNode json = MAPPER.readTree(encode(event(Level.INFO, "bad \uD83D end")));
+        assertEquals("bad ? end", json.get("message").asText());
+    }
+
+    @Test
+    void testException() throws Exception {
+        LoggingEvent event = new LoggingEvent("fqcn", logger, Level.ERROR, "failed",
+                new IllegalStateException("boom"), null);
+        event.setTimeStamp(1767225600123L);
+
+        JsonNode json = MAPPER.readTree(encode(event));
+
+        String exception = json.get("exception").asText();
+        assertTrue(exception.startsWith("java.lang.IllegalStateException: boom"));
+        assertTrue(exception.contains("JsonLinesEncoderTest"));
+    }
+
+    @Test
+    void testMessageMasked() throws Exception {
+        SensitiveDataConverter.addCustomPattern("secret\\d+");
+        try {
+            JsonNode masked = MAPPER.readTree(encode(event(Level.INFO, "key=secret123")));
+            assertFalse(masked.get("message").asText().contains("secret123"));
+
+            encoder.setMaskMessage(false);
+            JsonNode raw = MAPPER.readTree(encode(event(Level.INFO, "key=secret123")));
+            assertEquals("key=secret123", raw.get("message").asText());
+        } finally {
+            SensitiveDataConverter.clearCustomPatterns();
+        }
+    }
+
+    @Test
+    void testTimestampCacheAcrossSeconds() throws Exception {
+        LoggingEvent first = event(Level.INFO, "a");
+        LoggingEvent second = event(Level.INFO, "b");
+        second.setTimeStamp(1767225601005L);
+
+        assertEquals("2026-01-01T08:00:00.123+08:00", MAPPER.readTree(encode(first)).get("timestamp").asText());
+        assertEquals("2026-01-01T08:00:01.005+08:00", MAPPER.readTree(encode(second)).get("timestamp").asText());
+    }
+
+    @Test
+    void testBufferShrinksAfterLargeEvent() throws Exception {
+        // 只验证缓冲区回收，不受其他测试留下的全局脱敏配置影响
+        encoder.setMaskMessage(false);
+        String large = "x".repeat(JsonLineBuffer.RETAIN_CAPACITY * 2);
+        assertEquals(large, MAPPER.readTree(encode(event(Level.INFO, large))).get("message").asText());
+        assertEquals("small", MAPPER.readTree(encode(event(Level.INFO, "small"))).get("message").asText());
+    }
+
+    @Test
+    void testLogFormatEncoderSwitch() throws Exception {
+        LogFormatEncoder json = new LogFormatEncoder();
+        json.setContext(context);
+        json.setFormat("JSON");
+        json.setPattern("%msg%n");
+        json.start();
+        assertInstanceOf(JsonLinesEncoder.class, json.getDelegate());
+        assertEquals("hello", MAPPER.readTree(json.encode(event(Level.INFO, "hello"))).get("message").asText());
+
+        LogFormatEncoder text = new LogFormatEncoder();
+        text.setContext(context);
+        text.setFormat("text");
+        text.setPattern("%level - %msg%n");
+        text.setCharset(StandardCharsets.UTF_8);
+        text.start();
+        assertInstanceOf(PatternLayoutEncoder.class, text.getDelegate());
+        assertEquals("INFO - hello\n", new String(text.encode(event(Level.INFO, "hello")), StandardCharsets.UTF_8));
+
+        assertEquals(LogFormat.TEXT, LogFormat.fromName("unknown"));
+        assertEquals(LogFormat.TEXT, LogFormat.fromName(null));
+    }
+
+    private String encode(LoggingEvent event) {
+        return new String(encoder.encode(event), StandardCharsets.UTF_8);
+    }
+
+    private LoggingEvent event(Level level, String message, Object... args) {
+        LoggingEvent event = new LoggingEvent("fqcn", logger, level, message, null, args);
+        event.setThreadName("main");
+        // 2026-01-01T00:00:00.123Z
+        event.setTimeStamp(1767225600123L);
+        return event;
+    }
+
+    private static Map<String, String> mdc(String... keyValues) {
+        Map<String, String> mdc = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            mdc.put(keyValues[i], keyValues[i + 1]);
+        }
+        return mdc;
+    }
+}
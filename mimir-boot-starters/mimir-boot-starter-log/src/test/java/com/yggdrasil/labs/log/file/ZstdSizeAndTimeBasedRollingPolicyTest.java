@@ -0,0 +1,219 @@
+package com.yggdrasil.labs.log.file;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.rolling.RollingFileAppender;
+import ch.qos.logback.core.util.FileSize;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Zstandard 归档滚动策略与归档读取测试
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+class ZstdSizeAndTimeBasedRollingPolicyTest {
+
+    private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+    @TempDir
+    Path dir;
+
+    private Logger logger;
+
+    private RollingFileAppender<ILoggingEvent> appender;
+
+    @AfterEach
+    void tearDown() {
+        if (logger != null) {
+            logger.detachAppender(appender);
+        }
+        if (appender != null) {
+            appender.stop();
+        }
+    }
+
+    @Test
+    void testRolledArchivesCompressedWithZstd() throws Exception {
+        start("ZSTD_ROLLING", "app-%d{yyyy-MM-dd}-%i.log.zst");
+
+        List<String> expected = log(300);
+        appender.stop();
+
+        List<Path> archives = archives(".zst");
+        assertFalse(archives.isEmpty());
+        for (Path archive : archives) {
+            assertTrue(LogArchives.isZstd(archive), archive + " is not zstd");
+        }
+        assertEquals(expected, readAll(archives));
+    }
+
+    @Test
+    void testGzipPatternUnchanged() throws Exception {
+        start("GZ_ROLLING", "app-%d{yyyy-MM-dd}-%i.log.gz");
+
+        List<String> expected = log(300);
+        appender.stop();
+
+        List<Path> archives = archives(".gz");
+        assertFalse(archives.isEmpty());
+        assertFalse(LogArchives.isZstd(archives.get(0)));
+        assertEquals(expected, readAll(archives));
+    }
+
+    @Test
+    void testFallsBackToGzipWithoutZstd() throws Exception {
+        start("ZSTD_FALLBACK", "app-%d{yyyy-MM-dd}-%i.log.zst", new ZstdSizeAndTimeBasedRollingPolicy<>() {
+            @Override
+            boolean isZstdAvailable() {
+                return false;
+            }
+        });
+
+        List<String> expected = log(300);
+        appender.stop();
+
+        assertTrue(archives(".zst").isEmpty());
+        List<Path> archives = archives(".gz");
+        assertFalse(archives.isEmpty());
+        assertEquals(expected, readAll(archives));
+    }
+
+    @Test
+    void testUncompressedArchivesRecoveredOnStart() throws Exception {
+        // 上次运行在压缩前退出，归档仍为未压缩文本
+        Path pending = dir.resolve("app-2026-01-01-0.log.zst");
+        Files.writeString(pending, "pending line\n");
+        Path other = dir.resolve("other-2026-01-01-0.log.zst");
+        Files.writeString(other, "other line\n");
+
+        start("ZSTD_RECOVER", "app-%d{yyyy-MM-dd}-%i.log.zst");
+        appender.stop();
+
+        assertTrue(LogArchives.isZstd(pending));
+        assertEquals(List.of("pending line"), read(pending));
+        // 其他前缀的归档不属于该策略
+        assertFalse(LogArchives.isZstd(other));
+    }
+
+    @Test
+    void testCompressInPlaceIsIdempotent() throws Exception {
+        Path file = dir.resolve("raw.log.zst");
+        Files.writeString(file, "line 1\nline 2\n");
+
+        assertTrue(LogArchives.compressZstdInPlace(file, 3));
+        assertFalse(LogArchives.compressZstdInPlace(file, 3));
+        assertTrue(LogArchives.isZstd(file));
+        assertEquals(List.of("line 1", "line 2"), read(file));
+        assertFalse(Files.exists(dir.resolve("raw.log.zst.tmp")));
+    }
+
+    @Test
+    void testReadsGzipAndUncompressed() throws Exception {
+        Path gz = dir.resolve("a.log.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gz))) {
+            out.write("gzip line\n".getBytes(StandardCharsets.UTF_8));
+        }
+        // 压缩尚未完成的 .zst 文件内容为未压缩文本
+        Path pending = dir.resolve("b.log.zst");
+        Files.writeString(pending, "plain line\n");
+
+        assertEquals(List.of("gzip line"), read(gz));
+        assertEquals(List.of("plain line"), read(pending));
+    }
+
+    private void start(String name, String pattern) {
+        start(name, pattern, new ZstdSizeAndTimeBasedRollingPolicy<>());
+    }
+
+    private void start(String name, String pattern, ZstdSizeAndTimeBasedRollingPolicy<ILoggingEvent> policy) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%msg%n");
+        encoder.start();
+
+        appender = new RollingFileAppender<>();
+        appender.setContext(context);
+        appender.setName(name);
+        appender.setFile(dir.resolve("app.log").toString());
+        appender.setEncoder(encoder);
+
+        policy.setContext(context);
+        policy.setParent(appender);
+        policy.setFileNamePattern(dir.resolve(pattern).toString());
+        policy.setMaxFileSize(FileSize.valueOf("4KB"));
+        policy.start();
+        appender.setRollingPolicy(policy);
+        appender.start();
+
+        logger = context.getLogger("ZSTD_ROLLING_TEST_" + name);
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+    }
+
+    private List<String> log(int count) {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String line = String.format("%05d the quick brown fox jumps over the lazy dog", i);
+            logger.info(line);
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    /**
+     * 按序号排序的归档
+     */
+    private List<Path> archives(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(suffix))
+                    .sorted((a, b) -> Integer.compare(index(a, suffix), index(b, suffix)))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static int index(Path archive, String suffix) {
+        String name = archive.getFileName().toString();
+        String stem = name.substring(0, name.length() - (".log" + suffix).length());
+        return Integer.parseInt(stem.substring(stem.lastIndexOf('-') + 1));
+    }
+
+    /**
+     * 依次读取归档与活动文件
+     */
+    private List<String> readAll(List<Path> archives) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Path archive : archives) {
+            lines.addAll(read(archive));
+        }
+        lines.addAll(read(dir.resolve("app.log")));
+        return lines;
+    }
+
+    private static List<String> read(Path file) throws IOException {
+        try (BufferedReader reader = LogArchives.newReader(file)) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+}
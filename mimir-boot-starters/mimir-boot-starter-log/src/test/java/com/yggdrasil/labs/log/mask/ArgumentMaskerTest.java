@@ -0,0 +1,136 @@
+package com.yggdrasil.labs.log.mask;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.yggdrasil.labs.log.converter.SensitiveDataConverter;
+import com.yggdrasil.labs.log.converter.SensitiveDataPattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 参数级脱敏测试
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+class ArgumentMaskerTest {
+
+    private static final Logger LOGGER =
+            ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger("ARGUMENT_MASKER_TEST");
+
+    private ArgumentMasker masker;
+
+    @BeforeEach
+    void setUp() {
+        masker = masker(List.of(SensitiveDataPattern.values()), List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(SensitiveDataConverter.MASK_MODE_PROPERTY);
+        System.clearProperty(SensitiveDataConverter.MASK_ENABLED_PATTERNS_PROPERTY);
+        SensitiveDataConverter.reloadConfig();
+    }
+
+    private static ArgumentMasker masker(List<SensitiveDataPattern> presets, List<Pattern> customs) {
+        List<Pattern> patterns = new ArrayList<>();
+        List<DigitRunDetector> detectors = new ArrayList<>();
+        for (SensitiveDataPattern preset : presets) {
+            if (preset.getDetector() != null) {
+                detectors.add(preset.getDetector());
+            } else {
+                patterns.add(Pattern.compile(preset.getPattern()));
+            }
+        }
+        patterns.addAll(customs);
+        return ArgumentMasker.of(MaskEngine.of(patterns, detectors, "******"), presets, customs);
+    }
+
+    private static ILoggingEvent event(String message, Object... args) {
+        return new LoggingEvent(Logger.class.getName(), LOGGER, Level.INFO, message, null, args);
+    }
+
+    @Test
+    void testKeyedArgumentUsesStrategy() {
+        assertEquals("phone=138****5678, email=u****@example.com",
+                masker.mask(event("phone={}, email={}", "13812345678", "user@example.com")));
+        assertEquals("password=******", masker.mask(event("password={}", "p@ss word")));
+        assertEquals("身份证：110101********1234", masker.mask(event("身份证：{}", "110101199001011234")));
+    }
+
+    @Test
+    void testKeyedArgumentWithQuote() {
+        assertEquals("userPassword=\"******\"", masker.mask(event("userPassword=\"{}\"", "abc")));
+    }
+
+    @Test
+    void testUnkeyedArgumentByValue() {
+        assertEquals("联系人 138****5678 下单", masker.mask(event("联系人 {} 下单", 13812345678L)));
+        assertEquals("备注: token=******", masker.mask(event("备注: {}", "token=abc")));
+    }
+
+    @Test
+    void testNoHitReturnsFormattedMessage() {
+        ILoggingEvent event = event("订单 {} 状态 {} 日期 {} 编号 {}", "A-1024", true, LocalDate.of(2024, 1, 1),
+                UUID.fromString("00000000-0000-0000-0000-000000000001"));
+
+        assertSame(event.getFormattedMessage(), masker.mask(event));
+    }
+
+    @Test
+    void testConstantHitFallsBackToMessageMasking() {
+        assertEquals("password=****** user=alice", masker.mask(event("password=abc user={}", "alice")));
+    }
+
+    @Test
+    void testEscapedPlaceholder() {
+        assertEquals("literal {} phone=138****5678",
+                masker.mask(event("literal \\{} phone={}", "13812345678")));
+        assertEquals("path \\138****5678", masker.mask(event("path \\\\{}", "13812345678")));
+    }
+
+    @Test
+    void testCustomKeywordRule() {
+        List<Pattern> customs = List.of(Pattern.compile("(?i)(custom_field)\\s*[=:]\\s*['\"]?[^'\"\\s]+"));
+        ArgumentMasker custom = masker(List.of(), customs);
+
+        assertEquals("custom_field=******", custom.mask(event("custom_field={}", "secret")));
+    }
+
+    @Test
+    void testMoreArgumentsThanPlaceholders() {
+        assertEquals("phone=138****5678", masker.mask(event("phone={}", "13812345678", "extra")));
+    }
+
+    @Test
+    void testCheckedPresetMatchesWholeValue() {
+        ArgumentMasker checked = masker(List.of(SensitiveDataPattern.BANK_CARD_CHECKED), List.of());
+
+        assertEquals("卡号 6222****7894", checked.mask(event("卡号 {}", "6222021234567894")));
+        assertEquals("卡号 6222021234567890", checked.mask(event("卡号 {}", "6222021234567890")));
+    }
+
+    @Test
+    void testConverterArgumentMode() {
+        System.setProperty(SensitiveDataConverter.MASK_MODE_PROPERTY, "argument");
+        System.setProperty(SensitiveDataConverter.MASK_ENABLED_PATTERNS_PROPERTY, "phone,phone_number");
+        SensitiveDataConverter.reloadConfig();
+        SensitiveDataConverter converter = new SensitiveDataConverter();
+        converter.start();
+
+        assertEquals("mobile=139****0000", converter.convert(event("mobile={}", "13900000000")));
+    }
+}
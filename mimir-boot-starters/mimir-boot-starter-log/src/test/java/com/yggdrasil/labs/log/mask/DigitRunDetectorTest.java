@@ -0,0 +1,62 @@
+package com.yggdrasil.labs.log.mask;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 数字串识别器测试
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+class DigitRunDetectorTest {
+
+    @Test
+    void testIdCard() {
+        assertTrue(DigitRunDetector.ID_CARD.matches("11010519491231002X"));
+        assertTrue(DigitRunDetector.ID_CARD.matches("11010519491231002x"));
+        assertTrue(DigitRunDetector.ID_CARD.matches("110101199001011237"));
+        // 校验位错误
+        assertFalse(DigitRunDetector.ID_CARD.matches("110101199001011234"));
+        // 出生日期非法
+        assertFalse(DigitRunDetector.ID_CARD.matches("110101199002301234"));
+        // 15 位：校验出生日期
+        assertTrue(DigitRunDetector.ID_CARD.matches("110105491231002"));
+        assertFalse(DigitRunDetector.ID_CARD.matches("110105491331002"));
+        assertFalse(DigitRunDetector.ID_CARD.matches("1101051949123100"));
+    }
+
+    @Test
+    void testBankCard() {
+        assertTrue(DigitRunDetector.BANK_CARD.matches("6222021234567894"));
+        assertTrue(DigitRunDetector.BANK_CARD.matches("4111111111111111"));
+        // Luhn 校验失败
+        assertFalse(DigitRunDetector.BANK_CARD.matches("6222021234567890"));
+        // 以 1 开头的雪花 ID
+        assertFalse(DigitRunDetector.BANK_CARD.matches("1790000000000000005"));
+        assertFalse(DigitRunDetector.BANK_CARD.matches("622202123456789"));
+    }
+
+    @Test
+    void testPhone() {
+        assertTrue(DigitRunDetector.PHONE.matches("13812345678"));
+        assertTrue(DigitRunDetector.PHONE.matches("19912345678"));
+        // 未分配号段
+        assertFalse(DigitRunDetector.PHONE.matches("14012345678"));
+        assertFalse(DigitRunDetector.PHONE.matches("19412345678"));
+        assertFalse(DigitRunDetector.PHONE.matches("23812345678"));
+        assertFalse(DigitRunDetector.PHONE.matches("1381234567"));
+    }
+
+    @Test
+    void testRunBoundary() {
+        String text = "a13812345678 13812345678b 13812345678";
+
+        assertFalse(DigitRunDetector.isRunStart(text, 1));
+        assertTrue(DigitRunDetector.isRunStart(text, 13));
+        assertEquals(-1, DigitRunDetector.runEnd(text, 13));
+        assertEquals(text.length(), DigitRunDetector.runEnd(text, 26));
+        assertEquals(18, DigitRunDetector.runEnd("11010519491231002X", 0));
+    }
+}
@@ -0,0 +1,211 @@
+package com.yggdrasil.labs.log.mask;
+
+import com.yggdrasil.labs.log.converter.SensitiveDataPattern;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 脱敏引擎测试
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+class MaskEngineTest {
+
+    private static List<Pattern> presets(SensitiveDataPattern... values) {
+        List<Pattern> result = new ArrayList<>();
+        for (SensitiveDataPattern value : values) {
+            result.add(Pattern.compile(value.getPattern()));
+        }
+        return result;
+    }
+
+    private static List<Pattern> allPresets() {
+        List<Pattern> result = new ArrayList<>();
+        for (SensitiveDataPattern value : SensitiveDataPattern.values()) {
+            if (value.getDetector() == null) {
+                result.add(Pattern.compile(value.getPattern()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 旧实现：逐条规则 replaceAll，用于对比结果
+     */
+    private static String legacyMask(List<Pattern> patterns, String message, String replacement) {
+        String result = message;
+        for (Pattern pattern : patterns) {
+            result = pattern.matcher(result).replaceAll(match -> {
+                String matched = match.group();
+                int index = matched.indexOf('=');
+                if (index < 0) {
+                    return replacement;
+                }
+                String suffix = matched.substring(index + 1);
+                String quote = suffix.startsWith("\"") || suffix.startsWith("'") ? suffix.substring(0, 1) : "";
+                return java.util.regex.Matcher.quoteReplacement(
+                        matched.substring(0, index + 1) + quote + replacement + quote);
+            });
+        }
+        return result;
+    }
+
+    @Test
+    void testNoHitReturnsSameInstance() {
+        MaskEngine engine = MaskEngine.of(allPresets(), "******");
+        String message = "用户登录成功, orderNo=A-1024";
+
+        assertSame(message, engine.mask(message));
+    }
+
+    @Test
+    void testEmptyEngine() {
+        MaskEngine engine = MaskEngine.empty();
+        String message = "password=123456";
+
+        assertTrue(engine.isEmpty());
+        assertSame(message, engine.mask(message));
+        assertNull(engine.mask(null));
+    }
+
+    @Test
+    void testKeywordRule() {
+        MaskEngine engine = MaskEngine.of(presets(SensitiveDataPattern.PASSWORD), "******");
+
+        assertEquals("用户登录：password=******", engine.mask("用户登录：password=123456"));
+        assertEquals("PASSWORD =******", engine.mask("PASSWORD = abc"));
+        assertEquals("****** 下一步", engine.mask("密码: abc, 下一步"));
+    }
+
+    @Test
+    void testLongestKeywordWins() {
+        MaskEngine engine = MaskEngine.of(presets(SensitiveDataPattern.TOKEN), "***");
+
+        // access_token 与 token 同时命中时，以起点最靠左的关键字为准
+        assertEquals("***", engine.mask("access_token: abc"));
+        assertEquals("access_token=***", engine.mask("access_token=abc"));
+    }
+
+    @Test
+    void testScanRule() {
+        MaskEngine engine = MaskEngine.of(
+                presets(SensitiveDataPattern.PHONE_NUMBER, SensitiveDataPattern.EMAIL_ADDRESS), "******");
+
+        assertEquals("手机号：******，邮箱：******", engine.mask("手机号：13812345678，邮箱：user@example.com"));
+    }
+
+    @Test
+    void testKeywordAndScanInterleaved() {
+        MaskEngine engine = MaskEngine.of(allPresets(), "******");
+
+        String masked = engine.mask("phone=13812345678 email=a@b.com 备用 13912345678");
+
+        assertEquals("phone=****** email=****** 备用 ******", masked);
+    }
+
+    @Test
+    void testCustomKeywordRule() {
+        List<Pattern> rules = List.of(Pattern.compile("(?i)(custom_field)\\s*[=:]\\s*['\"]?[^'\"\\s]+"));
+        MaskEngine engine = MaskEngine.of(rules, "***");
+
+        assertEquals("Custom_Field=***", engine.mask("Custom_Field=secret"));
+    }
+
+    @Test
+    void testCustomScanRule() {
+        MaskEngine engine = MaskEngine.of(List.of(Pattern.compile("test\\d+")), "******");
+
+        assertEquals("测试 ****** 匹配", engine.mask("测试 test123 匹配"));
+    }
+
+    @Test
+    void testTopLevelAlternationIsNotAnchored() {
+        MaskEngine engine = MaskEngine.of(List.of(Pattern.compile("(?i)(foo)=x|bar")), "#");
+
+        assertEquals("foo=# and #", engine.mask("foo=x and bar"));
+    }
+
+    @Test
+    void testDigitRunDetectors() {
+        MaskEngine engine = MaskEngine.of(List.of(),
+                List.of(DigitRunDetector.ID_CARD, DigitRunDetector.BANK_CARD, DigitRunDetector.PHONE), "***");
+
+        assertEquals("身份证 ***，卡号 ***，手机 ***",
+                engine.mask("身份证 11010519491231002X，卡号 6222021234567894，手机 13812345678"));
+        // 订单号、雪花 ID、时间戳、校验失败的号码保持原样
+        String ids = "orderId=110101199001011234 id=1790000000000000000 ts=1704067200000 card=6222021234567890";
+        assertSame(ids, engine.mask(ids));
+        // 紧贴字母或更长数字串中的片段不视为号码
+        String embedded = "trace=a13812345678 seq=913812345678";
+        assertSame(embedded, engine.mask(embedded));
+    }
+
+    @Test
+    void testDigitRunDetectorsWithRules() {
+        MaskEngine engine = MaskEngine.of(presets(SensitiveDataPattern.PASSWORD, SensitiveDataPattern.EMAIL_ADDRESS),
+                List.of(DigitRunDetector.PHONE), "******");
+
+        assertEquals("password=****** 联系 ****** 或 ******",
+                engine.mask("password=13812345678 联系 13812345678 或 a@b.com"));
+    }
+
+    @Test
+    void testCharBudgetTruncates() {
+        MaskEngine engine = MaskEngine.of(presets(SensitiveDataPattern.PASSWORD), List.of(), "***",
+                MaskBudget.of(20, 0, OverflowAction.TRUNCATE));
+        long trips = MaskBudget.getTripCount();
+
+        String masked = engine.mask("password=abc " + "x".repeat(100));
+
+        assertEquals("password=*** xxxxxxx...[mask budget exceeded, length=113]", masked);
+        assertEquals(trips + 1, MaskBudget.getTripCount());
+        assertEquals("password=***", engine.mask("password=abc"));
+    }
+
+    @Test
+    void testCharBudgetRedacts() {
+        MaskEngine engine = MaskEngine.of(presets(SensitiveDataPattern.PASSWORD), List.of(), "***",
+                MaskBudget.of(20, 0, OverflowAction.REDACT));
+
+        assertEquals("***...[mask budget exceeded, length=113]", engine.mask("password=abc " + "x".repeat(100)));
+    }
+
+    @Test
+    void testTimeBudgetStopsScan() {
+        MaskEngine engine = MaskEngine.of(presets(SensitiveDataPattern.PASSWORD), List.of(), "***",
+                MaskBudget.of(0, 1, OverflowAction.TRUNCATE));
+        String message = "password=abc " + "x".repeat(100_000);
+
+        String masked = engine.mask(message);
+
+        assertTrue(masked.startsWith("password=*** "), masked.substring(0, 20));
+        assertTrue(masked.endsWith("...[mask budget exceeded, length=" + message.length() + "]"));
+        assertTrue(masked.length() < message.length());
+    }
+
+    @Test
+    void testMatchesLegacyBehaviour() {
+        List<Pattern> patterns = allPresets();
+        MaskEngine engine = MaskEngine.of(patterns, "******");
+        String[] messages = {
+                "用户登录成功",
+                "login user name=张三 password=123456 token=abcdef",
+                "apikey: AKIA1234, secret = s3cr3t",
+                "账号=zhangsan 身份证=110101199001011234",
+                "订单号 20240101123456789012 金额 100",
+                "手机：13812345678，银行卡 6222021234567890",
+                "email=user@example.com, 备用 user2@example.org",
+                "refresh_token=r1 access_token=a1 realname=李四",
+        };
+
+        for (String message : messages) {
+            assertEquals(legacyMask(patterns, message, "******"), engine.mask(message), message);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.yggdrasil.labs.log.mask;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.yggdrasil.labs.log.converter.SensitiveDataConverter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MarkerFactory;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * logger / marker 脱敏策略测试
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+class MaskPolicyTest {
+
+    private static final LoggerContext CONTEXT = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+    private MaskPipeline password;
+    private MaskPipeline token;
+
+    @BeforeEach
+    void setUp() {
+        password = pipeline("(?i)(password)\\s*[=:]\\s*['\"]?[^'\"\\s]+");
+        token = pipeline("(?i)(token)\\s*[=:]\\s*['\"]?[^'\"\\s]+");
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(SensitiveDataConverter.MASK_ENABLED_PATTERNS_PROPERTY);
+        System.clearProperty(SensitiveDataConverter.MASK_DEFAULT_ENABLED_PROPERTY);
+        System.clearProperty(SensitiveDataConverter.MASK_POLICY_COUNT_PROPERTY);
+        for (String field : List.of("loggers", "markers", "enabledPatterns", "enabled")) {
+            System.clearProperty(SensitiveDataConverter.policyKey(0, field));
+            System.clearProperty(SensitiveDataConverter.policyKey(1, field));
+        }
+        SensitiveDataConverter.reloadConfig();
+    }
+
+    private static MaskPipeline pipeline(String regex) {
+        MaskEngine engine = MaskEngine.of(List.of(Pattern.compile(regex)), "******");
+        return MaskPipeline.of(engine, ArgumentMasker.of(engine, List.of(), List.of()));
+    }
+
+    private static ILoggingEvent event(String loggerName, String message) {
+        Logger logger = CONTEXT.getLogger(loggerName);
+        return new LoggingEvent(Logger.class.getName(), logger, Level.INFO, message, null, null);
+    }
+
+    @Test
+    void testLongestLoggerPrefixWins() {
+        MaskRuleSet rules = MaskRuleSet.of(1, password, true, List.of(
+                MaskPolicy.of(List.of("com.example"), List.of(), token),
+                MaskPolicy.of(List.of("com.example.internal"), List.of(), MaskPipeline.NONE)), MaskMode.MESSAGE);
+
+        assertSame(token, rules.resolve("com.example.Service"));
+        assertSame(MaskPipeline.NONE, rules.resolve("com.example.internal.Cache"));
+        assertSame(password, rules.resolve("com.examples.Other"));
+        assertSame(password, rules.resolve("other"));
+    }
+
+    @Test
+    void testResolvedPipelineIsCached() {
+        MaskRuleSet rules = MaskRuleSet.of(1, password, true,
+                List.of(MaskPolicy.of(List.of("access.log"), List.of(), token)), MaskMode.MESSAGE);
+
+        assertSame(rules.resolve("access.log"), rules.resolve("access.log"));
+        assertSame(token, rules.resolve("access.log"));
+    }
+
+    @Test
+    void testDefaultDisabledSkipsUnlistedLoggers() {
+        MaskRuleSet rules = MaskRuleSet.of(1, password, false,
+                List.of(MaskPolicy.of(List.of("SQL.JSON"), List.of(), token)), MaskMode.MESSAGE);
+
+        assertSame(token, rules.resolve("SQL.JSON"));
+        assertTrue(rules.resolve("com.example.Service").isNone());
+    }
+
+    @Test
+    void testMarkerPolicyTakesPrecedence() {
+        MaskRuleSet rules = MaskRuleSet.of(1, password, true, List.of(
+                MaskPolicy.of(List.of("com.example"), List.of(), MaskPipeline.NONE),
+                MaskPolicy.of(List.of(), List.of("SENSITIVE"), token)), MaskMode.MESSAGE);
+        LoggingEvent event = (LoggingEvent) event("com.example.Service", "token=abc");
+
+        assertTrue(rules.resolve(event).isNone());
+
+        event.addMarker(MarkerFactory.getMarker("SENSITIVE"));
+        assertSame(token, rules.resolve(event));
+        assertEquals("token=******", rules.resolve(event).mask(event, rules.getMode()));
+    }
+
+    @Test
+    void testConverterAppliesPolicies() {
+        System.setProperty(SensitiveDataConverter.MASK_ENABLED_PATTERNS_PROPERTY, "password");
+        System.setProperty(SensitiveDataConverter.MASK_POLICY_COUNT_PROPERTY, "2");
+        System.setProperty(SensitiveDataConverter.policyKey(0, "loggers"), "access.log,SQL.JSON");
+        System.setProperty(SensitiveDataConverter.policyKey(0, "enabledPatterns"), "all");
+        System.setProperty(SensitiveDataConverter.policyKey(1, "loggers"), "org.springframework");
+        System.setProperty(SensitiveDataConverter.policyKey(1, "enabled"), "false");
+        SensitiveDataConverter.reloadConfig();
+        SensitiveDataConverter converter = new SensitiveDataConverter();
+        converter.start();
+
+        String message = "password=1 token=abc";
+        assertEquals("password=****** token=******", converter.convert(event("access.log", message)));
+        assertEquals("password=****** token=abc", converter.convert(event("com.example.Service", message)));
+        assertEquals(message, converter.convert(event("org.springframework.web.Servlet", message)));
+    }
+}
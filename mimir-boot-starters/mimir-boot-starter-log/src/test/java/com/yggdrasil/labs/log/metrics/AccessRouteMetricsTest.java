@@ -0,0 +1,124 @@
+package com.yggdrasil.labs.log.metrics;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 路由访问耗时测试
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+class AccessRouteMetricsTest {
+
+    @Test
+    void testBucketsAreContiguous() {
+        int previous = -1;
+        for (long micros = 0; micros < 1 << 16; micros++) {
+            int index = LogLinearHistogram.indexOf(micros);
+            assertTrue(index == previous || index == previous + 1, "micros=" + micros);
+            assertTrue(LogLinearHistogram.highestMicrosOf(index) >= micros);
+            if (index != previous && index > 0) {
+                assertEquals(micros - 1, LogLinearHistogram.highestMicrosOf(index - 1));
+            }
+            previous = index;
+        }
+    }
+
+    @Test
+    void testPercentilesWithinRelativeError() {
+        LogLinearHistogram histogram = LogLinearHistogram.of();
+        for (long millis = 1; millis <= 1000; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), histogram.getMaxNanos());
+        assertWithin(TimeUnit.MILLISECONDS.toNanos(500), histogram.valueAtPercentile(50));
+        assertWithin(TimeUnit.MILLISECONDS.toNanos(900), histogram.valueAtPercentile(90));
+        assertWithin(TimeUnit.MILLISECONDS.toNanos(990), histogram.valueAtPercentile(99));
+        assertEquals(histogram.getMaxNanos(), histogram.valueAtPercentile(100));
+        assertEquals(0, LogLinearHistogram.of().valueAtPercentile(99));
+    }
+
+    @Test
+    void testValuesBeyondTrackableRangeKeepMax() {
+        LogLinearHistogram histogram = LogLinearHistogram.of();
+        long twoHours = TimeUnit.HOURS.toNanos(2);
+
+        histogram.record(twoHours);
+        histogram.record(-1);
+
+        assertEquals(2, histogram.getCount());
+        assertEquals(twoHours, histogram.getMaxNanos());
+        assertEquals(twoHours, histogram.valueAtPercentile(99));
+    }
+
+    @Test
+    void testDrainResetsHistogram() {
+        LogLinearHistogram histogram = LogLinearHistogram.of();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(3));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(7));
+
+        LogLinearHistogram.Snapshot snapshot = histogram.drain();
+
+        assertEquals(2, snapshot.getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(10), snapshot.getTotalNanos());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(7), snapshot.getMaxNanos());
+        assertWithin(TimeUnit.MILLISECONDS.toNanos(3), snapshot.valueAtPercentile(50));
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxNanos());
+        assertEquals(0, histogram.drain().getCount());
+    }
+
+    @Test
+    void testRoutesOverflowIntoOther() {
+        AccessRouteMetrics metrics = AccessRouteMetrics.of(2);
+
+        metrics.record("GET", "/a", 200, 1_000);
+        metrics.record("GET", "/a", 201, 1_000);
+        metrics.record("BREW", "/b", 500, 1_000);
+        metrics.record("GET", "/c", 200, 1_000);
+        metrics.record("GET", "/d", 404, 1_000);
+        metrics.record("GET", "/a", 200, 1_000);
+
+        assertEquals(Set.of("GET /a 2xx", "OTHER /b 5xx", "OTHER OTHER 2xx", "OTHER OTHER 4xx"),
+                metrics.all().stream()
+                        .map(stats -> stats.getMethod() + " " + stats.getUri() + " " + stats.getStatus())
+                        .collect(Collectors.toSet()));
+        assertEquals(3, metrics.stats("GET", "/a", 200).getLatency().getCount());
+    }
+
+    @Test
+    void testBinderRegistersRoutes() {
+        AccessRouteMetrics metrics = AccessRouteMetrics.of(10);
+        metrics.record("GET", "/users/{id}", 200, TimeUnit.MILLISECONDS.toNanos(20));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        new AccessRouteMetricsBinder(metrics).bindTo(registry);
+        // 绑定之后出现的路由同样注册
+        metrics.record("POST", "/users", 201, TimeUnit.MILLISECONDS.toNanos(40));
+
+        FunctionTimer timer = registry.get("mimir.log.access.latency")
+                .tags("method", "GET", "uri", "/users/{id}", "status", "2xx").functionTimer();
+        assertEquals(1, timer.count());
+        assertEquals(20, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        TimeGauge p99 = registry.get("mimir.log.access.latency.percentile")
+                .tags("uri", "/users", "phi", "0.99").timeGauge();
+        assertEquals(40, p99.value(TimeUnit.MILLISECONDS), 0.001);
+        TimeGauge max = registry.get("mimir.log.access.latency.max").tags("uri", "/users").timeGauge();
+        assertEquals(40, max.value(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 16, "expected ~" + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,96 @@
+package com.yggdrasil.labs.log.metrics;
+
+import com.yggdrasil.labs.log.converter.SensitiveDataPattern;
+import com.yggdrasil.labs.log.mask.DigitRunDetector;
+import com.yggdrasil.labs.log.mask.MaskEngine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 脱敏指标测试
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+class MaskMetricsTest {
+
+    private final MaskMetrics metrics = MaskMetrics.get();
+
+    @Test
+    void testRuleHitsAndCharCounters() {
+        MaskEngine engine = MaskEngine.of(List.of(
+                        Pattern.compile(SensitiveDataPattern.PASSWORD.getPattern()),
+                        Pattern.compile(SensitiveDataPattern.EMAIL_ADDRESS.getPattern()),
+                        Pattern.compile("metrics\\d+")),
+                List.of(DigitRunDetector.PHONE), "***");
+        long password = metrics.getRuleHits("password");
+        long email = metrics.getRuleHits("email_address");
+        long custom = metrics.getRuleHits("custom:metrics\\d+");
+        long phone = metrics.getRuleHits("phone_checked");
+        long scanned = metrics.getScannedChars();
+        long replaced = metrics.getReplacedChars();
+
+        String message = "pwd=1 a@b.com metrics42 13812345678";
+        engine.mask(message);
+
+        assertEquals(password + 1, metrics.getRuleHits("password"));
+        assertEquals(email + 1, metrics.getRuleHits("email_address"));
+        assertEquals(custom + 1, metrics.getRuleHits("custom:metrics\\d+"));
+        assertEquals(phone + 1, metrics.getRuleHits("phone_checked"));
+        assertTrue(metrics.getScannedChars() - scanned >= message.length());
+        assertTrue(metrics.getReplacedChars() - replaced >= "pwd=1a@b.commetrics4213812345678".length());
+    }
+
+    @Test
+    void testLatencyHistogram() {
+        LatencyHistogram histogram = LatencyHistogram.of();
+
+        histogram.record(500);
+        histogram.record(3_000);
+        histogram.record(1_000_000_000L);
+
+        assertEquals(3, histogram.getCount());
+        assertEquals(1, histogram.cumulativeCount(0));
+        assertEquals(2, histogram.cumulativeCount(2));
+        assertEquals(3, histogram.cumulativeCount(histogram.getBounds().length));
+        assertEquals(3L, histogram.snapshot().get("le_inf"));
+    }
+
+    @Test
+    void testMicrometerBinder() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new MaskMetricsBinder(metrics).bindTo(registry);
+        metrics.ruleCounter("binder_test_rule").increment();
+
+        FunctionCounter hits = registry.get("mimir.log.mask.rule.hits").tag("rule", "binder_test_rule").functionCounter();
+        assertEquals(metrics.getRuleHits("binder_test_rule"), (long) hits.count());
+        assertTrue(hits.count() >= 1);
+        assertNotNull(registry.get("mimir.log.mask.latency").meter());
+        assertInstanceOf(FunctionTimer.class, registry.get("mimir.log.mask.latency").meter());
+        assertNotNull(registry.get("mimir.log.mask.scanned").functionCounter());
+    }
+
+    @Test
+    void testJmxRegistration() throws Exception {
+        MaskMetricsJmx jmx = new MaskMetricsJmx(metrics);
+        ObjectName name = new ObjectName(MaskMetricsJmx.OBJECT_NAME);
+
+        jmx.register();
+        try {
+            assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+            assertNotNull(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "ScannedChars"));
+        } finally {
+            jmx.unregister();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
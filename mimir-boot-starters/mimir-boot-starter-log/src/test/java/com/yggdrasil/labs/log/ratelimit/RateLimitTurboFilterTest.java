@@ -0,0 +1,186 @@
+package com.yggdrasil.labs.log.ratelimit;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 日志风暴抑制测试
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+class RateLimitTurboFilterTest {
+
+    private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+    private RateLimitTurboFilter turboFilter;
+    private Logger logger;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        turboFilter = new RateLimitTurboFilter();
+        turboFilter.setContext(context);
+        turboFilter.setEnabled(true);
+        turboFilter.setRatePerSecond(0.001);
+        turboFilter.setBurst(2);
+
+        logger = context.getLogger("com.yggdrasil.labs.ratelimittest.Handler");
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        appender = new ListAppender<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                // 与异步 appender 一样在调用线程上固定 MDC
+                event.prepareForDeferredProcessing();
+                super.append(event);
+            }
+        };
+        appender.setContext(context);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.getTurboFilterList().remove(turboFilter);
+        turboFilter.stop();
+        logger.detachAppender(appender);
+        logger.setLevel(null);
+        MDC.clear();
+    }
+
+    private void start() {
+        turboFilter.start();
+        context.addTurboFilter(turboFilter);
+    }
+
+    @Test
+    void testSuppressesRepeatedEventsPerFingerprint() {
+        start();
+        RuntimeException failure = new RuntimeException("down");
+        for (int i = 0; i < 10; i++) {
+            logger.error("call failed: {}", i, failure);
+        }
+        // 异常类型不同即为不同指纹
+        logger.error("call failed: {}", 10, new IllegalStateException("other"));
+        for (int i = 0; i < 5; i++) {
+            logger.info("request {}", i);
+        }
+
+        assertEquals(List.of("call failed: 0", "call failed: 1", "call failed: 10",
+                "request 0", "request 1", "request 2", "request 3", "request 4"), messages());
+        assertEquals(8, turboFilter.getLimiter().getSuppressedTotal());
+    }
+
+    @Test
+    void testEmitsSummaryWithoutFurtherLogging() throws Exception {
+        turboFilter.setSummaryIntervalMillis(20);
+        start();
+        MDC.put("traceId", "unrelated");
+        for (int i = 0; i < 5; i++) {
+            logger.warn("slow dependency");
+        }
+
+        // 风暴结束后不再有日志调用，汇总仍由后台线程按时输出
+        long deadline = System.currentTimeMillis() + 5000;
+        while (appender.list.size() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(3, appender.list.size());
+        ILoggingEvent summary = appender.list.get(2);
+        assertTrue(summary.getFormattedMessage().matches(
+                "Suppressed 3 similar log events in the last \\d+ ms: \\[WARN] slow dependency"),
+                summary.getFormattedMessage());
+        assertEquals(Level.WARN, summary.getLevel());
+        assertNull(summary.getMDCPropertyMap().get("traceId"));
+    }
+
+    @Test
+    void testSummaryReportsElapsedSinceLastSweep() throws Exception {
+        turboFilter.setSummaryIntervalMillis(60_000);
+        start();
+        for (int i = 0; i < 3; i++) {
+            logger.warn("slow dependency");
+        }
+        Thread.sleep(50);
+        turboFilter.summarize();
+
+        String message = appender.list.get(2).getFormattedMessage();
+        long elapsed = Long.parseLong(message.replaceAll(".* in the last (\\d+) ms.*", "$1"));
+        // 按实际间隔输出，而不是配置的汇总间隔
+        assertTrue(elapsed >= 50 && elapsed < 60_000, message);
+    }
+
+    @Test
+    void testExcludedLoggersAndDisabledFilter() {
+        turboFilter.setLevel("INFO");
+        turboFilter.setExcludeLoggers("com.yggdrasil.labs.ratelimittest");
+        start();
+        for (int i = 0; i < 5; i++) {
+            logger.info("excluded {}", i);
+        }
+        assertEquals(5, appender.list.size());
+
+        RateLimitTurboFilter disabled = new RateLimitTurboFilter();
+        disabled.setContext(context);
+        disabled.start();
+        assertFalse(disabled.isStarted());
+    }
+
+    @Test
+    void testTokensRefillOverTime() {
+        AtomicLong clock = new AtomicLong();
+        LogRateLimiter limiter = new LogRateLimiter(10, 2, 100, clock::get);
+
+        assertTrue(limiter.tryAcquire(logger, Level.ERROR, "x", null));
+        assertTrue(limiter.tryAcquire(logger, Level.ERROR, "x", null));
+        assertFalse(limiter.tryAcquire(logger, Level.ERROR, "x", null));
+
+        // 每 100ms 补充一个令牌
+        clock.addAndGet(100_000_000L);
+        assertTrue(limiter.tryAcquire(logger, Level.ERROR, "x", null));
+        assertFalse(limiter.tryAcquire(logger, Level.ERROR, "x", null));
+
+        List<LogRateLimiter.Suppressed> summaries = limiter.sweep();
+        assertEquals(1, summaries.size());
+        assertEquals(2, summaries.get(0).getCount());
+        assertEquals("x", summaries.get(0).getFormat());
+
+        // 令牌补满后空闲的桶被清理
+        clock.addAndGet(1_000_000_000L);
+        assertTrue(limiter.sweep().isEmpty());
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    void testNewFingerprintsNotLimitedWhenFull() {
+        AtomicLong clock = new AtomicLong();
+        LogRateLimiter limiter = new LogRateLimiter(1, 1, 1, clock::get);
+
+        assertTrue(limiter.tryAcquire(logger, Level.ERROR, "a", null));
+        assertFalse(limiter.tryAcquire(logger, Level.ERROR, "a", null));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(logger, Level.ERROR, "b", null));
+        }
+        assertEquals(1, limiter.size());
+    }
+
+    private List<String> messages() {
+        return appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+    }
+}
@@ -1,11 +1,27 @@
 package com.yggdrasil.labs.log.web;
 
+import com.yggdrasil.labs.common.context.RequestSqlStats;
+import com.yggdrasil.labs.log.metrics.AccessRouteMetrics;
+import com.yggdrasil.labs.log.metrics.AccessRouteStats;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 
+import java.util.EnumSet;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * 访问日志自动配置测试
@@ -68,13 +84,67 @@ class AccessLogAutoConfigurationTest {
      */
     @Test
     void testAccessLogFilterCreation() {
-        FilterRegistrationBean<?> filter = configuration.accessLogFilter();
+        FilterRegistrationBean<?> filter = configuration.accessLogFilter(null, null, null);
 
         assertNotNull(filter);
         assertEquals("accessLogFilter", filter.getFilterName());
         assertTrue(filter.getUrlPatterns().contains("/*"));
     }
 
+    /**
+     * 测试过滤器同时注册 REQUEST 与 ASYNC 分派（异步请求按分派线程累加资源消耗）
+     */
+    @Test
+    void testAccessLogFilterDispatcherTypes() {
+        FilterRegistrationBean<?> filter = configuration.accessLogFilter(null, null, null);
+
+        assertEquals(EnumSet.of(DispatcherType.REQUEST, DispatcherType.ASYNC), filter.determineDispatcherTypes());
+    }
+
+    /**
+     * 测试通过注册的过滤器处理异步请求：ASYNC 分派线程上执行的 SQL 计入同一请求
+     */
+    @Test
+    void testAsyncDispatchSqlStatsThroughRegistration() throws Exception {
+        AccessLogProperties properties = new AccessLogProperties();
+        properties.setSqlStatsEnabled(true);
+        AccessRouteMetrics routeMetrics = AccessRouteMetrics.of(100);
+        FilterRegistrationBean<Filter> registration =
+                new AccessLogAutoConfiguration(properties).accessLogFilter(routeMetrics, null, null);
+        Filter filter = registration.getFilter();
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getRequestURI()).thenReturn("/api/deferred");
+        when(request.getDispatcherType()).thenReturn(DispatcherType.REQUEST);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getStatus()).thenReturn(200);
+        AsyncContext asyncContext = mock(AsyncContext.class);
+        when(request.isAsyncStarted()).thenReturn(true);
+        when(request.getAsyncContext()).thenReturn(asyncContext);
+
+        filter.doFilter(request, response, (req, res) -> RequestSqlStats.record(1_000_000, 1));
+        ArgumentCaptor<Object> sqlStats = ArgumentCaptor.forClass(Object.class);
+        verify(request).setAttribute(eq(AccessLogFilter.SQL_STATS_ATTRIBUTE), sqlStats.capture());
+        ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+        verify(asyncContext).addListener(listener.capture());
+
+        // 容器只对注册的分派类型调用过滤器
+        HttpServletRequest dispatch = mock(HttpServletRequest.class);
+        when(dispatch.getDispatcherType()).thenReturn(DispatcherType.ASYNC);
+        when(dispatch.getAttribute(AccessLogFilter.SQL_STATS_ATTRIBUTE)).thenReturn(sqlStats.getValue());
+        assertTrue(registration.determineDispatcherTypes().contains(dispatch.getDispatcherType()));
+        filter.doFilter(dispatch, response, (req, res) -> RequestSqlStats.record(2_000_000, 4));
+        assertNull(RequestSqlStats.current());
+
+        listener.getValue().onComplete(new AsyncEvent(asyncContext));
+
+        AccessRouteStats stats = routeMetrics.all().iterator().next();
+        assertEquals(2, stats.getSqlStatements());
+        assertEquals(3_000_000, stats.getSqlNanos());
+        assertEquals(5, stats.getSqlRows());
+    }
+
     /**
      * 测试配置不同的慢接口阈值
      */
@@ -87,7 +157,7 @@ class AccessLogAutoConfigurationTest {
             properties.setSlowThresholdMs(threshold);
 
             AccessLogAutoConfiguration config = new AccessLogAutoConfiguration(properties);
-            FilterRegistrationBean<Filter> filter = config.accessLogFilter();
+            FilterRegistrationBean<Filter> filter = config.accessLogFilter(null, null, null);
 
             assertNotNull(filter);
         }
@@ -5,17 +5,45 @@ import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.read.ListAppender;
+import com.yggdrasil.labs.common.context.RequestSqlStats;
+import com.yggdrasil.labs.log.converter.SensitiveDataConverter;
+import com.yggdrasil.labs.log.debug.DebugTraceRegistry;
+import com.yggdrasil.labs.log.metrics.AccessRouteMetrics;
+import com.yggdrasil.labs.log.metrics.AccessRouteStats;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -40,7 +68,14 @@ class AccessLogFilterTest {
         LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
         accessLogger = context.getLogger("access.log");
 
-        listAppender = new ListAppender<>();
+        listAppender = new ListAppender<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                // 与异步 appender 一样在调用线程上固定 MDC
+                event.prepareForDeferredProcessing();
+                super.append(event);
+            }
+        };
         listAppender.setContext(context);
         listAppender.start();
         accessLogger.addAppender(listAppender);
@@ -57,6 +92,8 @@ class AccessLogFilterTest {
             listAppender.stop();
         }
         listAppender.list.clear();
+        System.clearProperty(SensitiveDataConverter.MASK_ENABLED_PATTERNS_PROPERTY);
+        SensitiveDataConverter.reloadConfig();
     }
 
     /**
@@ -135,7 +172,7 @@ class AccessLogFilterTest {
 
     /**
      * 测试慢接口（超过阈值）
-     * 注意：因为使用了 ContentCachingResponseWrapper，实际测试中直接模拟耗时计算
+     * 注意：实际测试中直接模拟耗时计算
      */
     @Test
     void testSlowRequest() throws Exception {
@@ -352,5 +389,591 @@ class AccessLogFilterTest {
         // 验证制表符被转义为 \t
         assertTrue(message.contains("\\t"), "制表符应该被转义为 \\t");
     }
-}
 
+    /**
+     * 测试响应体直接写出（不缓冲）并统计字节数
+     */
+    @Test
+    void testResponseBodyStreamedThrough() throws Exception {
+        HttpServletRequest request = mockRequest("/api/export");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new SinkOutputStream(sink));
+        when(response.getStatus()).thenReturn(200);
+
+        byte[] chunk = new byte[4096];
+        FilterChain chain = (req, res) -> {
+            for (int i = 0; i < 4; i++) {
+                res.getOutputStream().write(chunk);
+                // 每次写入都直接到达原响应
+                assertEquals((i + 1) * chunk.length, sink.size());
+            }
+            res.getOutputStream().write('!');
+        };
+
+        new AccessLogFilter(1000, 64).doFilter(request, response, chain);
+
+        assertEquals(4 * chunk.length + 1, sink.size());
+        String message = listAppender.list.get(0).getFormattedMessage();
+        assertTrue(message.contains("Bytes=[16385]"));
+        // 成功且不慢的请求不输出响应体
+        assertFalse(message.contains("Body="));
+    }
+
+    /**
+     * 测试失败请求输出有界的响应体
+     */
+    @Test
+    void testFailedRequestLogsBoundedBody() throws Exception {
+        HttpServletRequest request = mockRequest("/api/order");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new SinkOutputStream(sink));
+        when(response.getCharacterEncoding()).thenReturn("UTF-8");
+        when(response.getStatus()).thenReturn(500);
+
+        String body = "{\"code\":\"E500\",\n\"message\":\"库存服务不可用\"}";
+        FilterChain chain = (req, res) -> res.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+
+        new AccessLogFilter(1000, 16).doFilter(request, response, chain);
+
+        assertEquals(body, sink.toString(StandardCharsets.UTF_8));
+        String message = listAppender.list.get(0).getFormattedMessage();
+        assertTrue(message.contains("Body=[{\"code\":\"E500\",\\n]"), message);
+        assertTrue(message.contains("Bytes=[" + body.getBytes(StandardCharsets.UTF_8).length + "]"));
+    }
+
+    /**
+     * 测试输出的响应体经过脱敏（access.log 的 encoder 不脱敏消息）
+     */
+    @Test
+    void testCapturedBodyMasked() throws Exception {
+        System.setProperty(SensitiveDataConverter.MASK_ENABLED_PATTERNS_PROPERTY, "phone_number");
+        SensitiveDataConverter.reloadConfig();
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new SinkOutputStream(sink));
+        when(response.getStatus()).thenReturn(400);
+
+        String body = "{\"message\":\"手机号 13900000000 已注册\"}";
+        FilterChain chain = (req, res) -> res.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+
+        new AccessLogFilter(1000, 1024).doFilter(mockRequest("/api/register"), response, chain);
+
+        assertEquals(body, sink.toString(StandardCharsets.UTF_8));
+        String message = listAppender.list.get(0).getFormattedMessage();
+        assertTrue(message.contains("Body=[{\"message\":\"手机号 ****** 已注册\"}]"), message);
+        assertFalse(message.contains("13900000000"), message);
+    }
+
+    /**
+     * 测试快速成功的响应不复制响应体，失败或已超过阈值的响应才保留
+     */
+    @Test
+    void testCaptureDecidedOnFirstWrite() throws Exception {
+        HttpServletResponse ok = mock(HttpServletResponse.class);
+        when(ok.getOutputStream()).thenReturn(new SinkOutputStream(new ByteArrayOutputStream()));
+        when(ok.getStatus()).thenReturn(200);
+        AccessLogResponseWrapper fast = new AccessLogResponseWrapper(ok, 64, System.nanoTime(),
+                TimeUnit.SECONDS.toNanos(60));
+        fast.getOutputStream().write("{\"ok\":true}".getBytes(StandardCharsets.UTF_8));
+        assertNull(fast.getCapturedBody());
+        assertEquals(11, fast.getBytesWritten());
+
+        AccessLogResponseWrapper slow = new AccessLogResponseWrapper(ok, 64,
+                System.nanoTime() - TimeUnit.SECONDS.toNanos(2), TimeUnit.SECONDS.toNanos(1));
+        slow.getOutputStream().write("{\"ok\":true}".getBytes(StandardCharsets.UTF_8));
+        assertEquals("{\"ok\":true}", slow.getCapturedBody());
+
+        HttpServletResponse failed = mock(HttpServletResponse.class);
+        when(failed.getOutputStream()).thenReturn(new SinkOutputStream(new ByteArrayOutputStream()));
+        when(failed.getStatus()).thenReturn(503);
+        AccessLogResponseWrapper error = new AccessLogResponseWrapper(failed, 64, System.nanoTime(),
+                TimeUnit.SECONDS.toNanos(60));
+        error.getOutputStream().write('!');
+        assertEquals("!", error.getCapturedBody());
+    }
+
+    /**
+     * 测试通过 Writer 写出的响应按 UTF-8 计数
+     */
+    @Test
+    void testWriterBytesCounted() throws Exception {
+        HttpServletRequest request = mockRequest("/api/text");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        StringWriter sink = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(sink));
+        when(response.getStatus()).thenReturn(404);
+
+        FilterChain chain = (req, res) -> res.getWriter().write("未找到");
+
+        new AccessLogFilter(1000, 1024).doFilter(request, response, chain);
+
+        assertEquals("未找到", sink.toString());
+        String message = listAppender.list.get(0).getFormattedMessage();
+        assertTrue(message.contains("Bytes=[9]"));
+        assertTrue(message.contains("Body=[未找到]"));
+    }
+
+    /**
+     * 测试逐字节写出和字符数组片段写出时按上限捕获响应体
+     */
+    @Test
+    void testSingleByteAndCharSliceCaptured() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new SinkOutputStream(sink));
+        when(response.getStatus()).thenReturn(500);
+
+        byte[] body = "x".repeat(300).getBytes(StandardCharsets.UTF_8);
+        FilterChain chain = (req, res) -> {
+            for (byte b : body) {
+                res.getOutputStream().write(b);
+            }
+        };
+        new AccessLogFilter(1000, 260).doFilter(mockRequest("/api/bytes"), response, chain);
+
+        assertEquals(300, sink.size());
+        String message = listAppender.list.get(0).getFormattedMessage();
+        assertTrue(message.contains("Body=[" + "x".repeat(260) + "]"), message);
+
+        HttpServletResponse textResponse = mock(HttpServletResponse.class);
+        StringWriter text = new StringWriter();
+        when(textResponse.getWriter()).thenReturn(new PrintWriter(text));
+        when(textResponse.getStatus()).thenReturn(500);
+
+        char[] chars = "[失败原因]".toCharArray();
+        FilterChain textChain = (req, res) -> res.getWriter().write(chars, 1, 4);
+        new AccessLogFilter(1000, 3).doFilter(mockRequest("/api/text"), textResponse, textChain);
+
+        assertEquals("失败原因", text.toString());
+        message = listAppender.list.get(1).getFormattedMessage();
+        assertTrue(message.contains("Body=[失败原]"), message);
+    }
+
+    /**
+     * 测试异步请求在完成时记录，耗时为端到端耗时
+     */
+    @Test
+    void testAsyncRequestLoggedOnCompletion() throws Exception {
+        HttpServletRequest request = mockRequest("/api/long-poll");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AsyncContext asyncContext = mock(AsyncContext.class);
+        when(request.isAsyncStarted()).thenReturn(true);
+        when(request.getAsyncContext()).thenReturn(asyncContext);
+        when(response.getStatus()).thenReturn(200);
+
+        MDC.put("traceId", "t-async");
+        try {
+            filter.doFilter(request, response, mock(FilterChain.class));
+        } finally {
+            MDC.clear();
+        }
+        // 容器线程释放时不记录
+        assertTrue(listAppender.list.isEmpty());
+
+        ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+        verify(asyncContext).addListener(listener.capture());
+        Thread.sleep(30);
+        listener.getValue().onComplete(new AsyncEvent(asyncContext));
+        listener.getValue().onComplete(new AsyncEvent(asyncContext));
+
+        assertEquals(1, listAppender.list.size());
+        ILoggingEvent event = listAppender.list.get(0);
+        String message = event.getFormattedMessage();
+        long duration = Long.parseLong(message.replaceAll(".*Duration=\\[(\\d+)ms].*", "$1"));
+        assertTrue(duration >= 30, message);
+        assertEquals("t-async", event.getMDCPropertyMap().get("traceId"));
+        // 回调线程的 MDC 已恢复
+        assertNull(MDC.get("traceId"));
+    }
+
+    /**
+     * 测试异步请求超时
+     */
+    @Test
+    void testAsyncRequestTimeout() throws Exception {
+        HttpServletRequest request = mockRequest("/api/deferred");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AsyncContext asyncContext = mock(AsyncContext.class);
+        when(request.isAsyncStarted()).thenReturn(true);
+        when(request.getAsyncContext()).thenReturn(asyncContext);
+        when(response.getStatus()).thenReturn(503);
+
+        filter.doFilter(request, response, mock(FilterChain.class));
+
+        ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+        verify(asyncContext).addListener(listener.capture());
+        listener.getValue().onTimeout(new AsyncEvent(asyncContext));
+        assertTrue(listAppender.list.isEmpty());
+        listener.getValue().onComplete(new AsyncEvent(asyncContext));
+
+        ILoggingEvent event = listAppender.list.get(0);
+        assertEquals(Level.ERROR, event.getLevel());
+        assertTrue(event.getFormattedMessage().endsWith("[异步超时]"));
+    }
+
+    /**
+     * 测试异步分派不重复记录
+     */
+    @Test
+    void testAsyncDispatchSkipped() throws Exception {
+        HttpServletRequest request = mockRequest("/api/deferred");
+        when(request.getDispatcherType()).thenReturn(DispatcherType.ASYNC);
+        FilterChain chain = mock(FilterChain.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        filter.doFilter(request, response, chain);
+
+        verify(chain).doFilter(request, response);
+        assertTrue(listAppender.list.isEmpty());
+    }
+
+    /**
+     * 测试按路由模板聚合耗时
+     */
+    @Test
+    void testRouteMetricsRecordedByTemplate() throws Exception {
+        AccessRouteMetrics routeMetrics = AccessRouteMetrics.of(100);
+        filter.setRouteMetrics(routeMetrics);
+        FilterChain chain = mock(FilterChain.class);
+
+        for (String uri : new String[]{"/api/user/1", "/api/user/2"}) {
+            HttpServletRequest request = mockRequest(uri);
+            when(request.getAttribute(AccessLogFilter.BEST_MATCHING_PATTERN_ATTRIBUTE)).thenReturn("/api/user/{id}");
+            HttpServletResponse response = mock(HttpServletResponse.class);
+            when(response.getStatus()).thenReturn(200);
+            filter.doFilter(request, response, chain);
+        }
+        HttpServletResponse notFound = mock(HttpServletResponse.class);
+        when(notFound.getStatus()).thenReturn(404);
+        filter.doFilter(mockRequest("/api/missing"), notFound, chain);
+
+        Map<String, Long> counts = routeMetrics.all().stream().collect(Collectors.toMap(
+                stats -> stats.getMethod() + " " + stats.getUri() + " " + stats.getStatus(),
+                stats -> stats.getLatency().getCount()));
+        assertEquals(Map.of("GET /api/user/{id} 2xx", 2L, "GET NOT_FOUND 4xx", 1L), counts);
+        AccessRouteStats stats = routeMetrics.all().iterator().next();
+        assertTrue(stats.getLatency().getMaxNanos() >= stats.getLatency().valueAtPercentile(50));
+    }
+
+    /**
+     * 测试按路由设置慢接口阈值
+     */
+    @Test
+    void testRouteSlowThreshold() throws Exception {
+        filter = new AccessLogFilter(0);
+        filter.setRouteSlowThresholds(Map.of("/api/export", 60_000L, "POST /api/user/{id}", 60_000L));
+        FilterChain chain = (req, res) -> sleep(5);
+
+        HttpServletRequest export = mockRequest("/api/export");
+        when(export.getAttribute(AccessLogFilter.BEST_MATCHING_PATTERN_ATTRIBUTE)).thenReturn("/api/export");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getStatus()).thenReturn(200);
+        filter.doFilter(export, response, chain);
+
+        HttpServletRequest user = mockRequest("/api/user/1");
+        when(user.getAttribute(AccessLogFilter.BEST_MATCHING_PATTERN_ATTRIBUTE)).thenReturn("/api/user/{id}");
+        filter.doFilter(user, response, chain);
+
+        assertEquals(2, listAppender.list.size());
+        assertEquals(Level.INFO, listAppender.list.get(0).getLevel());
+        // 只为 POST 设置了阈值，GET 仍使用全局阈值
+        assertEquals(Level.WARN, listAppender.list.get(1).getLevel());
+        assertTrue(listAppender.list.get(1).getFormattedMessage().endsWith("[慢接口]"));
+    }
+
+    /**
+     * 测试采样：快速成功请求按采样率记录，慢请求、失败请求、调试请求始终记录
+     */
+    @Test
+    void testSamplingKeepsSlowFailedAndDebugRequests() throws Exception {
+        AtomicLong clock = new AtomicLong();
+        filter.setSampler(new AccessLogSampler(1, 100, clock::get));
+        filter.setRouteSlowThresholds(Map.of("/api/slow", 0L));
+        FilterChain chain = mock(FilterChain.class);
+
+        for (int i = 0; i < 1000; i++) {
+            filter.doFilter(routeRequest("/api/user/{id}"), statusResponse(200), chain);
+        }
+        assertEquals(1000, listAppender.list.size());
+        assertTrue(listAppender.list.get(0).getFormattedMessage().contains("SampleRate=[1/1]"));
+        listAppender.list.clear();
+
+        // 上一秒 1000 次，本秒按 1/1000 采样
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        for (int i = 0; i < 100; i++) {
+            filter.doFilter(routeRequest("/api/user/{id}"), statusResponse(200), chain);
+        }
+        assertTrue(listAppender.list.size() < 10);
+        assertTrue(listAppender.list.stream().allMatch(e -> e.getFormattedMessage().contains("SampleRate=[1/1000]")));
+        listAppender.list.clear();
+
+        filter.doFilter(routeRequest("/api/user/{id}"), statusResponse(500), chain);
+        filter.doFilter(routeRequest("/api/slow"), statusResponse(200), (req, res) -> sleep(5));
+        MDC.put(DebugTraceRegistry.DEBUG_MDC_KEY, "true");
+        try {
+            filter.doFilter(routeRequest("/api/user/{id}"), statusResponse(200), chain);
+        } finally {
+            MDC.remove(DebugTraceRegistry.DEBUG_MDC_KEY);
+        }
+
+        assertEquals(3, listAppender.list.size());
+        assertTrue(listAppender.list.stream().allMatch(e -> e.getFormattedMessage().contains("SampleRate=[1/1]")));
+    }
+
+    /**
+     * 测试汇总模式：快速成功请求只计入汇总，慢请求和失败请求仍逐条输出
+     */
+    @Test
+    void testRollupLogsOnlySlowAndFailedRequests() throws Exception {
+        AccessLogRollup rollup = new AccessLogRollup(1000, List.of("/internal/ping"), true, 100);
+        filter.setRollup(rollup);
+        FilterChain chain = mock(FilterChain.class);
+
+        for (int i = 0; i < 10; i++) {
+            filter.doFilter(routeRequest("/internal/ping"), statusResponse(200), chain);
+        }
+        filter.doFilter(routeRequest("/internal/ping"), statusResponse(500), chain);
+        filter.doFilter(routeRequest("/api/user/{id}"), statusResponse(200), chain);
+
+        assertEquals(2, listAppender.list.size());
+        assertTrue(listAppender.list.get(0).getFormattedMessage().contains("Status=[500]"));
+        assertTrue(listAppender.list.get(1).getFormattedMessage().contains("URI=[/api/user/{id}]"));
+
+        listAppender.list.clear();
+        rollup.flush();
+        assertEquals(1, listAppender.list.size());
+        assertTrue(listAppender.list.get(0).getFormattedMessage()
+                .contains("Route=[/internal/ping], Interval=[1000ms], Count=[11], 2xx=[10], 4xx=[0], 5xx=[1]"));
+    }
+
+    /**
+     * 测试记录 CPU 时间与分配字节数
+     */
+    @Test
+    void testResourceUsageRecorded() throws Exception {
+        assumeTrue(RequestResourceUsage.isSupported());
+        AccessRouteMetrics routeMetrics = AccessRouteMetrics.of(100);
+        filter.setRouteMetrics(routeMetrics);
+        filter.setResourceUsageEnabled(true);
+
+        filter.doFilter(routeRequest("/api/report"), statusResponse(200), (req, res) -> allocate(1 << 20));
+
+        String message = listAppender.list.get(0).getFormattedMessage();
+        assertTrue(message.matches(".*, CPU=\\[[0-9.]+ms], Alloc=\\[\\d+].*"), message);
+        assertTrue(allocated(message) >= 1 << 20, message);
+        AccessRouteStats stats = routeMetrics.all().iterator().next();
+        assertEquals(1, stats.getMeasuredCount());
+        assertTrue(stats.getAllocatedBytes() >= 1 << 20);
+        assertTrue(stats.getCpuNanos() >= 0);
+    }
+
+    /**
+     * 测试异步请求的资源消耗按线程分段累加
+     */
+    @Test
+    void testResourceUsageAcrossAsyncThreads() throws Exception {
+        assumeTrue(RequestResourceUsage.isSupported());
+        filter.setResourceUsageEnabled(true);
+        HttpServletRequest request = routeRequest("/api/deferred");
+        HttpServletResponse response = statusResponse(200);
+        AsyncContext asyncContext = mock(AsyncContext.class);
+        when(request.isAsyncStarted()).thenReturn(true);
+        when(request.getAsyncContext()).thenReturn(asyncContext);
+
+        filter.doFilter(request, response, (req, res) -> allocate(1 << 20));
+        ArgumentCaptor<Object> usage = ArgumentCaptor.forClass(Object.class);
+        verify(request).setAttribute(eq(RequestResourceUsage.ATTRIBUTE), usage.capture());
+        ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+        verify(asyncContext).addListener(listener.capture());
+
+        // ASYNC 分派在另一个容器线程上执行
+        HttpServletRequest dispatch = mockRequest("/api/deferred");
+        when(dispatch.getDispatcherType()).thenReturn(DispatcherType.ASYNC);
+        when(dispatch.getAttribute(RequestResourceUsage.ATTRIBUTE)).thenReturn(usage.getValue());
+        Thread thread = new Thread(() -> {
+            try {
+                filter.doFilter(dispatch, response, (req, res) -> allocate(2 << 20));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        thread.start();
+        thread.join();
+        assertTrue(listAppender.list.isEmpty());
+
+        listener.getValue().onComplete(new AsyncEvent(asyncContext));
+
+        String message = listAppender.list.get(0).getFormattedMessage();
+        assertTrue(allocated(message) >= 3 << 20, message);
+    }
+
+    /**
+     * 测试记录请求执行的 SQL
+     */
+    @Test
+    void testSqlStatsRecorded() throws Exception {
+        AccessRouteMetrics routeMetrics = AccessRouteMetrics.of(100);
+        filter.setRouteMetrics(routeMetrics);
+        filter.setSqlStatsEnabled(true);
+
+        filter.doFilter(routeRequest("/api/orders"), statusResponse(200), (req, res) -> {
+            RequestSqlStats.record(1_500_000, 20);
+            RequestSqlStats.record(500_000, 0);
+        });
+
+        assertNull(RequestSqlStats.current(), "请求结束后解除绑定");
+        String message = listAppender.list.get(0).getFormattedMessage();
+        assertTrue(message.contains(", SQL=[2], SqlTime=[2.0ms], Rows=[20]"), message);
+        AccessRouteStats stats = routeMetrics.all().iterator().next();
+        assertEquals(1, stats.getSqlMeasuredCount());
+        assertEquals(2, stats.getSqlStatements());
+        assertEquals(2_000_000, stats.getSqlNanos());
+        assertEquals(20, stats.getSqlRows());
+    }
+
+    /**
+     * 测试未开启 SQL 统计时不绑定计数器、不输出
+     */
+    @Test
+    void testSqlStatsDisabledByDefault() throws Exception {
+        filter.doFilter(routeRequest("/api/orders"), statusResponse(200),
+                (req, res) -> assertNull(RequestSqlStats.current()));
+
+        assertFalse(listAppender.list.get(0).getFormattedMessage().contains("SQL="));
+    }
+
+    /**
+     * 测试异步请求在 ASYNC 分派线程上执行的 SQL 计入同一请求
+     */
+    @Test
+    void testSqlStatsAcrossAsyncDispatch() throws Exception {
+        filter.setSqlStatsEnabled(true);
+        HttpServletRequest request = routeRequest("/api/deferred");
+        HttpServletResponse response = statusResponse(200);
+        AsyncContext asyncContext = mock(AsyncContext.class);
+        when(request.isAsyncStarted()).thenReturn(true);
+        when(request.getAsyncContext()).thenReturn(asyncContext);
+
+        filter.doFilter(request, response, (req, res) -> RequestSqlStats.record(1_000_000, 1));
+        ArgumentCaptor<Object> sqlStats = ArgumentCaptor.forClass(Object.class);
+        verify(request).setAttribute(eq(AccessLogFilter.SQL_STATS_ATTRIBUTE), sqlStats.capture());
+        ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+        verify(asyncContext).addListener(listener.capture());
+        assertNull(RequestSqlStats.current());
+
+        HttpServletRequest dispatch = mockRequest("/api/deferred");
+        when(dispatch.getDispatcherType()).thenReturn(DispatcherType.ASYNC);
+        when(dispatch.getAttribute(AccessLogFilter.SQL_STATS_ATTRIBUTE)).thenReturn(sqlStats.getValue());
+        filter.doFilter(dispatch, response, (req, res) -> RequestSqlStats.record(2_000_000, 4));
+        assertNull(RequestSqlStats.current());
+
+        listener.getValue().onComplete(new AsyncEvent(asyncContext));
+
+        String message = listAppender.list.get(0).getFormattedMessage();
+        assertTrue(message.contains(", SQL=[2], SqlTime=[3.0ms], Rows=[5]"), message);
+    }
+
+    /**
+     * 测试慢请求附线程栈采样
+     */
+    @Test
+    void testSlowRequestStacksAttached() throws Exception {
+        filter = new AccessLogFilter(50);
+        SlowRequestStackSampler stackSampler = new SlowRequestStackSampler(0, 10, 4, 64, 32);
+        filter.setStackSampler(stackSampler);
+
+        filter.doFilter(routeRequest("/api/export"), statusResponse(200), (req, res) -> {
+            // 在请求线程上直接巡检，栈中包含过滤器与业务调用
+            stackSampler.sample();
+            sleep(80);
+        });
+
+        ILoggingEvent event = listAppender.list.get(0);
+        assertEquals(Level.WARN, event.getLevel());
+        String[] lines = event.getFormattedMessage().split("\n");
+        assertEquals(2, lines.length, event.getFormattedMessage());
+        assertTrue(lines[0].endsWith("[慢接口]"), lines[0]);
+        assertTrue(lines[1].matches(".*AccessLogFilter\\.doFilter;.*AccessLogFilterTest\\.lambda\\$.* 1"), lines[1]);
+        assertEquals(0, stackSampler.inFlightCount());
+    }
+
+    /**
+     * 测试快速请求不输出线程栈
+     */
+    @Test
+    void testFastRequestStacksDiscarded() throws Exception {
+        SlowRequestStackSampler stackSampler = new SlowRequestStackSampler(0, 10, 4, 64, 32);
+        filter.setStackSampler(stackSampler);
+
+        filter.doFilter(routeRequest("/api/ping"), statusResponse(200), (req, res) -> stackSampler.sample());
+
+        assertFalse(listAppender.list.get(0).getFormattedMessage().contains("\n"));
+        assertEquals(0, stackSampler.inFlightCount());
+    }
+
+    private static byte[] sink;
+
+    private static void allocate(int bytes) {
+        sink = new byte[bytes];
+    }
+
+    private static long allocated(String message) {
+        return Long.parseLong(message.replaceAll(".*Alloc=\\[(\\d+)].*", "$1"));
+    }
+
+    private HttpServletRequest routeRequest(String route) {
+        HttpServletRequest request = mockRequest(route);
+        when(request.getAttribute(AccessLogFilter.BEST_MATCHING_PATTERN_ATTRIBUTE)).thenReturn(route);
+        return request;
+    }
+
+    private static HttpServletResponse statusResponse(int status) {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getStatus()).thenReturn(status);
+        return response;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpServletRequest mockRequest(String uri) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getRequestURI()).thenReturn(uri);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getRemoteAddr()).thenReturn("192.168.1.100");
+        return request;
+    }
+
+    /**
+     * 写入内存的 ServletOutputStream
+     */
+    private static final class SinkOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream sink;
+
+        private SinkOutputStream(ByteArrayOutputStream sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void write(int b) {
+            sink.write(b);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+    }
+}
@@ -18,6 +18,22 @@ class AccessLogPropertiesTest {
 
         assertTrue(properties.isEnabled(), "默认应启用访问日志");
         assertEquals(1000, properties.getSlowThresholdMs(), "默认慢接口阈值应为 1000ms");
+        assertEquals(0, properties.getBodyCaptureLimit().toBytes(), "默认不输出响应体");
+        assertTrue(properties.getRouteSlowThresholdMs().isEmpty(), "默认没有按路由阈值");
+        assertTrue(properties.getRouteMetrics().isEnabled(), "默认按路由聚合耗时");
+        assertEquals(500, properties.getRouteMetrics().getMaxRoutes());
+        assertFalse(properties.getSampling().isEnabled(), "默认不采样");
+        assertEquals(100, properties.getSampling().getRatePerSecond());
+        assertFalse(properties.getRollup().isEnabled(), "默认逐条记录");
+        assertEquals(1000, properties.getRollup().getIntervalMillis());
+        assertTrue(properties.getRollup().getRoutes().isEmpty());
+        assertTrue(properties.getRollup().isLogSlowAndFailed());
+        assertFalse(properties.isResourceUsageEnabled(), "默认不记录 CPU 时间与分配字节数");
+        assertFalse(properties.isSqlStatsEnabled(), "默认不记录 SQL 统计");
+        assertFalse(properties.getStackSampling().isEnabled(), "默认不采样线程栈");
+        assertEquals(0.5, properties.getStackSampling().getStartFraction());
+        assertEquals(20, properties.getStackSampling().getIntervalMillis());
+        assertEquals(4, properties.getStackSampling().getMaxConcurrent());
     }
 
     @Test
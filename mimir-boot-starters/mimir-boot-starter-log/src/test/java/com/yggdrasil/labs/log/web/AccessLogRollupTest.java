@@ -0,0 +1,142 @@
+package com.yggdrasil.labs.log.web;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 访问日志按路由汇总测试
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+class AccessLogRollupTest {
+
+    private static final Pattern COUNT = Pattern.compile("Count=\\[(\\d+)]");
+
+    private ListAppender<ILoggingEvent> listAppender;
+    private Logger accessLogger;
+
+    @BeforeEach
+    void setUp() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        accessLogger = context.getLogger("access.log");
+        listAppender = new ListAppender<>();
+        listAppender.setContext(context);
+        listAppender.start();
+        accessLogger.addAppender(listAppender);
+        accessLogger.setLevel(Level.ALL);
+        accessLogger.setAdditive(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        accessLogger.detachAppender(listAppender);
+        listAppender.stop();
+    }
+
+    @Test
+    void testFlushWritesOneLinePerRoute() {
+        AccessLogRollup rollup = new AccessLogRollup(1000, List.of(), true, 100);
+        for (int i = 1; i <= 100; i++) {
+            rollup.record("GET", "/api/user/{id}", i % 10 == 0 ? 404 : 200, TimeUnit.MILLISECONDS.toNanos(i), 10);
+        }
+        rollup.record("GET", "/api/user/{id}", 503, TimeUnit.MILLISECONDS.toNanos(200), 0);
+        rollup.record("POST", "/api/order", 201, TimeUnit.MILLISECONDS.toNanos(5), 2);
+
+        rollup.flush();
+
+        assertEquals(2, listAppender.list.size());
+        String user = message("GET");
+        assertTrue(user.startsWith("Rollup Method=[GET], Route=[/api/user/{id}], Interval=[1000ms], Count=[101], "
+                + "2xx=[90], 4xx=[10], 5xx=[1], "), user);
+        assertTrue(user.contains("Max=[200.0ms]"), user);
+        assertTrue(user.endsWith("Bytes=[1000]"), user);
+        assertTrue(message("POST").contains("Count=[1], 2xx=[1], 4xx=[0], 5xx=[0], P50=[5.0ms]"));
+
+        // 没有新请求的区间不输出
+        listAppender.list.clear();
+        rollup.flush();
+        assertTrue(listAppender.list.isEmpty());
+    }
+
+    @Test
+    void testRouteFilterAndLimit() {
+        AccessLogRollup selected = new AccessLogRollup(1000, List.of("/internal/ping"), true, 100);
+        assertTrue(selected.accepts("/internal/ping"));
+        assertFalse(selected.accepts("/api/user/{id}"));
+
+        AccessLogRollup limited = new AccessLogRollup(1000, null, false, 1);
+        assertTrue(limited.accepts("/anything"));
+        assertFalse(limited.isLogSlowAndFailed());
+        limited.record("GET", "/a", 200, 1_000, 0);
+        limited.record("GET", "/b", 200, 1_000, 0);
+        limited.record("GET", "/c", 200, 1_000, 0);
+        limited.flush();
+
+        assertEquals(2, listAppender.list.size());
+        assertTrue(message("OTHER").contains("Route=[OTHER], Interval=[1000ms], Count=[2]"));
+    }
+
+    @Test
+    void testConcurrentRecordsAreNotLost() throws Exception {
+        AccessLogRollup rollup = new AccessLogRollup(1000, List.of(), true, 100);
+        int threads = 4;
+        int perThread = 20_000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    rollup.record("GET", "/api/hot", 200, 1_000 + i, 1);
+                }
+                done.countDown();
+            }).start();
+        }
+        while (done.getCount() > 0) {
+            rollup.flush();
+        }
+        rollup.flush();
+
+        long total = 0;
+        for (ILoggingEvent event : listAppender.list) {
+            Matcher matcher = COUNT.matcher(event.getFormattedMessage());
+            assertTrue(matcher.find());
+            total += Long.parseLong(matcher.group(1));
+        }
+        assertEquals((long) threads * perThread, total);
+    }
+
+    @Test
+    void testStopFlushesLastInterval() {
+        AccessLogRollup rollup = new AccessLogRollup(60_000, List.of(), true, 100);
+        rollup.start();
+        rollup.record("GET", "/api/user/{id}", 200, 1_000, 0);
+
+        rollup.stop();
+
+        assertEquals(1, listAppender.list.size());
+        assertEquals(Level.INFO, listAppender.list.get(0).getLevel());
+    }
+
+    private String message(String method) {
+        return listAppender.list.stream()
+                .map(ILoggingEvent::getFormattedMessage)
+                .filter(message -> message.startsWith("Rollup Method=[" + method + "]"))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,88 @@
+package com.yggdrasil.labs.log.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 访问日志采样测试
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+class AccessLogSamplerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void testFirstWindowLogsEverything() {
+        AccessLogSampler sampler = new AccessLogSampler(10, 100, clock::get);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(1, sampler.sample("GET", "/api/user/{id}"));
+        }
+    }
+
+    @Test
+    void testIntervalFollowsPreviousWindowRate() {
+        AccessLogSampler sampler = new AccessLogSampler(10, 100, clock::get);
+        for (int i = 0; i < 1000; i++) {
+            sampler.sample("GET", "/api/user/{id}");
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        int logged = 0;
+        for (int i = 0; i < 10_000; i++) {
+            int interval = sampler.sample("GET", "/api/user/{id}");
+            if (interval != 0) {
+                assertEquals(100, interval);
+                logged++;
+            }
+        }
+        // 期望 100 条，按 N 放大后约等于请求数
+        assertTrue(logged > 50 && logged < 200, "logged=" + logged);
+
+        // 其他路由互不影响
+        assertEquals(1, sampler.sample("POST", "/api/user/{id}"));
+    }
+
+    @Test
+    void testIntervalDropsWhenTrafficDrops() {
+        AccessLogSampler sampler = new AccessLogSampler(10, 100, clock::get);
+        for (int i = 0; i < 1000; i++) {
+            sampler.sample("GET", "/api/order");
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        sampler.sample("GET", "/api/order");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(1, sampler.sample("GET", "/api/order"));
+    }
+
+    @Test
+    void testRoutesBeyondLimitShareWindow() {
+        AccessLogSampler sampler = new AccessLogSampler(1, 1, clock::get);
+        sampler.sample("GET", "/a");
+        for (int i = 0; i < 100; i++) {
+            sampler.sample("GET", "/b" + i);
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        int logged = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (sampler.sample("GET", "/c" + i) != 0) {
+                logged++;
+            }
+        }
+        assertTrue(logged < 100, "logged=" + logged);
+        assertEquals(1, sampler.sample("GET", "/a"));
+    }
+
+    @Test
+    void testRejectsNonPositiveRate() {
+        assertThrows(IllegalArgumentException.class, () -> new AccessLogSampler(0, 100));
+    }
+}
@@ -0,0 +1,143 @@
+package com.yggdrasil.labs.log.web;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 慢请求线程栈采样测试
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+class SlowRequestStackSamplerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final List<Thread> threads = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    @Test
+    void testSamplesAfterStartFraction() throws InterruptedException {
+        SlowRequestStackSampler sampler = new SlowRequestStackSampler(0.5, 10, 4, 64, 32, clock::get);
+        SlowRequestStackSampler.InFlight request = sampler.watch(blockedThread(), 0, 1000);
+
+        // 未到阈值的 50% 不采样
+        clock.set(TimeUnit.MILLISECONDS.toNanos(499));
+        sampler.sample();
+        assertNull(request.collapsedStacks());
+
+        clock.set(TimeUnit.MILLISECONDS.toNanos(500));
+        sampler.sample();
+        sampler.sample();
+        sampler.sample();
+
+        String stacks = request.collapsedStacks();
+        assertNotNull(stacks);
+        assertEquals(1, stacks.lines().count(), stacks);
+        // 栈底在前、栈顶在后，末尾为样本数
+        assertTrue(stacks.startsWith("java.lang.Thread.run"), stacks);
+        assertTrue(stacks.matches("(?s).*SlowRequestStackSamplerTest\\.awaitRelease;.* 3"), stacks);
+    }
+
+    @Test
+    void testGlobalConcurrencyCap() throws InterruptedException {
+        SlowRequestStackSampler sampler = new SlowRequestStackSampler(0, 10, 1, 64, 32, clock::get);
+        SlowRequestStackSampler.InFlight first = sampler.watch(blockedThread(), 0, 1000);
+        SlowRequestStackSampler.InFlight second = sampler.watch(blockedThread(), 0, 1000);
+
+        sampler.sample();
+        assertTrue(first.collapsedStacks() != null ^ second.collapsedStacks() != null,
+                "同时只采样一个请求");
+
+        // 正在采样的请求结束后，释放的名额给下一个请求
+        SlowRequestStackSampler.InFlight sampled = first.collapsedStacks() != null ? first : second;
+        SlowRequestStackSampler.InFlight waiting = sampled == first ? second : first;
+        sampled.detach();
+        sampler.sample();
+        assertNotNull(waiting.collapsedStacks());
+    }
+
+    @Test
+    void testDetachStopsSampling() throws InterruptedException {
+        SlowRequestStackSampler sampler = new SlowRequestStackSampler(0, 10, 4, 64, 32, clock::get);
+        SlowRequestStackSampler.InFlight request = sampler.watch(blockedThread(), 0, 1000);
+        sampler.sample();
+        request.detach();
+        sampler.sample();
+
+        assertEquals(0, sampler.inFlightCount());
+        assertTrue(request.collapsedStacks().endsWith(" 1"), request.collapsedStacks());
+    }
+
+    @Test
+    void testStackDepthLimit() throws InterruptedException {
+        SlowRequestStackSampler sampler = new SlowRequestStackSampler(0, 10, 4, 2, 32, clock::get);
+        SlowRequestStackSampler.InFlight request = sampler.watch(blockedThread(), 0, 1000);
+        sampler.sample();
+
+        // 只保留靠近栈顶的 2 个栈帧
+        String stacks = request.collapsedStacks();
+        assertEquals(2, stacks.substring(0, stacks.lastIndexOf(' ')).split(";").length, stacks);
+        assertFalse(stacks.contains("awaitRelease"), stacks);
+    }
+
+    @Test
+    void testDistinctStackLimit() {
+        SlowRequestStackSampler sampler = new SlowRequestStackSampler(0, 10, 4, 64, 1, clock::get);
+        // 采样当前线程：两处调用的栈不同，超出种类上限的样本计入 [other]
+        SlowRequestStackSampler.InFlight request = sampler.watch(Thread.currentThread(), 0, 1000);
+        sampler.sample();
+        sampleFromNested(sampler);
+        request.detach();
+
+        String stacks = request.collapsedStacks();
+        assertEquals(2, stacks.lines().count(), stacks);
+        assertTrue(stacks.endsWith(SlowRequestStackSampler.OTHER_STACK + " 1"), stacks);
+    }
+
+    private static void sampleFromNested(SlowRequestStackSampler sampler) {
+        sampler.sample();
+    }
+
+    private Thread blockedThread() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        thread.setDaemon(true);
+        thread.start();
+        threads.add(thread);
+        started.await();
+        // 等待线程进入阻塞状态，确保栈稳定
+        while (thread.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        return thread;
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
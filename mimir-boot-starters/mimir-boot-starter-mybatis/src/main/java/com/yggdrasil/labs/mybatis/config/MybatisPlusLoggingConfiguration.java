@@ -2,6 +2,7 @@ package com.yggdrasil.labs.mybatis.config;
 
 import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
 import com.yggdrasil.labs.mybatis.log.JsonSqlLogInnerInterceptor;
+import com.yggdrasil.labs.mybatis.log.RequestSqlStatsInterceptor;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
@@ -9,7 +10,8 @@ import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
 
 /**
- * SQL 日志拦截器装配：开发、测试环境默认开启 JSON SQL 日志。
+ * SQL 日志拦截器装配：开发、测试环境默认开启 JSON SQL 日志；
+ * 注册请求级 SQL 统计拦截器，供访问日志输出每个请求的 SQL 语句数、耗时与行数。
  */
 @AutoConfiguration
 public class MybatisPlusLoggingConfiguration {
@@ -31,6 +33,16 @@ public class MybatisPlusLoggingConfiguration {
         }
         return null;
     }
+
+    @Bean
+    @ConditionalOnProperty(
+            name = "mimir.mybatis.enable-request-sql-stats",
+            havingValue = "true",
+            matchIfMissing = true
+    )
+    public RequestSqlStatsInterceptor requestSqlStatsInterceptor() {
+        return new RequestSqlStatsInterceptor();
+    }
 }
 
 
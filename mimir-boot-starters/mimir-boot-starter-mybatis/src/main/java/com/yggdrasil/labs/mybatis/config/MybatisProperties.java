@@ -20,6 +20,9 @@ public class MybatisProperties {
     /** 是否启用 JSON 结构化 SQL 日志拦截器 */
     private Boolean enableJsonSqlLog;
 
+    /** 是否启用请求级 SQL 统计拦截器（访问日志中的 SQL 语句数、耗时、行数），默认开启 */
+    private boolean enableRequestSqlStats = true;
+
     /** 加解密密钥（Base64编码），未配置时自动生成（仅用于开发测试） */
     private String cryptoKey;
 
@@ -47,6 +50,14 @@ public class MybatisProperties {
         this.enableJsonSqlLog = enableJsonSqlLog;
     }
 
+    public boolean isEnableRequestSqlStats() {
+        return enableRequestSqlStats;
+    }
+
+    public void setEnableRequestSqlStats(boolean enableRequestSqlStats) {
+        this.enableRequestSqlStats = enableRequestSqlStats;
+    }
+
     public String getCryptoKey() {
         return cryptoKey;
     }
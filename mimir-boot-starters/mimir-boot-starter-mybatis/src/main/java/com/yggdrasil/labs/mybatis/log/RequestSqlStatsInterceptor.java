@@ -0,0 +1,51 @@
+package com.yggdrasil.labs.mybatis.log;
+
+import com.yggdrasil.labs.common.context.RequestSqlStats;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.sql.Statement;
+import java.util.Collection;
+
+/**
+ * 请求级 SQL 统计拦截器，将每条语句的执行耗时与查询返回行数累加到当前请求的 {@link RequestSqlStats}。
+ *
+ * <p>拦截 {@link StatementHandler} 的执行方法，耗时只包含语句在数据库执行与结果映射的时间，不含获取连接。
+ * 当前线程没有绑定统计（非 Web 请求或访问日志未开启 SQL 统计）时直接放行，不计时。
+ * 游标查询的行数在遍历时才确定，不计入行数。</p>
+ */
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}),
+        @Signature(type = StatementHandler.class, method = "queryCursor", args = {Statement.class}),
+        @Signature(type = StatementHandler.class, method = "update", args = {Statement.class}),
+        @Signature(type = StatementHandler.class, method = "batch", args = {Statement.class})
+})
+public class RequestSqlStatsInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats == null) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } finally {
+            stats.add(System.nanoTime() - start, rowsOf(result));
+        }
+    }
+
+    private static long rowsOf(Object result) {
+        if (result instanceof Collection<?> rows) {
+            return rows.size();
+        }
+        return 0;
+    }
+}
@@ -1,5 +1,6 @@
 package com.yggdrasil.labs.mybatis.util;
 
+import com.yggdrasil.labs.common.util.MaskUtils;
 import com.yggdrasil.labs.mybatis.annotation.SensitiveField;
 
 import java.lang.reflect.Field;
@@ -81,37 +82,14 @@ public class SqlLogMaskUtils {
         String replacement = anno.replacement();
         return switch (strategy) {
             case ALL -> "******";
-            case PHONE -> maskPhone(value);
-            case ID_CARD -> maskIdCard(value);
-            case BANK_CARD -> maskBankCard(value);
-            case EMAIL -> maskEmail(value);
+            case PHONE -> MaskUtils.maskPhone(value);
+            case ID_CARD -> MaskUtils.maskIdCard(value);
+            case BANK_CARD -> MaskUtils.maskBankCard(value);
+            case EMAIL -> MaskUtils.maskEmail(value);
             case CUSTOM -> replacement;
         };
     }
 
-    private static String maskPhone(String phone) {
-        if (phone == null || phone.length() < 7) return "******";
-        return phone.substring(0, 3) + "****" + phone.substring(phone.length() - 4);
-    }
-
-    private static String maskIdCard(String idCard) {
-        if (idCard == null || idCard.length() < 10) return "******";
-        int len = idCard.length();
-        return idCard.substring(0, 6) + "********" + idCard.substring(len - 4);
-    }
-
-    private static String maskBankCard(String card) {
-        if (card == null || card.length() < 8) return "******";
-        return card.substring(0, 4) + "****" + card.substring(card.length() - 4);
-    }
-
-    private static String maskEmail(String email) {
-        if (email == null || !email.contains("@")) return "******";
-        int atIndex = email.indexOf("@");
-        if (atIndex <= 1) return "******";
-        return email.charAt(0) + "****" + email.substring(atIndex);
-    }
-
     private static Field findField(Object obj, String fieldName) {
         if (obj == null) return null;
         Class<?> clazz = obj.getClass();
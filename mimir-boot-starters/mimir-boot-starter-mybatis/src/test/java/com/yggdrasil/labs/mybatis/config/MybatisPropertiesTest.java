@@ -30,6 +30,7 @@ class MybatisPropertiesTest {
         assertTrue(properties.getMapperPackages().isEmpty());
         assertNull(properties.getEnableSqlStdout());
         assertNull(properties.getEnableJsonSqlLog());
+        assertTrue(properties.isEnableRequestSqlStats());
         assertNull(properties.getCryptoKey());
     }
 
@@ -0,0 +1,83 @@
+package com.yggdrasil.labs.mybatis.log;
+
+import com.yggdrasil.labs.common.context.RequestSqlStats;
+import org.apache.ibatis.plugin.Invocation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 请求级 SQL 统计拦截器测试
+ *
+ * @author Yggdrasil Labs
+ * @since 1.0.0
+ */
+class RequestSqlStatsInterceptorTest {
+
+    private final RequestSqlStatsInterceptor interceptor = new RequestSqlStatsInterceptor();
+
+    @AfterEach
+    void tearDown() {
+        RequestSqlStats.bind(null);
+    }
+
+    @Test
+    void testAccumulatesQueryAndUpdate() throws Throwable {
+        RequestSqlStats stats = new RequestSqlStats();
+        RequestSqlStats.bind(stats);
+
+        Invocation query = mock(Invocation.class);
+        when(query.proceed()).thenReturn(List.of("a", "b", "c"));
+        Invocation update = mock(Invocation.class);
+        when(update.proceed()).thenReturn(1);
+
+        assertEquals(List.of("a", "b", "c"), interceptor.intercept(query));
+        assertEquals(1, interceptor.intercept(update));
+
+        assertEquals(2, stats.getStatementCount());
+        assertEquals(3, stats.getRows(), "更新语句不计入返回行数");
+        assertTrue(stats.getSqlNanos() >= 0);
+    }
+
+    @Test
+    void testCountsFailedStatement() throws Throwable {
+        RequestSqlStats stats = new RequestSqlStats();
+        RequestSqlStats.bind(stats);
+        Invocation invocation = mock(Invocation.class);
+        when(invocation.proceed()).thenThrow(new InvocationTargetException(new SQLException("boom")));
+
+        assertThrows(InvocationTargetException.class, () -> interceptor.intercept(invocation));
+
+        assertEquals(1, stats.getStatementCount());
+        assertEquals(0, stats.getRows());
+    }
+
+    @Test
+    void testPassThroughWhenNotBound() throws Throwable {
+        Invocation invocation = mock(Invocation.class);
+        when(invocation.proceed()).thenReturn(List.of("a"));
+
+        assertEquals(List.of("a"), interceptor.intercept(invocation));
+        assertNull(RequestSqlStats.current());
+    }
+
+    @Test
+    void testBindRestoresPrevious() {
+        RequestSqlStats outer = new RequestSqlStats();
+        RequestSqlStats inner = new RequestSqlStats();
+
+        assertNull(RequestSqlStats.bind(outer));
+        assertSame(outer, RequestSqlStats.bind(inner));
+        RequestSqlStats.record(10, 2);
+        assertSame(inner, RequestSqlStats.bind(outer));
+
+        assertEquals(1, inner.getStatementCount());
+        assertEquals(0, outer.getStatementCount());
+    }
+}